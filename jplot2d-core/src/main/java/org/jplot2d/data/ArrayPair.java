@@ -19,9 +19,17 @@
 package org.jplot2d.data;
 
 import java.lang.reflect.Array;
+import java.nio.Buffer;
 
 /**
  * A pair of array (P/Q), which have the same length. Immutable.
+ * <p>
+ * The P/Q arrays can be byte[], short[], int[], long[], float[] or double[]. Pairs of double[], float[], long[] or
+ * int[] should be created by {@link #valueOf(Object, Object)}, which returns a typed subclass that accesses the
+ * elements directly. Other combinations, including mixed pairs such as long[] time stamps with double[] values,
+ * are handled by this class, which dispatches on the component type once per bulk access.
+ * <p>
+ * Values which are not in the heap, such as a memory-mapped file, can be accessed by {@link NioBufferPair}.
  *
  * @author Jingjing Li
  */
@@ -31,6 +39,8 @@ public class ArrayPair implements Cloneable {
 
     private final Class<?> pctype, qctype;
 
+    private final int offset;
+
     private final int size;
 
     /**
@@ -51,6 +61,7 @@ public class ArrayPair implements Cloneable {
         qctype = q.getClass().getComponentType();
         this.p = p;
         this.q = q;
+        offset = 0;
         size = plen;
     }
 
@@ -63,73 +74,274 @@ public class ArrayPair implements Cloneable {
      * @param length the length to be used in this ArrayPair
      */
     public ArrayPair(Object p, Object q, int length) {
+        this(p, q, 0, length);
+    }
+
+    /**
+     * Create a ArrayPair instance with the given p/q array, offset and length. The data in this ArrayPair starts at
+     * the given offset of the p/q array, so that data in an existing array can be used even if the interesting data
+     * doesn't start at array location zero.
+     *
+     * @param p      the 1st array
+     * @param q      the 2nd array
+     * @param offset the array index of the 1st element in this ArrayPair
+     * @param length the length to be used in this ArrayPair
+     */
+    public ArrayPair(Object p, Object q, int offset, int length) {
         int plen = Array.getLength(p);
         int qlen = Array.getLength(q);
-        if (plen < length) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("The offset must not be negative.");
+        }
+        if (plen < offset + length) {
             throw new IllegalArgumentException(
-                    "The length of the p arrays must be equal or longer than the given length.");
+                    "The length of the p arrays must be equal or longer than the given offset + length.");
         }
-        if (qlen < length) {
+        if (qlen < offset + length) {
             throw new IllegalArgumentException(
-                    "The length of the q arrays must be equal or longer than the given length.");
+                    "The length of the q arrays must be equal or longer than the given offset + length.");
         }
         pctype = p.getClass().getComponentType();
         qctype = q.getClass().getComponentType();
         this.p = p;
         this.q = q;
+        this.offset = offset;
         size = length;
     }
 
+    /**
+     * Create a ArrayPair instance which is not backed by arrays, such as {@link NioBufferPair}. The subclass must
+     * override the accessors of values and arrays.
+     *
+     * @param pctype the component type of the 1st values
+     * @param qctype the component type of the 2nd values
+     * @param size   the number of values
+     */
+    protected ArrayPair(Class<?> pctype, Class<?> qctype, int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("The size must not be negative.");
+        }
+        this.pctype = pctype;
+        this.qctype = qctype;
+        this.p = null;
+        this.q = null;
+        this.offset = 0;
+        this.size = size;
+    }
+
+    /**
+     * Returns a ArrayPair for the given p/q array. The length of the p/q array must be same.
+     * If both arrays are double[], float[], long[] or int[], a typed subclass is returned.
+     * If both are NIO buffers, a {@link NioBufferPair} is returned.
+     *
+     * @param p the 1st array
+     * @param q the 2nd array
+     * @return a ArrayPair
+     */
+    public static ArrayPair valueOf(Object p, Object q) {
+        if (p instanceof double[] && q instanceof double[]) {
+            return new DoubleArrayPair((double[]) p, (double[]) q);
+        } else if (p instanceof float[] && q instanceof float[]) {
+            return new FloatArrayPair((float[]) p, (float[]) q);
+        } else if (p instanceof long[] && q instanceof long[]) {
+            return new LongArrayPair((long[]) p, (long[]) q);
+        } else if (p instanceof int[] && q instanceof int[]) {
+            return new IntArrayPair((int[]) p, (int[]) q);
+        } else if (p instanceof Buffer && q instanceof Buffer) {
+            return new NioBufferPair((Buffer) p, (Buffer) q);
+        } else {
+            return new ArrayPair(p, q);
+        }
+    }
+
+    /**
+     * Returns a ArrayPair for the given p/q array and length. The length of the p/q array must be same or longer than
+     * the given length. If both arrays are double[], float[], long[] or int[], a typed subclass is returned.
+     * If both are NIO buffers, a {@link NioBufferPair} is returned.
+     *
+     * @param p      the 1st array
+     * @param q      the 2nd array
+     * @param length the length to be used in this ArrayPair
+     * @return a ArrayPair
+     */
+    public static ArrayPair valueOf(Object p, Object q, int length) {
+        if (p instanceof double[] && q instanceof double[]) {
+            return new DoubleArrayPair((double[]) p, (double[]) q, length);
+        } else if (p instanceof float[] && q instanceof float[]) {
+            return new FloatArrayPair((float[]) p, (float[]) q, length);
+        } else if (p instanceof long[] && q instanceof long[]) {
+            return new LongArrayPair((long[]) p, (long[]) q, length);
+        } else if (p instanceof int[] && q instanceof int[]) {
+            return new IntArrayPair((int[]) p, (int[]) q, length);
+        } else if (p instanceof Buffer && q instanceof Buffer) {
+            return new NioBufferPair((Buffer) p, (Buffer) q, length);
+        } else {
+            return new ArrayPair(p, q, length);
+        }
+    }
+
+    /**
+     * Returns a ArrayPair for the given p/q array, offset and length. The length of the p/q array must be same or
+     * longer than the given offset + length. If both arrays are double[], float[], long[] or int[], a typed subclass is
+     * returned. If both are NIO buffers, a {@link NioBufferPair} is returned.
+     *
+     * @param p      the 1st array
+     * @param q      the 2nd array
+     * @param offset the array index of the 1st element in this ArrayPair
+     * @param length the length to be used in this ArrayPair
+     * @return a ArrayPair
+     */
+    public static ArrayPair valueOf(Object p, Object q, int offset, int length) {
+        if (p instanceof double[] && q instanceof double[]) {
+            return new DoubleArrayPair((double[]) p, (double[]) q, offset, length);
+        } else if (p instanceof float[] && q instanceof float[]) {
+            return new FloatArrayPair((float[]) p, (float[]) q, offset, length);
+        } else if (p instanceof long[] && q instanceof long[]) {
+            return new LongArrayPair((long[]) p, (long[]) q, offset, length);
+        } else if (p instanceof int[] && q instanceof int[]) {
+            return new IntArrayPair((int[]) p, (int[]) q, offset, length);
+        } else if (p instanceof Buffer && q instanceof Buffer) {
+            return new NioBufferPair((Buffer) p, (Buffer) q, offset, length);
+        } else {
+            return new ArrayPair(p, q, offset, length);
+        }
+    }
+
     public int size() {
         return size;
     }
 
+    /**
+     * Returns the type of the values in the p array, which is the component type of the p array, such as
+     * <code>double.class</code> for a double[] array. A {@link NioBufferPair} returns the primitive type of its buffer,
+     * such as <code>double.class</code> for a DoubleBuffer.
+     *
+     * @return the primitive type of the p values
+     */
     public Class<?> getPComponentType() {
-        return pctype.getComponentType();
+        return pctype;
     }
 
+    /**
+     * Returns the type of the values in the q array, which is the component type of the q array, such as
+     * <code>double.class</code> for a double[] array. A {@link NioBufferPair} returns the primitive type of its buffer,
+     * such as <code>double.class</code> for a DoubleBuffer.
+     *
+     * @return the primitive type of the q values
+     */
     public Class<?> getQComponentType() {
-        return qctype.getComponentType();
+        return qctype;
+    }
+
+    /**
+     * Returns the array index of the 1st element in this ArrayPair.
+     *
+     * @return the offset of the p/q array
+     */
+    public int getOffset() {
+        return offset;
     }
 
+    /**
+     * Returns the p array. The 1st element is located at {@link #getOffset()}.
+     *
+     * @return the p array
+     */
     public Object getPArray() {
         return p;
     }
 
+    /**
+     * Returns the q array. The 1st element is located at {@link #getOffset()}.
+     *
+     * @return the q array
+     */
     public Object getQArray() {
         return q;
     }
 
     public double getPDouble(int idx) {
-        return Array.getDouble(p, idx);
+        return getDouble(p, offset + idx);
     }
 
     public double getQDouble(int idx) {
-        return Array.getDouble(q, idx);
+        return getDouble(q, offset + idx);
+    }
+
+    /**
+     * Copies the p values, starting at the specified position, to the given double array.
+     *
+     * @param srcPos  starting position in this ArrayPair
+     * @param dest    the destination array
+     * @param destPos starting position in the destination array
+     * @param length  the number of values to be copied
+     */
+    public void getPDouble(int srcPos, double[] dest, int destPos, int length) {
+        checkBulkRange(srcPos, length);
+        copyToDouble(p, offset + srcPos, dest, destPos, length);
+    }
+
+    /**
+     * Copies the q values, starting at the specified position, to the given double array.
+     *
+     * @param srcPos  starting position in this ArrayPair
+     * @param dest    the destination array
+     * @param destPos starting position in the destination array
+     * @param length  the number of values to be copied
+     */
+    public void getQDouble(int srcPos, double[] dest, int destPos, int length) {
+        checkBulkRange(srcPos, length);
+        copyToDouble(q, offset + srcPos, dest, destPos, length);
+    }
+
+    protected final void checkBulkRange(int srcPos, int length) {
+        if (srcPos < 0 || length < 0 || srcPos + length > size) {
+            throw new IndexOutOfBoundsException("srcPos: " + srcPos + ", length: " + length + ", size: " + size);
+        }
     }
 
     @SuppressWarnings("SuspiciousSystemArraycopy")
     public ArrayPair append(ArrayPair arrayPair) {
+        if (arrayPair.p == null) {
+            return appendAsDouble(arrayPair);
+        }
         Object newp = Array.newInstance(pctype, size + arrayPair.size);
-        System.arraycopy(p, 0, newp, 0, size);
-        System.arraycopy(arrayPair.p, 0, newp, size, arrayPair.size);
+        System.arraycopy(p, offset, newp, 0, size);
+        System.arraycopy(arrayPair.p, arrayPair.offset, newp, size, arrayPair.size);
         Object newq = Array.newInstance(qctype, size + arrayPair.size);
-        System.arraycopy(q, 0, newq, 0, size);
-        System.arraycopy(arrayPair.q, 0, newq, size, arrayPair.size);
+        System.arraycopy(q, offset, newq, 0, size);
+        System.arraycopy(arrayPair.q, arrayPair.offset, newq, size, arrayPair.size);
 
-        return new ArrayPair(newp, newq);
+        return valueOf(newp, newq);
     }
 
     @SuppressWarnings("SuspiciousSystemArraycopy")
     public ArrayPair append(Object ap, Object aq, int length) {
         Object newp = Array.newInstance(pctype, size + length);
-        System.arraycopy(p, 0, newp, 0, size);
+        System.arraycopy(p, offset, newp, 0, size);
         System.arraycopy(ap, 0, newp, size, length);
         Object newq = Array.newInstance(qctype, size + length);
-        System.arraycopy(q, 0, newq, 0, size);
+        System.arraycopy(q, offset, newq, 0, size);
         System.arraycopy(aq, 0, newq, size, length);
 
-        return new ArrayPair(newp, newq);
+        return valueOf(newp, newq);
+    }
+
+    /**
+     * Returns a pair of double[] which contains the values of this ArrayPair followed by the values of the given
+     * ArrayPair. This works for any ArrayPair, including the ones not backed by arrays.
+     *
+     * @param arrayPair the ArrayPair to be appended
+     * @return a DoubleArrayPair
+     */
+    protected final ArrayPair appendAsDouble(ArrayPair arrayPair) {
+        double[] newp = new double[size + arrayPair.size];
+        double[] newq = new double[size + arrayPair.size];
+        getPDouble(0, newp, 0, size);
+        getQDouble(0, newq, 0, size);
+        arrayPair.getPDouble(0, newp, size, arrayPair.size);
+        arrayPair.getQDouble(0, newq, size, arrayPair.size);
+        return new DoubleArrayPair(newp, newq);
     }
 
     public ArrayPair copy() {
@@ -139,4 +351,57 @@ public class ArrayPair implements Cloneable {
             throw new InternalError();
         }
     }
+
+    private static double getDouble(Object array, int idx) {
+        if (array instanceof double[]) {
+            return ((double[]) array)[idx];
+        } else if (array instanceof float[]) {
+            return ((float[]) array)[idx];
+        } else if (array instanceof long[]) {
+            return ((long[]) array)[idx];
+        } else if (array instanceof int[]) {
+            return ((int[]) array)[idx];
+        } else if (array instanceof short[]) {
+            return ((short[]) array)[idx];
+        } else if (array instanceof byte[]) {
+            return ((byte[]) array)[idx];
+        } else {
+            return Array.getDouble(array, idx);
+        }
+    }
+
+    private static void copyToDouble(Object array, int srcPos, double[] dest, int destPos, int length) {
+        if (array instanceof double[]) {
+            System.arraycopy(array, srcPos, dest, destPos, length);
+        } else if (array instanceof float[]) {
+            float[] a = (float[]) array;
+            for (int i = 0; i < length; i++) {
+                dest[destPos + i] = a[srcPos + i];
+            }
+        } else if (array instanceof long[]) {
+            long[] a = (long[]) array;
+            for (int i = 0; i < length; i++) {
+                dest[destPos + i] = a[srcPos + i];
+            }
+        } else if (array instanceof int[]) {
+            int[] a = (int[]) array;
+            for (int i = 0; i < length; i++) {
+                dest[destPos + i] = a[srcPos + i];
+            }
+        } else if (array instanceof short[]) {
+            short[] a = (short[]) array;
+            for (int i = 0; i < length; i++) {
+                dest[destPos + i] = a[srcPos + i];
+            }
+        } else if (array instanceof byte[]) {
+            byte[] a = (byte[]) array;
+            for (int i = 0; i < length; i++) {
+                dest[destPos + i] = a[srcPos + i];
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                dest[destPos + i] = Array.getDouble(array, srcPos + i);
+            }
+        }
+    }
 }
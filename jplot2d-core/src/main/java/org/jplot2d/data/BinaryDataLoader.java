@@ -0,0 +1,513 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.data;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Loads binary values in little-endian or big-endian byte order into a XYGraphData or a SingleBandImageData. The
+ * values are read from a channel in chunks and decoded straight into the storage of the result. The data feature of
+ * XYGraphData and the min/max of SingleBandImageData are accumulated while decoding, so that the loaded data is ready
+ * to plot without another pass.
+ * <p>
+ * To plot the values in a file without loading them into the heap, use {@link NioBufferPair#map} or
+ * {@link #mapImage} instead.
+ *
+ * @author Jingjing Li
+ */
+public class BinaryDataLoader {
+
+    /**
+     * The size of the read buffer
+     */
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    /**
+     * The number of points passed to XYDataSeries at a time
+     */
+    private static final int BLOCK_SIZE = 4096;
+
+    private static final int BYTE = 0, SHORT = 1, INT = 2, LONG = 3, FLOAT = 4, DOUBLE = 5;
+
+    private final ByteOrder order;
+
+    /**
+     * Create a loader for values in the given byte order.
+     *
+     * @param order the byte order, such as ByteOrder.BIG_ENDIAN
+     */
+    public BinaryDataLoader(ByteOrder order) {
+        this.order = order;
+    }
+
+    /**
+     * Returns the byte order of the values.
+     *
+     * @return the byte order
+     */
+    public ByteOrder getByteOrder() {
+        return order;
+    }
+
+    /**
+     * Loads x/y values from the given file, which consists of fixed size records. Every record contains a x value and
+     * a y value.
+     *
+     * @param file       the file
+     * @param xType      the type of x values, byte.class, short.class, int.class, long.class, float.class or
+     *                   double.class
+     * @param xOffset    the byte offset of the x value in a record
+     * @param yType      the type of y values
+     * @param yOffset    the byte offset of the y value in a record
+     * @param recordSize the number of bytes of a record
+     * @return the loaded data
+     * @throws IOException if an I/O error occurs, or the file ends in the middle of a record
+     */
+    public XYGraphData loadXY(File file, Class<?> xType, int xOffset, Class<?> yType, int yOffset, int recordSize)
+            throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            return loadXY(in.getChannel(), xType, xOffset, yType, yOffset, recordSize);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Loads x/y records from the given channel. The channel is read to its end, and is not closed.
+     *
+     * @param channel    the channel
+     * @param xType      the type of x values, byte.class, short.class, int.class, long.class, float.class or
+     *                   double.class
+     * @param xOffset    the byte offset of the x value in a record
+     * @param yType      the type of y values
+     * @param yOffset    the byte offset of the y value in a record
+     * @param recordSize the number of bytes of a record
+     * @return the loaded data
+     * @throws IOException if an I/O error occurs, or the data ends in the middle of a record
+     * @see #loadXY(File, Class, int, Class, int, int)
+     */
+    public XYGraphData loadXY(ReadableByteChannel channel, Class<?> xType, int xOffset, Class<?> yType, int yOffset,
+                              int recordSize) throws IOException {
+        int xt = typeCode(xType);
+        int yt = typeCode(yType);
+        if (xOffset < 0 || xOffset + sizeOf(xt) > recordSize || yOffset < 0 || yOffset + sizeOf(yt) > recordSize) {
+            throw new IllegalArgumentException("The x/y values must be inside the record.");
+        }
+
+        int capacity = BLOCK_SIZE;
+        if (channel instanceof FileChannel) {
+            FileChannel fc = (FileChannel) channel;
+            long records = (fc.size() - fc.position()) / recordSize;
+            capacity = (int) Math.min(Math.max(records, 1), Integer.MAX_VALUE - 8);
+        }
+        XYDataSeries series = new XYDataSeries(capacity, false);
+
+        int recordsPerChunk = Math.max(1, CHUNK_SIZE / recordSize);
+        ByteBuffer buf = ByteBuffer.allocate(recordsPerChunk * recordSize).order(order);
+        double[] xbuf = new double[Math.min(recordsPerChunk, BLOCK_SIZE)];
+        double[] ybuf = new double[xbuf.length];
+        boolean eof = false;
+        while (!eof) {
+            eof = channel.read(buf) < 0;
+            if (!eof && buf.hasRemaining()) {
+                continue;
+            }
+            ((Buffer) buf).flip();
+            while (buf.remaining() >= recordSize) {
+                int n = Math.min(buf.remaining() / recordSize, xbuf.length);
+                int base = buf.position();
+                readColumn(buf, base + xOffset, recordSize, xt, xbuf, n);
+                readColumn(buf, base + yOffset, recordSize, yt, ybuf, n);
+                series.append(xbuf, ybuf, 0, n);
+                ((Buffer) buf).position(base + n * recordSize);
+            }
+            if (eof && buf.hasRemaining()) {
+                throw new EOFException("The data ends in the middle of a record.");
+            }
+            buf.compact();
+        }
+        return series.getGraphData();
+    }
+
+    /**
+     * Decode n values of the given type, which are located at pos, pos + stride, ...
+     */
+    private static void readColumn(ByteBuffer buf, int pos, int stride, int type, double[] dest, int n) {
+        switch (type) {
+            case BYTE:
+                for (int i = 0; i < n; i++, pos += stride) {
+                    dest[i] = buf.get(pos);
+                }
+                break;
+            case SHORT:
+                for (int i = 0; i < n; i++, pos += stride) {
+                    dest[i] = buf.getShort(pos);
+                }
+                break;
+            case INT:
+                for (int i = 0; i < n; i++, pos += stride) {
+                    dest[i] = buf.getInt(pos);
+                }
+                break;
+            case LONG:
+                for (int i = 0; i < n; i++, pos += stride) {
+                    dest[i] = buf.getLong(pos);
+                }
+                break;
+            case FLOAT:
+                for (int i = 0; i < n; i++, pos += stride) {
+                    dest[i] = buf.getFloat(pos);
+                }
+                break;
+            default:
+                for (int i = 0; i < n; i++, pos += stride) {
+                    dest[i] = buf.getDouble(pos);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Loads an image from the given file. The pixels are stored row by row, and the first row is the row 0 of the
+     * image.
+     *
+     * @param file   the file
+     * @param type   the type of pixel values, byte.class, short.class, int.class, float.class or double.class
+     * @param width  the image width
+     * @param height the image height
+     * @return the loaded image
+     * @throws IOException if an I/O error occurs, or the file is shorter than the image
+     */
+    public SingleBandImageData loadImage(File file, Class<?> type, int width, int height) throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            return loadImage(in.getChannel(), type, width, height);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Loads an image from the given channel. Only the bytes of the image are read, and the channel is not closed.
+     *
+     * @param channel the channel
+     * @param type    the type of pixel values, byte.class, short.class, int.class, float.class or double.class
+     * @param width   the image width
+     * @param height  the image height
+     * @return the loaded image
+     * @throws IOException if an I/O error occurs, or the data is shorter than the image
+     * @see #loadImage(File, Class, int, int)
+     */
+    public SingleBandImageData loadImage(ReadableByteChannel channel, Class<?> type, int width, int height)
+            throws IOException {
+        int t = typeCode(type);
+        if (t == LONG) {
+            throw new IllegalArgumentException("Unsupported pixel type: " + type);
+        }
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("The image size must be positive.");
+        }
+
+        Object[] rows;
+        switch (t) {
+            case BYTE:
+                rows = new byte[height][width];
+                break;
+            case SHORT:
+                rows = new short[height][width];
+                break;
+            case INT:
+                rows = new int[height][width];
+                break;
+            case FLOAT:
+                rows = new float[height][width];
+                break;
+            default:
+                rows = new double[height][width];
+                break;
+        }
+        ImageStatistics stats = new ImageStatistics();
+        stats.setSize(width, height);
+
+        int valueSize = sizeOf(t);
+        long remainingBytes = (long) width * height * valueSize;
+        ByteBuffer buf = ByteBuffer.allocate((int) Math.min(CHUNK_SIZE, remainingBytes)).order(order);
+        int row = 0, col = 0;
+        while (row < height) {
+            // never read beyond the image
+            if (buf.remaining() > remainingBytes) {
+                ((Buffer) buf).limit(buf.position() + (int) remainingBytes);
+            }
+            int nread = channel.read(buf);
+            if (nread < 0) {
+                throw new EOFException("The data ends before the end of the image.");
+            }
+            remainingBytes -= nread;
+            if (buf.hasRemaining() && remainingBytes > 0) {
+                continue;
+            }
+            ((Buffer) buf).flip();
+            while (buf.remaining() >= valueSize) {
+                int n = Math.min(width - col, buf.remaining() / valueSize);
+                readValues(buf, t, rows[row], col, n, stats);
+                col += n;
+                if (col == width) {
+                    row++;
+                    col = 0;
+                }
+            }
+            buf.compact();
+        }
+
+        ImageDataBuffer dbuf;
+        switch (t) {
+            case BYTE:
+                dbuf = new ImageStatistics.ByteBuffer2D((byte[][]) rows, stats);
+                break;
+            case SHORT:
+                dbuf = new ImageStatistics.ShortBuffer2D((short[][]) rows, stats);
+                break;
+            case INT:
+                dbuf = new ImageStatistics.IntBuffer2D((int[][]) rows, stats);
+                break;
+            case FLOAT:
+                dbuf = new ImageStatistics.FloatBuffer2D((float[][]) rows, stats);
+                break;
+            default:
+                dbuf = new ImageStatistics.DoubleBuffer2D((double[][]) rows, stats);
+                break;
+        }
+        return new SingleBandImageData(dbuf, width, height);
+    }
+
+    /**
+     * Maps an image of the given file channel into memory, without reading the pixels. The pixels are stored row by
+     * row, starting at the given file position, and the first row is the row 0 of the image. The pages of the file
+     * are read by the operating system when the pixels are accessed, so only the rendered part of a large image is
+     * paged in. An image larger than 2GB is mapped in blocks of rows.
+     * <p>
+     * The mapping remains valid after the channel is closed.
+     *
+     * @param channel  the file channel, must be opened for reading
+     * @param type     the type of pixel values, byte.class, short.class, int.class, float.class or double.class
+     * @param position the file position of the 1st pixel
+     * @param width    the image width
+     * @param height   the image height
+     * @return the mapped image
+     * @throws IOException if an I/O error occurs
+     */
+    public SingleBandImageData mapImage(FileChannel channel, Class<?> type, long position, int width, int height)
+            throws IOException {
+        return new SingleBandImageData(mapImageBuffer(channel, type, position, width, height, null), width, height);
+    }
+
+    /**
+     * Maps an image of the given file channel into memory, and returns the NIO buffer of the mapped pixels.
+     *
+     * @param channel  the file channel, must be opened for reading
+     * @param type     the type of pixel values, byte.class, short.class, int.class, float.class or double.class
+     * @param position the file position of the 1st pixel
+     * @param width    the image width
+     * @param height   the image height
+     * @param mask     the mask of the image, can be <code>null</code>
+     * @return the data buffer of mapped pixels
+     * @throws IOException if an I/O error occurs
+     * @see #mapImage(FileChannel, Class, long, int, int)
+     */
+    public ImageDataBuffer mapImageBuffer(FileChannel channel, Class<?> type, long position, int width, int height,
+                                          ImageMaskBuffer mask) throws IOException {
+        return mapImageBuffer(channel, type, position, width, height, mask, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Maps an image in blocks of no more than the given bytes.
+     */
+    ImageDataBuffer mapImageBuffer(FileChannel channel, Class<?> type, long position, int width, int height,
+                                   ImageMaskBuffer mask, int maxBlockBytes) throws IOException {
+        int t = typeCode(type);
+        if (t == LONG) {
+            throw new IllegalArgumentException("Unsupported pixel type: " + type);
+        }
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("The image size must be positive.");
+        }
+        int valueSize = sizeOf(t);
+        long rowBytes = (long) width * valueSize;
+        if (rowBytes > maxBlockBytes) {
+            throw new IllegalArgumentException("The row of " + width + " " + type + " values is too large to map.");
+        }
+        if (channel.size() < position + rowBytes * height) {
+            throw new EOFException("The file ends before the end of the image.");
+        }
+
+        int blockRows = (int) Math.min(height, maxBlockBytes / rowBytes);
+        int blocks = (height + blockRows - 1) / blockRows;
+        ByteBuffer[] bbs = new ByteBuffer[blocks];
+        for (int i = 0; i < blocks; i++) {
+            int rows = Math.min(blockRows, height - i * blockRows);
+            bbs[i] = channel.map(FileChannel.MapMode.READ_ONLY, position + i * blockRows * rowBytes,
+                    rows * rowBytes).order(order);
+        }
+
+        switch (t) {
+            case BYTE: {
+                if (blocks == 1) {
+                    return new ByteDataBuffer.NioBuffer(bbs[0], 0, width, mask);
+                }
+                return new ByteDataBuffer.NioBlocks(bbs, blockRows, width, mask);
+            }
+            case SHORT: {
+                ShortBuffer[] buffers = new ShortBuffer[blocks];
+                for (int i = 0; i < blocks; i++) {
+                    buffers[i] = bbs[i].asShortBuffer();
+                }
+                if (blocks == 1) {
+                    return new ShortDataBuffer.NioBuffer(buffers[0], 0, width, mask);
+                }
+                return new ShortDataBuffer.NioBlocks(buffers, blockRows, width, mask);
+            }
+            case INT: {
+                IntBuffer[] buffers = new IntBuffer[blocks];
+                for (int i = 0; i < blocks; i++) {
+                    buffers[i] = bbs[i].asIntBuffer();
+                }
+                if (blocks == 1) {
+                    return new IntDataBuffer.NioBuffer(buffers[0], 0, width, mask);
+                }
+                return new IntDataBuffer.NioBlocks(buffers, blockRows, width, mask);
+            }
+            case FLOAT: {
+                FloatBuffer[] buffers = new FloatBuffer[blocks];
+                for (int i = 0; i < blocks; i++) {
+                    buffers[i] = bbs[i].asFloatBuffer();
+                }
+                if (blocks == 1) {
+                    return new FloatDataBuffer.NioBuffer(buffers[0], 0, width, mask);
+                }
+                return new FloatDataBuffer.NioBlocks(buffers, blockRows, width, mask);
+            }
+            default: {
+                DoubleBuffer[] buffers = new DoubleBuffer[blocks];
+                for (int i = 0; i < blocks; i++) {
+                    buffers[i] = bbs[i].asDoubleBuffer();
+                }
+                if (blocks == 1) {
+                    return new DoubleDataBuffer.NioBuffer(buffers[0], 0, width, mask);
+                }
+                return new DoubleDataBuffer.NioBlocks(buffers, blockRows, width, mask);
+            }
+        }
+    }
+
+    /**
+     * Bulk copy n values from the buffer to the given row, and merge them into the statistics.
+     */
+    private static void readValues(ByteBuffer buf, int type, Object row, int off, int n, ImageStatistics stats) {
+        switch (type) {
+            case BYTE: {
+                byte[] a = (byte[]) row;
+                buf.get(a, off, n);
+                for (int i = off; i < off + n; i++) {
+                    stats.add(a[i]);
+                }
+                return;
+            }
+            case SHORT: {
+                short[] a = (short[]) row;
+                buf.asShortBuffer().get(a, off, n);
+                for (int i = off; i < off + n; i++) {
+                    stats.add(a[i]);
+                }
+                break;
+            }
+            case INT: {
+                int[] a = (int[]) row;
+                buf.asIntBuffer().get(a, off, n);
+                for (int i = off; i < off + n; i++) {
+                    stats.add(a[i]);
+                }
+                break;
+            }
+            case FLOAT: {
+                float[] a = (float[]) row;
+                buf.asFloatBuffer().get(a, off, n);
+                for (int i = off; i < off + n; i++) {
+                    stats.add(a[i]);
+                }
+                break;
+            }
+            default: {
+                double[] a = (double[]) row;
+                buf.asDoubleBuffer().get(a, off, n);
+                for (int i = off; i < off + n; i++) {
+                    stats.add(a[i]);
+                }
+                break;
+            }
+        }
+        // the view buffers do not advance the position of the byte buffer
+        ((Buffer) buf).position(buf.position() + n * sizeOf(type));
+    }
+
+    private static int typeCode(Class<?> type) {
+        if (type == byte.class) {
+            return BYTE;
+        } else if (type == short.class) {
+            return SHORT;
+        } else if (type == int.class) {
+            return INT;
+        } else if (type == long.class) {
+            return LONG;
+        } else if (type == float.class) {
+            return FLOAT;
+        } else if (type == double.class) {
+            return DOUBLE;
+        } else {
+            throw new IllegalArgumentException("Unsupported value type: " + type);
+        }
+    }
+
+    private static int sizeOf(int typeCode) {
+        switch (typeCode) {
+            case BYTE:
+                return 1;
+            case SHORT:
+                return 2;
+            case INT:
+            case FLOAT:
+                return 4;
+            default:
+                return 8;
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.data;
+
+/**
+ * This class extends ImageMaskBuffer and stores mask internally as bits packed in longs. The mask bits of a row can be
+ * read a word of 64 pixels at a time, so that a fully masked or a fully unmasked run of 64 pixels can be processed
+ * without checking every pixel.
+ *
+ * @author Jingjing Li
+ */
+public interface BitMaskBuffer extends ImageMaskBuffer {
+
+    /**
+     * Returns the mask bits of the pixels from (x, y) to (x + w - 1, y). The mask of the pixel <code>x + k</code> is
+     * the bit <code>k % 64</code> of the word <code>words[k / 64]</code>. The bits after the last pixel are set.
+     *
+     * @param x     the X coordinate of the 1st pixel
+     * @param y     the Y coordinate of the row
+     * @param w     the number of pixels
+     * @param words the array to store the mask words, which must have at least <code>(w + 63) / 64</code> elements
+     */
+    public void getMaskWords(int x, int y, int w, long[] words);
+
+    /**
+     * The mask bits in a long array. Every row starts at a new word.
+     */
+    public static class Array implements BitMaskBuffer {
+        private final long[] words;
+        private final int width;
+        private final int stride;
+
+        /**
+         * Create an unmasked buffer of the given size.
+         *
+         * @param width  the number of pixels in a row
+         * @param height the number of rows
+         */
+        public Array(int width, int height) {
+            this(new long[((width + 63) >> 6) * height], width);
+        }
+
+        /**
+         * Create a buffer of the given mask words. Every row takes <code>(width + 63) / 64</code> words.
+         *
+         * @param words the mask words
+         * @param width the number of pixels in a row
+         */
+        public Array(long[] words, int width) {
+            this.words = words;
+            this.width = width;
+            this.stride = (width + 63) >> 6;
+        }
+
+        /**
+         * Create a buffer which has the same mask as the given boolean array.
+         *
+         * @param mask the mask of rows
+         * @return the bit mask buffer
+         */
+        public static Array valueOf(boolean[][] mask) {
+            int width = (mask.length == 0) ? 0 : mask[0].length;
+            Array result = new Array(width, mask.length);
+            for (int y = 0; y < mask.length; y++) {
+                for (int x = 0; x < width; x++) {
+                    if (mask[y][x]) {
+                        result.setMasked(x, y, true);
+                    }
+                }
+            }
+            return result;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public void setMasked(int x, int y, boolean masked) {
+            int i = y * stride + (x >> 6);
+            if (masked) {
+                words[i] |= 1L << x;
+            } else {
+                words[i] &= ~(1L << x);
+            }
+        }
+
+        public boolean isMasked(int x, int y) {
+            return (words[y * stride + (x >> 6)] >>> x & 1) != 0;
+        }
+
+        public void getMaskWords(int x, int y, int w, long[] dest) {
+            int n = (w + 63) >> 6;
+            int src = y * stride + (x >> 6);
+            int shift = x & 63;
+            if (shift == 0) {
+                System.arraycopy(words, src, dest, 0, n);
+            } else {
+                int last = y * stride + stride - 1;
+                for (int i = 0; i < n; i++) {
+                    long high = (src + i < last) ? words[src + i + 1] << (64 - shift) : 0;
+                    dest[i] = (words[src + i] >>> shift) | high;
+                }
+            }
+            if ((w & 63) != 0) {
+                dest[n - 1] |= -1L << w;
+            }
+        }
+    }
+
+}
@@ -61,23 +61,51 @@ public abstract class ByteDataBuffer extends ImageDataBuffer {
     public static class Array extends ByteDataBuffer {
         private final byte[] data;
         private final int offset;
+        private final int scanlineStride;
 
+        /**
+         * @deprecated the rows cannot be located without the scanline stride. Use
+         *             {@link #Array(byte[], int, int, ImageMaskBuffer)} instead.
+         */
+        @Deprecated
         public Array(byte[] data) {
-            this(data, 0, null);
+            this(data, 0, 1, null);
         }
 
+        /**
+         * @deprecated the rows cannot be located without the scanline stride. Use
+         *             {@link #Array(byte[], int, int, ImageMaskBuffer)} instead.
+         */
+        @Deprecated
         public Array(byte[] data, ImageMaskBuffer mask) {
-            this(data, 0, mask);
+            this(data, 0, 1, mask);
         }
 
+        /**
+         * @deprecated the rows cannot be located without the scanline stride. Use
+         *             {@link #Array(byte[], int, int, ImageMaskBuffer)} instead.
+         */
+        @Deprecated
         public Array(byte[] data, int offset, ImageMaskBuffer mask) {
+            this(data, offset, 1, mask);
+        }
+
+        /**
+         * @param data           the array which stores the rows one after another
+         * @param offset         the array index of the pixel (0, 0)
+         * @param scanlineStride the array index distance between a pixel and the pixel of the same column in the next
+         *                       row, usually the image width
+         * @param mask           the mask, can be <code>null</code>
+         */
+        public Array(byte[] data, int offset, int scanlineStride, ImageMaskBuffer mask) {
             super(mask);
             this.data = data;
             this.offset = offset;
+            this.scanlineStride = scanlineStride;
         }
 
         public byte get(int x, int y) {
-            return data[offset + x + y];
+            return data[offset + y * scanlineStride + x];
         }
 
     }
@@ -110,23 +138,80 @@ public abstract class ByteDataBuffer extends ImageDataBuffer {
     public static class NioBuffer extends ByteDataBuffer {
         private final ByteBuffer data;
         private final int offset;
+        private final int scanlineStride;
 
+        /**
+         * @deprecated the rows cannot be located without the scanline stride. Use
+         *             {@link #NioBuffer(ByteBuffer, int, int, ImageMaskBuffer)} instead.
+         */
+        @Deprecated
         public NioBuffer(ByteBuffer data) {
-            this(data, 0, null);
+            this(data, 0, 1, null);
         }
 
+        /**
+         * @deprecated the rows cannot be located without the scanline stride. Use
+         *             {@link #NioBuffer(ByteBuffer, int, int, ImageMaskBuffer)} instead.
+         */
+        @Deprecated
         public NioBuffer(ByteBuffer data, ImageMaskBuffer mask) {
-            this(data, 0, mask);
+            this(data, 0, 1, mask);
         }
 
+        /**
+         * @deprecated the rows cannot be located without the scanline stride. Use
+         *             {@link #NioBuffer(ByteBuffer, int, int, ImageMaskBuffer)} instead.
+         */
+        @Deprecated
         public NioBuffer(ByteBuffer data, int offset, ImageMaskBuffer mask) {
+            this(data, offset, 1, mask);
+        }
+
+        /**
+         * @param data           the buffer which stores the rows one after another
+         * @param offset         the buffer index of the pixel (0, 0)
+         * @param scanlineStride the buffer index distance between a pixel and the pixel of the same column in the next
+         *                       row, usually the image width
+         * @param mask           the mask, can be <code>null</code>
+         */
+        public NioBuffer(ByteBuffer data, int offset, int scanlineStride, ImageMaskBuffer mask) {
             super(mask);
             this.data = data;
             this.offset = offset;
+            this.scanlineStride = scanlineStride;
         }
 
         public byte get(int x, int y) {
-            return data.get(offset + x + y);
+            return data.get(offset + y * scanlineStride + x);
+        }
+
+    }
+
+    /**
+     * The rows are stored in a series of NIO buffers, such as the memory-mapped blocks of a file which is larger than
+     * 2GB. Every buffer holds the same number of rows, except that the last buffer may hold fewer rows.
+     */
+    public static class NioBlocks extends ByteDataBuffer {
+        private final ByteBuffer[] blocks;
+        private final int blockRows;
+        private final int scanlineStride;
+
+        /**
+         * @param blocks         the buffers of row blocks
+         * @param blockRows      the number of rows in every block
+         * @param scanlineStride the buffer index distance between a pixel and the pixel of the same column in the next
+         *                       row, usually the image width
+         * @param mask           the mask, can be <code>null</code>
+         */
+        public NioBlocks(ByteBuffer[] blocks, int blockRows, int scanlineStride, ImageMaskBuffer mask) {
+            super(mask);
+            this.blocks = blocks;
+            this.blockRows = blockRows;
+            this.scanlineStride = scanlineStride;
+        }
+
+        public byte get(int x, int y) {
+            return blocks[y / blockRows].get((y % blockRows) * scanlineStride + x);
         }
 
     }
@@ -137,11 +222,13 @@ public abstract class ByteDataBuffer extends ImageDataBuffer {
             return w * h;
         } else {
             int count = 0;
+            long[] words = null;
+            int n = (w + 63) >> 6;
             for (int j = 0; j < h; j++) {
-                for (int i = 0; i < w; i++) {
-                    if (!isMasked(i, j)) {
-                        count++;
-                    }
+                // every value is valid, so count the unmasked bits. The bits after the row are masked.
+                words = getMaskWords(0, j, w, words);
+                for (int k = 0; k < n; k++) {
+                    count += Long.SIZE - Long.bitCount(words[k]);
                 }
             }
             return count;
@@ -154,9 +241,14 @@ public abstract class ByteDataBuffer extends ImageDataBuffer {
         byte min = Byte.MAX_VALUE;
         byte max = Byte.MIN_VALUE;
 
+        long[] words = null;
         for (int j = 0; j < h; j++) {
+            words = getMaskWords(0, j, w, words);
             for (int i = 0; i < w; i++) {
-                if (!isMasked(i, j)) {
+                if (words[i >> 6] == -1L) {
+                    // skip the fully masked run
+                    i |= 63;
+                } else if ((words[i >> 6] >>> i & 1) == 0) {
                     byte v = get(i, j);
                     if (min > v) {
                         min = v;
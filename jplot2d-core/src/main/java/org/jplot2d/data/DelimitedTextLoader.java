@@ -0,0 +1,533 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.data;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads delimited text, such as CSV, into a XYGraphData or a SingleBandImageData. The text is read from a channel in
+ * chunks and parsed in place, without creating a String for every line. The data feature of XYGraphData and the
+ * min/max of SingleBandImageData are accumulated while parsing, so that the loaded data is ready to plot without
+ * another pass.
+ * <p>
+ * The text must be in an ASCII compatible encoding, such as UTF-8 or ISO-8859-1. Blank lines and lines start with the
+ * comment character are skipped. A field which is empty or not a number is loaded as NaN.
+ *
+ * @author Jingjing Li
+ */
+public class DelimitedTextLoader {
+
+    /**
+     * The initial size of the read buffer. The buffer grows when a line is longer than it.
+     */
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    /**
+     * The number of points passed to XYDataSeries at a time
+     */
+    private static final int BLOCK_SIZE = 4096;
+
+    /**
+     * The powers of ten which can be exactly represented by a double
+     */
+    private static final double[] POW10 = new double[23];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+    }
+
+    private final byte delimiter;
+
+    private int headerLines;
+
+    private byte commentChar = '#';
+
+    /**
+     * Create a loader for the given delimiter. A space delimiter means the fields are separated by any number of
+     * spaces or tabs.
+     *
+     * @param delimiter the delimiter, such as ',', '\t' or ' '
+     */
+    public DelimitedTextLoader(char delimiter) {
+        if (delimiter > 0x7f || delimiter == '\n' || delimiter == '\r') {
+            throw new IllegalArgumentException("The delimiter must be an ASCII character other than line terminators.");
+        }
+        this.delimiter = (byte) delimiter;
+    }
+
+    /**
+     * Returns the number of lines to skip at the beginning of the text.
+     *
+     * @return the number of header lines
+     */
+    public int getHeaderLines() {
+        return headerLines;
+    }
+
+    /**
+     * Sets the number of lines to skip at the beginning of the text, such as a line of column names.
+     *
+     * @param headerLines the number of header lines
+     */
+    public void setHeaderLines(int headerLines) {
+        if (headerLines < 0) {
+            throw new IllegalArgumentException("The number of header lines must not be negative.");
+        }
+        this.headerLines = headerLines;
+    }
+
+    /**
+     * Returns the comment character. Lines start with it are skipped.
+     *
+     * @return the comment character
+     */
+    public char getCommentChar() {
+        return (char) commentChar;
+    }
+
+    /**
+     * Sets the comment character. Lines start with it are skipped.
+     *
+     * @param commentChar the comment character, must be an ASCII character
+     */
+    public void setCommentChar(char commentChar) {
+        if (commentChar > 0x7f) {
+            throw new IllegalArgumentException("The comment character must be an ASCII character.");
+        }
+        this.commentChar = (byte) commentChar;
+    }
+
+    /**
+     * Loads the given columns of the given file as x/y values.
+     *
+     * @param file    the file
+     * @param xColumn the index of the x column, starting at 0
+     * @param yColumn the index of the y column, starting at 0
+     * @return the loaded data
+     * @throws IOException if an I/O error occurs
+     */
+    public XYGraphData loadXY(File file, int xColumn, int yColumn) throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            return loadXY(in.getChannel(), xColumn, yColumn);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Loads the given columns of the text from the given channel as x/y values. The channel is read to its end, and
+     * is not closed.
+     *
+     * @param channel the channel
+     * @param xColumn the index of the x column, starting at 0
+     * @param yColumn the index of the y column, starting at 0
+     * @return the loaded data
+     * @throws IOException if an I/O error occurs
+     */
+    public XYGraphData loadXY(ReadableByteChannel channel, int xColumn, int yColumn) throws IOException {
+        if (xColumn < 0 || yColumn < 0) {
+            throw new IllegalArgumentException("The column index must not be negative.");
+        }
+        XYLineHandler handler = new XYLineHandler(channel, xColumn, yColumn);
+        parse(channel, handler);
+        return handler.getGraphData();
+    }
+
+    /**
+     * Loads the given file as an image. Every line is a row of the image, and every field is a pixel. The first line
+     * is the row 0 of the image. The width is the number of fields of the first row. A shorter row is padded by NaN,
+     * and extra fields of a longer row are ignored.
+     *
+     * @param file the file
+     * @return the loaded image
+     * @throws IOException if an I/O error occurs
+     */
+    public SingleBandImageData loadImage(File file) throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            return loadImage(in.getChannel());
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Loads the text from the given channel as an image. The channel is read to its end, and is not closed.
+     *
+     * @param channel the channel
+     * @return the loaded image
+     * @throws IOException if an I/O error occurs
+     * @see #loadImage(File)
+     */
+    public SingleBandImageData loadImage(ReadableByteChannel channel) throws IOException {
+        ImageLineHandler handler = new ImageLineHandler();
+        parse(channel, handler);
+        return handler.getImageData();
+    }
+
+    /**
+     * Reads the channel chunk by chunk, and passes every data line to the given handler.
+     */
+    private void parse(ReadableByteChannel channel, LineHandler handler) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(CHUNK_SIZE);
+        int lineNumber = 0;
+        boolean eof = false;
+        while (!eof) {
+            eof = channel.read(buf) < 0;
+            if (!eof && buf.hasRemaining()) {
+                continue;
+            }
+            byte[] a = buf.array();
+            int end = buf.position();
+            int ls = 0;
+            while (ls < end) {
+                int le = ls;
+                while (le < end && a[le] != '\n') {
+                    le++;
+                }
+                if (le == end && !eof) {
+                    // an incomplete line
+                    break;
+                }
+                int next = le + 1;
+                if (le > ls && a[le - 1] == '\r') {
+                    le--;
+                }
+                if (lineNumber++ >= headerLines && !isBlankOrComment(a, ls, le)) {
+                    handler.handleLine(a, ls, le);
+                }
+                ls = next;
+            }
+
+            // move the incomplete line to the beginning of the buffer
+            ((Buffer) buf).position(Math.min(ls, end));
+            ((Buffer) buf).limit(end);
+            buf.compact();
+            if (!buf.hasRemaining()) {
+                ByteBuffer nbuf = ByteBuffer.allocate(buf.capacity() * 2);
+                ((Buffer) buf).flip();
+                nbuf.put(buf);
+                buf = nbuf;
+            }
+        }
+    }
+
+    private boolean isBlankOrComment(byte[] a, int s, int e) {
+        while (s < e && (a[s] == ' ' || a[s] == '\t')) {
+            s++;
+        }
+        return s == e || a[s] == commentChar;
+    }
+
+    /**
+     * Returns the end of the field starting at the given position.
+     */
+    private int fieldEnd(byte[] a, int s, int e) {
+        if (delimiter == ' ') {
+            while (s < e && a[s] != ' ' && a[s] != '\t') {
+                s++;
+            }
+        } else {
+            while (s < e && a[s] != delimiter) {
+                s++;
+            }
+        }
+        return s;
+    }
+
+    /**
+     * Returns the start of the field after the given field end, or -1 if there is no more field.
+     */
+    private int nextField(byte[] a, int fe, int e) {
+        if (fe == e) {
+            return -1;
+        }
+        if (delimiter == ' ') {
+            while (fe < e && (a[fe] == ' ' || a[fe] == '\t')) {
+                fe++;
+            }
+            return (fe == e) ? -1 : fe;
+        }
+        return fe + 1;
+    }
+
+    /**
+     * Returns the start of the 1st field of the given line.
+     */
+    private int firstField(byte[] a, int s, int e) {
+        if (delimiter == ' ') {
+            while (s < e && (a[s] == ' ' || a[s] == '\t')) {
+                s++;
+            }
+        }
+        return s;
+    }
+
+    /**
+     * Parse the given ASCII text as a double. Numbers with at most 15 significant digits and a small exponent are
+     * converted directly, which gives the same result as {@link Double#parseDouble(String)}. Other text is passed to
+     * {@link Double#parseDouble(String)}.
+     *
+     * @param a the text
+     * @param s the start index
+     * @param e the end index
+     * @return the double value, or NaN if the text is empty or not a number
+     */
+    static double parseDouble(byte[] a, int s, int e) {
+        while (s < e && (a[s] == ' ' || a[s] == '\t')) {
+            s++;
+        }
+        while (e > s && (a[e - 1] == ' ' || a[e - 1] == '\t')) {
+            e--;
+        }
+        if (s == e) {
+            return Double.NaN;
+        }
+
+        int i = s;
+        boolean negative = false;
+        if (a[i] == '-') {
+            negative = true;
+            i++;
+        } else if (a[i] == '+') {
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exp = 0;
+        boolean hasDigit = false;
+        while (i < e && a[i] >= '0' && a[i] <= '9') {
+            hasDigit = true;
+            if (digits < 16) {
+                mantissa = mantissa * 10 + (a[i] - '0');
+                if (mantissa != 0) {
+                    digits++;
+                }
+            } else {
+                exp++;
+            }
+            i++;
+        }
+        if (i < e && a[i] == '.') {
+            i++;
+            while (i < e && a[i] >= '0' && a[i] <= '9') {
+                hasDigit = true;
+                if (digits < 16) {
+                    mantissa = mantissa * 10 + (a[i] - '0');
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                    exp--;
+                } else if (a[i] != '0') {
+                    // more significant digits than the fast path can handle
+                    digits++;
+                }
+                i++;
+            }
+        }
+        if (hasDigit && i < e && (a[i] == 'e' || a[i] == 'E')) {
+            i++;
+            boolean negExp = false;
+            if (i < e && (a[i] == '-' || a[i] == '+')) {
+                negExp = a[i] == '-';
+                i++;
+            }
+            int ev = 0;
+            boolean hasExpDigit = false;
+            while (i < e && a[i] >= '0' && a[i] <= '9' && ev < 10000) {
+                hasExpDigit = true;
+                ev = ev * 10 + (a[i] - '0');
+                i++;
+            }
+            if (!hasExpDigit) {
+                hasDigit = false;
+            }
+            exp += negExp ? -ev : ev;
+        }
+
+        if (hasDigit && i == e && digits <= 15) {
+            double v;
+            if (mantissa == 0) {
+                v = 0;
+            } else if (exp >= 0 && exp < POW10.length) {
+                v = mantissa * POW10[exp];
+            } else if (exp < 0 && -exp < POW10.length) {
+                v = mantissa / POW10[-exp];
+            } else {
+                return parseDoubleSlow(a, s, e);
+            }
+            return negative ? -v : v;
+        }
+        return parseDoubleSlow(a, s, e);
+    }
+
+    private static double parseDoubleSlow(byte[] a, int s, int e) {
+        String text = new String(a, s, e - s, StandardCharsets.US_ASCII);
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException ex) {
+            if (text.equalsIgnoreCase("inf") || text.equalsIgnoreCase("+inf")) {
+                return Double.POSITIVE_INFINITY;
+            } else if (text.equalsIgnoreCase("-inf")) {
+                return Double.NEGATIVE_INFINITY;
+            }
+            return Double.NaN;
+        }
+    }
+
+    private interface LineHandler {
+
+        /**
+         * Handles a data line in a[s, e), which does not include the line terminator.
+         */
+        void handleLine(byte[] a, int s, int e) throws IOException;
+    }
+
+    private class XYLineHandler implements LineHandler {
+
+        private final ReadableByteChannel channel;
+
+        private final int xColumn, yColumn;
+
+        private final double[] xbuf = new double[BLOCK_SIZE], ybuf = new double[BLOCK_SIZE];
+
+        private int count;
+
+        /**
+         * The number of bytes of the lines have been parsed before the series is created
+         */
+        private long parsedBytes;
+
+        private XYDataSeries series;
+
+        private XYLineHandler(ReadableByteChannel channel, int xColumn, int yColumn) {
+            this.channel = channel;
+            this.xColumn = xColumn;
+            this.yColumn = yColumn;
+        }
+
+        public void handleLine(byte[] a, int s, int e) throws IOException {
+            if (series == null) {
+                parsedBytes += e - s + 1;
+            }
+            double x = Double.NaN, y = Double.NaN;
+            int lastColumn = Math.max(xColumn, yColumn);
+            int fs = firstField(a, s, e);
+            for (int column = 0; column <= lastColumn && fs >= 0; column++) {
+                int fe = fieldEnd(a, fs, e);
+                if (column == xColumn) {
+                    x = parseDouble(a, fs, fe);
+                }
+                if (column == yColumn) {
+                    y = parseDouble(a, fs, fe);
+                }
+                fs = nextField(a, fe, e);
+            }
+
+            xbuf[count] = x;
+            ybuf[count] = y;
+            if (++count == BLOCK_SIZE) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            if (series == null) {
+                series = new XYDataSeries(estimateCapacity(), false);
+            }
+            series.append(xbuf, ybuf, 0, count);
+            count = 0;
+        }
+
+        /**
+         * Estimate the number of points from the file size and the average line length, so that the storage of the
+         * series rarely grows.
+         */
+        private int estimateCapacity() throws IOException {
+            int capacity = BLOCK_SIZE;
+            if (channel instanceof FileChannel && count > 0) {
+                long size = ((FileChannel) channel).size();
+                long estimate = (long) ((double) size * count / parsedBytes * 1.05);
+                capacity = (int) Math.min(Math.max(estimate, capacity), Integer.MAX_VALUE - 8);
+            }
+            return capacity;
+        }
+
+        private XYGraphData getGraphData() throws IOException {
+            if (count > 0 || series == null) {
+                flush();
+            }
+            return series.getGraphData();
+        }
+    }
+
+    private class ImageLineHandler implements LineHandler {
+
+        private final List<double[]> rows = new ArrayList<>();
+
+        private final ImageStatistics stats = new ImageStatistics();
+
+        private int width = -1;
+
+        public void handleLine(byte[] a, int s, int e) {
+            if (width < 0) {
+                width = 0;
+                for (int fs = firstField(a, s, e); fs >= 0; fs = nextField(a, fieldEnd(a, fs, e), e)) {
+                    width++;
+                }
+            }
+
+            double[] row = new double[width];
+            int fs = firstField(a, s, e);
+            for (int i = 0; i < width; i++) {
+                if (fs >= 0) {
+                    int fe = fieldEnd(a, fs, e);
+                    row[i] = parseDouble(a, fs, fe);
+                    stats.add(row[i]);
+                    fs = nextField(a, fe, e);
+                } else {
+                    row[i] = Double.NaN;
+                }
+            }
+            rows.add(row);
+        }
+
+        private SingleBandImageData getImageData() {
+            double[][] data = rows.toArray(new double[rows.size()][]);
+            int w = Math.max(width, 0);
+            stats.setSize(w, data.length);
+            return new SingleBandImageData(new ImageStatistics.DoubleBuffer2D(data, stats), w, data.length);
+        }
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.data;
+
+/**
+ * A pair of double[] (P/Q), which have the same length. Immutable.
+ *
+ * @author Jingjing Li
+ */
+public class DoubleArrayPair extends ArrayPair {
+
+    private final double[] p, q;
+
+    private final int offset;
+
+    /**
+     * Create a DoubleArrayPair instance with the given p/q array. The length of the p/q array must be same.
+     *
+     * @param p the 1st array
+     * @param q the 2nd array
+     */
+    public DoubleArrayPair(double[] p, double[] q) {
+        super(p, q);
+        this.p = p;
+        this.q = q;
+        this.offset = 0;
+    }
+
+    /**
+     * Create a DoubleArrayPair instance with the given p/q array and length. The length of the p/q array must be same
+     * or longer than the given length.
+     *
+     * @param p      the 1st array
+     * @param q      the 2nd array
+     * @param length the length to be used in this ArrayPair
+     */
+    public DoubleArrayPair(double[] p, double[] q, int length) {
+        this(p, q, 0, length);
+    }
+
+    /**
+     * Create a DoubleArrayPair instance with the given p/q array, offset and length. The length of the p/q array must be
+     * same or longer than the given offset + length.
+     *
+     * @param p      the 1st array
+     * @param q      the 2nd array
+     * @param offset the array index of the 1st element in this ArrayPair
+     * @param length the length to be used in this ArrayPair
+     */
+    public DoubleArrayPair(double[] p, double[] q, int offset, int length) {
+        super(p, q, offset, length);
+        this.p = p;
+        this.q = q;
+        this.offset = offset;
+    }
+
+    @Override
+    public double[] getPArray() {
+        return p;
+    }
+
+    @Override
+    public double[] getQArray() {
+        return q;
+    }
+
+    @Override
+    public double getPDouble(int idx) {
+        return p[offset + idx];
+    }
+
+    @Override
+    public double getQDouble(int idx) {
+        return q[offset + idx];
+    }
+
+    @Override
+    public void getPDouble(int srcPos, double[] dest, int destPos, int length) {
+        checkBulkRange(srcPos, length);
+        System.arraycopy(p, offset + srcPos, dest, destPos, length);
+    }
+
+    @Override
+    public void getQDouble(int srcPos, double[] dest, int destPos, int length) {
+        checkBulkRange(srcPos, length);
+        System.arraycopy(q, offset + srcPos, dest, destPos, length);
+    }
+
+}
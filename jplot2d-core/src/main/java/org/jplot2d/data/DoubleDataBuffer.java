@@ -60,23 +60,51 @@ public abstract class DoubleDataBuffer extends ImageDataBuffer {
     public static class Array extends DoubleDataBuffer {
         private final double[] data;
         private final int offset;
+        private final int scanlineStride;
 
+        /**
+         * @deprecated the rows cannot be located without the scanline stride. Use
+         *             {@link #Array(double[], int, int, ImageMaskBuffer)} instead.
+         */
+        @Deprecated
         public Array(double[] data) {
-            this(data, 0, null);
+            this(data, 0, 1, null);
         }
 
+        /**
+         * @deprecated the rows cannot be located without the scanline stride. Use
+         *             {@link #Array(double[], int, int, ImageMaskBuffer)} instead.
+         */
+        @Deprecated
         public Array(double[] data, ImageMaskBuffer mask) {
-            this(data, 0, mask);
+            this(data, 0, 1, mask);
         }
 
+        /**
+         * @deprecated the rows cannot be located without the scanline stride. Use
+         *             {@link #Array(double[], int, int, ImageMaskBuffer)} instead.
+         */
+        @Deprecated
         public Array(double[] data, int offset, ImageMaskBuffer mask) {
+            this(data, offset, 1, mask);
+        }
+
+        /**
+         * @param data           the array which stores the rows one after another
+         * @param offset         the array index of the pixel (0, 0)
+         * @param scanlineStride the array index distance between a pixel and the pixel of the same column in the next
+         *                       row, usually the image width
+         * @param mask           the mask, can be <code>null</code>
+         */
+        public Array(double[] data, int offset, int scanlineStride, ImageMaskBuffer mask) {
             super(mask);
             this.data = data;
             this.offset = offset;
+            this.scanlineStride = scanlineStride;
         }
 
         public double get(int x, int y) {
-            return data[offset + x + y];
+            return data[offset + y * scanlineStride + x];
         }
 
     }
@@ -109,23 +137,80 @@ public abstract class DoubleDataBuffer extends ImageDataBuffer {
     public static class NioBuffer extends DoubleDataBuffer {
         private final DoubleBuffer data;
         private final int offset;
+        private final int scanlineStride;
 
+        /**
+         * @deprecated the rows cannot be located without the scanline stride. Use
+         *             {@link #NioBuffer(DoubleBuffer, int, int, ImageMaskBuffer)} instead.
+         */
+        @Deprecated
         public NioBuffer(DoubleBuffer data) {
-            this(data, 0, null);
+            this(data, 0, 1, null);
         }
 
+        /**
+         * @deprecated the rows cannot be located without the scanline stride. Use
+         *             {@link #NioBuffer(DoubleBuffer, int, int, ImageMaskBuffer)} instead.
+         */
+        @Deprecated
         public NioBuffer(DoubleBuffer data, ImageMaskBuffer mask) {
-            this(data, 0, mask);
+            this(data, 0, 1, mask);
         }
 
+        /**
+         * @deprecated the rows cannot be located without the scanline stride. Use
+         *             {@link #NioBuffer(DoubleBuffer, int, int, ImageMaskBuffer)} instead.
+         */
+        @Deprecated
         public NioBuffer(DoubleBuffer data, int offset, ImageMaskBuffer mask) {
+            this(data, offset, 1, mask);
+        }
+
+        /**
+         * @param data           the buffer which stores the rows one after another
+         * @param offset         the buffer index of the pixel (0, 0)
+         * @param scanlineStride the buffer index distance between a pixel and the pixel of the same column in the next
+         *                       row, usually the image width
+         * @param mask           the mask, can be <code>null</code>
+         */
+        public NioBuffer(DoubleBuffer data, int offset, int scanlineStride, ImageMaskBuffer mask) {
             super(mask);
             this.data = data;
             this.offset = offset;
+            this.scanlineStride = scanlineStride;
+        }
+
+        public double get(int x, int y) {
+            return data.get(offset + y * scanlineStride + x);
+        }
+
+    }
+
+    /**
+     * The rows are stored in a series of NIO buffers, such as the memory-mapped blocks of a file which is larger than
+     * 2GB. Every buffer holds the same number of rows, except that the last buffer may hold fewer rows.
+     */
+    public static class NioBlocks extends DoubleDataBuffer {
+        private final DoubleBuffer[] blocks;
+        private final int blockRows;
+        private final int scanlineStride;
+
+        /**
+         * @param blocks         the buffers of row blocks
+         * @param blockRows      the number of rows in every block
+         * @param scanlineStride the buffer index distance between a pixel and the pixel of the same column in the next
+         *                       row, usually the image width
+         * @param mask           the mask, can be <code>null</code>
+         */
+        public NioBlocks(DoubleBuffer[] blocks, int blockRows, int scanlineStride, ImageMaskBuffer mask) {
+            super(mask);
+            this.blocks = blocks;
+            this.blockRows = blockRows;
+            this.scanlineStride = scanlineStride;
         }
 
         public double get(int x, int y) {
-            return data.get(offset + x + y);
+            return blocks[y / blockRows].get((y % blockRows) * scanlineStride + x);
         }
 
     }
@@ -143,9 +228,14 @@ public abstract class DoubleDataBuffer extends ImageDataBuffer {
                 }
             }
         } else {
+            long[] words = null;
             for (int j = 0; j < h; j++) {
+                words = getMaskWords(0, j, w, words);
                 for (int i = 0; i < w; i++) {
-                    if (!isMasked(i, j)) {
+                    if (words[i >> 6] == -1L) {
+                        // skip the fully masked run
+                        i |= 63;
+                    } else if ((words[i >> 6] >>> i & 1) == 0) {
                         double v = get(i, j);
                         if (v == v && v != Double.POSITIVE_INFINITY && v != Double.NEGATIVE_INFINITY) {
                             count++;
@@ -166,10 +256,18 @@ public abstract class DoubleDataBuffer extends ImageDataBuffer {
         int m = -1;
         int n = -1;
 
+        long[] words = null;
         for (int j = 0; j < h; j++) {
+            words = getMaskWords(0, j, w, words);
             for (int i = 0; i < w; i++) {
+                if (words[i >> 6] == -1L) {
+                    // skip the fully masked run
+                    i |= 63;
+                    continue;
+                }
                 double v = get(i, j);
-                if (!isMasked(i, j) && v == v && v != Double.POSITIVE_INFINITY && v != Double.NEGATIVE_INFINITY) {
+                if ((words[i >> 6] >>> i & 1) == 0
+                        && v == v && v != Double.POSITIVE_INFINITY && v != Double.NEGATIVE_INFINITY) {
                     min = v;
                     max = v;
                     m = i;
@@ -189,9 +287,16 @@ public abstract class DoubleDataBuffer extends ImageDataBuffer {
 		/* find min & max value */
         m++;
         for (int j = n; j < h; j++) {
+            words = getMaskWords(0, j, w, words);
             for (int i = m; i < w; i++) {
+                if (words[i >> 6] == -1L) {
+                    // skip the fully masked run
+                    i |= 63;
+                    continue;
+                }
                 double v = get(i, j);
-                if (!isMasked(i, j) && v == v && v != Double.POSITIVE_INFINITY && v != Double.NEGATIVE_INFINITY) {
+                if ((words[i >> 6] >>> i & 1) == 0
+                        && v == v && v != Double.POSITIVE_INFINITY && v != Double.NEGATIVE_INFINITY) {
                     if (min > v) {
                         min = v;
                     }
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.data;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps the primary HDU of a simple FITS file into memory. The image must be 2 dimensional, or have 1 pixel on all
+ * other axes. BITPIX 8, 16, 32, -32 and -64 are supported. The pixels are not read or copied when the image is opened.
+ * They are read from the mapped file when they are accessed, so only the rendered part of a large image is paged in.
+ * <p>
+ * When the header has BZERO or BSCALE, the physical values <code>BZERO + BSCALE * raw</code> are calculated when they
+ * are accessed. The unsigned bytes of BITPIX 8 are also converted this way. Integer pixels equal to BLANK are masked.
+ * <p>
+ * The first row in the file is the row 0 of the image, which is the bottom row when displayed.
+ *
+ * @author Jingjing Li
+ */
+public class FitsImageLoader {
+
+    private static final int BLOCK_SIZE = 2880;
+
+    private static final int CARD_SIZE = 80;
+
+    private FitsImageLoader() {
+    }
+
+    /**
+     * Maps the primary image of the given FITS file.
+     *
+     * @param file the FITS file
+     * @return the mapped image
+     * @throws IOException if an I/O error occurs, or the file is not a supported FITS image
+     */
+    public static SingleBandImageData map(File file) throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            return map(in.getChannel());
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Maps the primary image of the given FITS file channel. The mapping remains valid after the channel is closed.
+     *
+     * @param channel the file channel, must be opened for reading
+     * @return the mapped image
+     * @throws IOException if an I/O error occurs, or the file is not a supported FITS image
+     */
+    public static SingleBandImageData map(FileChannel channel) throws IOException {
+        Map<String, String> header = new HashMap<>();
+        long dataPosition = readHeader(channel, header);
+
+        if (!"T".equals(header.get("SIMPLE"))) {
+            throw new IOException("Not a FITS file.");
+        }
+        int bitpix = getInt(header, "BITPIX");
+        int naxis = getInt(header, "NAXIS");
+        if (naxis < 2) {
+            throw new IOException("The primary HDU is not an image.");
+        }
+        for (int i = 3; i <= naxis; i++) {
+            if (getInt(header, "NAXIS" + i) != 1) {
+                throw new IOException("Only 2 dimensional images are supported.");
+            }
+        }
+        int width = getInt(header, "NAXIS1");
+        int height = getInt(header, "NAXIS2");
+        double bzero = header.containsKey("BZERO") ? getDouble(header, "BZERO") : 0;
+        double bscale = header.containsKey("BSCALE") ? getDouble(header, "BSCALE") : 1;
+
+        Class<?> type;
+        switch (bitpix) {
+            case 8:
+                type = byte.class;
+                break;
+            case 16:
+                type = short.class;
+                break;
+            case 32:
+                type = int.class;
+                break;
+            case -32:
+                type = float.class;
+                break;
+            case -64:
+                type = double.class;
+                break;
+            default:
+                throw new IOException("Unsupported BITPIX: " + bitpix);
+        }
+        boolean unsigned = (bitpix == 8);
+
+        // BLANK only applies to integer pixels
+        BlankMask mask = null;
+        if (bitpix > 0 && header.containsKey("BLANK")) {
+            mask = new BlankMask(getInt(header, "BLANK"), unsigned);
+        }
+        boolean scaled = unsigned || bzero != 0 || bscale != 1;
+
+        // the file is mapped once. The unscaled raw buffer is the image buffer, and carries the mask itself.
+        BinaryDataLoader loader = new BinaryDataLoader(ByteOrder.BIG_ENDIAN);
+        ImageDataBuffer raw = loader.mapImageBuffer(channel, type, dataPosition, width, height, scaled ? null : mask);
+        if (mask != null) {
+            mask.raw = raw;
+        }
+
+        ImageDataBuffer dbuf = scaled ? new ScaledBuffer(raw, bzero, bscale, unsigned, mask) : raw;
+        return new SingleBandImageData(dbuf, width, height);
+    }
+
+    /**
+     * Read the header cards into the given map, and returns the file position of the data.
+     */
+    private static long readHeader(FileChannel channel, Map<String, String> header) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+        long position = 0;
+        while (true) {
+            block.clear();
+            while (block.hasRemaining()) {
+                if (channel.read(block, position + block.position()) < 0) {
+                    throw new EOFException("The file ends before the end of the FITS header.");
+                }
+            }
+            position += BLOCK_SIZE;
+            String cards = new String(block.array(), StandardCharsets.US_ASCII);
+            for (int i = 0; i < BLOCK_SIZE; i += CARD_SIZE) {
+                String keyword = cards.substring(i, i + 8).trim();
+                if (keyword.equals("END")) {
+                    return position;
+                }
+                if (cards.startsWith("= ", i + 8)) {
+                    String value = cards.substring(i + 10, i + CARD_SIZE);
+                    // strip the comment of a non-string value
+                    int slash = value.indexOf('/');
+                    if (slash >= 0 && !value.trim().startsWith("'")) {
+                        value = value.substring(0, slash);
+                    }
+                    header.put(keyword, value.trim());
+                }
+            }
+        }
+    }
+
+    private static int getInt(Map<String, String> header, String keyword) throws IOException {
+        String value = header.get(keyword);
+        if (value == null) {
+            throw new IOException("The keyword " + keyword + " is missing.");
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IOException("The value of " + keyword + " is not an integer: " + value);
+        }
+    }
+
+    private static double getDouble(Map<String, String> header, String keyword) throws IOException {
+        String value = header.get(keyword);
+        try {
+            // FITS allows D as the exponent letter
+            return Double.parseDouble(value.replace('D', 'E'));
+        } catch (NumberFormatException e) {
+            throw new IOException("The value of " + keyword + " is not a number: " + value);
+        }
+    }
+
+    /**
+     * Masks the pixels whose raw values equal to BLANK.
+     */
+    private static class BlankMask implements ImageMaskBuffer {
+        /**
+         * The buffer of raw values. It's set once after the file is mapped, before the image data is returned.
+         */
+        private ImageDataBuffer raw;
+        private final int blank;
+        private final boolean unsigned;
+
+        private BlankMask(int blank, boolean unsigned) {
+            this.blank = blank;
+            this.unsigned = unsigned;
+        }
+
+        public boolean isMasked(int x, int y) {
+            int v = raw.getInt(x, y);
+            return (unsigned ? v & 0xff : v) == blank;
+        }
+    }
+
+    /**
+     * The physical values of raw pixels, calculated when they are accessed.
+     */
+    private static class ScaledBuffer extends DoubleDataBuffer {
+        private final ImageDataBuffer raw;
+        private final double bzero, bscale;
+        private final boolean unsigned;
+
+        private ScaledBuffer(ImageDataBuffer raw, double bzero, double bscale, boolean unsigned,
+                             ImageMaskBuffer mask) {
+            super(mask);
+            this.raw = raw;
+            this.bzero = bzero;
+            this.bscale = bscale;
+            this.unsigned = unsigned;
+        }
+
+        public double get(int x, int y) {
+            double v = unsigned ? raw.getInt(x, y) & 0xff : raw.getDouble(x, y);
+            return bzero + bscale * v;
+        }
+    }
+
+}
@@ -18,6 +18,8 @@
  */
 package org.jplot2d.data;
 
+import java.util.Arrays;
+
 /**
  * Warp a band of image data. The data can be in a array, a 2d array , or a nio Buffer.
  * The ImageDataBuffer can optionally take an offset, so that data in an existing array can be used
@@ -53,6 +55,45 @@ public abstract class ImageDataBuffer {
         return mask != null && mask.isMasked(x, y);
     }
 
+    /**
+     * Returns the mask bits of the pixels from (x, y) to (x + w - 1, y). The mask of the pixel <code>x + k</code> is
+     * the bit <code>k % 64</code> of the word <code>words[k / 64]</code>, so a word of -1 is a fully masked run of 64
+     * pixels, and a word of 0 is a fully unmasked run. The bits after the last pixel are set.
+     * <p>
+     * A {@link BitMaskBuffer} provides the words directly. Other masks are read pixel by pixel.
+     *
+     * @param x     the X coordinate of the 1st pixel
+     * @param y     the Y coordinate of the row
+     * @param w     the number of pixels
+     * @param words the array to reuse, can be <code>null</code>
+     * @return the mask words, which may be the given array
+     */
+    public long[] getMaskWords(int x, int y, int w, long[] words) {
+        int n = (w + 63) >> 6;
+        if (words == null || words.length < n) {
+            words = new long[n];
+        }
+        if (mask == null) {
+            Arrays.fill(words, 0, n, 0);
+            if ((w & 63) != 0) {
+                words[n - 1] = -1L << w;
+            }
+        } else if (mask instanceof BitMaskBuffer) {
+            ((BitMaskBuffer) mask).getMaskWords(x, y, w, words);
+        } else {
+            Arrays.fill(words, 0, n, 0);
+            for (int k = 0; k < w; k++) {
+                if (mask.isMasked(x + k, y)) {
+                    words[k >> 6] |= 1L << k;
+                }
+            }
+            if ((w & 63) != 0) {
+                words[n - 1] |= -1L << w;
+            }
+        }
+        return words;
+    }
+
     /**
      * Returns the sample for the pixel located at (x,y) as a double.
      *
@@ -118,4 +159,12 @@ public abstract class ImageDataBuffer {
      */
     public abstract double[] calcMinMax(int w, int h);
 
+    /**
+     * Notify the values of this data buffer have been changed, so that the statistics cached by it must not be used
+     * any more. This method is called by {@link MutableImageData#update(int, int, int, int)}.
+     */
+    void valuesChanged() {
+        // nothing is cached by default
+    }
+
 }
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.data;
+
+/**
+ * The number of valid values and the min/max value of an image, which are accumulated while the image is loaded. The
+ * nested data buffers return them for the whole image instead of scanning all values again. NaN and infinite values
+ * are invalid, same as {@link ImageDataBuffer#countValid(int, int)}.
+ * <p>
+ * The statistics are dropped when the values are changed through {@link MutableImageData}, and the buffers scan the
+ * values from then on.
+ *
+ * @author Jingjing Li
+ */
+final class ImageStatistics {
+
+    private int width, height;
+
+    private int validCount;
+
+    private double min = Double.NaN, max = Double.NaN;
+
+    private volatile boolean valid = true;
+
+    /**
+     * Sets the size of the image. The statistics are only used for the whole image.
+     *
+     * @param width  the image width
+     * @param height the image height
+     */
+    void setSize(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Merge the given value into the statistics.
+     *
+     * @param v the value
+     */
+    void add(double v) {
+        if (v == v && v != Double.POSITIVE_INFINITY && v != Double.NEGATIVE_INFINITY) {
+            validCount++;
+            if (!(min <= v)) {
+                min = v;
+            }
+            if (!(max >= v)) {
+                max = v;
+            }
+        }
+    }
+
+    /**
+     * Drop the statistics, because the values have been changed.
+     */
+    void invalidate() {
+        valid = false;
+    }
+
+    private boolean covers(int w, int h) {
+        return valid && w == width && h == height;
+    }
+
+    private double[] getMinMax() {
+        return (validCount == 0) ? null : new double[]{min, max};
+    }
+
+    static class ByteBuffer2D extends ByteDataBuffer.Array2D {
+
+        private final ImageStatistics stats;
+
+        ByteBuffer2D(byte[][] data, ImageStatistics stats) {
+            super(data);
+            this.stats = stats;
+        }
+
+        @Override
+        public double countValid(int w, int h) {
+            return stats.covers(w, h) ? stats.validCount : super.countValid(w, h);
+        }
+
+        @Override
+        public double[] calcMinMax(int w, int h) {
+            return stats.covers(w, h) ? stats.getMinMax() : super.calcMinMax(w, h);
+        }
+
+        @Override
+        void valuesChanged() {
+            stats.invalidate();
+        }
+    }
+
+    static class ShortBuffer2D extends ShortDataBuffer.Array2D {
+
+        private final ImageStatistics stats;
+
+        ShortBuffer2D(short[][] data, ImageStatistics stats) {
+            super(data);
+            this.stats = stats;
+        }
+
+        @Override
+        public double countValid(int w, int h) {
+            return stats.covers(w, h) ? stats.validCount : super.countValid(w, h);
+        }
+
+        @Override
+        public double[] calcMinMax(int w, int h) {
+            return stats.covers(w, h) ? stats.getMinMax() : super.calcMinMax(w, h);
+        }
+
+        @Override
+        void valuesChanged() {
+            stats.invalidate();
+        }
+    }
+
+    static class IntBuffer2D extends IntDataBuffer.Array2D {
+
+        private final ImageStatistics stats;
+
+        IntBuffer2D(int[][] data, ImageStatistics stats) {
+            super(data);
+            this.stats = stats;
+        }
+
+        @Override
+        public double countValid(int w, int h) {
+            return stats.covers(w, h) ? stats.validCount : super.countValid(w, h);
+        }
+
+        @Override
+        public double[] calcMinMax(int w, int h) {
+            return stats.covers(w, h) ? stats.getMinMax() : super.calcMinMax(w, h);
+        }
+
+        @Override
+        void valuesChanged() {
+            stats.invalidate();
+        }
+    }
+
+    static class FloatBuffer2D extends FloatDataBuffer.Array2D {
+
+        private final ImageStatistics stats;
+
+        FloatBuffer2D(float[][] data, ImageStatistics stats) {
+            super(data);
+            this.stats = stats;
+        }
+
+        @Override
+        public double countValid(int w, int h) {
+            return stats.covers(w, h) ? stats.validCount : super.countValid(w, h);
+        }
+
+        @Override
+        public double[] calcMinMax(int w, int h) {
+            return stats.covers(w, h) ? stats.getMinMax() : super.calcMinMax(w, h);
+        }
+
+        @Override
+        void valuesChanged() {
+            stats.invalidate();
+        }
+    }
+
+    static class DoubleBuffer2D extends DoubleDataBuffer.Array2D {
+
+        private final ImageStatistics stats;
+
+        DoubleBuffer2D(double[][] data, ImageStatistics stats) {
+            super(data);
+            this.stats = stats;
+        }
+
+        @Override
+        public double countValid(int w, int h) {
+            return stats.covers(w, h) ? stats.validCount : super.countValid(w, h);
+        }
+
+        @Override
+        public double[] calcMinMax(int w, int h) {
+            return stats.covers(w, h) ? stats.getMinMax() : super.calcMinMax(w, h);
+        }
+
+        @Override
+        void valuesChanged() {
+            stats.invalidate();
+        }
+    }
+
+}
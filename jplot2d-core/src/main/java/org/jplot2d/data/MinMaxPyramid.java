@@ -0,0 +1,428 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.data;
+
+import java.util.Arrays;
+
+/**
+ * A level-of-detail index of XYGraphData. Every level splits the data points into buckets of a power-of-two stride,
+ * and keeps the index of the min and max y point of each bucket. The first and last point of a bucket are implied by
+ * the stride. Drawing the first, min, max and last points of every bucket gives the same line as drawing all points,
+ * as long as a bucket is not wider than a device pixel.
+ * <p>
+ * The buckets are aligned to the absolute index of points in a {@link XYDataSeries}, so that the buckets of appended
+ * points are added incrementally, and the complete buckets are shared by the pyramids of all snapshots. A bucket
+ * which contains a NaN point, or is not complete in the data, has no min/max index. It's represented by the buckets
+ * of the level below, or by all its points at level 0.
+ * Immutable.
+ *
+ * @author Jingjing Li
+ */
+public final class MinMaxPyramid {
+
+    /**
+     * The stride of level 0 is 1 &lt;&lt; MIN_SHIFT
+     */
+    private static final int MIN_SHIFT = 6;
+
+    /**
+     * The stride of the top level is 1 &lt;&lt; MAX_SHIFT, so that an offset in a bucket fits in an int
+     */
+    private static final int MAX_SHIFT = 30;
+
+    private static final int MAX_LEVELS = MAX_SHIFT - MIN_SHIFT + 1;
+
+    private static final int BLOCK_SIZE = 1024;
+
+    /**
+     * The absolute index of the 1st point
+     */
+    private final long first;
+
+    private final int size;
+
+    private final int levelCount;
+
+    /**
+     * The offsets of the min/max y point in every complete bucket, or -1 if the bucket contains NaN
+     */
+    private final int[][] minOffsets, maxOffsets;
+
+    /**
+     * The absolute bucket number of the 1st element of offset arrays, per level
+     */
+    private final long[] firstBuckets;
+
+    /**
+     * The number of complete buckets in offset arrays, per level
+     */
+    private final int[] bucketCounts;
+
+    /**
+     * <code>true</code> if the valid x values never decrease
+     */
+    private final boolean xAscending;
+
+    private MinMaxPyramid(Builder builder, long first, int size) {
+        this.first = first;
+        this.size = size;
+
+        int count = 0;
+        for (long stride = 1L << MIN_SHIFT; stride < size && count < MAX_LEVELS; stride <<= 1) {
+            count++;
+        }
+        levelCount = count;
+        minOffsets = Arrays.copyOf(builder.minOffsets, count);
+        maxOffsets = Arrays.copyOf(builder.maxOffsets, count);
+        firstBuckets = Arrays.copyOf(builder.firstBuckets, count);
+        bucketCounts = Arrays.copyOf(builder.bucketCounts, count);
+        xAscending = builder.lastDescentIdx <= first;
+    }
+
+    /**
+     * Build the pyramid of the given data.
+     *
+     * @param data the data
+     * @return the pyramid
+     */
+    static MinMaxPyramid build(XYGraphData data) {
+        int size = data.size();
+        Builder builder = new Builder(0);
+        double[] xbuf = new double[BLOCK_SIZE];
+        double[] ybuf = new double[BLOCK_SIZE];
+        for (int start = 0; start < size; start += BLOCK_SIZE) {
+            int len = Math.min(BLOCK_SIZE, size - start);
+            data.getX(start, xbuf, 0, len);
+            data.getY(start, ybuf, 0, len);
+            for (int k = 0; k < len; k++) {
+                builder.add(xbuf[k], ybuf[k]);
+            }
+        }
+        return builder.getPyramid(0, size);
+    }
+
+    /**
+     * Returns <code>true</code> if the valid x values never decrease. The buckets only match device columns when x is
+     * ascending.
+     *
+     * @return <code>true</code> if the valid x values never decrease
+     */
+    public boolean isXAscending() {
+        return xAscending;
+    }
+
+    /**
+     * Returns the number of levels.
+     *
+     * @return the number of levels
+     */
+    public int getLevelCount() {
+        return levelCount;
+    }
+
+    /**
+     * Returns the number of points in a bucket of the given level.
+     *
+     * @param level the level
+     * @return the stride
+     */
+    public int getStride(int level) {
+        return 1 << (MIN_SHIFT + level);
+    }
+
+    /**
+     * Returns the coarsest level whose stride is not larger than the given stride, or -1 if all levels are coarser.
+     *
+     * @param maxStride the maximum stride
+     * @return the level, or -1
+     */
+    public int findLevel(long maxStride) {
+        int level = -1;
+        while (level + 1 < getLevelCount() && getStride(level + 1) <= maxStride) {
+            level++;
+        }
+        return level;
+    }
+
+    /**
+     * Returns the indexes of the points which represent the data points in the given index range at the given level.
+     * For every bucket, they are the first, min, max and last points in their original order. A bucket which contains
+     * NaN, is partially in the given range, or is not complete, is represented by the buckets of the level below, or by
+     * all its points at level 0.
+     *
+     * @param level the level
+     * @param start the first index of the range
+     * @param end   the index after the last index of the range
+     * @return the indexes in ascending order
+     */
+    public int[] getRepresentativeIndexes(int level, int start, int end) {
+        IndexList result = new IndexList(Math.max(16, ((end - start) >> (MIN_SHIFT + level)) * 4 + 8));
+        addRepresentativeIndexes(result, level, start, end);
+        return result.toArray();
+    }
+
+    /**
+     * Returns the indexes of the points which represent the data points in the consecutive index ranges separated by
+     * the given borders. Every range is represented as by {@link #getRepresentativeIndexes(int, int, int)}, so the
+     * first, min, max and last points of every range are always included.
+     *
+     * @param level   the level
+     * @param borders the ascending borders of ranges. The first one is the start of the 1st range, and the last one is
+     *                the end of the last range.
+     * @return the indexes in ascending order
+     */
+    public int[] getRepresentativeIndexes(int level, int[] borders) {
+        int start = borders[0];
+        int end = borders[borders.length - 1];
+        IndexList result = new IndexList(Math.max(16, ((end - start) >> (MIN_SHIFT + level)) * 4 + borders.length * 8));
+        for (int i = 1; i < borders.length; i++) {
+            addRepresentativeIndexes(result, level, borders[i - 1], borders[i]);
+        }
+        return result.toArray();
+    }
+
+    private void addRepresentativeIndexes(IndexList result, int level, int start, int end) {
+        int shift = MIN_SHIFT + level;
+        long stride = 1L << shift;
+        int[] mins = minOffsets[level];
+        int[] maxs = maxOffsets[level];
+        long absStart = first + start;
+        long absEnd = first + end;
+
+        long i = absStart;
+        while (i < absEnd) {
+            long b = i >> shift;
+            long bs = b << shift;
+            long be = bs + stride;
+            long k = b - firstBuckets[level];
+            if (bs < absStart || be > absEnd || mins == null || k < 0 || k >= bucketCounts[level]
+                    || mins[(int) k] == -1) {
+                // partial or broken bucket
+                int e = (int) (Math.min(be, absEnd) - first);
+                if (level > 0) {
+                    addRepresentativeIndexes(result, level - 1, (int) (i - first), e);
+                } else {
+                    for (int p = (int) (i - first); p < e; p++) {
+                        result.add(p);
+                    }
+                }
+                i = Math.min(be, absEnd);
+                continue;
+            }
+
+            int firstIdx = (int) (bs - first);
+            int last = (int) (be - 1 - first);
+            int minIdx = firstIdx + mins[(int) k];
+            int maxIdx = firstIdx + maxs[(int) k];
+            int lo = Math.min(minIdx, maxIdx);
+            int hi = Math.max(minIdx, maxIdx);
+            result.add(firstIdx);
+            if (lo != firstIdx && lo != last) {
+                result.add(lo);
+            }
+            if (hi != firstIdx && hi != last && hi != lo) {
+                result.add(hi);
+            }
+            if (last != firstIdx) {
+                result.add(last);
+            }
+            i = be;
+        }
+    }
+
+    /**
+     * A growable list of indexes.
+     */
+    private static class IndexList {
+
+        private int[] array;
+
+        private int count;
+
+        private IndexList(int capacity) {
+            array = new int[capacity];
+        }
+
+        private void add(int idx) {
+            if (count == array.length) {
+                array = Arrays.copyOf(array, array.length * 2);
+            }
+            array[count++] = idx;
+        }
+
+        private int[] toArray() {
+            return (count == array.length) ? array : Arrays.copyOf(array, count);
+        }
+    }
+
+    /**
+     * Builds the buckets of points which are appended one by one. A bucket is stored once all its points have been
+     * added, and is never modified after that. The offset arrays are only appended, or copied when they are full, so
+     * they are shared by all pyramids returned by {@link #getPyramid(long, int)}. Adding a point costs amortized O(1)
+     * time.
+     * <p>
+     * This class is not thread-safe. The returned pyramids can be used by any thread.
+     */
+    static final class Builder {
+
+        /**
+         * The absolute index of the next point
+         */
+        private long next;
+
+        /**
+         * The absolute index of the 1st point which is not dropped
+         */
+        private long first;
+
+        private final int[][] minOffsets = new int[MAX_LEVELS][], maxOffsets = new int[MAX_LEVELS][];
+
+        private final long[] firstBuckets = new long[MAX_LEVELS];
+
+        private final int[] bucketCounts = new int[MAX_LEVELS];
+
+        /**
+         * The min/max of the incomplete bucket of every level
+         */
+        private final long[] minIdxes = new long[MAX_LEVELS], maxIdxes = new long[MAX_LEVELS];
+
+        private final double[] mins = new double[MAX_LEVELS], maxs = new double[MAX_LEVELS];
+
+        private final boolean[] hasNaN = new boolean[MAX_LEVELS], empty = new boolean[MAX_LEVELS];
+
+        private double lastValidX = Double.NEGATIVE_INFINITY;
+
+        /**
+         * The absolute index of the last valid point whose x is less than the x of its previous valid point
+         */
+        private long lastDescentIdx = -1;
+
+        /**
+         * @param start the absolute index of the 1st point
+         */
+        Builder(long start) {
+            next = first = start;
+            Arrays.fill(empty, true);
+        }
+
+        /**
+         * Add a point to the end.
+         *
+         * @param x the x value
+         * @param y the y value
+         */
+        void add(double x, double y) {
+            long idx = next++;
+            if (Double.isNaN(x) || Double.isNaN(y)) {
+                hasNaN[0] = true;
+            } else {
+                if (x < lastValidX) {
+                    lastDescentIdx = idx;
+                }
+                lastValidX = x;
+                merge(0, idx, y, idx, y);
+            }
+
+            // store the completed buckets, and merge them into the level above
+            for (int level = 0; level < MAX_LEVELS; level++) {
+                int shift = MIN_SHIFT + level;
+                if ((next & ((1L << shift) - 1)) != 0) {
+                    break;
+                }
+                store(level, idx >> shift);
+                if (level + 1 < MAX_LEVELS) {
+                    if (hasNaN[level]) {
+                        hasNaN[level + 1] = true;
+                    } else if (!empty[level]) {
+                        merge(level + 1, minIdxes[level], mins[level], maxIdxes[level], maxs[level]);
+                    }
+                }
+                hasNaN[level] = false;
+                empty[level] = true;
+            }
+        }
+
+        private void merge(int level, long minIdx, double min, long maxIdx, double max) {
+            if (empty[level] || min < mins[level]) {
+                mins[level] = min;
+                minIdxes[level] = minIdx;
+            }
+            if (empty[level] || max > maxs[level]) {
+                maxs[level] = max;
+                maxIdxes[level] = maxIdx;
+            }
+            empty[level] = false;
+        }
+
+        /**
+         * Store the completed bucket of the given level.
+         */
+        private void store(int level, long bucket) {
+            int[] minArray = minOffsets[level];
+            int[] maxArray = maxOffsets[level];
+            if (minArray == null) {
+                minArray = minOffsets[level] = new int[16];
+                maxArray = maxOffsets[level] = new int[16];
+                firstBuckets[level] = bucket;
+            } else if (bucketCounts[level] == minArray.length) {
+                // copy the buckets which are not dropped to new arrays, the old arrays may be shared
+                int shift = MIN_SHIFT + level;
+                long firstLive = Math.max(firstBuckets[level], first >> shift);
+                int skip = (int) (firstLive - firstBuckets[level]);
+                int live = bucketCounts[level] - skip;
+                int capacity = Math.max(16, live * 2);
+                minArray = minOffsets[level] = Arrays.copyOfRange(minArray, skip, skip + capacity);
+                maxArray = maxOffsets[level] = Arrays.copyOfRange(maxArray, skip, skip + capacity);
+                firstBuckets[level] = firstLive;
+                bucketCounts[level] = live;
+            }
+
+            int k = bucketCounts[level]++;
+            // a bucket which starts before the 1st added point is never used, since it is not complete
+            if (hasNaN[level] || empty[level]) {
+                minArray[k] = maxArray[k] = -1;
+            } else {
+                long bs = bucket << (MIN_SHIFT + level);
+                minArray[k] = (int) (minIdxes[level] - bs);
+                maxArray[k] = (int) (maxIdxes[level] - bs);
+            }
+        }
+
+        /**
+         * Drop the points before the given absolute index. The buckets of dropped points are released when the offset
+         * arrays are copied.
+         *
+         * @param first the absolute index of the 1st point which is not dropped
+         */
+        void expire(long first) {
+            this.first = first;
+        }
+
+        /**
+         * Returns the pyramid of the given points. The points must be the last added points.
+         *
+         * @param first the absolute index of the 1st point
+         * @param size  the number of points
+         * @return the pyramid
+         */
+        MinMaxPyramid getPyramid(long first, int size) {
+            return new MinMaxPyramid(this, first, size);
+        }
+    }
+}
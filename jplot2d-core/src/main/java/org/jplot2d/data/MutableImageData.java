@@ -0,0 +1,147 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.data;
+
+import org.jplot2d.util.Range;
+
+import javax.annotation.Nullable;
+import java.awt.Rectangle;
+
+/**
+ * A single band image data whose pixels can be changed in place, for live feeds which update a region of the image
+ * many times per second. To update a region, write the new values into the data buffer, then call
+ * {@link org.jplot2d.element.ImageGraph#updateData(int, int, int, int)} with the changed region. Only the cached tiles
+ * covering the changed regions are z-scaled again, and the limits are updated incrementally if the limits calculator
+ * supports it.
+ * <p>
+ * Every update increases the version of this data. The data created by {@link #applyCoordinateReference} and
+ * {@link #applyBoundary} share the data buffer and the versions with this data.
+ *
+ * @author Jingjing Li
+ */
+public class MutableImageData extends SingleBandImageData {
+
+    /**
+     * The number of recent updates whose regions are kept
+     */
+    private static final int HISTORY_SIZE = 64;
+
+    private final History history;
+
+    public MutableImageData(ImageDataBuffer dataBuffer, int w, int h) {
+        super(dataBuffer, w, h);
+        this.history = new History();
+    }
+
+    public MutableImageData(ImageDataBuffer dataBuffer, int w, int h, ImageCoordinateReference cr) {
+        super(dataBuffer, w, h, cr);
+        this.history = new History();
+    }
+
+    /**
+     * Create a data which shares the data buffer and the versions with the given data.
+     */
+    protected MutableImageData(MutableImageData src, ImageCoordinateReference cr, Range xboundary, Range yboundary) {
+        super(src.getDataBuffer(), src.getWidth(), src.getHeight(), cr, xboundary, yboundary);
+        this.history = src.history;
+    }
+
+    /**
+     * Notify the values in the given region have been changed. The region is clipped by the image bounds. This method
+     * is called by the image graph which displays this data.
+     *
+     * @param x the x of the 1st changed pixel
+     * @param y the y of the 1st changed pixel
+     * @param w the width of the changed region
+     * @param h the height of the changed region
+     */
+    public void update(int x, int y, int w, int h) {
+        Rectangle region = new Rectangle(x, y, w, h).intersection(new Rectangle(getWidth(), getHeight()));
+        if (region.isEmpty()) {
+            return;
+        }
+        getDataBuffer().valuesChanged();
+        synchronized (history) {
+            history.version++;
+            history.regions[(int) (history.version % HISTORY_SIZE)] = region;
+        }
+    }
+
+    /**
+     * Notify all values have been changed.
+     */
+    public void update() {
+        update(0, 0, getWidth(), getHeight());
+    }
+
+    /**
+     * Returns the version of this data. The version is increased by every update.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        synchronized (history) {
+            return history.version;
+        }
+    }
+
+    /**
+     * Returns the bounds of the regions changed after the given version. If the given version is too old to know the
+     * changed regions, the whole image is returned.
+     *
+     * @param version the version
+     * @return the changed region, or <code>null</code> if nothing changed
+     */
+    @Nullable
+    public Rectangle getChangedRegion(long version) {
+        synchronized (history) {
+            if (version >= history.version) {
+                return null;
+            }
+            if (history.version - version > HISTORY_SIZE) {
+                return new Rectangle(getWidth(), getHeight());
+            }
+            Rectangle result = null;
+            for (long v = version + 1; v <= history.version; v++) {
+                Rectangle region = history.regions[(int) (v % HISTORY_SIZE)];
+                result = (result == null) ? new Rectangle(region) : result.union(region);
+            }
+            return result;
+        }
+    }
+
+    public MutableImageData applyCoordinateReference(ImageCoordinateReference cr) {
+        return new MutableImageData(this, cr, getXRange(), getYRange());
+    }
+
+    public MutableImageData applyBoundary(Range xboundary, Range yboundary) {
+        return new MutableImageData(this, getCoordinateReference(), xboundary, yboundary);
+    }
+
+    /**
+     * The version and the regions of recent updates.
+     */
+    private static class History {
+
+        private long version;
+
+        private final Rectangle[] regions = new Rectangle[HISTORY_SIZE];
+    }
+
+}
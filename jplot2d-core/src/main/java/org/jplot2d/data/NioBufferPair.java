@@ -0,0 +1,474 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.data;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A pair of NIO buffers (P/Q), which can be direct buffers or memory-mapped files, so that XY data can be plotted
+ * without being copied into the heap. Each buffer can be a DoubleBuffer, FloatBuffer, LongBuffer or IntBuffer.
+ * <p>
+ * A buffer cannot be larger than 2GB, so large values are stored in blocks of buffers. Every block but the last one
+ * holds the same number of values.
+ * <p>
+ * The values are accessed by absolute index, so the position of the buffers is irrelevant and never changed. The
+ * content of the buffers must not be changed after the pair is created. Immutable.
+ *
+ * @author Jingjing Li
+ */
+public class NioBufferPair extends ArrayPair {
+
+    /**
+     * The size of the pieces to map a block larger than 2GB
+     */
+    private static final int MAP_BLOCK_BYTES = 1 << 30;
+
+    /**
+     * The p/q buffer, or the p/q blocks
+     */
+    private final Object p, q;
+
+    private final Column pcol, qcol;
+
+    /**
+     * Create a NioBufferPair instance with the given p/q buffer. The limit of the p/q buffer must be same.
+     *
+     * @param p the 1st buffer
+     * @param q the 2nd buffer
+     */
+    public NioBufferPair(Buffer p, Buffer q) {
+        this(p, q, 0, checkLimit(p, q));
+    }
+
+    /**
+     * Create a NioBufferPair instance with the given p/q buffer and length. The limit of the p/q buffer must be same
+     * or larger than the given length.
+     *
+     * @param p      the 1st buffer
+     * @param q      the 2nd buffer
+     * @param length the length to be used in this ArrayPair
+     */
+    public NioBufferPair(Buffer p, Buffer q, int length) {
+        this(p, q, 0, length);
+    }
+
+    /**
+     * Create a NioBufferPair instance with the given p/q buffer, offset and length. The limit of the p/q buffer must
+     * be same or larger than the given offset + length.
+     *
+     * @param p      the 1st buffer
+     * @param q      the 2nd buffer
+     * @param offset the buffer index of the 1st element in this ArrayPair
+     * @param length the length to be used in this ArrayPair
+     */
+    public NioBufferPair(Buffer p, Buffer q, int offset, int length) {
+        super(componentType(p), componentType(q), length);
+        if (offset < 0) {
+            throw new IllegalArgumentException("The offset must not be negative.");
+        }
+        if (p.limit() < offset + length) {
+            throw new IllegalArgumentException(
+                    "The limit of the p buffer must be equal or larger than the given offset + length.");
+        }
+        if (q.limit() < offset + length) {
+            throw new IllegalArgumentException(
+                    "The limit of the q buffer must be equal or larger than the given offset + length.");
+        }
+        this.p = p;
+        this.q = q;
+        pcol = createColumn(p, offset);
+        qcol = createColumn(q, offset);
+    }
+
+    /**
+     * Create a NioBufferPair instance with the given p/q blocks. Every block but the last one must hold the given
+     * number of values from index 0, and all blocks of p (or q) must be the same type of buffers.
+     *
+     * @param pBlocks     the blocks of the 1st buffer
+     * @param qBlocks     the blocks of the 2nd buffer
+     * @param blockLength the number of values in every block
+     * @param length      the length to be used in this ArrayPair
+     */
+    public NioBufferPair(Buffer[] pBlocks, Buffer[] qBlocks, int blockLength, int length) {
+        super(componentType(pBlocks), componentType(qBlocks), length);
+        if (blockLength <= 0) {
+            throw new IllegalArgumentException("The block length must be positive.");
+        }
+        checkBlocks(pBlocks, blockLength, length, "p");
+        checkBlocks(qBlocks, blockLength, length, "q");
+        this.p = pBlocks;
+        this.q = qBlocks;
+        pcol = createBlockColumn(pBlocks, blockLength);
+        qcol = createBlockColumn(qBlocks, blockLength);
+    }
+
+    /**
+     * Maps the p/q values of the given file channel into memory. The p values and q values are 2 blocks of the given
+     * type, starting at the given file position. Every block is mapped separately. A block larger than 2GB is mapped
+     * in 1GB pieces.
+     * <p>
+     * The mapping remains valid after the channel is closed.
+     *
+     * @param channel   the file channel, must be opened for reading
+     * @param type      the value type, double.class, float.class, long.class or int.class
+     * @param order     the byte order of the values in the file
+     * @param pPosition the file position of the 1st p value
+     * @param qPosition the file position of the 1st q value
+     * @param length    the number of values
+     * @return a NioBufferPair of the mapped file
+     * @throws IOException if an I/O error occurs
+     */
+    public static NioBufferPair map(FileChannel channel, Class<?> type, ByteOrder order, long pPosition,
+                                    long qPosition, int length) throws IOException {
+        if ((long) length * sizeOf(type) <= Integer.MAX_VALUE) {
+            Buffer p = map(channel, type, order, pPosition, length);
+            Buffer q = map(channel, type, order, qPosition, length);
+            return new NioBufferPair(p, q, length);
+        }
+        return map(channel, type, order, pPosition, qPosition, length, MAP_BLOCK_BYTES / sizeOf(type));
+    }
+
+    /**
+     * Maps the p/q values of the given file channel into memory, in pieces of the given number of values.
+     */
+    static NioBufferPair map(FileChannel channel, Class<?> type, ByteOrder order, long pPosition, long qPosition,
+                             int length, int blockLength) throws IOException {
+        int nblocks = (int) (((long) length + blockLength - 1) / blockLength);
+        Buffer[] pBlocks = new Buffer[nblocks];
+        Buffer[] qBlocks = new Buffer[nblocks];
+        long blockBytes = (long) blockLength * sizeOf(type);
+        for (int i = 0; i < nblocks; i++) {
+            int n = Math.min(blockLength, length - i * blockLength);
+            pBlocks[i] = map(channel, type, order, pPosition + i * blockBytes, n);
+            qBlocks[i] = map(channel, type, order, qPosition + i * blockBytes, n);
+        }
+        return new NioBufferPair(pBlocks, qBlocks, blockLength, length);
+    }
+
+    private static Buffer map(FileChannel channel, Class<?> type, ByteOrder order, long position, int length)
+            throws IOException {
+        long bytes = (long) length * sizeOf(type);
+        ByteBuffer bb = channel.map(FileChannel.MapMode.READ_ONLY, position, bytes).order(order);
+        if (type == double.class) {
+            return bb.asDoubleBuffer();
+        } else if (type == float.class) {
+            return bb.asFloatBuffer();
+        } else if (type == long.class) {
+            return bb.asLongBuffer();
+        } else {
+            return bb.asIntBuffer();
+        }
+    }
+
+    private static int sizeOf(Class<?> type) {
+        if (type == double.class || type == long.class) {
+            return 8;
+        } else if (type == float.class || type == int.class) {
+            return 4;
+        } else {
+            throw new IllegalArgumentException("Unsupported value type: " + type);
+        }
+    }
+
+    private static int checkLimit(Buffer p, Buffer q) {
+        if (p.limit() != q.limit()) {
+            throw new IllegalArgumentException("The limit of the pair of buffers must be equal.");
+        }
+        return p.limit();
+    }
+
+    private static Class<?> componentType(Buffer[] blocks) {
+        if (blocks.length == 0) {
+            throw new IllegalArgumentException("The blocks must not be empty.");
+        }
+        Class<?> type = componentType(blocks[0]);
+        for (Buffer block : blocks) {
+            if (componentType(block) != type) {
+                throw new IllegalArgumentException("The blocks must be the same type of buffers.");
+            }
+        }
+        return type;
+    }
+
+    private static void checkBlocks(Buffer[] blocks, int blockLength, int length, String name) {
+        long capacity = 0;
+        for (int i = 0; i < blocks.length; i++) {
+            if (i < blocks.length - 1 && blocks[i].limit() < blockLength) {
+                throw new IllegalArgumentException("The limit of the " + name
+                        + " block must be equal or larger than the block length.");
+            }
+            capacity += (i < blocks.length - 1) ? blockLength : blocks[i].limit();
+        }
+        if (capacity < length) {
+            throw new IllegalArgumentException("The " + name + " blocks must hold the given length of values.");
+        }
+    }
+
+    private static Class<?> componentType(Buffer buffer) {
+        if (buffer instanceof DoubleBuffer) {
+            return double.class;
+        } else if (buffer instanceof FloatBuffer) {
+            return float.class;
+        } else if (buffer instanceof LongBuffer) {
+            return long.class;
+        } else if (buffer instanceof IntBuffer) {
+            return int.class;
+        } else {
+            throw new IllegalArgumentException("Unsupported buffer type: " + buffer.getClass());
+        }
+    }
+
+    private static Column createColumn(Buffer buffer, int offset) {
+        if (buffer instanceof DoubleBuffer) {
+            return new DoubleColumn((DoubleBuffer) buffer, offset);
+        } else if (buffer instanceof FloatBuffer) {
+            return new FloatColumn((FloatBuffer) buffer, offset);
+        } else if (buffer instanceof LongBuffer) {
+            return new LongColumn((LongBuffer) buffer, offset);
+        } else {
+            return new IntColumn((IntBuffer) buffer, offset);
+        }
+    }
+
+    private static Column createBlockColumn(Buffer[] blocks, int blockLength) {
+        Column[] columns = new Column[blocks.length];
+        for (int i = 0; i < blocks.length; i++) {
+            columns[i] = createColumn(blocks[i], 0);
+        }
+        return new BlockColumn(columns, blockLength);
+    }
+
+    /**
+     * Returns the p buffer, or the p blocks as a Buffer[] if the values are stored in blocks. The 1st element is
+     * located at {@link #getOffset()}.
+     *
+     * @return the p buffer or blocks
+     */
+    @Override
+    public Object getPArray() {
+        return p;
+    }
+
+    /**
+     * Returns the q buffer, or the q blocks as a Buffer[] if the values are stored in blocks. The 1st element is
+     * located at {@link #getOffset()}.
+     *
+     * @return the q buffer or blocks
+     */
+    @Override
+    public Object getQArray() {
+        return q;
+    }
+
+    @Override
+    public int getOffset() {
+        return pcol.offset;
+    }
+
+    @Override
+    public double getPDouble(int idx) {
+        return pcol.get(idx);
+    }
+
+    @Override
+    public double getQDouble(int idx) {
+        return qcol.get(idx);
+    }
+
+    @Override
+    public void getPDouble(int srcPos, double[] dest, int destPos, int length) {
+        checkBulkRange(srcPos, length);
+        pcol.get(srcPos, dest, destPos, length);
+    }
+
+    @Override
+    public void getQDouble(int srcPos, double[] dest, int destPos, int length) {
+        checkBulkRange(srcPos, length);
+        qcol.get(srcPos, dest, destPos, length);
+    }
+
+    /**
+     * Returns a pair of double[] which contains the values of this pair followed by the given pair. The values are
+     * copied into the heap.
+     */
+    @Override
+    public ArrayPair append(ArrayPair arrayPair) {
+        return appendAsDouble(arrayPair);
+    }
+
+    /**
+     * Returns a pair of double[] which contains the values of this pair followed by the given arrays. The values are
+     * copied into the heap.
+     */
+    @Override
+    public ArrayPair append(Object ap, Object aq, int length) {
+        return appendAsDouble(ArrayPair.valueOf(ap, aq, length));
+    }
+
+    /**
+     * Reads the values of a buffer as doubles.
+     */
+    private static abstract class Column {
+
+        protected final int offset;
+
+        protected Column(int offset) {
+            this.offset = offset;
+        }
+
+        public abstract double get(int idx);
+
+        public abstract void get(int srcPos, double[] dest, int destPos, int length);
+    }
+
+    private static class DoubleColumn extends Column {
+
+        private final DoubleBuffer buffer;
+
+        private DoubleColumn(DoubleBuffer buffer, int offset) {
+            super(offset);
+            this.buffer = buffer;
+        }
+
+        @Override
+        public double get(int idx) {
+            return buffer.get(offset + idx);
+        }
+
+        @Override
+        public void get(int srcPos, double[] dest, int destPos, int length) {
+            // the bulk get is relative, so a duplicate is used to keep this thread-safe
+            DoubleBuffer dup = buffer.duplicate();
+            ((Buffer) dup).position(offset + srcPos);
+            dup.get(dest, destPos, length);
+        }
+    }
+
+    private static class FloatColumn extends Column {
+
+        private final FloatBuffer buffer;
+
+        private FloatColumn(FloatBuffer buffer, int offset) {
+            super(offset);
+            this.buffer = buffer;
+        }
+
+        @Override
+        public double get(int idx) {
+            return buffer.get(offset + idx);
+        }
+
+        @Override
+        public void get(int srcPos, double[] dest, int destPos, int length) {
+            int base = offset + srcPos;
+            for (int i = 0; i < length; i++) {
+                dest[destPos + i] = buffer.get(base + i);
+            }
+        }
+    }
+
+    private static class LongColumn extends Column {
+
+        private final LongBuffer buffer;
+
+        private LongColumn(LongBuffer buffer, int offset) {
+            super(offset);
+            this.buffer = buffer;
+        }
+
+        @Override
+        public double get(int idx) {
+            return buffer.get(offset + idx);
+        }
+
+        @Override
+        public void get(int srcPos, double[] dest, int destPos, int length) {
+            int base = offset + srcPos;
+            for (int i = 0; i < length; i++) {
+                dest[destPos + i] = buffer.get(base + i);
+            }
+        }
+    }
+
+    /**
+     * Reads the values of blocks. The offset is always 0.
+     */
+    private static class BlockColumn extends Column {
+
+        private final Column[] blocks;
+
+        private final int blockLength;
+
+        private BlockColumn(Column[] blocks, int blockLength) {
+            super(0);
+            this.blocks = blocks;
+            this.blockLength = blockLength;
+        }
+
+        @Override
+        public double get(int idx) {
+            return blocks[idx / blockLength].get(idx % blockLength);
+        }
+
+        @Override
+        public void get(int srcPos, double[] dest, int destPos, int length) {
+            while (length > 0) {
+                int b = srcPos / blockLength;
+                int pos = srcPos % blockLength;
+                int n = Math.min(length, blockLength - pos);
+                blocks[b].get(pos, dest, destPos, n);
+                srcPos += n;
+                destPos += n;
+                length -= n;
+            }
+        }
+    }
+
+    private static class IntColumn extends Column {
+
+        private final IntBuffer buffer;
+
+        private IntColumn(IntBuffer buffer, int offset) {
+            super(offset);
+            this.buffer = buffer;
+        }
+
+        @Override
+        public double get(int idx) {
+            return buffer.get(offset + idx);
+        }
+
+        @Override
+        public void get(int srcPos, double[] dest, int destPos, int length) {
+            int base = offset + srcPos;
+            for (int i = 0; i < length; i++) {
+                dest[destPos + i] = buffer.get(base + i);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.data;
+
+import org.jplot2d.util.Range;
+
+import java.util.Arrays;
+
+/**
+ * A scrolling waterfall image, such as a spectrogram, which gains a row for every frame and drops the oldest row. The
+ * rows are kept in a ring of a fixed capacity, so appending a row never copies the other rows. The newest row is the
+ * top row of the image, and the oldest row is the bottom row. Before the ring is full, the bottom rows are NaN.
+ * <p>
+ * After appending rows, call {@link org.jplot2d.element.ImageGraph#updateData(int, int, int, int)} with the whole image
+ * region to redraw the image graph. The image graph z-scales only the newly appended rows into a cached ring raster,
+ * and draws the raster with a wrap-around offset.
+ * <p>
+ * The min and max values of every appended row are merged into the running limits, which are returned by the
+ * {@link ImageDataBuffer#calcMinMax(int, int)} of the whole image. So the min/max limits algorithm never scans the
+ * image, and the raster is only z-scaled again when a new row widens the limits. The running limits never shrink when
+ * rows are dropped. Other limits algorithms calculate the limits of the whole image for every frame, so a fixed limits
+ * algorithm is preferred for them.
+ *
+ * @author Jingjing Li
+ */
+public class WaterfallImageData extends MutableImageData {
+
+    private final Ring ring;
+
+    /**
+     * Create a waterfall image.
+     *
+     * @param width    the number of values in a row
+     * @param capacity the number of rows in the image
+     */
+    public WaterfallImageData(int width, int capacity) {
+        this(new Ring(width, capacity), width, capacity, new ImageCoordinateReference());
+    }
+
+    /**
+     * Create a waterfall image.
+     *
+     * @param width    the number of values in a row
+     * @param capacity the number of rows in the image
+     * @param cr       the coordinate reference
+     */
+    public WaterfallImageData(int width, int capacity, ImageCoordinateReference cr) {
+        this(new Ring(width, capacity), width, capacity, cr);
+    }
+
+    private WaterfallImageData(Ring ring, int width, int capacity, ImageCoordinateReference cr) {
+        super(ring, width, capacity, cr);
+        this.ring = ring;
+    }
+
+    private WaterfallImageData(WaterfallImageData src, ImageCoordinateReference cr, Range xboundary,
+                               Range yboundary) {
+        super(src, cr, xboundary, yboundary);
+        this.ring = src.ring;
+    }
+
+    /**
+     * Returns the max number of rows.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return ring.capacity;
+    }
+
+    /**
+     * Returns the number of rows appended since this data is created.
+     *
+     * @return the number of appended rows
+     */
+    public long getRowCount() {
+        return ring.rowCount;
+    }
+
+    /**
+     * Returns the rows in the order of the ring. The absolute row <code>i</code> is kept in the ring row
+     * <code>i % capacity</code>.
+     *
+     * @return the ring rows
+     */
+    public FloatDataBuffer getRingBuffer() {
+        return ring.ringBuffer;
+    }
+
+    /**
+     * Append a row. The oldest row is dropped if the ring is full.
+     *
+     * @param row the row values, must have the same length as the image width
+     */
+    public void appendRow(float[] row) {
+        appendRows(new float[][]{row});
+    }
+
+    /**
+     * Append rows, in the order from the oldest to the newest. The oldest rows are dropped if the ring is full.
+     *
+     * @param rows the rows, every row must have the same length as the image width
+     */
+    public void appendRows(float[][] rows) {
+        for (float[] row : rows) {
+            if (row.length != ring.width) {
+                throw new IllegalArgumentException("The row length must be " + ring.width + ".");
+            }
+        }
+        synchronized (ring) {
+            for (float[] row : rows) {
+                System.arraycopy(row, 0, ring.rows[(int) (ring.rowCount % ring.capacity)], 0, ring.width);
+                ring.mergeLimits(row);
+                // the row is complete before it's counted
+                ring.rowCount++;
+            }
+        }
+        update();
+    }
+
+    public WaterfallImageData applyCoordinateReference(ImageCoordinateReference cr) {
+        return new WaterfallImageData(this, cr, getXRange(), getYRange());
+    }
+
+    public WaterfallImageData applyBoundary(Range xboundary, Range yboundary) {
+        return new WaterfallImageData(this, getCoordinateReference(), xboundary, yboundary);
+    }
+
+    /**
+     * The image view of the ring rows. The row <code>y</code> of the image is the absolute row
+     * <code>rowCount - capacity + y</code>.
+     */
+    private static class Ring extends FloatDataBuffer {
+
+        private final int width, capacity;
+
+        private final float[][] rows;
+
+        private final FloatDataBuffer ringBuffer;
+
+        private volatile long rowCount;
+
+        /**
+         * The running limits of all appended rows, NaN if no valid value has been appended. Guarded by this ring.
+         */
+        private double runningMin = Double.NaN, runningMax = Double.NaN;
+
+        private Ring(int width, int capacity) {
+            super(null);
+            if (width < 1 || capacity < 1) {
+                throw new IllegalArgumentException("The width and capacity must be positive.");
+            }
+            this.width = width;
+            this.capacity = capacity;
+            this.rows = new float[capacity][width];
+            for (float[] row : rows) {
+                Arrays.fill(row, Float.NaN);
+            }
+            this.ringBuffer = new FloatDataBuffer.Array2D(rows);
+        }
+
+        public float get(int x, int y) {
+            long i = rowCount - capacity + y;
+            if (i < 0) {
+                return Float.NaN;
+            }
+            return rows[(int) (i % capacity)][x];
+        }
+
+        /**
+         * Merge the valid values of the given row into the running limits.
+         */
+        private void mergeLimits(float[] row) {
+            for (float v : row) {
+                if (v == v && v != Float.POSITIVE_INFINITY && v != Float.NEGATIVE_INFINITY) {
+                    if (!(runningMin <= v)) {
+                        runningMin = v;
+                    }
+                    if (!(runningMax >= v)) {
+                        runningMax = v;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Returns the running limits for the whole image, without scanning the rows.
+         */
+        @Override
+        public double[] calcMinMax(int w, int h) {
+            if (w != width || h != capacity) {
+                return super.calcMinMax(w, h);
+            }
+            synchronized (this) {
+                if (Double.isNaN(runningMin)) {
+                    return null;
+                }
+                return new double[]{runningMin, runningMax};
+            }
+        }
+    }
+
+}
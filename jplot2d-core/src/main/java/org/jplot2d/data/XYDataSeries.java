@@ -0,0 +1,471 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.data;
+
+/**
+ * A growable series of (x,y) points for streaming data. Points are appended to the end of the series, and the data
+ * feature (max/min, infinity flags and NaN ranges) are updated incrementally. {@link #getGraphData()} returns an
+ * immutable XYGraphData snapshot, which shares the storage with this series, so that appending k points costs O(k)
+ * time and memory, no matter how many points are in the series. The {@link MinMaxPyramid} of snapshots is also built
+ * incrementally, and shares the complete buckets with other snapshots.
+ * <p>
+ * The storage is grown by doubling its capacity. A fixed-capacity series is a sliding window: when it is full,
+ * appending a point drops the oldest one. It is not a circular buffer, because the storage shared by snapshots is never
+ * overwritten. Instead, the window slides along an array of twice the capacity, and when it reaches the end of the
+ * array, the points are copied to the head of a newly allocated array. So a full series allocates 2 arrays of twice the
+ * capacity and copies the window every capacity points, which costs amortized O(1) time per appended point.
+ * <p>
+ * This class is not thread-safe. The returned snapshots can be used by any thread.
+ *
+ * @author Jingjing Li
+ */
+public class XYDataSeries {
+
+    /**
+     * the default initial capacity
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final boolean fixedCapacity;
+
+    /**
+     * The maximum number of points in a fixed-capacity series
+     */
+    private final int capacity;
+
+    /**
+     * The storage. Elements before start or after end may be referenced by snapshots, so they are never overwritten.
+     */
+    private double[] xa, ya;
+
+    /**
+     * The array index of the 1st point
+     */
+    private int start;
+
+    /**
+     * The number of points in this series
+     */
+    private int size;
+
+    /**
+     * The number of points that have been appended, including dropped points. Used as the absolute index.
+     */
+    private long total;
+
+    /**
+     * The NaN data ranges in absolute index. Ranges before nraHead have been dropped.
+     */
+    private long[] rsIdxes = new long[4], reIdxes = new long[4];
+
+    private int nraHead, nraCount;
+
+    private int nanCount;
+
+    private int xPosInfCount, xNegInfCount, yPosInfCount, yNegInfCount;
+
+    /**
+     * The absolute index of the last NaN x, and the last point whose x is less than the x of its previous point. The
+     * series is ascending when both are before the 1st point.
+     */
+    private long lastNaNXIdx = -1, lastDescentIdx = -1;
+
+    /**
+     * The x of the last appended point
+     */
+    private double lastX = Double.NaN;
+
+    /**
+     * The min/max of a growable series. Never shrink.
+     */
+    private double xmin = Double.NaN, xmax = Double.NaN, ymin = Double.NaN, ymax = Double.NaN;
+
+    /**
+     * The min/max of a fixed-capacity series, which support dropping the oldest points.
+     */
+    private final MonotonicQueue xminQueue, xmaxQueue, yminQueue, ymaxQueue;
+
+    /**
+     * The min/max pyramid of the points, built incrementally
+     */
+    private MinMaxPyramid.Builder pyramidBuilder = new MinMaxPyramid.Builder(0);
+
+    /**
+     * The last snapshot. Reset to null when this series changed.
+     */
+    private XYGraphData graphData;
+
+    /**
+     * Create a growable series with the default initial capacity.
+     */
+    public XYDataSeries() {
+        this(DEFAULT_CAPACITY, false);
+    }
+
+    /**
+     * Create a series with the given capacity.
+     *
+     * @param capacity      the initial capacity of a growable series, or the maximum number of points of a
+     *                      fixed-capacity series
+     * @param fixedCapacity if <code>true</code>, the oldest point is dropped when appending a point to a full series
+     */
+    public XYDataSeries(int capacity, boolean fixedCapacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be positive.");
+        }
+        this.capacity = capacity;
+        this.fixedCapacity = fixedCapacity;
+        if (fixedCapacity) {
+            // grown up to twice of the capacity, see ensureSpace(int)
+            xa = new double[Math.min(capacity, DEFAULT_CAPACITY)];
+            ya = new double[xa.length];
+            xminQueue = new MonotonicQueue(capacity, false);
+            xmaxQueue = new MonotonicQueue(capacity, true);
+            yminQueue = new MonotonicQueue(capacity, false);
+            ymaxQueue = new MonotonicQueue(capacity, true);
+        } else {
+            xa = new double[capacity];
+            ya = new double[capacity];
+            xminQueue = xmaxQueue = yminQueue = ymaxQueue = null;
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if this series drops the oldest point when it is full.
+     *
+     * @return <code>true</code> if this series has a fixed capacity
+     */
+    public boolean isFixedCapacity() {
+        return fixedCapacity;
+    }
+
+    /**
+     * Returns the maximum number of points of a fixed-capacity series, or the initial capacity of a growable series.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of points in this series.
+     *
+     * @return the number of points
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all points from this series.
+     */
+    public void clear() {
+        start = 0;
+        size = 0;
+        xa = new double[xa.length];
+        ya = new double[ya.length];
+        nraHead = nraCount = 0;
+        nanCount = 0;
+        xPosInfCount = xNegInfCount = yPosInfCount = yNegInfCount = 0;
+        xmin = xmax = ymin = ymax = Double.NaN;
+        pyramidBuilder = new MinMaxPyramid.Builder(total);
+        if (fixedCapacity) {
+            xminQueue.clear();
+            xmaxQueue.clear();
+            yminQueue.clear();
+            ymaxQueue.clear();
+        }
+        graphData = null;
+    }
+
+    /**
+     * Append a point to the end of this series.
+     *
+     * @param x the x value
+     * @param y the y value
+     */
+    public void append(double x, double y) {
+        if (fixedCapacity && size == capacity) {
+            dropFirst();
+        }
+        ensureSpace(1);
+        int idx = start + size;
+        xa[idx] = x;
+        ya[idx] = y;
+        size++;
+        addFeature(total++, x, y);
+        pyramidBuilder.add(x, y);
+        graphData = null;
+    }
+
+    /**
+     * Append the given points to the end of this series.
+     *
+     * @param x      the x values
+     * @param y      the y values
+     * @param offset the index of the 1st point in the given arrays
+     * @param length the number of points to append
+     */
+    public void append(double[] x, double[] y, int offset, int length) {
+        if (fixedCapacity && length > capacity) {
+            // the points before will be dropped anyway
+            offset += length - capacity;
+            length = capacity;
+        }
+        for (int i = 0; i < length; i++) {
+            append(x[offset + i], y[offset + i]);
+        }
+    }
+
+    /**
+     * Append all points in the given ArrayPair to the end of this series.
+     *
+     * @param xy the points to append
+     */
+    public void append(ArrayPair xy) {
+        int n = xy.size();
+        int s = (fixedCapacity && n > capacity) ? n - capacity : 0;
+        double[] xbuf = new double[Math.min(n - s, DEFAULT_CAPACITY * 64)];
+        double[] ybuf = new double[xbuf.length];
+        while (s < n) {
+            int len = Math.min(xbuf.length, n - s);
+            xy.getPDouble(s, xbuf, 0, len);
+            xy.getQDouble(s, ybuf, 0, len);
+            append(xbuf, ybuf, 0, len);
+            s += len;
+        }
+    }
+
+    /**
+     * Returns an immutable snapshot of this series. The snapshot is not affected by appending more points.
+     *
+     * @return a XYGraphData
+     */
+    public XYGraphData getGraphData() {
+        if (graphData == null) {
+            long first = total - size;
+            int[] rs = new int[Math.max(nraCount, 1)];
+            int[] re = new int[rs.length];
+            for (int i = 0; i < nraCount; i++) {
+                rs[i] = (int) (Math.max(rsIdxes[nraHead + i], first) - first);
+                re[i] = (int) (reIdxes[nraHead + i] - first);
+            }
+
+            double x0, x1, y0, y1;
+            if (fixedCapacity) {
+                x0 = xminQueue.getValue();
+                x1 = xmaxQueue.getValue();
+                y0 = yminQueue.getValue();
+                y1 = ymaxQueue.getValue();
+            } else {
+                x0 = xmin;
+                x1 = xmax;
+                y0 = ymin;
+                y1 = ymax;
+            }
+
+            graphData = new XYGraphData(new DoubleArrayPair(xa, ya, start, size), rs, re, nraCount, nanCount,
+                    xPosInfCount > 0, xNegInfCount > 0, yPosInfCount > 0, yNegInfCount > 0, x0, x1, y0, y1,
+                    lastNaNXIdx < first && lastDescentIdx <= first, pyramidBuilder.getPyramid(first, size));
+        }
+        return graphData;
+    }
+
+    /**
+     * Ensure there is space to append the given number of points after the last point. The storage is never modified
+     * in-place, because it may be shared by snapshots.
+     */
+    private void ensureSpace(int n) {
+        if (start + size + n <= xa.length) {
+            return;
+        }
+        int newCapacity;
+        if (fixedCapacity) {
+            // the space is at least twice of the capacity, so that the window is copied at most every capacity points
+            newCapacity = Math.max(size + n, Math.min(xa.length * 2, capacity * 2));
+        } else {
+            newCapacity = Math.max(size + n, xa.length * 2);
+        }
+        double[] newx = new double[newCapacity];
+        double[] newy = new double[newCapacity];
+        System.arraycopy(xa, start, newx, 0, size);
+        System.arraycopy(ya, start, newy, 0, size);
+        xa = newx;
+        ya = newy;
+        start = 0;
+    }
+
+    /**
+     * Drop the 1st point, and remove it from the data feature.
+     */
+    private void dropFirst() {
+        long first = total - size;
+        double x = xa[start];
+        double y = ya[start];
+        start++;
+        size--;
+
+        if (Double.isNaN(x) || Double.isNaN(y)) {
+            nanCount--;
+            if (reIdxes[nraHead] == first) {
+                nraHead++;
+                nraCount--;
+            }
+        } else if (x == Double.POSITIVE_INFINITY) {
+            xPosInfCount--;
+        } else if (x == Double.NEGATIVE_INFINITY) {
+            xNegInfCount--;
+        } else if (y == Double.POSITIVE_INFINITY) {
+            yPosInfCount--;
+        } else if (y == Double.NEGATIVE_INFINITY) {
+            yNegInfCount--;
+        }
+
+        pyramidBuilder.expire(first + 1);
+        xminQueue.expire(first + 1);
+        xmaxQueue.expire(first + 1);
+        yminQueue.expire(first + 1);
+        ymaxQueue.expire(first + 1);
+    }
+
+    /**
+     * Merge the given point into the data feature. The classification is same as XYGraphData.
+     */
+    private void addFeature(long idx, double x, double y) {
+        if (Double.isNaN(x)) {
+            lastNaNXIdx = idx;
+        } else if (!(x >= lastX)) {
+            lastDescentIdx = idx;
+        }
+        lastX = x;
+
+        if (Double.isNaN(x) || Double.isNaN(y)) {
+            addNaNIdx(idx);
+        } else if (x == Double.POSITIVE_INFINITY) {
+            xPosInfCount++;
+        } else if (x == Double.NEGATIVE_INFINITY) {
+            xNegInfCount++;
+        } else if (y == Double.POSITIVE_INFINITY) {
+            yPosInfCount++;
+        } else if (y == Double.NEGATIVE_INFINITY) {
+            yNegInfCount++;
+        } else if (fixedCapacity) {
+            xminQueue.add(idx, x);
+            xmaxQueue.add(idx, x);
+            yminQueue.add(idx, y);
+            ymaxQueue.add(idx, y);
+        } else {
+            if (!(xmin <= x)) {
+                xmin = x;
+            }
+            if (!(xmax >= x)) {
+                xmax = x;
+            }
+            if (!(ymin <= y)) {
+                ymin = y;
+            }
+            if (!(ymax >= y)) {
+                ymax = y;
+            }
+        }
+    }
+
+    private void addNaNIdx(long idx) {
+        nanCount++;
+        if (nraCount > 0 && idx == reIdxes[nraHead + nraCount - 1] + 1) { // continuous idx
+            reIdxes[nraHead + nraCount - 1] = idx;
+        } else { // new range
+            if (nraHead + nraCount == rsIdxes.length) {
+                if (nraHead > 0 && nraCount < rsIdxes.length / 2) {
+                    // reclaim the space of dropped ranges
+                    System.arraycopy(rsIdxes, nraHead, rsIdxes, 0, nraCount);
+                    System.arraycopy(reIdxes, nraHead, reIdxes, 0, nraCount);
+                } else {
+                    long[] rstmp = new long[rsIdxes.length * 2];
+                    System.arraycopy(rsIdxes, nraHead, rstmp, 0, nraCount);
+                    rsIdxes = rstmp;
+                    long[] retmp = new long[reIdxes.length * 2];
+                    System.arraycopy(reIdxes, nraHead, retmp, 0, nraCount);
+                    reIdxes = retmp;
+                }
+                nraHead = 0;
+            }
+            rsIdxes[nraHead + nraCount] = reIdxes[nraHead + nraCount] = idx;
+            nraCount++;
+        }
+    }
+
+    /**
+     * A monotonic queue to track the min or max value in a sliding window. Each value is added and expired once,
+     * so the amortized cost is O(1) per point.
+     */
+    private static class MonotonicQueue {
+
+        private final boolean max;
+
+        private final long[] idxes;
+
+        private final double[] values;
+
+        private int head, count;
+
+        private MonotonicQueue(int capacity, boolean max) {
+            this.max = max;
+            idxes = new long[capacity];
+            values = new double[capacity];
+        }
+
+        private void clear() {
+            head = count = 0;
+        }
+
+        /**
+         * Add a value. The values that can never be the extremum are removed.
+         */
+        private void add(long idx, double v) {
+            while (count > 0) {
+                double last = values[(head + count - 1) % values.length];
+                if (max ? last <= v : last >= v) {
+                    count--;
+                } else {
+                    break;
+                }
+            }
+            int tail = (head + count) % values.length;
+            idxes[tail] = idx;
+            values[tail] = v;
+            count++;
+        }
+
+        /**
+         * Remove the values whose index is less than the given index.
+         */
+        private void expire(long firstIdx) {
+            while (count > 0 && idxes[head] < firstIdx) {
+                head = (head + 1) % values.length;
+                count--;
+            }
+        }
+
+        private double getValue() {
+            return (count == 0) ? Double.NaN : values[head];
+        }
+    }
+}
@@ -32,6 +32,11 @@ public final class XYGraphData implements GraphData {
      */
     private static final int DEFAULT_CAPACITY = 4;
 
+    /**
+     * the number of points fetched by a bulk access
+     */
+    private static final int BLOCK_SIZE = 1024;
+
     private final ArrayPair _xy;
 
     private final ArrayPair _errorX, _errorY;
@@ -70,15 +75,32 @@ public final class XYGraphData implements GraphData {
 
     private boolean hasPointOutsideXBounds, hasPointOutsideYBounds;
 
+    /**
+     * <code>true</code> if there is no NaN x and the x values never decrease
+     */
+    private boolean xAscending = true;
+
+    /**
+     * The level-of-detail index, built on demand or given by XYDataSeries
+     */
+    private volatile MinMaxPyramid pyramid;
+
+    /**
+     * The data which has the same points and builds the pyramid, or <code>null</code> if this data builds its own
+     */
+    private final XYGraphData pyramidOwner;
+
     public XYGraphData(ArrayPair xy) {
         this(xy, null, null);
     }
 
     public XYGraphData(ArrayPair xy, ArrayPair errorX, ArrayPair errorY) {
-        this(xy, errorX, errorY, null, null);
+        this(xy, errorX, errorY, null, null, null);
     }
 
-    private XYGraphData(ArrayPair xy, ArrayPair errorX, ArrayPair errorY, Range xboundary, Range yboundary) {
+    private XYGraphData(ArrayPair xy, ArrayPair errorX, ArrayPair errorY, Range xboundary, Range yboundary,
+                        XYGraphData pyramidOwner) {
+        this.pyramidOwner = pyramidOwner;
         _xy = xy;
         _errorX = errorX;
         _errorY = errorY;
@@ -87,124 +109,252 @@ public final class XYGraphData implements GraphData {
         extractDataFeature();
     }
 
+    /**
+     * Create a XYGraphData with the data feature that have been computed incrementally, such as by XYDataSeries.
+     */
+    XYGraphData(ArrayPair xy, int[] rsIdxes, int[] reIdxes, int nanRangeCount, int nanCount, boolean xPosInf,
+                boolean xNegInf, boolean yPosInf, boolean yNegInf, double xmin, double xmax, double ymin,
+                double ymax, boolean xAscending, MinMaxPyramid pyramid) {
+        this.pyramid = pyramid;
+        pyramidOwner = null;
+        _xy = xy;
+        _errorX = null;
+        _errorY = null;
+        _xboundary = null;
+        _yboundary = null;
+        _rsIdxes = rsIdxes;
+        _reIdxes = reIdxes;
+        _nraLastIdx = nanRangeCount - 1;
+        _nanCount = nanCount;
+        xPositiveInfinity = xPosInf;
+        xNegativeInfinity = xNegInf;
+        yPositiveInfinity = yPosInf;
+        yNegativeInfinity = yNegInf;
+        _xmin = xmin;
+        _xmax = xmax;
+        _ymin = ymin;
+        _ymax = ymax;
+        this.xAscending = xAscending;
+    }
+
+    /**
+     * Create a XYGraphData with the given boundary, which shares the data feature of the given unbounded data.
+     */
+    private XYGraphData(XYGraphData src, Range xboundary, Range yboundary) {
+        pyramidOwner = src.getPyramidOwner();
+        _xy = src._xy;
+        _errorX = src._errorX;
+        _errorY = src._errorY;
+        _xboundary = xboundary;
+        _yboundary = yboundary;
+        _rsIdxes = src._rsIdxes;
+        _reIdxes = src._reIdxes;
+        _nraLastIdx = src._nraLastIdx;
+        _nanCount = src._nanCount;
+        xPositiveInfinity = src.xPositiveInfinity;
+        xNegativeInfinity = src.xNegativeInfinity;
+        yPositiveInfinity = src.yPositiveInfinity;
+        yNegativeInfinity = src.yNegativeInfinity;
+        _xmin = src._xmin;
+        _xmax = src._xmax;
+        _ymin = src._ymin;
+        _ymax = src._ymax;
+        xAscending = src.xAscending;
+    }
+
     public XYGraphData applyBoundary(Range xboundary, Range yboundary) {
-        return new XYGraphData(_xy, _errorX, _errorY, xboundary, yboundary);
+        /*
+         * When all valid data are inside the boundary, the data feature is unchanged. This avoids rescanning all
+         * points on every auto range.
+         */
+        if (_xboundary == null && _yboundary == null && containsRange(xboundary, _xmin, _xmax)
+                && containsRange(yboundary, _ymin, _ymax)) {
+            return new XYGraphData(this, xboundary, yboundary);
+        }
+        return new XYGraphData(_xy, _errorX, _errorY, xboundary, yboundary, getPyramidOwner());
     }
 
     /**
-     * Extracts the data feature form the XY array.
+     * Returns the data which builds the pyramid of the points of this data.
+     */
+    private XYGraphData getPyramidOwner() {
+        return (pyramidOwner == null) ? this : pyramidOwner;
+    }
+
+    /**
+     * Returns <code>true</code> if the given boundary contains the range [min, max]. A NaN range means no valid data.
+     */
+    private static boolean containsRange(Range boundary, double min, double max) {
+        return boundary == null || Double.isNaN(min) || (boundary.contains(min) && boundary.contains(max));
+    }
+
+    /**
+     * Extracts the data feature form the XY array. The data are fetched block by block through the bulk accessors of
+     * ArrayPair, so that the inner loop only works on double arrays.
      */
-    @SuppressWarnings("ConstantConditions")
     private void extractDataFeature() {
         _rsIdxes = new int[DEFAULT_CAPACITY];
         _reIdxes = new int[DEFAULT_CAPACITY];
         _nraLastIdx = -1;
 
-        for (int i = 0; i < _xy.size(); i++) {
-            double x = getX(i);
-            double y = getY(i);
-            if (Double.isNaN(x) || Double.isNaN(y)) {
-                addNaNIdx(i);
-            } else if (x == Double.POSITIVE_INFINITY) {
-                xPositiveInfinity = true;
-            } else if (x == Double.NEGATIVE_INFINITY) {
-                xNegativeInfinity = true;
-            } else if (y == Double.POSITIVE_INFINITY) {
-                yPositiveInfinity = true;
-            } else if (y == Double.NEGATIVE_INFINITY) {
-                yNegativeInfinity = true;
-            } else {
-                double xlow = x, xhigh = x, ylow = y, yhigh = y;
-                if (_errorX != null && i < _errorX.size()) {
-                    double xel = getXErrorLow(i);
-                    double xeh = getXErrorHigh(i);
-                    if (!Double.isNaN(xel) && !Double.isInfinite(xel)) {
-                        double xelow = x - xel;
-                        if (xlow > xelow) {
-                            xlow = xelow;
-                        }
-                        if (xhigh < xelow) {
-                            xhigh = xelow;
-                        }
+        int size = _xy.size();
+        int bufSize = Math.min(BLOCK_SIZE, size);
+        double[] xbuf = new double[bufSize];
+        double[] ybuf = new double[bufSize];
+        int xeSize = (_errorX == null) ? 0 : Math.min(_errorX.size(), size);
+        int yeSize = (_errorY == null) ? 0 : Math.min(_errorY.size(), size);
+        double[] xelbuf = null, xehbuf = null, yelbuf = null, yehbuf = null;
+        if (xeSize > 0) {
+            xelbuf = new double[bufSize];
+            xehbuf = new double[bufSize];
+        }
+        if (yeSize > 0) {
+            yelbuf = new double[bufSize];
+            yehbuf = new double[bufSize];
+        }
+
+        double prex = Double.NEGATIVE_INFINITY;
+        for (int start = 0; start < size; start += BLOCK_SIZE) {
+            int len = Math.min(BLOCK_SIZE, size - start);
+            _xy.getPDouble(start, xbuf, 0, len);
+            _xy.getQDouble(start, ybuf, 0, len);
+            int xelen = Math.max(0, Math.min(len, xeSize - start));
+            if (xelen > 0) {
+                _errorX.getPDouble(start, xelbuf, 0, xelen);
+                _errorX.getQDouble(start, xehbuf, 0, xelen);
+            }
+            int yelen = Math.max(0, Math.min(len, yeSize - start));
+            if (yelen > 0) {
+                _errorY.getPDouble(start, yelbuf, 0, yelen);
+                _errorY.getQDouble(start, yehbuf, 0, yelen);
+            }
+
+            for (int k = 0; k < len; k++) {
+                double xel = Double.NaN, xeh = Double.NaN, yel = Double.NaN, yeh = Double.NaN;
+                if (k < xelen) {
+                    xel = xelbuf[k];
+                    xeh = xehbuf[k];
+                }
+                if (k < yelen) {
+                    yel = yelbuf[k];
+                    yeh = yehbuf[k];
+                }
+                double x = xbuf[k];
+                if (!(x >= prex)) {
+                    // NaN or descending
+                    xAscending = false;
+                }
+                prex = x;
+                extractPointFeature(start + k, x, ybuf[k], xel, xeh, yel, yeh);
+            }
+        }
+    }
+
+    /**
+     * Merge the feature of the given point into the data feature. A NaN error is ignored.
+     *
+     * @param i   the index of the point
+     * @param x   the x value
+     * @param y   the y value
+     * @param xel the x low error
+     * @param xeh the x high error
+     * @param yel the y low error
+     * @param yeh the y high error
+     */
+    private void extractPointFeature(int i, double x, double y, double xel, double xeh, double yel, double yeh) {
+        if (Double.isNaN(x) || Double.isNaN(y)) {
+            addNaNIdx(i);
+        } else if (x == Double.POSITIVE_INFINITY) {
+            xPositiveInfinity = true;
+        } else if (x == Double.NEGATIVE_INFINITY) {
+            xNegativeInfinity = true;
+        } else if (y == Double.POSITIVE_INFINITY) {
+            yPositiveInfinity = true;
+        } else if (y == Double.NEGATIVE_INFINITY) {
+            yNegativeInfinity = true;
+        } else {
+            double xlow = x, xhigh = x, ylow = y, yhigh = y;
+            if (!Double.isNaN(xel) && !Double.isInfinite(xel)) {
+                double xelow = x - xel;
+                if (xlow > xelow) {
+                    xlow = xelow;
+                }
+                if (xhigh < xelow) {
+                    xhigh = xelow;
+                }
+            }
+            if (!Double.isNaN(xeh) && !Double.isInfinite(xeh)) {
+                double xehigh = x + xeh;
+                if (xlow > xehigh) {
+                    xlow = xehigh;
+                }
+                if (xhigh < xehigh) {
+                    xhigh = xehigh;
+                }
+            }
+            if (!Double.isNaN(yel) && !Double.isInfinite(yel)) {
+                double yelow = y - yel;
+                if (ylow > yelow) {
+                    ylow = yelow;
+                }
+                if (yhigh < yelow) {
+                    yhigh = yelow;
+                }
+            }
+            if (!Double.isNaN(yeh) && !Double.isInfinite(yeh)) {
+                double yehigh = y + yeh;
+                if (ylow > yehigh) {
+                    ylow = yehigh;
+                }
+                if (yhigh < yehigh) {
+                    yhigh = yehigh;
+                }
+            }
+
+            if (inXBoundary(x) && inYBoundary(y)) {
+                if (inXBoundary(xlow)) {
+                    if (!(_xmin <= xlow)) {
+                        _xmin = xlow;
                     }
-                    if (!Double.isNaN(xeh) && !Double.isInfinite(xeh)) {
-                        double xehigh = x + xeh;
-                        if (xlow > xehigh) {
-                            xlow = xehigh;
-                        }
-                        if (xhigh < xehigh) {
-                            xhigh = xehigh;
-                        }
+                } else {
+                    if (!(_xmin <= x)) {
+                        _xmin = x;
                     }
                 }
-                if (_errorY != null && i < _errorY.size()) {
-                    double yel = getYErrorLow(i);
-                    double yeh = getYErrorHigh(i);
-                    if (!Double.isNaN(yel) && !Double.isInfinite(yel)) {
-                        double yelow = y - yel;
-                        if (ylow > yelow) {
-                            ylow = yelow;
-                        }
-                        if (yhigh < yelow) {
-                            yhigh = yelow;
-                        }
+                if (inXBoundary(xhigh)) {
+                    if (!(_xmax >= xhigh)) {
+                        _xmax = xhigh;
                     }
-                    if (!Double.isNaN(yeh) && !Double.isInfinite(yeh)) {
-                        double yehigh = y + yeh;
-                        if (ylow > yehigh) {
-                            ylow = yehigh;
-                        }
-                        if (yhigh < yehigh) {
-                            yhigh = yehigh;
-                        }
+                } else {
+                    if (!(_xmax >= x)) {
+                        _xmax = x;
                     }
                 }
-
-                if (inXBoundary(x) && inYBoundary(y)) {
-                    if (inXBoundary(xlow)) {
-                        if (!(_xmin <= xlow)) {
-                            _xmin = xlow;
-                        }
-                    } else {
-                        if (!(_xmin <= x)) {
-                            _xmin = x;
-                        }
-                    }
-                    if (inXBoundary(xhigh)) {
-                        if (!(_xmax >= xhigh)) {
-                            _xmax = xhigh;
-                        }
-                    } else {
-                        if (!(_xmax >= x)) {
-                            _xmax = x;
-                        }
+                if (inYBoundary(ylow)) {
+                    if (!(_ymin <= ylow)) {
+                        _ymin = ylow;
                     }
-                    if (inYBoundary(ylow)) {
-                        if (!(_ymin <= ylow)) {
-                            _ymin = ylow;
-                        }
-                    } else {
-                        if (!(_ymin <= y)) {
-                            _ymin = y;
-                        }
+                } else {
+                    if (!(_ymin <= y)) {
+                        _ymin = y;
                     }
-                    if (inYBoundary(yhigh)) {
-                        if (!(_ymax >= yhigh)) {
-                            _ymax = yhigh;
-                        }
-                    } else {
-                        if (!(_ymax >= y)) {
-                            _ymax = y;
-                        }
+                }
+                if (inYBoundary(yhigh)) {
+                    if (!(_ymax >= yhigh)) {
+                        _ymax = yhigh;
                     }
                 } else {
-                    if (!inXBoundary(x)) {
-                        hasPointOutsideXBounds = true;
-                    }
-                    if (!inYBoundary(y)) {
-                        hasPointOutsideYBounds = true;
+                    if (!(_ymax >= y)) {
+                        _ymax = y;
                     }
                 }
+            } else {
+                if (!inXBoundary(x)) {
+                    hasPointOutsideXBounds = true;
+                }
+                if (!inYBoundary(y)) {
+                    hasPointOutsideYBounds = true;
+                }
             }
         }
     }
@@ -278,6 +428,87 @@ public final class XYGraphData implements GraphData {
         return _xy.getQDouble(idx);
     }
 
+    /**
+     * Copies the x values, starting at the specified index, to the given array.
+     *
+     * @param srcPos  starting index in this data
+     * @param dest    the destination array
+     * @param destPos starting position in the destination array
+     * @param length  the number of values to be copied
+     */
+    public void getX(int srcPos, double[] dest, int destPos, int length) {
+        _xy.getPDouble(srcPos, dest, destPos, length);
+    }
+
+    /**
+     * Copies the y values, starting at the specified index, to the given array.
+     *
+     * @param srcPos  starting index in this data
+     * @param dest    the destination array
+     * @param destPos starting position in the destination array
+     * @param length  the number of values to be copied
+     */
+    public void getY(int srcPos, double[] dest, int destPos, int length) {
+        _xy.getQDouble(srcPos, dest, destPos, length);
+    }
+
+    /**
+     * Returns the min/max pyramid of this data. The pyramid is built at the first call, and costs about
+     * size() / 4 bytes. It's shared by the data which only differ in boundaries. The pyramid of a snapshot of
+     * {@link XYDataSeries} is built incrementally by the series, and shares the buckets with other snapshots.
+     *
+     * @return the min/max pyramid
+     */
+    public MinMaxPyramid getMinMaxPyramid() {
+        if (pyramidOwner != null) {
+            return pyramidOwner.getMinMaxPyramid();
+        }
+        MinMaxPyramid result = pyramid;
+        if (result == null) {
+            synchronized (this) {
+                result = pyramid;
+                if (result == null) {
+                    result = pyramid = MinMaxPyramid.build(this);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns <code>true</code> if there is no NaN x and the x values never decrease, such as a time series. The
+     * points in a x range can be located by {@link #searchX(double, boolean)}.
+     *
+     * @return <code>true</code> if the x values are ascending
+     */
+    public boolean isXAscending() {
+        return xAscending;
+    }
+
+    /**
+     * Search the given x value by binary search. This method can only be used when {@link #isXAscending()} is
+     * <code>true</code>.
+     *
+     * @param x     the x value to search
+     * @param after <code>false</code> to search the first point whose x is not less than the given value,
+     *              <code>true</code> to search the first point whose x is greater than the given value
+     * @return the index of the found point, or size() if no such point
+     */
+    public int searchX(double x, boolean after) {
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            double v = getX(mid);
+            if (v < x || (after && v == x)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
     public Range getXRange() {
         return new Range.Double(_xmin, _xmax);
     }
@@ -382,24 +382,28 @@ public class ElementFactory {
     /**
      * Create a XYGraph with the given x/y array.
      *
-     * @param xarray the x data array, can be byte[], short[], int[], long[], float[] or double[]
-     * @param yarray the y data array, can be byte[], short[], int[], long[], float[] or double[]
+     * @param xarray the x data array, can be byte[], short[], int[], long[], float[] or double[],
+     *               or a NIO DoubleBuffer, FloatBuffer, LongBuffer or IntBuffer
+     * @param yarray the y data array, can be byte[], short[], int[], long[], float[] or double[],
+     *               or a NIO DoubleBuffer, FloatBuffer, LongBuffer or IntBuffer
      * @return a XYGraph object
      */
     public XYGraph createXYGraph(Object xarray, Object yarray) {
-        return createXYGraph(new ArrayPair(xarray, yarray));
+        return createXYGraph(ArrayPair.valueOf(xarray, yarray));
     }
 
     /**
      * Create a XYGraph with the given x/y array.
      *
-     * @param xarray the x data array, can be byte[], short[], int[], long[], float[] or double[]
-     * @param yarray the y data array, can be byte[], short[], int[], long[], float[] or double[]
+     * @param xarray the x data array, can be byte[], short[], int[], long[], float[] or double[],
+     *               or a NIO DoubleBuffer, FloatBuffer, LongBuffer or IntBuffer
+     * @param yarray the y data array, can be byte[], short[], int[], long[], float[] or double[],
+     *               or a NIO DoubleBuffer, FloatBuffer, LongBuffer or IntBuffer
      * @param name   the name of created XYGraph, can display in legend
      * @return a XYGraph object
      */
     public XYGraph createXYGraph(Object xarray, Object yarray, String name) {
-        return createXYGraph(new ArrayPair(xarray, yarray), name);
+        return createXYGraph(ArrayPair.valueOf(xarray, yarray), name);
     }
 
     /**
@@ -434,13 +438,13 @@ public class ElementFactory {
                                  Object yErrorHigh, String name) {
         ArrayPair errorX = null;
         if (xErrorLow != null && xErrorHigh != null) {
-            errorX = new ArrayPair(xErrorLow, xErrorHigh);
+            errorX = ArrayPair.valueOf(xErrorLow, xErrorHigh);
         }
         ArrayPair errorY = null;
         if (yErrorLow != null && yErrorHigh != null) {
-            errorY = new ArrayPair(yErrorLow, yErrorHigh);
+            errorY = ArrayPair.valueOf(yErrorLow, yErrorHigh);
         }
-        return createXYGraph(new ArrayPair(xarray, yarray), errorX, errorY, name);
+        return createXYGraph(ArrayPair.valueOf(xarray, yarray), errorX, errorY, name);
     }
 
     /**
@@ -18,7 +18,9 @@ package org.jplot2d.element;
 
 import org.jplot2d.annotation.Hierarchy;
 import org.jplot2d.annotation.HierarchyOp;
+import org.jplot2d.annotation.Property;
 import org.jplot2d.annotation.PropertyGroup;
+import org.jplot2d.data.MutableImageData;
 import org.jplot2d.data.SingleBandImageData;
 
 import javax.annotation.Nonnull;
@@ -52,4 +54,35 @@ public interface ImageGraph extends Graph {
 
     void setData(@Nullable SingleBandImageData data);
 
+    /**
+     * Notify the values in the given region of the data have been changed. The data must be a
+     * {@link MutableImageData}, whose data buffer has been written with the new values. Only the cached tiles covering
+     * the changed region are z-scaled again, and the limits are updated incrementally if the limits calculator supports
+     * it. For a {@link org.jplot2d.data.WaterfallImageData}, call this method with the whole image region after
+     * appending rows.
+     *
+     * @param x the x of the 1st changed pixel
+     * @param y the y of the 1st changed pixel
+     * @param w the width of the changed region
+     * @param h the height of the changed region
+     * @throws IllegalStateException if the data is not a MutableImageData
+     */
+    void updateData(int x, int y, int w, int h);
+
+    /**
+     * Returns how this image is reduced when it is zoomed out.
+     *
+     * @return the pyramid mode
+     */
+    @Property(order = 0, styleable = false)
+    ImagePyramidMode getPyramidMode();
+
+    /**
+     * Sets how this image is reduced when it is zoomed out. The default value is
+     * {@link ImagePyramidMode#NONE ImagePyramidMode.NONE}, which samples the full resolution image.
+     *
+     * @param mode the pyramid mode
+     */
+    void setPyramidMode(ImagePyramidMode mode);
+
 }
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software:
+ * you can redistribute it and/or modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with jplot2d.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.element;
+
+/**
+ * Defines how an image is reduced when it is zoomed out. The reduced images form a pyramid, every level halves the
+ * width and height of its lower level by pooling 2 x 2 pixels. A zoomed out image is drawn from the coarsest level
+ * which still has at least one pixel per device pixel.
+ *
+ * @author Jingjing Li
+ */
+public enum ImagePyramidMode {
+    /**
+     * Do not build a pyramid. The full resolution image is always drawn.
+     */
+    NONE,
+    /**
+     * The pooled pixel is the mean of the 2 x 2 pixels.
+     */
+    MEAN,
+    /**
+     * The pooled pixel is the max of the 2 x 2 pixels. It keeps isolated bright pixels visible.
+     */
+    MAX
+}
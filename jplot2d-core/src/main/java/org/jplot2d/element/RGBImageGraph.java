@@ -18,6 +18,7 @@ package org.jplot2d.element;
 
 import org.jplot2d.annotation.Hierarchy;
 import org.jplot2d.annotation.HierarchyOp;
+import org.jplot2d.annotation.Property;
 import org.jplot2d.annotation.PropertyGroup;
 import org.jplot2d.data.MultiBandImageData;
 
@@ -50,4 +51,20 @@ public interface RGBImageGraph extends Graph {
 
     void setData(@Nullable MultiBandImageData data);
 
+    /**
+     * Returns how this image is reduced when it is zoomed out.
+     *
+     * @return the pyramid mode
+     */
+    @Property(order = 0, styleable = false)
+    ImagePyramidMode getPyramidMode();
+
+    /**
+     * Sets how this image is reduced when it is zoomed out. The default value is
+     * {@link ImagePyramidMode#NONE ImagePyramidMode.NONE}, which samples the full resolution image.
+     *
+     * @param mode the pyramid mode
+     */
+    void setPyramidMode(ImagePyramidMode mode);
+
 }
@@ -211,6 +211,21 @@ public interface XYGraph extends Graph {
      */
     void setChartType(ChartType chartType);
 
+    /**
+     * Returns the decimation mode of the chart line.
+     *
+     * @return the decimation mode
+     */
+    @Property(order = 13, styleable = false)
+    DecimationMode getDecimationMode();
+
+    /**
+     * Sets the decimation mode of the chart line. The default value is {@link DecimationMode#AUTO DecimationMode.AUTO}.
+     *
+     * @param mode the decimation mode
+     */
+    void setDecimationMode(DecimationMode mode);
+
     /**
      * Returns if the filling is enabled. The filling can be applied to a closed line, or the area between the line and an axis.
      *
@@ -287,6 +302,28 @@ public interface XYGraph extends Graph {
         HISTOGRAM_EDGE
     }
 
+    /**
+     * Defines how the chart line is decimated before drawing. Decimation keeps the first, last, min and max points of
+     * every device column, so the drawn line looks the same while much less points are stroked. When a thin line is
+     * rendered to an image without antialiasing, its vertexes are snapped to pixel centers, and the decimated line is
+     * pixel-identical to the full line. Decimation only applies to {@link ChartType#LINECHART LINECHART} and
+     * {@link ChartType#HISTOGRAM_EDGE HISTOGRAM_EDGE} graphs which have no symbols and no error bars.
+     */
+    enum DecimationMode {
+        /**
+         * Decimate the line when the number of data points is larger than 4 times of the device width.
+         */
+        AUTO,
+        /**
+         * Always decimate the line.
+         */
+        MINMAX,
+        /**
+         * Never decimate the line.
+         */
+        NONE
+    }
+
     /**
      * Defines how close the line for filling.
      *
@@ -120,7 +120,7 @@ public abstract class AxisImpl extends ComponentImpl implements AxisEx {
         Dimension2D[] ss = new Dimension2D[labels.length];
 
         for (int i = 0; i < labels.length; i++) {
-            MathLabel labelDrawer = new MathLabel(labels[i], labelFont, VAlign.MIDDLE, HAlign.CENTER);
+            MathLabel labelDrawer = MathLabel.getInstance(labels[i], labelFont, VAlign.MIDDLE, HAlign.CENTER);
             Rectangle2D rect = labelDrawer.getBounds();
             ss[i] = new DoubleDimension2D(rect.getWidth(), rect.getHeight());
         }
@@ -658,7 +658,7 @@ public abstract class AxisImpl extends ComponentImpl implements AxisEx {
             double x = Array.getDouble(tvs, i * tickManager.getLabelInterval());
             double xt = transTickToPaper(x);
 
-            MathLabel label = new MathLabel(labels[i], getActualLabelFont(), vertalign, horzalign);
+            MathLabel label = MathLabel.getInstance(labels[i], getActualLabelFont(), vertalign, horzalign);
 
             g.translate(xt, labelOffset);
             if (labelRotation != 0) {
@@ -269,7 +269,7 @@ public class AxisTitleImpl extends ElementImpl implements AxisTitleEx {
 
     public Dimension2D getSize() {
         if (label == null) {
-            label = new MathLabel(getTextModel(), getEffectiveFont(), vAlign, HAlign.CENTER);
+            label = MathLabel.getInstance(getTextModel(), getEffectiveFont(), vAlign, HAlign.CENTER);
         }
         Rectangle2D bounds = label.getBounds();
 
@@ -278,7 +278,7 @@ public class AxisTitleImpl extends ElementImpl implements AxisTitleEx {
 
     public void draw(Graphics2D g, double x, double y) {
         if (label == null) {
-            label = new MathLabel(getTextModel(), getEffectiveFont(), vAlign, HAlign.CENTER);
+            label = MathLabel.getInstance(getTextModel(), getEffectiveFont(), vAlign, HAlign.CENTER);
         }
 
         AffineTransform oldTransform = g.getTransform();
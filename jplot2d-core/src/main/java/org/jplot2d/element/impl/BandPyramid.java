@@ -0,0 +1,217 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software:
+ * you can redistribute it and/or modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with jplot2d.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.element.impl;
+
+import org.jplot2d.data.MutableImageData;
+import org.jplot2d.element.ImagePyramidMode;
+
+import javax.annotation.Nullable;
+import java.awt.Rectangle;
+import java.util.concurrent.Callable;
+
+/**
+ * A resolution pyramid of z-scaled band data. Level 0 is z-scaled on demand. Every upper level is pooled from 2 x 2
+ * pixels of its lower level, tile by tile, and the pooled tiles are kept in the tile cache of {@link ImageTiles}. So a
+ * coarse level is built by a single pass over the full resolution data, and is reused by later redraws.
+ * <p>
+ * The pooling is aligned to even pixels, so the pooled values do not depend on the tile size. At the odd right or
+ * bottom edge, the last pixel is pooled from the available pixels.
+ * <p>
+ * When the data is mutable, a pooled tile is pooled again if the pixels it covers have been changed.
+ *
+ * @author Jingjing Li
+ */
+class BandPyramid {
+
+    private final ImageZscaleCache.Zscaler zscaler;
+
+    private final int width, height;
+
+    private final int outputBits;
+
+    private final int tileSize;
+
+    private final boolean maxPooling;
+
+    @Nullable
+    private final MutableImageData data;
+
+    /**
+     * The id to distinguish the pooled tiles of this pyramid in the cache
+     */
+    private final long id = ImageTiles.nextCacheId();
+
+    /**
+     * @param zscaler    the z-scaler of the full resolution image
+     * @param width      the width of the full resolution image
+     * @param height     the height of the full resolution image
+     * @param outputBits the bits of z-scaled values
+     * @param tileSize   the size of pooled tiles
+     * @param mode       the pooling mode, must not be {@link ImagePyramidMode#NONE NONE}
+     * @param data       the mutable data, or <code>null</code> if the data is immutable
+     */
+    BandPyramid(ImageZscaleCache.Zscaler zscaler, int width, int height, int outputBits, int tileSize,
+                ImagePyramidMode mode, @Nullable MutableImageData data) {
+        this.data = data;
+        this.zscaler = zscaler;
+        this.width = width;
+        this.height = height;
+        this.outputBits = outputBits;
+        this.tileSize = tileSize;
+        this.maxPooling = (mode == ImagePyramidMode.MAX);
+    }
+
+    /**
+     * Returns the z-scaler of the full resolution image.
+     *
+     * @return the z-scaler
+     */
+    ImageZscaleCache.Zscaler getZscaler() {
+        return zscaler;
+    }
+
+    /**
+     * Returns <code>true</code> if this pyramid pools the band of the given z-scale key in the given way.
+     *
+     * @param key      the z-scale key of the band
+     * @param tileSize the size of pooled tiles
+     * @param mode     the pooling mode
+     * @return <code>true</code> if this pyramid matches
+     */
+    boolean matches(ImageZscaleCache.Key key, int tileSize, ImagePyramidMode mode) {
+        return this.tileSize == tileSize && maxPooling == (mode == ImagePyramidMode.MAX)
+                && zscaler.getKey().equals(key);
+    }
+
+    /**
+     * Returns the z-scaled data of the given region of the given level.
+     *
+     * @param level the pyramid level
+     * @param x     the x of the 1st pixel of the region, in level pixels
+     * @param y     the y of the 1st pixel of the region, in level pixels
+     * @param w     the region width
+     * @param h     the region height
+     * @return the scaled data, in byte[] or short[]
+     */
+    Object getRegion(int level, int x, int y, int w, int h) {
+        if (level == 0) {
+            return zscaler.zscale(x, y, w, h);
+        }
+
+        int lw = ImageTiles.levelSize(width, level);
+        int lh = ImageTiles.levelSize(height, level);
+        Object result = (outputBits <= Byte.SIZE) ? new byte[w * h] : new short[w * h];
+        for (int ty = y / tileSize; ty * tileSize < y + h; ty++) {
+            for (int tx = x / tileSize; tx * tileSize < x + w; tx++) {
+                int tileX = tx * tileSize;
+                int tileY = ty * tileSize;
+                int tileW = Math.min(tileSize, lw - tileX);
+                int tileH = Math.min(tileSize, lh - tileY);
+                Object tile = getTile(level, tx, ty, tileW, tileH);
+
+                // copy the intersection
+                int x0 = Math.max(x, tileX);
+                int y0 = Math.max(y, tileY);
+                int x1 = Math.min(x + w, tileX + tileW);
+                int y1 = Math.min(y + h, tileY + tileH);
+                for (int r = y0; r < y1; r++) {
+                    System.arraycopy(tile, (r - tileY) * tileW + x0 - tileX, result, (r - y) * w + x0 - x, x1 - x0);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the pooled tile at the given level (&gt; 0), tile column and row.
+     */
+    private Object getTile(final int level, final int tx, final int ty, final int tileW, final int tileH) {
+        ImageTiles.Versioned tile = ImageTiles.getVersioned(new ImageTiles.TileKey(id, level, tx, ty),
+                new Callable<Object>() {
+                    public Object call() {
+                        return createTile(level, tx, ty, tileW, tileH);
+                    }
+                }, data);
+        return ((ImageTiles.BandTile) tile).band;
+    }
+
+    private ImageTiles.BandTile createTile(int level, int tx, int ty, int tileW, int tileH) {
+        // the version must be taken before reading the data
+        long version = (data == null) ? 0 : data.getVersion();
+        int f = 1 << level;
+        Rectangle source = new Rectangle(tx * tileSize * f, ty * tileSize * f, tileSize * f, tileSize * f)
+                .intersection(new Rectangle(width, height));
+
+        int sx = tx * tileSize * 2;
+        int sy = ty * tileSize * 2;
+        int sw = Math.min(tileSize * 2, ImageTiles.levelSize(width, level - 1) - sx);
+        int sh = Math.min(tileSize * 2, ImageTiles.levelSize(height, level - 1) - sy);
+        Object src = getRegion(level - 1, sx, sy, sw, sh);
+        if (src instanceof byte[]) {
+            return new ImageTiles.BandTile(version, source, poolBytes((byte[]) src, sw, sh, tileW, tileH));
+        } else {
+            return new ImageTiles.BandTile(version, source, poolShorts((short[]) src, sw, sh, tileW, tileH));
+        }
+    }
+
+    private byte[] poolBytes(byte[] src, int sw, int sh, int w, int h) {
+        byte[] result = new byte[w * h];
+        int n = 0;
+        for (int j = 0; j < h; j++) {
+            int r0 = 2 * j * sw;
+            int r1 = (2 * j + 1 < sh) ? r0 + sw : r0;
+            for (int i = 0; i < w; i++) {
+                int c0 = 2 * i;
+                int c1 = (c0 + 1 < sw) ? c0 + 1 : c0;
+                int a = src[r0 + c0] & 0xff;
+                int b = src[r0 + c1] & 0xff;
+                int c = src[r1 + c0] & 0xff;
+                int d = src[r1 + c1] & 0xff;
+                if (maxPooling) {
+                    result[n++] = (byte) Math.max(Math.max(a, b), Math.max(c, d));
+                } else {
+                    result[n++] = (byte) ((a + b + c + d + 2) >> 2);
+                }
+            }
+        }
+        return result;
+    }
+
+    private short[] poolShorts(short[] src, int sw, int sh, int w, int h) {
+        short[] result = new short[w * h];
+        int n = 0;
+        for (int j = 0; j < h; j++) {
+            int r0 = 2 * j * sw;
+            int r1 = (2 * j + 1 < sh) ? r0 + sw : r0;
+            for (int i = 0; i < w; i++) {
+                int c0 = 2 * i;
+                int c1 = (c0 + 1 < sw) ? c0 + 1 : c0;
+                int a = src[r0 + c0] & 0xffff;
+                int b = src[r0 + c1] & 0xffff;
+                int c = src[r1 + c0] & 0xffff;
+                int d = src[r1 + c1] & 0xffff;
+                if (maxPooling) {
+                    result[n++] = (short) Math.max(Math.max(a, b), Math.max(c, d));
+                } else {
+                    result[n++] = (short) ((a + b + c + d + 2) >> 2);
+                }
+            }
+        }
+        return result;
+    }
+
+}
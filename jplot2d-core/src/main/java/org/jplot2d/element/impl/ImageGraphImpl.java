@@ -17,11 +17,15 @@
 package org.jplot2d.element.impl;
 
 import org.jplot2d.data.ImageCoordinateReference;
+import org.jplot2d.data.MutableImageData;
 import org.jplot2d.data.SingleBandImageData;
+import org.jplot2d.data.WaterfallImageData;
 import org.jplot2d.element.ImageMapping;
+import org.jplot2d.element.ImagePyramidMode;
 import org.jplot2d.image.ColorMap;
 import org.jplot2d.transform.NormalTransform;
 import org.jplot2d.transform.PaperTransform;
+import org.jplot2d.util.BoundedCache;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -36,7 +40,26 @@ import java.util.WeakHashMap;
 
 public class ImageGraphImpl extends GraphImpl implements ImageGraphEx, IntermediateCacheEx {
 
-    private static final WeakHashMap<ImageKey, BufferedImage> cache = new WeakHashMap<>();
+    /**
+     * The size of tiles, which are z-scaled and color mapped on demand
+     */
+    private static volatile int tileSize = 256;
+
+    /**
+     * The tiles of images. The tiles are kept in the tile cache, and a tile set only holds the arguments to create its
+     * tiles. The keys are weak, they are kept by the intermediate cache holder while the image is displayed.
+     */
+    private static final WeakHashMap<ImageKey, TileSet> tileSets = new WeakHashMap<>();
+
+    /**
+     * The rasters of waterfall images. The keys are weak as the keys of tile sets.
+     */
+    private static final WeakHashMap<ImageKey, WaterfallRaster> waterfalls = new WeakHashMap<>();
+
+    /**
+     * The ARGB palettes of color maps
+     */
+    private static final WeakHashMap<ColorMap, int[]> palettes = new WeakHashMap<>();
 
     @Nullable
     private ImageMappingEx mapping;
@@ -44,13 +67,139 @@ public class ImageGraphImpl extends GraphImpl implements ImageGraphEx, Intermedi
     @Nullable
     private SingleBandImageData data;
 
+    /**
+     * The version of mutable data when it's set
+     */
+    private long dataVersion;
+
+    private ImagePyramidMode pyramidMode = ImagePyramidMode.NONE;
+
     public ImageGraphImpl() {
         super();
         setZOrder(-1);
     }
 
+    /**
+     * Create an image from the given z-scaled band data. Without a color map, the image is a linear gray image on the
+     * band data. With a color map, the band data is looked up through the color palette into packed ARGB pixels.
+     *
+     * @param bandData the z-scaled band data, in byte[] or short[]
+     * @param bandBits the significant bits of band data
+     * @param width    the image width
+     * @param height   the image height
+     * @param colorMap the color map, can be <code>null</code>
+     * @return the image
+     */
     @Nonnull
     public static BufferedImage createImage(Object bandData, int bandBits, int width, int height, ColorMap colorMap) {
+        if (colorMap != null) {
+            return createPaletteImage(bandData, getPalette(colorMap, bandBits), width, height,
+                    colorMap.getColorModel().hasAlpha());
+        }
+
+        int dataType;
+        if (bandBits <= Byte.SIZE) {
+            dataType = DataBuffer.TYPE_BYTE;
+        } else {
+            dataType = DataBuffer.TYPE_USHORT;
+        }
+
+        DataBuffer dbuffer;
+        if (dataType == DataBuffer.TYPE_BYTE) {
+            dbuffer = new DataBufferByte((byte[]) bandData, width * height);
+        } else {
+            dbuffer = new DataBufferUShort((short[]) bandData, width * height);
+        }
+        SampleModel sampleModel = new PixelInterleavedSampleModel(dataType, width, height, 1, width, new int[]{0});
+        WritableRaster raster = Raster.createWritableRaster(sampleModel, dbuffer, null);
+
+        // assembly a BufferedImage with linear gray color space
+        ColorModel destCM = new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_GRAY),
+                new int[]{bandBits}, false, true, Transparency.OPAQUE, dataType);
+        return new BufferedImage(destCM, raster, false, null);
+    }
+
+    /**
+     * Returns the ARGB palette of the given color map for band data of the given bits. The palette is created by
+     * looking up all band values, so it has the same colors as looking up the band data by the LookupOp of the color map.
+     */
+    private static int[] getPalette(ColorMap colorMap, int bandBits) {
+        synchronized (palettes) {
+            int[] palette = palettes.get(colorMap);
+            if (palette != null && palette.length == 1 << bandBits) {
+                return palette;
+            }
+        }
+
+        int n = 1 << bandBits;
+        Object ramp;
+        if (bandBits <= Byte.SIZE) {
+            byte[] bytes = new byte[n];
+            for (int i = 0; i < n; i++) {
+                bytes[i] = (byte) i;
+            }
+            ramp = bytes;
+        } else {
+            short[] shorts = new short[n];
+            for (int i = 0; i < n; i++) {
+                shorts[i] = (short) i;
+            }
+            ramp = shorts;
+        }
+        int[] palette = lookupImage(ramp, bandBits, n, 1, colorMap).getRGB(0, 0, n, 1, null, 0, n);
+        synchronized (palettes) {
+            palettes.put(colorMap, palette);
+        }
+        return palette;
+    }
+
+    /**
+     * Look up the band data through the given palette, and write the packed ARGB pixels into a DataBufferInt. Large
+     * images are looked up in parallel.
+     */
+    private static BufferedImage createPaletteImage(Object bandData, final int[] palette, final int width, int height,
+                                                    boolean hasAlpha) {
+        final int[] pixels = new int[width * height];
+        final int maxIndex = palette.length - 1;
+        ImageZscaleCache.RowKernel kernel;
+        if (bandData instanceof byte[]) {
+            final byte[] bytes = (byte[]) bandData;
+            kernel = new ImageZscaleCache.RowKernel() {
+                public void apply(int rowBegin, int rowEnd) {
+                    for (int i = rowBegin * width; i < rowEnd * width; i++) {
+                        pixels[i] = palette[Math.min(bytes[i] & 0xff, maxIndex)];
+                    }
+                }
+            };
+        } else {
+            final short[] shorts = (short[]) bandData;
+            kernel = new ImageZscaleCache.RowKernel() {
+                public void apply(int rowBegin, int rowEnd) {
+                    for (int i = rowBegin * width; i < rowEnd * width; i++) {
+                        pixels[i] = palette[Math.min(shorts[i] & 0xffff, maxIndex)];
+                    }
+                }
+            };
+        }
+        ImageZscaleCache.applyRowKernel(width, height, kernel);
+
+        DirectColorModel cm;
+        if (hasAlpha) {
+            cm = new DirectColorModel(32, 0x00ff0000, 0x0000ff00, 0x000000ff, 0xff000000);
+        } else {
+            cm = new DirectColorModel(24, 0x00ff0000, 0x0000ff00, 0x000000ff, 0);
+        }
+        DataBufferInt dbuffer = new DataBufferInt(pixels, pixels.length);
+        WritableRaster raster = Raster.createPackedRaster(dbuffer, width, height, width, cm.getMasks(), null);
+        return new BufferedImage(cm, raster, false, null);
+    }
+
+    /**
+     * Look up the band data by the LookupOp of the given color map.
+     */
+    @Nonnull
+    private static BufferedImage lookupImage(Object bandData, int bandBits, int width, int height,
+                                             @Nonnull ColorMap colorMap) {
 
         int dataType;
         if (bandBits <= Byte.SIZE) {
@@ -61,7 +210,7 @@ public class ImageGraphImpl extends GraphImpl implements ImageGraphEx, Intermedi
 
         // create raster
         WritableRaster raster;
-        if (colorMap == null || colorMap.getColorModel().getNumComponents() == 1) {
+        if (colorMap.getColorModel().getNumComponents() == 1) {
             DataBuffer dbuffer;
             if (dataType == DataBuffer.TYPE_BYTE) {
                 dbuffer = new DataBufferByte((byte[]) bandData, width * height);
@@ -94,20 +243,50 @@ public class ImageGraphImpl extends GraphImpl implements ImageGraphEx, Intermedi
             raster = Raster.createWritableRaster(dupSM, dbuffer, null);
         }
 
-        // create image
-        if (colorMap == null) {
-            // assembly a BufferedImage with linear gray color space
-            ColorModel destCM = new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_GRAY),
-                    new int[]{bandBits}, false, true, Transparency.OPAQUE, dataType);
-            return new BufferedImage(destCM, raster, false, null);
-        } else {
-            // lookup and create a BufferedImage
-            ColorModel destCM = colorMap.getColorModel();
-            WritableRaster destRaster = destCM.createCompatibleWritableRaster(raster.getWidth(), raster.getHeight());
-            LookupOp op = new LookupOp(colorMap.getLookupTable(), null);
-            op.filter(raster, destRaster);
-            return new BufferedImage(destCM, destRaster, false, null);
+        // lookup and create a BufferedImage
+        ColorModel destCM = colorMap.getColorModel();
+        WritableRaster destRaster = destCM.createCompatibleWritableRaster(raster.getWidth(), raster.getHeight());
+        LookupOp op = new LookupOp(colorMap.getLookupTable(), null);
+        op.filter(raster, destRaster);
+        return new BufferedImage(destCM, destRaster, false, null);
+    }
+
+    /**
+     * Returns the size of image tiles.
+     *
+     * @return the tile size in image pixels
+     */
+    public static int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * Sets the size of image tiles. An image is z-scaled and color mapped tile by tile, only for the tiles which are
+     * visible. A larger tile size costs less overhead when the whole image is visible, but wastes more work when the
+     * image is zoomed in. The cached tiles are dropped.
+     *
+     * @param size the tile size in image pixels
+     */
+    public static void setTileSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("The tile size must be positive.");
+        }
+        synchronized (tileSets) {
+            tileSize = size;
+            tileSets.clear();
         }
+        ImageTiles.cache.clear();
+    }
+
+    /**
+     * Returns the cache of image tiles, which is shared by all image graphs and RGB image graphs. The cache keeps
+     * z-scaled and color mapped tiles, and the pooled tiles of image pyramids. Its max size in bytes can be changed,
+     * and its statistics can be read. The default max size is 256MB or 1/4 of the max heap size, whichever is smaller.
+     *
+     * @return the cache of image tiles
+     */
+    public static BoundedCache<?, ?> getTileCache() {
+        return ImageTiles.cache;
     }
 
     public void setParent(ElementEx parent) {
@@ -151,6 +330,7 @@ public class ImageGraphImpl extends GraphImpl implements ImageGraphEx, Intermedi
 
     public void setData(@Nullable SingleBandImageData data) {
         this.data = data;
+        this.dataVersion = (data instanceof MutableImageData) ? ((MutableImageData) data).getVersion() : 0;
 
         if (mapping != null) {
             mapping.invalidateLimits();
@@ -158,6 +338,37 @@ public class ImageGraphImpl extends GraphImpl implements ImageGraphEx, Intermedi
         }
     }
 
+    public void updateData(int x, int y, int w, int h) {
+        if (!(data instanceof MutableImageData)) {
+            throw new IllegalStateException("The image data is not mutable.");
+        }
+        MutableImageData mdata = (MutableImageData) data;
+        mdata.update(x, y, w, h);
+
+        // the changed region includes the updates by other graphs which share the data
+        long version = mdata.getVersion();
+        Rectangle changed = mdata.getChangedRegion(dataVersion);
+        dataVersion = version;
+        if (changed != null && mapping != null) {
+            if (data instanceof WaterfallImageData) {
+                // every append changes the whole image. The min/max limits are merged by the waterfall itself.
+                mapping.invalidateLimits();
+            } else {
+                mapping.invalidateLimits(this, changed);
+            }
+            redraw(this);
+        }
+    }
+
+    public ImagePyramidMode getPyramidMode() {
+        return pyramidMode;
+    }
+
+    public void setPyramidMode(ImagePyramidMode mode) {
+        this.pyramidMode = mode;
+        redraw(this);
+    }
+
     public void thisEffectiveColorChanged() {
         // the color for NaN?
     }
@@ -172,10 +383,16 @@ public class ImageGraphImpl extends GraphImpl implements ImageGraphEx, Intermedi
         if (key == null) {
             return null;
         }
-        ImageZscaleCache.cacheFor(key.bandKey);
-        synchronized (cache) {
-            BufferedImage image = cache.remove(key);
-            cache.put(key, image);
+        if (data instanceof WaterfallImageData) {
+            synchronized (waterfalls) {
+                WaterfallRaster raster = waterfalls.remove(key);
+                waterfalls.put(key, raster);
+            }
+            return key;
+        }
+        synchronized (tileSets) {
+            TileSet tiles = tileSets.remove(key);
+            tileSets.put(key, tiles);
         }
         return key;
     }
@@ -201,7 +418,10 @@ public class ImageGraphImpl extends GraphImpl implements ImageGraphEx, Intermedi
     public void copyFrom(ElementEx src) {
         super.copyFrom(src);
 
-        this.data = ((ImageGraphImpl) src).data;
+        ImageGraphImpl ig = (ImageGraphImpl) src;
+        this.data = ig.data;
+        this.dataVersion = ig.dataVersion;
+        this.pyramidMode = ig.pyramidMode;
     }
 
     public void draw(Graphics2D graphics) {
@@ -221,17 +441,6 @@ public class ImageGraphImpl extends GraphImpl implements ImageGraphEx, Intermedi
             return;
         }
 
-        // create image
-        BufferedImage image;
-        synchronized (cache) {
-            image = cache.get(key);
-            if (image == null) {
-                image = createImage(ImageZscaleCache.getValue(key.bandKey), key.bandKey.outputBits,
-                        key.bandKey.w, key.bandKey.h, mapping.getColorMap());
-                cache.put(key, image);
-            }
-        }
-
         // AffineTransform to zoom and vertical flip image
         ImageCoordinateReference cr = data.getCoordinateReference();
         PaperTransform pxf = getPaperTransform();
@@ -255,10 +464,48 @@ public class ImageGraphImpl extends GraphImpl implements ImageGraphEx, Intermedi
             hints.put(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
         }
         g.addRenderingHints(hints);
-        g.drawImage(image, at, null);
+
+        if (data instanceof WaterfallImageData) {
+            getWaterfallRaster(key, (WaterfallImageData) data).draw(g, at);
+            g.dispose();
+            return;
+        }
+
+        TileSet tiles;
+        synchronized (tileSets) {
+            tiles = tileSets.get(key);
+        }
+        if (tiles == null) {
+            // create the ILUT out of the lock
+            TileSet newTiles = new TileSet(key, tileSize,
+                    (data instanceof MutableImageData) ? (MutableImageData) data : null);
+            synchronized (tileSets) {
+                tiles = tileSets.get(key);
+                if (tiles == null || tiles.tileSize != newTiles.tileSize) {
+                    tiles = newTiles;
+                    tileSets.put(key, tiles);
+                }
+            }
+        }
+        tiles.draw(g, at, Math.max(Math.abs(xscale), Math.abs(yscale)));
         g.dispose();
     }
 
+    private WaterfallRaster getWaterfallRaster(ImageKey key, WaterfallImageData data) {
+        synchronized (waterfalls) {
+            WaterfallRaster raster = waterfalls.get(key);
+            if (raster == null) {
+                //noinspection ConstantConditions
+                ImageZscaleCache.Key ringKey = ImageZscaleCache.createKey(data.getRingBuffer(), data.getWidth(),
+                        data.getCapacity(), mapping.getLimits(), mapping.getIntensityTransform(), mapping.getBias(),
+                        mapping.getGain(), mapping.getILUTOutputBits());
+                raster = new WaterfallRaster(data, ringKey, key.colorMap);
+                waterfalls.put(key, raster);
+            }
+            return raster;
+        }
+    }
+
     @Nullable
     private ImageKey createImageKey() {
         if (data == null || mapping == null) {
@@ -275,16 +522,55 @@ public class ImageGraphImpl extends GraphImpl implements ImageGraphEx, Intermedi
         ImageZscaleCache.Key bandKey = ImageZscaleCache.createKey(data.getDataBuffer(), data.getWidth(), data.getHeight(),
                 mapping.getLimits(), mapping.getIntensityTransform(), mapping.getBias(), mapping.getGain(),
                 mapping.getILUTOutputBits());
-        return new ImageKey(bandKey, mapping.getColorMap());
+        return new ImageKey(bandKey, mapping.getColorMap(), pyramidMode);
+    }
+
+    /**
+     * The cached tiles of an image.
+     */
+    private static class TileSet extends ImageTiles {
+
+        private final ImageZscaleCache.Zscaler zscaler;
+
+        private final BandPyramid pyramid;
+
+        private final int outputBits;
+
+        private final ColorMap colorMap;
+
+        private TileSet(ImageKey key, int tileSize, @Nullable MutableImageData data) {
+            super(key.bandKey.w, key.bandKey.h, tileSize, key.pyramidMode, data);
+            this.zscaler = ImageZscaleCache.createZscaler(key.bandKey);
+            this.outputBits = key.bandKey.outputBits;
+            this.colorMap = key.colorMap;
+            if (key.pyramidMode == ImagePyramidMode.NONE) {
+                pyramid = null;
+            } else {
+                pyramid = new BandPyramid(zscaler, width, height, outputBits, tileSize, key.pyramidMode, data);
+            }
+        }
+
+        @Override
+        protected BufferedImage createImage(int level, int x, int y, int w, int h) {
+            Object bandData;
+            if (level == 0) {
+                bandData = zscaler.zscale(x, y, w, h);
+            } else {
+                bandData = pyramid.getRegion(level, x, y, w, h);
+            }
+            return ImageGraphImpl.createImage(bandData, outputBits, w, h, colorMap);
+        }
     }
 
     private class ImageKey {
         private final ImageZscaleCache.Key bandKey;
         private final ColorMap colorMap;
+        private final ImagePyramidMode pyramidMode;
 
-        public ImageKey(ImageZscaleCache.Key bandKey, ColorMap colorMap) {
+        public ImageKey(ImageZscaleCache.Key bandKey, ColorMap colorMap, ImagePyramidMode pyramidMode) {
             this.bandKey = bandKey;
             this.colorMap = colorMap;
+            this.pyramidMode = pyramidMode;
         }
 
         public boolean equals(Object obj) {
@@ -292,7 +578,7 @@ public class ImageGraphImpl extends GraphImpl implements ImageGraphEx, Intermedi
                 return false;
             }
             ImageKey key = (ImageKey) obj;
-            return key.colorMap == colorMap && key.bandKey.equals(bandKey);
+            return key.colorMap == colorMap && key.pyramidMode == pyramidMode && key.bandKey.equals(bandKey);
         }
 
         public int hashCode() {
@@ -20,6 +20,7 @@ import org.jplot2d.element.ImageMapping;
 import org.jplot2d.util.Range;
 
 import javax.annotation.Nullable;
+import java.awt.Rectangle;
 
 /**
  * @author Jingjing Li
@@ -39,6 +40,15 @@ public interface ImageMappingEx extends ImageMapping, ElementEx, Joinable {
      */
     void invalidateLimits();
 
+    /**
+     * Called by ImageGraphEx when a region of its mutable data changed. The limits are updated incrementally if the
+     * limits calculator supports it, otherwise they are recalculated.
+     *
+     * @param graph  the image graph
+     * @param region the changed region
+     */
+    void invalidateLimits(ImageGraphEx graph, Rectangle region);
+
     /**
      * Called by PlotEx.commit() to calculate limits if needed
      */
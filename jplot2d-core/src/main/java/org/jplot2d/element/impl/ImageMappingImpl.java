@@ -19,8 +19,10 @@ package org.jplot2d.element.impl;
 import org.jplot2d.data.ImageDataBuffer;
 import org.jplot2d.data.SingleBandImageData;
 import org.jplot2d.image.ColorMap;
+import org.jplot2d.image.IncrementalLimitsCalculator;
 import org.jplot2d.image.IntensityTransform;
 import org.jplot2d.image.LimitsAlgorithm;
+import org.jplot2d.image.LimitsCalculator;
 import org.jplot2d.image.MinMaxAlgorithm;
 import org.jplot2d.notice.Notice;
 import org.jplot2d.util.Range;
@@ -31,7 +33,9 @@ import java.awt.*;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ImageMappingImpl extends ElementImpl implements ImageMappingEx {
 
@@ -55,6 +59,17 @@ public class ImageMappingImpl extends ElementImpl implements ImageMappingEx {
 
     private boolean calcLimitsNeeded;
 
+    /**
+     * The calculator of the current limits, which is kept to update the limits incrementally
+     */
+    @Nullable
+    private LimitsCalculator calculator;
+
+    /**
+     * The changed regions of graph data since the limits are calculated
+     */
+    private final Map<ImageGraphEx, Rectangle> changedRegions = new HashMap<>();
+
     @Override
     public ImageGraphEx getParent() {
         return (ImageGraphEx) parent;
@@ -154,29 +169,49 @@ public class ImageMappingImpl extends ElementImpl implements ImageMappingEx {
     @Override
     public void invalidateLimits() {
         calcLimitsNeeded = true;
+        changedRegions.clear();
     }
 
     @Override
-    public void calcLimits() {
-        if (calcLimitsNeeded || limits == null) {
-            calcLimitsNeeded = false;
+    public void invalidateLimits(ImageGraphEx graph, Rectangle region) {
+        if (!calcLimitsNeeded) {
+            Rectangle changed = changedRegions.get(graph);
+            changedRegions.put(graph, (changed == null) ? new Rectangle(region) : changed.union(region));
+        }
+    }
 
+    @Override
+    public void calcLimits() {
+        boolean fullCalcNeeded = calcLimitsNeeded || limits == null || calculator == null;
+        if (fullCalcNeeded || !changedRegions.isEmpty()) {
             ImageDataBuffer[] ids = new ImageDataBuffer[graphs.size()];
             Dimension[] sizeArray = new Dimension[graphs.size()];
+            Rectangle[] regions = new Rectangle[graphs.size()];
             int n = 0;
             for (int i = 0; i < ids.length; i++) {
                 SingleBandImageData data = graphs.get(i).getData();
                 if (data != null) {
                     ids[n] = data.getDataBuffer();
                     sizeArray[n] = new Dimension(data.getWidth(), data.getHeight());
+                    regions[n] = changedRegions.get(graphs.get(i));
                     n++;
                 }
             }
             if (n != graphs.size()) {
                 ids = Arrays.copyOf(ids, n);
                 sizeArray = Arrays.copyOf(sizeArray, n);
+                regions = Arrays.copyOf(regions, n);
             }
-            double[] newlimits = algo.getCalculator().calcLimits(ids, sizeArray);
+
+            double[] newlimits;
+            if (!fullCalcNeeded && calculator instanceof IncrementalLimitsCalculator) {
+                newlimits = ((IncrementalLimitsCalculator) calculator).updateLimits(ids, sizeArray, regions);
+            } else {
+                calculator = algo.getCalculator();
+                newlimits = calculator.calcLimits(ids, sizeArray);
+            }
+            calcLimitsNeeded = false;
+            changedRegions.clear();
 
             if (limits == null || newlimits == null || limits[0] != newlimits[0] || limits[1] != newlimits[1]) {
                 limits = newlimits;
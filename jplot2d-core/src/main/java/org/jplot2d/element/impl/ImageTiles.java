@@ -0,0 +1,368 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software:
+ * you can redistribute it and/or modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with jplot2d.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.element.impl;
+
+import org.jplot2d.data.MutableImageData;
+import org.jplot2d.element.ImagePyramidMode;
+import org.jplot2d.util.BoundedCache;
+
+import javax.annotation.Nullable;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The cached tiles of an image. The tiles are created on demand, only for the visible region. The tiles of all images
+ * are kept in a cache of bounded bytes, and the least recently used tiles are dropped when the cache is full. The cache
+ * keys do not reference the image data, so a cached tile never keeps a discarded image alive.
+ * <p>
+ * When the pyramid mode is not {@link ImagePyramidMode#NONE NONE}, a zoomed out image is drawn from a reduced level.
+ * Level 0 is the full resolution, and every level halves the width and height of its lower level. The pixel
+ * <code>(i, j)</code> of level <code>k</code> covers the full resolution pixels from <code>(i * 2^k, j * 2^k)</code>
+ * to <code>((i + 1) * 2^k, (j + 1) * 2^k)</code>.
+ * <p>
+ * When the image data is a {@link MutableImageData}, every cached tile remembers the data version it's computed from.
+ * A tile is computed again only if the regions changed after its version intersect the pixels it's computed from.
+ *
+ * @author Jingjing Li
+ */
+abstract class ImageTiles {
+
+    private static final AtomicLong nextId = new AtomicLong();
+
+    /**
+     * The cache of tiles and pooled band data of all images. The default size is 256MB or 1/4 of the max heap.
+     */
+    static final BoundedCache<TileKey, Object> cache = new BoundedCache<>(
+            Math.min(256L << 20, Runtime.getRuntime().maxMemory() / 4), new BoundedCache.Weigher<Object>() {
+        public long weigh(Object value) {
+            if (value instanceof Tile) {
+                DataBuffer db = ((Tile) value).image.getRaster().getDataBuffer();
+                return (long) db.getSize() * db.getNumBanks() * DataBuffer.getDataTypeSize(db.getDataType()) / 8;
+            } else if (((BandTile) value).band instanceof byte[]) {
+                return ((byte[]) ((BandTile) value).band).length;
+            } else if (((BandTile) value).band instanceof short[]) {
+                return ((short[]) ((BandTile) value).band).length * 2L;
+            } else {
+                return 0;
+            }
+        }
+    });
+
+    /**
+     * The id to distinguish the tiles of this image in the cache
+     */
+    private final long id = nextCacheId();
+
+    protected final int width, height;
+
+    protected final int tileSize;
+
+    private final ImagePyramidMode pyramidMode;
+
+    private final int maxLevel;
+
+    /**
+     * The mutable data to check the version of cached tiles, or <code>null</code> if the data is immutable
+     */
+    @Nullable
+    protected final MutableImageData data;
+
+    protected ImageTiles(int width, int height, int tileSize, ImagePyramidMode pyramidMode,
+                         @Nullable MutableImageData data) {
+        this.data = data;
+        this.width = width;
+        this.height = height;
+        this.tileSize = tileSize;
+        this.pyramidMode = pyramidMode;
+        if (pyramidMode == ImagePyramidMode.NONE) {
+            maxLevel = 0;
+        } else {
+            int level = 0;
+            while (levelSize(width, level) > 1 || levelSize(height, level) > 1) {
+                level++;
+            }
+            maxLevel = level;
+        }
+    }
+
+    /**
+     * Returns a new id to distinguish cached tiles.
+     */
+    static long nextCacheId() {
+        return nextId.getAndIncrement();
+    }
+
+    /**
+     * Returns the cached value of the given key. If the cached value is out of date, because the mutable data has been
+     * changed in the pixels which the value is computed from, the value is computed again.
+     *
+     * @param key    the cache key
+     * @param loader the loader to compute the value
+     * @param data   the mutable data, or <code>null</code> if the data is immutable
+     * @return the up to date value
+     */
+    static Versioned getVersioned(TileKey key, Callable<Object> loader, @Nullable MutableImageData data) {
+        Versioned value = (Versioned) cache.get(key, loader);
+        if (data != null && value.version != data.getVersion()) {
+            long version = data.getVersion();
+            Rectangle changed = data.getChangedRegion(value.version);
+            if (changed != null && changed.intersects(value.source)) {
+                cache.remove(key);
+                value = (Versioned) cache.get(key, loader);
+            } else if (value.version < version) {
+                value.version = version;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns the width or height of the given level.
+     *
+     * @param size  the width or height of the full resolution image
+     * @param level the pyramid level
+     * @return the width or height of the given level
+     */
+    static int levelSize(int size, int level) {
+        return (int) (((long) size + (1L << level) - 1) >> level);
+    }
+
+    /**
+     * Create the image of the given region of the given level.
+     *
+     * @param level the pyramid level
+     * @param x     the x of the 1st pixel of the region, in level pixels
+     * @param y     the y of the 1st pixel of the region, in level pixels
+     * @param w     the region width
+     * @param h     the region height
+     * @return the image of the region
+     */
+    protected abstract BufferedImage createImage(int level, int x, int y, int w, int h);
+
+    /**
+     * Returns the coarsest level which still has at least one pixel per device pixel.
+     *
+     * @param scale the number of device pixels per full resolution pixel
+     * @return the pyramid level
+     */
+    int selectLevel(double scale) {
+        int level = 0;
+        while (level < maxLevel && scale * (2L << level) <= 1) {
+            level++;
+        }
+        return level;
+    }
+
+    /**
+     * Draw the visible tiles.
+     *
+     * @param g     the graphics
+     * @param at    the transform from full resolution image pixels to device
+     * @param scale the number of device pixels per full resolution pixel
+     */
+    void draw(Graphics2D g, AffineTransform at, double scale) {
+        int level = selectLevel(scale);
+        AffineTransform lat = new AffineTransform(at);
+        lat.scale(1 << level, 1 << level);
+        Rectangle region = getVisibleRegion(g, lat, levelSize(width, level), levelSize(height, level));
+        if (region == null) {
+            return;
+        }
+        for (int ty = region.y / tileSize; ty * tileSize < region.y + region.height; ty++) {
+            for (int tx = region.x / tileSize; tx * tileSize < region.x + region.width; tx++) {
+                drawTile(g, at, getTile(level, tx, ty));
+            }
+        }
+    }
+
+    /**
+     * Returns the region of image pixels which are visible in the clip of the given graphics, plus a pixel margin for
+     * interpolation.
+     *
+     * @param g  the graphics
+     * @param at the transform from image pixels to device
+     * @param w  the image width
+     * @param h  the image height
+     * @return the visible region, or <code>null</code> if nothing is visible
+     */
+    @Nullable
+    private static Rectangle getVisibleRegion(Graphics2D g, AffineTransform at, int w, int h) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            return new Rectangle(w, h);
+        }
+        Rectangle2D src;
+        try {
+            src = at.createInverse().createTransformedShape(clip).getBounds2D();
+        } catch (NoninvertibleTransformException e) {
+            return null;
+        }
+        int x0 = (int) Math.max(0, Math.floor(src.getMinX()) - 1);
+        int y0 = (int) Math.max(0, Math.floor(src.getMinY()) - 1);
+        int x1 = (int) Math.min(w, Math.ceil(src.getMaxX()) + 1);
+        int y1 = (int) Math.min(h, Math.ceil(src.getMaxY()) + 1);
+        if (x0 >= x1 || y0 >= y1) {
+            return null;
+        }
+        return new Rectangle(x0, y0, x1 - x0, y1 - y0);
+    }
+
+    /**
+     * Draw the given tile. The tile image has a pixel margin, so that the interpolation at the tile border is same
+     * as drawing the whole image. The margin is clipped off.
+     */
+    private static void drawTile(Graphics2D g, AffineTransform at, Tile tile) {
+        Graphics2D tg = (Graphics2D) g.create();
+        tg.clip(at.createTransformedShape(tile.bounds).getBounds2D());
+        AffineTransform tat = new AffineTransform(at);
+        tat.concatenate(tile.transform);
+        tg.drawImage(tile.image, tat, null);
+        tg.dispose();
+    }
+
+    /**
+     * Returns the tile at the given level, tile column and row. The tile is created if it is not cached.
+     */
+    private Tile getTile(final int level, final int tx, final int ty) {
+        return (Tile) getVersioned(new TileKey(id, level, tx, ty), new Callable<Object>() {
+            public Object call() {
+                return createTile(level, tx, ty);
+            }
+        }, data);
+    }
+
+    private Tile createTile(int level, int tx, int ty) {
+        // the version must be taken before reading the data
+        long version = (data == null) ? 0 : data.getVersion();
+        int lw = levelSize(width, level);
+        int lh = levelSize(height, level);
+        Rectangle bounds = new Rectangle(tx * tileSize, ty * tileSize, tileSize, tileSize)
+                .intersection(new Rectangle(lw, lh));
+        // the margin of 1 pixel
+        int x0 = Math.max(0, bounds.x - 1);
+        int y0 = Math.max(0, bounds.y - 1);
+        int x1 = Math.min(lw, bounds.x + bounds.width + 1);
+        int y1 = Math.min(lh, bounds.y + bounds.height + 1);
+        BufferedImage image = createImage(level, x0, y0, x1 - x0, y1 - y0);
+
+        // the bounds in full resolution pixels. The last pixels of a level may exceed the image.
+        int f = 1 << level;
+        Rectangle fullBounds = new Rectangle(bounds.x * f, bounds.y * f, bounds.width * f, bounds.height * f)
+                .intersection(new Rectangle(width, height));
+        Rectangle source = new Rectangle(x0 * f, y0 * f, (x1 - x0) * f, (y1 - y0) * f)
+                .intersection(new Rectangle(width, height));
+        AffineTransform transform = new AffineTransform(f, 0, 0, f, x0 * f, y0 * f);
+        return new Tile(version, source, image, transform, fullBounds);
+    }
+
+    /**
+     * The key to a tile of a pyramid level.
+     */
+    static class TileKey {
+
+        private final long id;
+
+        private final int level, tx, ty;
+
+        TileKey(long id, int level, int tx, int ty) {
+            this.id = id;
+            this.level = level;
+            this.tx = tx;
+            this.ty = ty;
+        }
+
+        public boolean equals(Object obj) {
+            if (!(obj instanceof TileKey)) {
+                return false;
+            }
+            TileKey key = (TileKey) obj;
+            return key.id == id && key.level == level && key.tx == tx && key.ty == ty;
+        }
+
+        public int hashCode() {
+            return (((int) (id ^ (id >>> 32)) * 31 + level) * 31 + tx) * 65599 + ty;
+        }
+    }
+
+    /**
+     * A cached value which is computed from a region of image data.
+     */
+    static abstract class Versioned {
+
+        /**
+         * The data version which this value is computed from, or is known to be same as
+         */
+        volatile long version;
+
+        /**
+         * The full resolution image pixels which this value is computed from
+         */
+        final Rectangle source;
+
+        Versioned(long version, Rectangle source) {
+            this.version = version;
+            this.source = source;
+        }
+    }
+
+    /**
+     * The pooled band data of a pyramid tile, in byte[] or short[].
+     */
+    static class BandTile extends Versioned {
+
+        final Object band;
+
+        BandTile(long version, Rectangle source, Object band) {
+            super(version, source);
+            this.band = band;
+        }
+    }
+
+    /**
+     * A z-scaled and color mapped tile.
+     */
+    private static class Tile extends Versioned {
+
+        private final BufferedImage image;
+
+        /**
+         * The transform from tile image pixels to full resolution image pixels
+         */
+        private final AffineTransform transform;
+
+        /**
+         * The full resolution image pixels covered by this tile, excluding the margin
+         */
+        private final Rectangle bounds;
+
+        private Tile(long version, Rectangle source, BufferedImage image, AffineTransform transform,
+                     Rectangle bounds) {
+            super(version, source);
+            this.image = image;
+            this.transform = transform;
+            this.bounds = bounds;
+        }
+    }
+
+}
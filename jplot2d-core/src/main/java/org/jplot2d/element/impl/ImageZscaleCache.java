@@ -18,13 +18,15 @@ package org.jplot2d.element.impl;
 
 import org.jplot2d.data.ImageDataBuffer;
 import org.jplot2d.image.IntensityTransform;
+import org.jplot2d.util.ParallelPool;
 import org.jplot2d.util.Range;
 
 import javax.annotation.Nullable;
-import java.util.WeakHashMap;
+import java.util.concurrent.RecursiveAction;
 
 /**
- * The class calculate and cache z-scaled image band data.
+ * The class calculate z-scaled image band data. The results are cached as tiles by the image graphs. A z-scaler reads
+ * the data buffer on every call, so the changed region of a mutable image data is z-scaled again by its tiles.
  *
  * @author Jingjing Li
  */
@@ -34,7 +36,72 @@ public class ImageZscaleCache {
      * The max number of significant bits after applying limits. The max number is 16, for unsigned short data buffer.
      */
     private static final int MAX_BITS = 16;
-    private static final WeakHashMap<Key, Object> map = new WeakHashMap<>();
+
+    /**
+     * The min number of pixels to be processed in parallel
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 15;
+
+    /**
+     * The number of pixels processed by a parallel task, rounded to whole rows
+     */
+    private static final int BLOCK_PIXELS = 1 << 13;
+
+    /**
+     * The pool to z-scale and color map images in parallel
+     */
+    private static final ParallelPool pool = new ParallelPool(ParallelPool.CORES);
+
+    /**
+     * A kernel which processes a block of rows.
+     */
+    interface RowKernel {
+
+        /**
+         * Process the rows in the given range.
+         *
+         * @param rowBegin the 1st row, inclusive
+         * @param rowEnd   the last row, exclusive
+         */
+        void apply(int rowBegin, int rowEnd);
+    }
+
+    /**
+     * Returns the number of threads to z-scale and color map images.
+     *
+     * @return the parallelism
+     */
+    public static int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Sets the number of threads to z-scale and color map images. When it's larger than 1, an image region which has
+     * more than 32K pixels is split into blocks of rows, which are processed on a fork-join pool. The default is the
+     * number of available processors.
+     *
+     * @param parallelism the number of threads, 1 to process in the calling thread
+     */
+    public static void setParallelism(int parallelism) {
+        pool.setParallelism(parallelism);
+    }
+
+    /**
+     * Apply the given kernel to all rows of a region. The rows are split into blocks which are processed in parallel if
+     * the region is large enough.
+     *
+     * @param w      the region width
+     * @param h      the region height
+     * @param kernel the kernel
+     */
+    static void applyRowKernel(int w, int h, RowKernel kernel) {
+        if (pool.getParallelism() > 1 && (long) w * h >= PARALLEL_THRESHOLD) {
+            int blockRows = Math.max(1, BLOCK_PIXELS / Math.max(1, w));
+            pool.invoke(new RowBlockAction(kernel, 0, h, blockRows));
+        } else {
+            kernel.apply(0, h);
+        }
+    }
 
     /**
      * Create a key for the given calculation arguments.
@@ -54,30 +121,6 @@ public class ImageZscaleCache {
         return new Key(dbuf, w, h, limits, intensityTransform, bias, gain, outputBits);
     }
 
-    /**
-     * Create a cache entry for the given calculation key.
-     */
-    public static void cacheFor(Key key) {
-        synchronized (map) {
-            Object v = map.remove(key);
-            map.put(key, v);
-        }
-    }
-
-    /**
-     * Returns the result for the given key.
-     */
-    public static Object getValue(Key key) {
-        synchronized (map) {
-            Object vref = map.get(key);
-            if (vref == null) {
-                vref = zscaleLimits(key.dbuf, key.w, key.h, key.limits, key.intensityTransform, key.bias, key.gain, key.outputBits);
-                map.put(key, vref);
-            }
-            return vref;
-        }
-    }
-
     /**
      * z-scale the image according settings in the given key.
      *
@@ -97,6 +140,17 @@ public class ImageZscaleCache {
 
     }
 
+    /**
+     * Create a z-scaler for the given key, which z-scales any region of the image. The ILUT is created only once, so
+     * that z-scaling an image tile by tile costs no more than z-scaling the whole image.
+     *
+     * @param key the calculation arguments
+     * @return a z-scaler
+     */
+    public static Zscaler createZscaler(Key key) {
+        return new Zscaler(key);
+    }
+
     /**
      * Returns the number of significant bits that the ILUT index should match. When applying the limits, the generated
      * values should match the ILUT indexes. If createByteILUT/createShortILUT returns null, returns outputBits.
@@ -176,22 +230,41 @@ public class ImageZscaleCache {
      * @param lutInputBits the bits of input value. If the lut is null, it's the bits of return values.
      * @return an unsigned byte array
      */
-    private static byte[] zscaleBytes(ImageDataBuffer idb, int xoff, int yoff, int w, int h, Range limits,
-                                      byte[] lut, int lutInputBits) {
+    private static byte[] zscaleBytes(final ImageDataBuffer idb, final int xoff, final int yoff, final int w, int h,
+                                      Range limits, final byte[] lut, int lutInputBits) {
 
-        byte[] result = new byte[w * h];
+        final byte[] result = new byte[w * h];
 
         // limits is null means there is no valid data
         if (limits == null) {
             return result;
         }
 
-        double lowCut = limits.getMin();
+        final double lowCut = limits.getMin();
         double highCut = limits.getMax();
-        int outputRange = 1 << lutInputBits;
-        double scale = outputRange / (highCut - lowCut);
+        final int outputRange = 1 << lutInputBits;
+        final double scale = outputRange / (highCut - lowCut);
 
-        int n = 0;
+        applyRowKernel(w, h, new RowKernel() {
+            public void apply(int rowBegin, int rowEnd) {
+                zscaleBytes(idb, xoff, yoff + rowBegin, w, rowEnd - rowBegin, lowCut, scale, lut, outputRange,
+                        result, rowBegin * w);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Apply the cuts and scale the given rows to the given unsigned byte array.
+     *
+     * @param lowCut      the low cut value
+     * @param scale       the scale from data values to ILUT indexes
+     * @param outputRange the range of ILUT indexes
+     * @param result      the array to store the result
+     * @param n           the index of the 1st result
+     */
+    private static void zscaleBytes(ImageDataBuffer idb, int xoff, int yoff, int w, int h, double lowCut,
+                                    double scale, byte[] lut, int outputRange, byte[] result, int n) {
         if (lut == null) {
             for (int r = yoff; r < yoff + h; r++) {
                 for (int c = xoff; c < xoff + w; c++) {
@@ -225,8 +298,6 @@ public class ImageZscaleCache {
                 }
             }
         }
-
-        return result;
     }
 
     /**
@@ -294,22 +365,41 @@ public class ImageZscaleCache {
      * @param lutInputBits the bits of input value. If the lut is null, it's the bits of return values.
      * @return an unsigned short array
      */
-    private static short[] zscaleShorts(ImageDataBuffer idb, int xoff, int yoff, int w, int h, Range limits,
-                                        short[] lut, int lutInputBits) {
+    private static short[] zscaleShorts(final ImageDataBuffer idb, final int xoff, final int yoff, final int w,
+                                        int h, Range limits, final short[] lut, int lutInputBits) {
 
-        short[] result = new short[w * h];
+        final short[] result = new short[w * h];
 
         // limits is null means there is no valid data
         if (limits == null) {
             return result;
         }
 
-        double lowCut = limits.getMin();
+        final double lowCut = limits.getMin();
         double highCut = limits.getMax();
-        int outputRange = 1 << lutInputBits;
-        double scale = outputRange / (highCut - lowCut);
+        final int outputRange = 1 << lutInputBits;
+        final double scale = outputRange / (highCut - lowCut);
 
-        int n = 0;
+        applyRowKernel(w, h, new RowKernel() {
+            public void apply(int rowBegin, int rowEnd) {
+                zscaleShorts(idb, xoff, yoff + rowBegin, w, rowEnd - rowBegin, lowCut, scale, lut, outputRange,
+                        result, rowBegin * w);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Apply the cuts and scale the given rows to the given unsigned short array.
+     *
+     * @param lowCut      the low cut value
+     * @param scale       the scale from data values to ILUT indexes
+     * @param outputRange the range of ILUT indexes
+     * @param result      the array to store the result
+     * @param n           the index of the 1st result
+     */
+    private static void zscaleShorts(ImageDataBuffer idb, int xoff, int yoff, int w, int h, double lowCut,
+                                     double scale, short[] lut, int outputRange, short[] result, int n) {
         if (lut == null) {
             for (int r = yoff; r < yoff + h; r++) {
                 for (int c = xoff; c < xoff + w; c++) {
@@ -343,7 +433,159 @@ public class ImageZscaleCache {
                 }
             }
         }
+    }
+
+    /**
+     * Splits a range of rows in halves until a half has no more than the given number of rows.
+     */
+    private static class RowBlockAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final RowKernel kernel;
+
+        private final int rowBegin, rowEnd, blockRows;
+
+        private RowBlockAction(RowKernel kernel, int rowBegin, int rowEnd, int blockRows) {
+            this.kernel = kernel;
+            this.rowBegin = rowBegin;
+            this.rowEnd = rowEnd;
+            this.blockRows = blockRows;
+        }
+
+        @Override
+        protected void compute() {
+            if (rowEnd - rowBegin <= blockRows) {
+                kernel.apply(rowBegin, rowEnd);
+            } else {
+                int mid = (rowBegin + rowEnd) >>> 1;
+                invokeAll(new RowBlockAction(kernel, rowBegin, mid, blockRows),
+                        new RowBlockAction(kernel, mid, rowEnd, blockRows));
+            }
+        }
+    }
+
+    /**
+     * Z-scales regions of an image according to the settings of a key.
+     */
+    public static class Zscaler {
+
+        private final Key key;
+
+        private final int lutInputBits;
+
+        private final byte[] byteLut;
+
+        private final short[] shortLut;
+
+        private final double lowCut, scale;
+
+        private final int outputRange;
+
+        private Zscaler(Key key) {
+            this.key = key;
+            lutInputBits = getILUTInputBits(key.intensityTransform, key.bias, key.gain, key.outputBits);
+            outputRange = 1 << lutInputBits;
+            if (key.limits == null) {
+                lowCut = 0;
+                scale = 0;
+            } else {
+                lowCut = key.limits.getMin();
+                scale = outputRange / (key.limits.getMax() - lowCut);
+            }
+            if (key.outputBits <= Byte.SIZE) {
+                byteLut = createByteILUT(key.intensityTransform, key.bias, key.gain, lutInputBits, key.outputBits);
+                shortLut = null;
+            } else {
+                byteLut = null;
+                shortLut = createShortILUT(key.intensityTransform, key.bias, key.gain, lutInputBits, key.outputBits);
+            }
+        }
+
+        /**
+         * Returns the key of this z-scaler.
+         *
+         * @return the key
+         */
+        Key getKey() {
+            return key;
+        }
+
+        /**
+         * z-scale the given region of the image.
+         *
+         * @param x the x of the 1st pixel of the region
+         * @param y the y of the 1st pixel of the region
+         * @param w the region width
+         * @param h the region height
+         * @return the scaled data, in byte[] or short[]
+         */
+        public Object zscale(int x, int y, int w, int h) {
+            if (key.outputBits <= Byte.SIZE) {
+                return zscaleBytes(key.dbuf, x, y, w, h, key.limits, byteLut, lutInputBits);
+            } else {
+                return zscaleShorts(key.dbuf, x, y, w, h, key.limits, shortLut, lutInputBits);
+            }
+        }
+
+        /**
+         * z-scale the given value to an unsigned byte, same as {@link #zscale(int, int, int, int)} does. The output
+         * bits of the key must not be more than 8.
+         *
+         * @param v the data value
+         * @return the scaled value, in [0, 255]
+         */
+        int zscaleByte(double v) {
+            if (key.limits == null) {
+                return 0;
+            }
+            double scaled = (v - lowCut) * scale;
+            int ilutIndex = (int) scaled;
+            if (byteLut == null) {
+                if (ilutIndex >= outputRange) {
+                    ilutIndex = outputRange - 1;
+                }
+                return ilutIndex & 0xff;
+            } else {
+                double idelta = scaled - ilutIndex;
+                int a = byteLut[ilutIndex] & 0xff;
+                int b = byteLut[ilutIndex + 1] & 0xff;
+                return (int) (a + idelta * (b - a)) & 0xff;
+            }
+        }
+    }
 
+    /**
+     * z-scale the given region of 3 bands in a single pass, and pack the scaled values into RGB pixels. Every pixel
+     * reads the 3 data buffers once, and no intermediate band array is allocated. The values are same as z-scaling
+     * every band by its own z-scaler.
+     *
+     * @param red   the z-scaler of the red band, which outputs 8 bits
+     * @param green the z-scaler of the green band, which outputs 8 bits
+     * @param blue  the z-scaler of the blue band, which outputs 8 bits
+     * @param x     the x of the 1st pixel of the region
+     * @param y     the y of the 1st pixel of the region
+     * @param w     the region width
+     * @param h     the region height
+     * @return the packed pixels, in 0x00RRGGBB
+     */
+    static int[] zscaleRGB(final Zscaler red, final Zscaler green, final Zscaler blue, final int x, final int y,
+                           final int w, int h) {
+        final int[] result = new int[w * h];
+        final ImageDataBuffer rdb = red.key.dbuf;
+        final ImageDataBuffer gdb = green.key.dbuf;
+        final ImageDataBuffer bdb = blue.key.dbuf;
+        applyRowKernel(w, h, new RowKernel() {
+            public void apply(int rowBegin, int rowEnd) {
+                int n = rowBegin * w;
+                for (int r = y + rowBegin; r < y + rowEnd; r++) {
+                    for (int c = x; c < x + w; c++) {
+                        result[n++] = (red.zscaleByte(rdb.getDouble(c, r)) << 16)
+                                | (green.zscaleByte(gdb.getDouble(c, r)) << 8) | blue.zscaleByte(bdb.getDouble(c, r));
+                    }
+                }
+            }
+        });
         return result;
     }
 
@@ -19,6 +19,7 @@ package org.jplot2d.element.impl;
 import org.jplot2d.data.ImageCoordinateReference;
 import org.jplot2d.data.ImageDataBuffer;
 import org.jplot2d.data.MultiBandImageData;
+import org.jplot2d.element.ImagePyramidMode;
 import org.jplot2d.element.RGBImageMapping;
 import org.jplot2d.transform.NormalTransform;
 import org.jplot2d.transform.PaperTransform;
@@ -27,17 +28,31 @@ import org.jplot2d.util.Range;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.awt.*;
-import java.awt.color.ColorSpace;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Dimension2D;
 import java.awt.image.*;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.WeakHashMap;
 
 public class RGBImageGraphImpl extends GraphImpl implements RGBImageGraphEx, IntermediateCacheEx {
 
-    private static final WeakHashMap<ImageKey, BufferedImage> cache = new WeakHashMap<>();
+    /**
+     * The tiles of images. The tiles are kept in the tile cache, and a tile set only holds the arguments to create its
+     * tiles. The keys are weak, they are kept by the intermediate cache holder while the image is displayed.
+     */
+    private static final WeakHashMap<ImageKey, TileSet> tileSets = new WeakHashMap<>();
+
+    /**
+     * The band pyramids of every band buffer. A pyramid is shared by all tile sets which z-scale the band in the same
+     * way, so changing a band keeps the pooled tiles of the other bands. The buffers are weak keys, and the pyramids
+     * are weak references, which are kept by the tile sets which use them. So the map never keeps a dropped buffer.
+     */
+    private static final Map<ImageDataBuffer, List<WeakReference<BandPyramid>>> bandPyramids = new WeakHashMap<>();
 
     @Nullable
     private RGBImageMappingEx mapping;
@@ -45,28 +60,23 @@ public class RGBImageGraphImpl extends GraphImpl implements RGBImageGraphEx, Int
     @Nullable
     private MultiBandImageData data;
 
+    private ImagePyramidMode pyramidMode = ImagePyramidMode.NONE;
+
     public RGBImageGraphImpl() {
         super();
         setZOrder(-1);
     }
 
-    private static BufferedImage createImage(ImageKey key) {
-        int width = key.redKey.w;
-        int height = key.redKey.h;
-        byte[][] result = new byte[3][];
-        result[0] = (byte[]) ImageZscaleCache.getValue(key.redKey);
-        result[1] = (byte[]) ImageZscaleCache.getValue(key.greenKey);
-        result[2] = (byte[]) ImageZscaleCache.getValue(key.blueKey);
-
-        SampleModel sm = new BandedSampleModel(DataBuffer.TYPE_BYTE, width, height, 3);
-        DataBufferByte dbuffer = new DataBufferByte(result, width * height);
-        WritableRaster raster = Raster.createWritableRaster(sm, dbuffer, null);
-
-        // assembly a BufferedImage
-        int[] bitsArray = new int[]{8, 8, 8};
-        ColorModel destCM = new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_sRGB), bitsArray, false, true,
-                Transparency.OPAQUE, raster.getSampleModel().getDataType());
-        return new BufferedImage(destCM, raster, false, null);
+    /**
+     * Create an opaque RGB image of the given packed pixels.
+     *
+     * @param pixels the packed pixels, in 0x00RRGGBB
+     */
+    static BufferedImage createImage(int[] pixels, int width, int height) {
+        DirectColorModel cm = new DirectColorModel(24, 0x00ff0000, 0x0000ff00, 0x000000ff, 0);
+        DataBufferInt dbuffer = new DataBufferInt(pixels, pixels.length);
+        WritableRaster raster = Raster.createPackedRaster(dbuffer, width, height, width, cm.getMasks(), null);
+        return new BufferedImage(cm, raster, false, null);
     }
 
     public void setParent(ElementEx parent) {
@@ -117,6 +127,15 @@ public class RGBImageGraphImpl extends GraphImpl implements RGBImageGraphEx, Int
         }
     }
 
+    public ImagePyramidMode getPyramidMode() {
+        return pyramidMode;
+    }
+
+    public void setPyramidMode(ImagePyramidMode mode) {
+        this.pyramidMode = mode;
+        redraw(this);
+    }
+
     public void thisEffectiveColorChanged() {
         // the color for NaN?
     }
@@ -131,13 +150,9 @@ public class RGBImageGraphImpl extends GraphImpl implements RGBImageGraphEx, Int
             return null;
         }
 
-        ImageZscaleCache.cacheFor(imageKey.redKey);
-        ImageZscaleCache.cacheFor(imageKey.greenKey);
-        ImageZscaleCache.cacheFor(imageKey.blueKey);
-
-        synchronized (cache) {
-            BufferedImage image = cache.remove(imageKey);
-            cache.put(imageKey, image);
+        synchronized (tileSets) {
+            TileSet tiles = tileSets.remove(imageKey);
+            tileSets.put(imageKey, tiles);
         }
         return imageKey;
     }
@@ -163,7 +178,9 @@ public class RGBImageGraphImpl extends GraphImpl implements RGBImageGraphEx, Int
     public void copyFrom(ElementEx src) {
         super.copyFrom(src);
 
-        this.data = ((RGBImageGraphImpl) src).data;
+        RGBImageGraphImpl ig = (RGBImageGraphImpl) src;
+        this.data = ig.data;
+        this.pyramidMode = ig.pyramidMode;
     }
 
     public void draw(Graphics2D graphics) {
@@ -174,15 +191,9 @@ public class RGBImageGraphImpl extends GraphImpl implements RGBImageGraphEx, Int
             return;
         }
 
-        // apply limits to generate a raster
         ImageKey imageKey = createImageKey();
-        BufferedImage image;
-        synchronized (cache) {
-            image = cache.get(imageKey);
-            if (cache.get(imageKey) == null) {
-                image = createImage(imageKey);
-                cache.put(imageKey, image);
-            }
+        if (imageKey == null) {
+            return;
         }
 
         // AffineTransform to zoom and vertical flip image
@@ -208,7 +219,24 @@ public class RGBImageGraphImpl extends GraphImpl implements RGBImageGraphEx, Int
             hints.put(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
         }
         g.addRenderingHints(hints);
-        g.drawImage(image, at, null);
+
+        TileSet tiles;
+        int tileSize = ImageGraphImpl.getTileSize();
+        synchronized (tileSets) {
+            tiles = tileSets.get(imageKey);
+        }
+        if (tiles == null || tiles.tileSize != tileSize) {
+            // create the ILUTs out of the lock
+            TileSet newTiles = new TileSet(imageKey, tileSize);
+            synchronized (tileSets) {
+                tiles = tileSets.get(imageKey);
+                if (tiles == null || tiles.tileSize != tileSize) {
+                    tiles = newTiles;
+                    tileSets.put(imageKey, tiles);
+                }
+            }
+        }
+        tiles.draw(g, at, Math.max(Math.abs(xscale), Math.abs(yscale)));
         g.dispose();
     }
 
@@ -241,16 +269,92 @@ public class RGBImageGraphImpl extends GraphImpl implements RGBImageGraphEx, Int
         ImageZscaleCache.Key blueKey = ImageZscaleCache.createKey(idbs[2], width, height, blueLimits,
                 blueTrans.getIntensityTransform(), blueTrans.getBias(), blueTrans.getGain(), 8);
 
-        return new ImageKey(redKey, greenKey, blueKey);
+        return new ImageKey(redKey, greenKey, blueKey, pyramidMode);
+    }
+
+    /**
+     * Returns the shared pyramid of the given band.
+     *
+     * @param bandKey  the z-scale key of the band
+     * @param tileSize the size of pooled tiles
+     * @param mode     the pooling mode, must not be {@link ImagePyramidMode#NONE NONE}
+     * @return the band pyramid
+     */
+    static BandPyramid getBandPyramid(ImageZscaleCache.Key bandKey, int tileSize, ImagePyramidMode mode) {
+        synchronized (bandPyramids) {
+            List<WeakReference<BandPyramid>> pyramids = bandPyramids.get(bandKey.dbuf);
+            if (pyramids == null) {
+                pyramids = new ArrayList<>(1);
+                bandPyramids.put(bandKey.dbuf, pyramids);
+            }
+            for (Iterator<WeakReference<BandPyramid>> it = pyramids.iterator(); it.hasNext(); ) {
+                BandPyramid pyramid = it.next().get();
+                if (pyramid == null) {
+                    // not used by any tile set
+                    it.remove();
+                } else if (pyramid.matches(bandKey, tileSize, mode)) {
+                    return pyramid;
+                }
+            }
+            BandPyramid pyramid = new BandPyramid(ImageZscaleCache.createZscaler(bandKey), bandKey.w, bandKey.h, 8,
+                    tileSize, mode, null);
+            pyramids.add(new WeakReference<>(pyramid));
+            return pyramid;
+        }
+    }
+
+    /**
+     * The cached tiles of an image. Every band has its own pyramid, which is shared with other tile sets.
+     */
+    private static class TileSet extends ImageTiles {
+
+        private final ImageZscaleCache.Zscaler[] zscalers = new ImageZscaleCache.Zscaler[3];
+
+        private final BandPyramid[] pyramids = new BandPyramid[3];
+
+        private TileSet(ImageKey key, int tileSize) {
+            super(key.redKey.w, key.redKey.h, tileSize, key.pyramidMode, null);
+            ImageZscaleCache.Key[] bandKeys = new ImageZscaleCache.Key[]{key.redKey, key.greenKey, key.blueKey};
+            for (int i = 0; i < 3; i++) {
+                if (key.pyramidMode == ImagePyramidMode.NONE) {
+                    zscalers[i] = ImageZscaleCache.createZscaler(bandKeys[i]);
+                } else {
+                    pyramids[i] = getBandPyramid(bandKeys[i], tileSize, key.pyramidMode);
+                    zscalers[i] = pyramids[i].getZscaler();
+                }
+            }
+        }
+
+        @Override
+        protected BufferedImage createImage(int level, int x, int y, int w, int h) {
+            if (level == 0) {
+                // z-scale the 3 bands in a single pass
+                int[] pixels = ImageZscaleCache.zscaleRGB(zscalers[0], zscalers[1], zscalers[2], x, y, w, h);
+                return RGBImageGraphImpl.createImage(pixels, w, h);
+            }
+
+            // the pooled bands are cached by their own pyramids
+            byte[] red = (byte[]) pyramids[0].getRegion(level, x, y, w, h);
+            byte[] green = (byte[]) pyramids[1].getRegion(level, x, y, w, h);
+            byte[] blue = (byte[]) pyramids[2].getRegion(level, x, y, w, h);
+            int[] pixels = new int[w * h];
+            for (int i = 0; i < pixels.length; i++) {
+                pixels[i] = ((red[i] & 0xff) << 16) | ((green[i] & 0xff) << 8) | (blue[i] & 0xff);
+            }
+            return RGBImageGraphImpl.createImage(pixels, w, h);
+        }
     }
 
     private class ImageKey {
         private final ImageZscaleCache.Key redKey, greenKey, blueKey;
+        private final ImagePyramidMode pyramidMode;
 
-        private ImageKey(ImageZscaleCache.Key redKey, ImageZscaleCache.Key greenKey, ImageZscaleCache.Key blueKey) {
+        private ImageKey(ImageZscaleCache.Key redKey, ImageZscaleCache.Key greenKey, ImageZscaleCache.Key blueKey,
+                         ImagePyramidMode pyramidMode) {
             this.redKey = redKey;
             this.greenKey = greenKey;
             this.blueKey = blueKey;
+            this.pyramidMode = pyramidMode;
         }
 
         public boolean equals(Object obj) {
@@ -258,7 +362,8 @@ public class RGBImageGraphImpl extends GraphImpl implements RGBImageGraphEx, Int
                 return false;
             }
             ImageKey key = (ImageKey) obj;
-            return key.redKey.equals(redKey) && key.greenKey.equals(greenKey) && key.blueKey.equals(blueKey);
+            return key.pyramidMode == pyramidMode && key.redKey.equals(redKey) && key.greenKey.equals(greenKey)
+                    && key.blueKey.equals(blueKey);
         }
 
         public int hashCode() {
@@ -185,7 +185,7 @@ public class SymbolAnnotationImpl extends PointAnnotationImpl implements SymbolA
 
     public Rectangle2D getBounds() {
         if (label == null) {
-            label = new MathLabel(getTextModel(), getEffectiveFont(), getVAlign(), getHAlign());
+            label = MathLabel.getInstance(getTextModel(), getEffectiveFont(), getVAlign(), getHAlign());
         }
 
         if (symbolShape == null) {
@@ -229,7 +229,7 @@ public class SymbolAnnotationImpl extends PointAnnotationImpl implements SymbolA
 
         // draw label
         if (label == null) {
-            label = new MathLabel(getTextModel(), getEffectiveFont(), getVAlign(), getHAlign());
+            label = MathLabel.getInstance(getTextModel(), getEffectiveFont(), getVAlign(), getHAlign());
         }
         g.rotate(Math.PI * angle / 180.0);
         float offx = offsetX * ess / 2;
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software:
+ * you can redistribute it and/or modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with jplot2d.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.element.impl;
+
+import org.jplot2d.util.GraphicsUtil;
+import org.jplot2d.util.SymbolShape;
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The class pre-renders symbols into small ARGB images (stamps) and caches them, so that drawing a symbol on a raster
+ * image is a blit instead of stroking or filling its vector shape.
+ * <p>
+ * A symbol rendered at a sub-pixel position is not a translated copy of the one rendered at an integer position. So a
+ * stamp is rendered for each of the {@link #PHASES} x {@link #PHASES} sub-pixel phases, and a symbol is drawn by the
+ * stamp of the nearest phase, which moves the symbol by up to half a phase step, i.e. 1/16 pixel in each
+ * direction, from its exact position.
+ * <p>
+ * Stamps are rendered outside of the cache lock, so threads rendering different symbols do not wait for each other.
+ *
+ * @author Jingjing Li
+ */
+public class SymbolStampCache {
+
+    /**
+     * The number of sub-pixel phases in each direction
+     */
+    private static final int PHASES = 8;
+
+    /**
+     * The max number of cached stamps
+     */
+    private static final int MAX_ENTRIES = 1024;
+
+    private static final Map<Key, Stamp> map = new LinkedHashMap<Key, Stamp>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Stamp> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private SymbolStampCache() {
+
+    }
+
+    /**
+     * Returns <code>true</code> if symbols can be drawn by stamps on the given graphics. The graphics must draw to a
+     * raster image, without scaling or sub-pixel translation.
+     *
+     * @param g the graphics
+     * @return <code>true</code> if stamps can be used
+     */
+    public static boolean isApplicable(Graphics2D g) {
+        if (!GraphicsUtil.isPixelAligned(g)) {
+            return false;
+        }
+        Composite comp = g.getComposite();
+        return comp instanceof AlphaComposite && ((AlphaComposite) comp).getRule() == AlphaComposite.SRC_OVER;
+    }
+
+    /**
+     * Draw symbols at the given points by stamps. A point whose color is <code>null</code> is skipped.
+     *
+     * @param g         the graphics, must be {@link #isApplicable(Graphics2D) applicable}
+     * @param ss        the symbol shape
+     * @param size      the symbol size
+     * @param scale     the paper to device scale
+     * @param lineWidth the stroke width in device space
+     * @param xp        the x of points
+     * @param yp        the y of points
+     * @param colors    the color of points
+     * @param npoints   the number of points
+     */
+    public static void drawSymbols(Graphics2D g, SymbolShape ss, float size, double scale, float lineWidth,
+                                   float[] xp, float[] yp, Color[] colors, int npoints) {
+        Object antialias = g.getRenderingHint(RenderingHints.KEY_ANTIALIASING);
+        Object strokeControl = g.getRenderingHint(RenderingHints.KEY_STROKE_CONTROL);
+
+        // the stamps of the current color, indexed by phase
+        Stamp[] stamps = new Stamp[PHASES * PHASES];
+        Color stampColor = null;
+
+        for (int i = 0; i < npoints; i++) {
+            Color color = colors[i];
+            if (color == null) {
+                continue;
+            }
+            if (!color.equals(stampColor)) {
+                stampColor = color;
+                for (int k = 0; k < stamps.length; k++) {
+                    stamps[k] = null;
+                }
+            }
+
+            int ix = (int) Math.floor(xp[i]);
+            int iy = (int) Math.floor(yp[i]);
+            int px = (int) ((xp[i] - ix) * PHASES + 0.5f);
+            int py = (int) ((yp[i] - iy) * PHASES + 0.5f);
+            if (px == PHASES) {
+                ix++;
+                px = 0;
+            }
+            if (py == PHASES) {
+                iy++;
+                py = 0;
+            }
+
+            int phase = px * PHASES + py;
+            Stamp stamp = stamps[phase];
+            if (stamp == null) {
+                stamp = stamps[phase] = getStamp(new Key(ss, size, scale, lineWidth, color, antialias,
+                        strokeControl, px, py));
+            }
+            g.drawImage(stamp.image, ix - stamp.ox, iy - stamp.oy, null);
+        }
+    }
+
+    /**
+     * Returns the stamp for the given key. The stamp is rendered if it is not in the cache. Two threads may render the
+     * same stamp at the same time, and the stamp put into the cache first is used by both.
+     */
+    private static Stamp getStamp(Key key) {
+        Stamp stamp;
+        synchronized (map) {
+            stamp = map.get(key);
+        }
+        if (stamp != null) {
+            return stamp;
+        }
+
+        Stamp newStamp = createStamp(key);
+        synchronized (map) {
+            stamp = map.get(key);
+            if (stamp == null) {
+                stamp = newStamp;
+                map.put(key, stamp);
+            }
+            return stamp;
+        }
+    }
+
+    private static Stamp createStamp(Key key) {
+        double safScale = key.scale * key.size;
+        AffineTransform maf = AffineTransform.getScaleInstance(safScale, -safScale);
+        Rectangle2D bounds = maf.createTransformedShape(key.shape.getBounds2D()).getBounds2D();
+
+        // the stroke and the sub-pixel phase may expand the shape
+        double pad = key.lineWidth + 2;
+        int ox = (int) Math.ceil(pad - bounds.getMinX());
+        int oy = (int) Math.ceil(pad - bounds.getMinY());
+        int w = ox + (int) Math.ceil(bounds.getMaxX() + pad);
+        int h = oy + (int) Math.ceil(bounds.getMaxY() + pad);
+
+        BufferedImage image = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        if (key.antialias != null) {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, key.antialias);
+        }
+        if (key.strokeControl != null) {
+            g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, key.strokeControl);
+        }
+        g.setColor(new Color(key.argb, true));
+        g.setStroke(new BasicStroke(key.lineWidth, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER));
+
+        AffineTransform af = AffineTransform.getTranslateInstance(ox + (double) key.px / PHASES,
+                oy + (double) key.py / PHASES);
+        af.concatenate(maf);
+        key.shape.draw(g, af);
+        g.dispose();
+
+        return new Stamp(image, ox, oy);
+    }
+
+    /**
+     * A rendered symbol. The symbol center is at (ox, oy) of the image, plus the sub-pixel phase.
+     */
+    private static class Stamp {
+
+        private final BufferedImage image;
+
+        private final int ox, oy;
+
+        private Stamp(BufferedImage image, int ox, int oy) {
+            this.image = image;
+            this.ox = ox;
+            this.oy = oy;
+        }
+    }
+
+    private static class Key {
+
+        private final SymbolShape shape;
+
+        private final float size;
+
+        private final double scale;
+
+        private final float lineWidth;
+
+        private final int argb;
+
+        private final Object antialias, strokeControl;
+
+        private final int px, py;
+
+        private Key(SymbolShape shape, float size, double scale, float lineWidth, Color color, Object antialias,
+                    Object strokeControl, int px, int py) {
+            this.shape = shape;
+            this.size = size;
+            this.scale = scale;
+            this.lineWidth = lineWidth;
+            this.argb = color.getRGB();
+            this.antialias = antialias;
+            this.strokeControl = strokeControl;
+            this.px = px;
+            this.py = py;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key k = (Key) obj;
+            return shape == k.shape && size == k.size && scale == k.scale && lineWidth == k.lineWidth
+                    && argb == k.argb && px == k.px && py == k.py && equals(antialias, k.antialias)
+                    && equals(strokeControl, k.strokeControl);
+        }
+
+        private static boolean equals(Object a, Object b) {
+            return (a == null) ? b == null : a.equals(b);
+        }
+
+        @Override
+        public int hashCode() {
+            long bits = Double.doubleToLongBits(scale);
+            int result = shape.hashCode();
+            result = 31 * result + Float.floatToIntBits(size);
+            result = 31 * result + (int) (bits ^ (bits >>> 32));
+            result = 31 * result + Float.floatToIntBits(lineWidth);
+            result = 31 * result + argb;
+            result = 31 * result + (px * PHASES + py);
+            return result;
+        }
+    }
+
+}
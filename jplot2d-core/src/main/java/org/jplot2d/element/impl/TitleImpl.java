@@ -221,7 +221,7 @@ public class TitleImpl extends ComponentImpl implements TitleEx {
 
     public void calcSize() {
         if (label == null) {
-            label = new MathLabel(getTextModel(), getEffectiveFont(), getVAlign(), getHAlign());
+            label = MathLabel.getInstance(getTextModel(), getEffectiveFont(), getVAlign(), getHAlign());
         }
     }
 
@@ -246,7 +246,7 @@ public class TitleImpl extends ComponentImpl implements TitleEx {
         }
 
         if (label == null) {
-            label = new MathLabel(getTextModel(), getEffectiveFont(), getVAlign(), getHAlign());
+            label = MathLabel.getInstance(getTextModel(), getEffectiveFont(), getVAlign(), getHAlign());
         }
 
         AffineTransform oldTransform = g.getTransform();
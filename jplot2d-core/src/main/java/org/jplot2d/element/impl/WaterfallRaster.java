@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software:
+ * you can redistribute it and/or modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with jplot2d.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.element.impl;
+
+import org.jplot2d.data.WaterfallImageData;
+import org.jplot2d.image.ColorMap;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+/**
+ * The z-scaled and color mapped raster of a waterfall image, in the order of the ring rows. When the waterfall gains
+ * rows, only the new rows are z-scaled into the raster. The raster is drawn in 2 parts, the ring rows from the oldest
+ * row to the end of the ring, and the ring rows from the start of the ring to the newest row.
+ *
+ * @author Jingjing Li
+ */
+class WaterfallRaster {
+
+    private final WaterfallImageData data;
+
+    /**
+     * The z-scaler of the ring rows
+     */
+    private final ImageZscaleCache.Zscaler zscaler;
+
+    private final int outputBits;
+
+    private final ColorMap colorMap;
+
+    private final int width, capacity;
+
+    private BufferedImage image;
+
+    /**
+     * The number of rows which have been z-scaled into the raster
+     */
+    private long rowsDone;
+
+    /**
+     * @param data     the waterfall data
+     * @param ringKey  the z-scale key of the ring rows
+     * @param colorMap the color map
+     */
+    WaterfallRaster(WaterfallImageData data, ImageZscaleCache.Key ringKey, ColorMap colorMap) {
+        this.data = data;
+        this.zscaler = ImageZscaleCache.createZscaler(ringKey);
+        this.outputBits = ringKey.outputBits;
+        this.colorMap = colorMap;
+        this.width = data.getWidth();
+        this.capacity = data.getCapacity();
+    }
+
+    /**
+     * Draw the rows of the waterfall.
+     *
+     * @param g  the graphics
+     * @param at the transform from image pixels to device
+     */
+    synchronized void draw(Graphics2D g, AffineTransform at) {
+        long rowCount = data.getRowCount();
+        update(rowCount);
+
+        // the image row of the absolute row i is capacity - rowCount + i
+        long first = Math.max(0, rowCount - capacity);
+        int ringRow = (int) (first % capacity);
+        int imageRow = (int) (capacity - rowCount + first);
+        int n = (int) (rowCount - first);
+        int n0 = Math.min(n, capacity - ringRow);
+        drawRows(g, at, ringRow, imageRow, n0);
+        drawRows(g, at, 0, imageRow + n0, n - n0);
+    }
+
+    /**
+     * Z-scale the rows appended since the last update. If more than a ring of rows are appended, all rows are z-scaled.
+     */
+    private void update(long rowCount) {
+        if (image == null || rowCount - rowsDone >= capacity) {
+            image = ImageGraphImpl.createImage(zscaler.zscale(0, 0, width, capacity), outputBits, width, capacity,
+                    colorMap);
+        } else {
+            int ringRow = (int) (rowsDone % capacity);
+            int n = (int) (rowCount - rowsDone);
+            int n0 = Math.min(n, capacity - ringRow);
+            updateRows(ringRow, n0);
+            updateRows(0, n - n0);
+        }
+        rowsDone = rowCount;
+    }
+
+    private void updateRows(int ringRow, int n) {
+        if (n > 0) {
+            BufferedImage rows = ImageGraphImpl.createImage(zscaler.zscale(0, ringRow, width, n), outputBits, width, n,
+                    colorMap);
+            image.getRaster().setRect(0, ringRow, rows.getRaster());
+        }
+    }
+
+    /**
+     * Draw the given ring rows at the given image rows. The rows are clipped, so that the interpolation does not bleed
+     * the rows of the other part.
+     */
+    private void drawRows(Graphics2D g, AffineTransform at, int ringRow, int imageRow, int n) {
+        if (n <= 0) {
+            return;
+        }
+        Graphics2D tg = (Graphics2D) g.create();
+        tg.clip(at.createTransformedShape(new Rectangle(0, imageRow, width, n)).getBounds2D());
+        AffineTransform tat = new AffineTransform(at);
+        tat.translate(0, imageRow);
+        tg.drawImage(image.getSubimage(0, ringRow, width, n), tat, null);
+        tg.dispose();
+    }
+
+}
@@ -18,16 +18,30 @@
  */
 package org.jplot2d.element.impl;
 
+import org.jplot2d.data.ArrayPair;
+import org.jplot2d.data.MinMaxPyramid;
 import org.jplot2d.data.XYGraphData;
+import org.jplot2d.element.XYGraph.ChartType;
+import org.jplot2d.element.XYGraph.DecimationMode;
 import org.jplot2d.transform.Transform1D;
+import org.jplot2d.util.ParallelPool;
+import org.jplot2d.util.Range;
 
 import java.awt.Color;
 import java.awt.Rectangle;
 import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Supply graph data points in iterable chunks.
@@ -43,6 +57,54 @@ public class XYGraphDataChunker implements Iterable<XYGraphDataChunker.ChunkData
 
     private static final int CHUNK_SIZE = 1000;
 
+    /**
+     * In AUTO decimation mode, the line is decimated when the number of points is larger than this factor times the
+     * device width.
+     */
+    private static final int AUTO_DECIMATION_FACTOR = 4;
+
+    /**
+     * The space reserved in a chunk for the points that can be added by a decimated step: 2 column flushes plus 2
+     * points brought to the clip border.
+     */
+    private static final int DECIMATION_RESERVE = 10;
+
+    /**
+     * The min/max pyramid is used when the data has more points than this threshold
+     */
+    private static final int PYRAMID_THRESHOLD = 1 << 16;
+
+    /**
+     * The min number of pyramid buckets per device pixel. The buckets crossing the border of device columns are
+     * represented by finer buckets, so more buckets per pixel leaves less points to be refined.
+     */
+    private static final int PYRAMID_BUCKETS_PER_PIXEL = 4;
+
+    /**
+     * The data are transformed in parallel when the number of points to iterate is not less than this threshold
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 20;
+
+    /**
+     * The number of points transformed by a parallel task
+     */
+    private static final int SEGMENT_SIZE = 1 << 15;
+
+    /**
+     * The max number of segments submitted ahead of the drawing, per thread
+     */
+    private static final int SEGMENTS_AHEAD_PER_CORE = 2;
+
+    /**
+     * The max number of recycled chunks kept for reuse, per thread. The other consumed chunks are dropped.
+     */
+    private static final int FREE_CHUNKS_PER_CORE = 8;
+
+    /**
+     * The pool to transform large data in parallel
+     */
+    private static final ParallelPool transformPool = new ParallelPool(ParallelPool.CORES);
+
     public static class ChunkData {
 
         public int size;
@@ -113,18 +175,125 @@ public class XYGraphDataChunker implements Iterable<XYGraphDataChunker.ChunkData
         private ChunkData _nextChunk = new ChunkData(CHUNK_SIZE);
 
         /**
-         * The current data point index
+         * The current data point index. If the representative indexes are used, it's the index of idxes.
          */
         private int i;
 
         /**
-         * Reset this iterator states.
+         * The end of the index range to iterate
          */
-        private void reset() {
-            i = 0;
+        private int to;
+
+        /**
+         * The data values of the current block, fetched by bulk access
+         */
+        private final double[] xBlock = new double[CHUNK_SIZE], yBlock = new double[CHUNK_SIZE];
+
+        private final double[] xLowBlock = new double[CHUNK_SIZE], xHighBlock = new double[CHUNK_SIZE];
+
+        private final double[] yLowBlock = new double[CHUNK_SIZE], yHighBlock = new double[CHUNK_SIZE];
+
+        /**
+         * The index range of the current block. The error ends are not greater than blockEnd.
+         */
+        private int blockStart, blockEnd, xErrorEnd, yErrorEnd;
+
+        /**
+         * The number of points in the current decimation column. 0 means no pending column.
+         */
+        private int colCount;
+
+        /**
+         * The device x of the current decimation column
+         */
+        private int column;
+
+        private float colFirstX, colFirstY, colLastX, colLastY, colMinX, colMinY, colMaxX, colMaxY;
+
+        /**
+         * The sequence number of the min/max point in the current decimation column
+         */
+        private int colMinSeq, colMaxSeq;
+
+        /**
+         * Reset this iterator states to iterate over the given index range.
+         */
+        private void reset(int from, int to) {
+            i = from;
+            this.to = to;
+            blockStart = blockEnd = xErrorEnd = yErrorEnd = 0;
+            colCount = 0;
             prepareNextChunk(_chunk);
         }
 
+        /**
+         * Fill all chunks of the given index range. This method is called by the workers of parallel transform.
+         *
+         * @param from       the first index
+         * @param to         the end of index range
+         * @param freeChunks the recycled chunks to be reused
+         * @return the non-empty chunks in order
+         */
+        private List<ChunkData> fillSegment(int from, int to, Queue<ChunkData> freeChunks) {
+            i = from;
+            this.to = to;
+            blockStart = blockEnd = xErrorEnd = yErrorEnd = 0;
+            colCount = 0;
+
+            List<ChunkData> result = new ArrayList<>();
+            while (i < to) {
+                ChunkData data = freeChunks.poll();
+                if (data == null) {
+                    data = new ChunkData(CHUNK_SIZE);
+                }
+                prepareNextChunk(data);
+                if (data.size > 0) {
+                    result.add(data);
+                } else {
+                    freeChunks.offer(data);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Fetch the block starting at the given index.
+         *
+         * @param idx the first index of the block
+         */
+        private void loadBlock(int idx) {
+            int len = Math.min(CHUNK_SIZE, to - idx);
+            blockStart = idx;
+            blockEnd = idx + len;
+            if (idxes != null) {
+                // the representative points of a pyramid level never have errors
+                for (int k = 0; k < len; k++) {
+                    xBlock[k] = graphData.getX(idxes[idx + k]);
+                    yBlock[k] = graphData.getY(idxes[idx + k]);
+                }
+                xErrorEnd = yErrorEnd = idx;
+                return;
+            }
+            graphData.getX(idx, xBlock, 0, len);
+            graphData.getY(idx, yBlock, 0, len);
+
+            ArrayPair xe = graphData.getXError();
+            int xelen = (xe == null) ? 0 : Math.max(0, Math.min(len, xe.size() - idx));
+            if (xelen > 0) {
+                xe.getPDouble(idx, xLowBlock, 0, xelen);
+                xe.getQDouble(idx, xHighBlock, 0, xelen);
+            }
+            xErrorEnd = idx + xelen;
+
+            ArrayPair ye = graphData.getYError();
+            int yelen = (ye == null) ? 0 : Math.max(0, Math.min(len, ye.size() - idx));
+            if (yelen > 0) {
+                ye.getPDouble(idx, yLowBlock, 0, yelen);
+                ye.getQDouble(idx, yHighBlock, 0, yelen);
+            }
+            yErrorEnd = idx + yelen;
+        }
+
         public boolean hasNext() {
             return _chunk != null && _chunk.size > 0;
         }
@@ -154,7 +323,7 @@ public class XYGraphDataChunker implements Iterable<XYGraphDataChunker.ChunkData
         private void prepareNextChunk(ChunkData data) {
             // fill the next chunk, non-empty
             data.reset();
-            while (i < graphData.size()) {
+            while (i < to) {
                 fillChunk(data);
                 if (data.size > 0) {
                     break;
@@ -169,14 +338,18 @@ public class XYGraphDataChunker implements Iterable<XYGraphDataChunker.ChunkData
         private void fillChunk(ChunkData data) {
 
 			/* eat off the beginning NaNs */
-            while (i < graphData.size()) {
-                if (Double.isNaN(graphData.getX(i)) || Double.isNaN(graphData.getY(i))) {
+            while (i < to) {
+                if (i >= blockEnd) {
+                    loadBlock(i);
+                }
+                int k = i - blockStart;
+                if (Double.isNaN(xBlock[k]) || Double.isNaN(yBlock[k])) {
                     i++;
                 } else {
                     break;
                 }
             }
-            if (i >= graphData.size()) {
+            if (i >= to) {
                 return;
             }
 
@@ -187,20 +360,29 @@ public class XYGraphDataChunker implements Iterable<XYGraphDataChunker.ChunkData
             double prey = Double.NaN;
             boolean isPreBigNumber = false;
 
-            while (i < graphData.size()) {
-
-                double x = xW2D.convert(graphData.getX(i));
-                double y = yW2D.convert(graphData.getY(i));
+            while (i < to) {
+                if (i >= blockEnd) {
+                    loadBlock(i);
+                }
+                int k = i - blockStart;
+                double wx = xBlock[k];
+                double wy = yBlock[k];
 
 				/* break at NaN value */
-                if (Double.isNaN(graphData.getX(i)) || Double.isNaN(graphData.getY(i))) {
+                if (Double.isNaN(wx) || Double.isNaN(wy)) {
                     i++;
                     break;
                 }
 
+                double x = xW2D.convert(wx);
+                double y = yW2D.convert(wy);
+
                 boolean isThisBigNumber = isBigNumber(x) || (isBigNumber(y));
 
                 if (haspre) {
+                    if (decimate && (isPreBigNumber || isThisBigNumber)) {
+                        flushColumn(data);
+                    }
                     // if previous is a big number bring to the clip border.
                     if (isPreBigNumber) {
                         Point2D a = new Point2D.Double(x, y);
@@ -227,51 +409,53 @@ public class XYGraphDataChunker implements Iterable<XYGraphDataChunker.ChunkData
                 prey = y;
                 isPreBigNumber = isThisBigNumber;
 
-                if (!isThisBigNumber) {
+                if (!isThisBigNumber && decimate) {
+                    addDecimatedPoint(data, (float) x, (float) y);
+                } else if (!isThisBigNumber) {
                     /* data buffer */
                     data.xBuf[data.size] = (float) x;
                     data.yBuf[data.size] = (float) y;
 
 					/* markColorBuf */
                     if (drawMark) {
-                        data.markColorBuf[data.size] = graph.getEffectiveSymbolColor(i);
+                        data.markColorBuf[data.size] = graph.getEffectiveSymbolColor((idxes == null) ? i : idxes[i]);
                     }
 
 					/* error buffer */
-                    if (graphData.getXError() != null && i < graphData.getXError().size()) {
-                        boolean vxlow = !Double.isNaN(graphData.getXErrorLow(i));
-                        boolean vxhigh = !Double.isNaN(graphData.getXErrorHigh(i));
+                    if (i < xErrorEnd) {
+                        double xel = xLowBlock[k];
+                        double xeh = xHighBlock[k];
+                        boolean vxlow = !Double.isNaN(xel);
+                        boolean vxhigh = !Double.isNaN(xeh);
                         if (vxlow || vxhigh) {
                             data.xErrorSize = data.size + 1;
                             if (vxlow) {
-                                data.xLowBuf[data.size] = (float) xW2D.convert(graphData.getX(i)
-                                        - graphData.getXErrorLow(i));
+                                data.xLowBuf[data.size] = (float) xW2D.convert(wx - xel);
                             } else {
                                 data.xLowBuf[data.size] = data.xBuf[data.size];
                             }
                             if (vxhigh) {
-                                data.xHighBuf[data.size] = (float) xW2D.convert(graphData.getX(i)
-                                        + graphData.getXErrorHigh(i));
+                                data.xHighBuf[data.size] = (float) xW2D.convert(wx + xeh);
                             } else {
                                 data.xHighBuf[data.size] = data.xBuf[data.size];
                             }
                         }
                     }
 
-                    if (graphData.getYError() != null && i < graphData.getYError().size()) {
-                        boolean vylow = !Double.isNaN(graphData.getYErrorLow(i));
-                        boolean vyhigh = !Double.isNaN(graphData.getYErrorHigh(i));
+                    if (i < yErrorEnd) {
+                        double yel = yLowBlock[k];
+                        double yeh = yHighBlock[k];
+                        boolean vylow = !Double.isNaN(yel);
+                        boolean vyhigh = !Double.isNaN(yeh);
                         if (vylow || vyhigh) {
                             data.yErrorSize = data.size + 1;
                             if (vylow) {
-                                data.yLowBuf[data.size] = (float) yW2D.convert(graphData.getY(i)
-                                        - graphData.getYErrorLow(i));
+                                data.yLowBuf[data.size] = (float) yW2D.convert(wy - yel);
                             } else {
                                 data.yLowBuf[data.size] = data.yBuf[data.size];
                             }
                             if (vyhigh) {
-                                data.yHighBuf[data.size] = (float) yW2D.convert(graphData.getY(i)
-                                        + graphData.getYErrorHigh(i));
+                                data.yHighBuf[data.size] = (float) yW2D.convert(wy + yeh);
                             } else {
                                 data.yHighBuf[data.size] = data.yBuf[data.size];
                             }
@@ -286,7 +470,7 @@ public class XYGraphDataChunker implements Iterable<XYGraphDataChunker.ChunkData
 				 * if both this and next point are big number. So an extra array space must be
 				 * reserved
 				 */
-                if (data.size >= CHUNK_SIZE - 1) {
+                if (data.size >= CHUNK_SIZE - (decimate ? DECIMATION_RESERVE : 1)) {
 					/*
 					 * Do not forward the i to make next chunk starts from the line data in last
 					 * chunk (need overlap).
@@ -297,8 +481,218 @@ public class XYGraphDataChunker implements Iterable<XYGraphDataChunker.ChunkData
                 }
             }
 
+            if (decimate) {
+                flushColumn(data);
+            }
+        }
+
+        /**
+         * Add a point to the current decimation column. If the point is in a new column, the current column is
+         * flushed to the chunk.
+         */
+        private void addDecimatedPoint(ChunkData data, float x, float y) {
+            int c = (int) Math.floor(x);
+            if (colCount > 0 && c != column) {
+                flushColumn(data);
+            }
+            if (colCount == 0) {
+                column = c;
+                colFirstX = colMinX = colMaxX = x;
+                colFirstY = colMinY = colMaxY = y;
+                colMinSeq = colMaxSeq = 0;
+            } else {
+                if (y < colMinY) {
+                    colMinX = x;
+                    colMinY = y;
+                    colMinSeq = colCount;
+                }
+                if (y > colMaxY) {
+                    colMaxX = x;
+                    colMaxY = y;
+                    colMaxSeq = colCount;
+                }
+            }
+            colLastX = x;
+            colLastY = y;
+            colCount++;
+        }
+
+        /**
+         * Add the first, min, max and last point of the current decimation column to the chunk, in their original
+         * order.
+         */
+        private void flushColumn(ChunkData data) {
+            if (colCount == 0) {
+                return;
+            }
+            data.addPoint(colFirstX, colFirstY);
+            if (colCount > 1) {
+                int lastSeq = colCount - 1;
+                boolean minInside = colMinSeq != 0 && colMinSeq != lastSeq;
+                boolean maxInside = colMaxSeq != 0 && colMaxSeq != lastSeq;
+                if (minInside && maxInside && colMaxSeq < colMinSeq) {
+                    data.addPoint(colMaxX, colMaxY);
+                    data.addPoint(colMinX, colMinY);
+                } else {
+                    if (minInside) {
+                        data.addPoint(colMinX, colMinY);
+                    }
+                    if (maxInside) {
+                        data.addPoint(colMaxX, colMaxY);
+                    }
+                }
+                data.addPoint(colLastX, colLastY);
+            }
+            colCount = 0;
+        }
+
+    }
+
+    /**
+     * Iterate over the chunks which are filled by parallel tasks. Each task fills a segment of points, which overlaps
+     * the next segment by one point, so that the line is continuous as in chunks. The number of submitted segments is
+     * bounded, and a bounded number of consumed chunks are reused.
+     */
+    private class ParallelChunkIterator implements Iterator<ChunkData> {
+
+        /**
+         * The recycled chunks, bounded by the parallelism of the pool
+         */
+        private ArrayBlockingQueue<ChunkData> freeChunks;
+
+        /**
+         * The submitted tasks in order
+         */
+        private final ArrayDeque<ForkJoinTask<List<ChunkData>>> pending = new ArrayDeque<>();
+
+        /**
+         * The iterators handed to the submitted tasks, in the same order as the tasks
+         */
+        private final ArrayDeque<DataChunkIterator> busyIterators = new ArrayDeque<>();
+
+        /**
+         * The iterators to be handed to the tasks to submit
+         */
+        private final ArrayDeque<DataChunkIterator> freeIterators = new ArrayDeque<>();
+
+        /**
+         * The first index of the next segment to submit
+         */
+        private int nextStart;
+
+        /**
+         * The chunks of the current segment
+         */
+        private List<ChunkData> segment;
+
+        private int segmentIdx;
+
+        /**
+         * The chunk returned by next(). It's recycled when the next chunk is requested.
+         */
+        private ChunkData lastChunk;
+
+        private void reset() {
+            cancel();
+            int parallelism = transformPool.getParallelism();
+            int capacity = parallelism * FREE_CHUNKS_PER_CORE;
+            if (freeChunks == null || freeChunks.size() + freeChunks.remainingCapacity() != capacity) {
+                freeChunks = new ArrayBlockingQueue<>(capacity);
+            }
+            nextStart = begin;
+            for (int k = 0; k < parallelism * SEGMENTS_AHEAD_PER_CORE; k++) {
+                submitNext();
+            }
+        }
+
+        /**
+         * Cancel all submitted tasks and wait the running tasks to finish.
+         */
+        private void cancel() {
+            recycleLastChunk();
+            if (segment != null) {
+                recycle(segment.subList(segmentIdx, segment.size()));
+                segment = null;
+            }
+            for (ForkJoinTask<List<ChunkData>> task : pending) {
+                task.cancel(false);
+            }
+            for (ForkJoinTask<List<ChunkData>> task : pending) {
+                task.quietlyJoin();
+                if (task.isCompletedNormally()) {
+                    recycle(task.getRawResult());
+                }
+            }
+            pending.clear();
+            freeIterators.addAll(busyIterators);
+            busyIterators.clear();
+        }
+
+        private void submitNext() {
+            if (nextStart >= end) {
+                return;
+            }
+            final int from = nextStart;
+            final int to = (int) Math.min((long) from + SEGMENT_SIZE + 1, end);
+            nextStart = (int) Math.min((long) from + SEGMENT_SIZE, end);
+            final Queue<ChunkData> free = freeChunks;
+            DataChunkIterator polled = freeIterators.poll();
+            final DataChunkIterator segmentIte = (polled == null) ? new DataChunkIterator() : polled;
+            ForkJoinTask<List<ChunkData>> task = ForkJoinTask.adapt(new Callable<List<ChunkData>>() {
+                public List<ChunkData> call() {
+                    return segmentIte.fillSegment(from, to, free);
+                }
+            });
+            transformPool.execute(task);
+            pending.add(task);
+            busyIterators.add(segmentIte);
+        }
+
+        /**
+         * Recycle the given chunks, until the free chunk queue is full.
+         */
+        private void recycle(List<ChunkData> chunks) {
+            for (ChunkData chunk : chunks) {
+                if (!freeChunks.offer(chunk)) {
+                    break;
+                }
+            }
+        }
+
+        private void recycleLastChunk() {
+            if (lastChunk != null) {
+                freeChunks.offer(lastChunk);
+                lastChunk = null;
+            }
+        }
+
+        public boolean hasNext() {
+            recycleLastChunk();
+            while (segment == null || segmentIdx == segment.size()) {
+                ForkJoinTask<List<ChunkData>> task = pending.poll();
+                if (task == null) {
+                    segment = null;
+                    return false;
+                }
+                segment = task.join();
+                segmentIdx = 0;
+                freeIterators.add(busyIterators.poll());
+                submitNext();
+            }
+            return true;
+        }
+
+        public ChunkData next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastChunk = segment.get(segmentIdx++);
+            return lastChunk;
         }
 
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
     }
 
     private LayerEx layer;
@@ -311,8 +705,25 @@ public class XYGraphDataChunker implements Iterable<XYGraphDataChunker.ChunkData
 
     private Transform1D xW2D, yW2D;
 
+    /**
+     * <code>true</code> to keep only the first, last, min and max points of every device column
+     */
+    private boolean decimate;
+
+    /**
+     * The indexes of the representative points from a min/max pyramid, or <code>null</code> to use all points
+     */
+    private int[] idxes;
+
+    /**
+     * The range of indexes to iterate. If the representative indexes are used, it's the range of idxes.
+     */
+    private int begin, end;
+
     private final DataChunkIterator ite = new DataChunkIterator();
 
+    private final ParallelChunkIterator parallelIte = new ParallelChunkIterator();
+
     private XYGraphDataChunker() {
 
     }
@@ -329,6 +740,143 @@ public class XYGraphDataChunker implements Iterable<XYGraphDataChunker.ChunkData
         this.clip = clip;
     }
 
+    /**
+     * Decide whether the line should be decimated. Decimation drops points, so it cannot be applied when symbols or
+     * error bars are drawn, or when the line is drawn as a center histogram.
+     */
+    private void calcDecimation() {
+        DecimationMode mode = graph.getDecimationMode();
+        ChartType chartType = graph.getChartType();
+        if (mode == DecimationMode.NONE || !graph.isLineVisible() || graph.isSymbolVisible()
+                || (chartType != ChartType.LINECHART && chartType != ChartType.HISTOGRAM_EDGE)
+                || graphData.getXError() != null || graphData.getYError() != null) {
+            decimate = false;
+        } else if (mode == DecimationMode.MINMAX) {
+            decimate = true;
+        } else {
+            decimate = clip != null && end - begin > AUTO_DECIMATION_FACTOR * clip.getWidth();
+        }
+    }
+
+    /**
+     * When decimating a large data, pick the coarsest pyramid level which still has enough buckets per device pixel,
+     * and iterate over the representative points of the level. The representative points are picked for every device
+     * column, so that the first, min, max and last points of every column are kept as if all points were decimated.
+     */
+    private void calcPyramidIndexes() {
+        idxes = null;
+        int n = end - begin;
+        if (!decimate || n < PYRAMID_THRESHOLD) {
+            return;
+        }
+        MinMaxPyramid pyramid = graphData.getMinMaxPyramid();
+        if (!pyramid.isXAscending()) {
+            return;
+        }
+        double span = Math.abs(xW2D.convert(graphData.getX(end - 1)) - xW2D.convert(graphData.getX(begin)));
+        if (Double.isNaN(span) || Double.isInfinite(span)) {
+            return;
+        }
+        long maxStride = (long) (n / (PYRAMID_BUCKETS_PER_PIXEL * Math.max(span, 1)));
+        int level = pyramid.findLevel(maxStride);
+        if (level >= 0) {
+            idxes = pyramid.getRepresentativeIndexes(level, findColumnBorders());
+            begin = 0;
+            end = idxes.length;
+        }
+    }
+
+    /**
+     * Find the indexes where the device column changes, by binary search. The x values must be ascending.
+     *
+     * @return the ascending borders, starting with begin and ending with end
+     */
+    private int[] findColumnBorders() {
+        int[] borders = new int[64];
+        int count = 0;
+        borders[count++] = begin;
+        int i = begin;
+        while (i < end) {
+            // skip NaN x, which has no column
+            while (i < end && Double.isNaN(graphData.getX(i))) {
+                i++;
+            }
+            if (i == end) {
+                break;
+            }
+            int column = getColumn(graphData.getX(i));
+            int low = i + 1;
+            int high = end;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int valid = mid;
+                while (valid < high && Double.isNaN(graphData.getX(valid))) {
+                    valid++;
+                }
+                if (valid == high) {
+                    high = mid;
+                } else if (getColumn(graphData.getX(valid)) == column) {
+                    low = valid + 1;
+                } else {
+                    high = valid;
+                }
+            }
+            if (count == borders.length) {
+                borders = Arrays.copyOf(borders, count * 2);
+            }
+            borders[count++] = low;
+            i = low;
+        }
+        if (borders[count - 1] != end) {
+            if (count == borders.length) {
+                borders = Arrays.copyOf(borders, count + 1);
+            }
+            borders[count++] = end;
+        }
+        return Arrays.copyOf(borders, count);
+    }
+
+    /**
+     * Returns the device column of the given x value, the same as the one used by decimation.
+     */
+    private int getColumn(double wx) {
+        return (int) Math.floor((float) xW2D.convert(wx));
+    }
+
+    /**
+     * When the x values are ascending, only iterate over the points inside the x range of the layer, plus one neighbor
+     * each side to draw the line entering and leaving the layer. The range is found by binary search, so rendering a
+     * zoomed-in part of a long time series costs O(log n + visible points).
+     * <p>
+     * The points outside the range are all kept when their x error bars may be visible. When symbols are drawn, the
+     * points whose symbol may overlap the layer border are kept as well.
+     */
+    private void calcIndexRange() {
+        begin = 0;
+        end = graphData.size();
+        if (end == 0 || !graphData.isXAscending() || graphData.getXError() != null) {
+            return;
+        }
+        Range xrange = layer.getXAxisTransform().getRange();
+        if (Double.isNaN(xrange.getMin()) || Double.isNaN(xrange.getMax())) {
+            return;
+        }
+        begin = Math.max(0, graphData.searchX(xrange.getMin(), false) - 1);
+        end = Math.min(end, graphData.searchX(xrange.getMax(), true) + 1);
+
+        if (graph.isSymbolVisible()) {
+            double margin = graph.getSymbolSize() * layer.getPaperTransform().getScale();
+            double dmin = xW2D.convert(xrange.getMin());
+            while (begin > 0 && Math.abs(xW2D.convert(graphData.getX(begin - 1)) - dmin) <= margin) {
+                begin--;
+            }
+            double dmax = xW2D.convert(xrange.getMax());
+            while (end < graphData.size() && Math.abs(xW2D.convert(graphData.getX(end)) - dmax) <= margin) {
+                end++;
+            }
+        }
+    }
+
     /**
      * Calculate the transform for world value to device value
      */
@@ -346,13 +894,37 @@ public class XYGraphDataChunker implements Iterable<XYGraphDataChunker.ChunkData
     }
 
     /*
-     * Warning: Only one iterator allowed!
+     * Warning: Only one iterator allowed! A returned chunk is only valid until the next chunk is requested.
      */
-    public DataChunkIterator iterator() {
-        ite.reset();
+    public Iterator<ChunkData> iterator() {
+        if (transformPool.getParallelism() > 1 && end - begin >= PARALLEL_THRESHOLD) {
+            parallelIte.reset();
+            return parallelIte;
+        }
+        ite.reset(begin, end);
         return ite;
     }
 
+    /**
+     * Returns the number of threads to transform large data.
+     *
+     * @return the parallelism
+     */
+    public static int getParallelism() {
+        return transformPool.getParallelism();
+    }
+
+    /**
+     * Sets the number of threads to transform large data. When it's larger than 1, the data of a graph which has more
+     * than 1M points to iterate are split into segments, which are transformed, clipped and decimated on a fork-join
+     * pool. The rendering thread draws the chunks in order. The default is the number of available processors.
+     *
+     * @param parallelism the number of threads, 1 to transform in the rendering thread
+     */
+    public static void setParallelism(int parallelism) {
+        transformPool.setParallelism(parallelism);
+    }
+
     /**
      * On some system, the under layer graphic only process short int.
      *
@@ -413,8 +985,13 @@ public class XYGraphDataChunker implements Iterable<XYGraphDataChunker.ChunkData
             _threadLocalBuilder.set(builder);
         }
 
+        // the workers of last iteration may still read the states
+        builder.parallelIte.cancel();
         builder.setLineData(dp);
         builder.setClip(clip);
+        builder.calcIndexRange();
+        builder.calcDecimation();
+        builder.calcPyramidIndexes();
 
         return builder;
     }
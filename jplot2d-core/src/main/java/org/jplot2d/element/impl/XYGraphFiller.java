@@ -36,6 +36,13 @@ import java.awt.geom.Rectangle2D;
  */
 public class XYGraphFiller {
 
+    /**
+     * the number of points fetched by a bulk access
+     */
+    private static final int BLOCK_SIZE = 1024;
+
+    private final double[] xBlock = new double[BLOCK_SIZE], yBlock = new double[BLOCK_SIZE];
+
     private LayerEx layer;
 
     private XYGraphEx graph;
@@ -142,36 +149,52 @@ public class XYGraphFiller {
         return path;
     }
 
+    /**
+     * Fetch the block of data starting at the given index.
+     *
+     * @param start the first index of the block
+     * @return the number of points in the block
+     */
+    private int loadBlock(int start) {
+        int len = Math.min(BLOCK_SIZE, graphData.size() - start);
+        graphData.getX(start, xBlock, 0, len);
+        graphData.getY(start, yBlock, 0, len);
+        return len;
+    }
+
     private void fillPolygon(Path2D path) {
 
         boolean hasPre = false;
 
-        for (int i = 0; i < graphData.size(); i++) {
-
-			/* ignore NaN value */
-            if (Double.isNaN(graphData.getX(i)) || Double.isNaN(graphData.getY(i))) {
-                continue;
-            }
+        for (int start = 0; start < graphData.size(); start += BLOCK_SIZE) {
+            int len = loadBlock(start);
+            for (int k = 0; k < len; k++) {
 
-            double x = xW2D.convert(graphData.getX(i));
-            double y = yW2D.convert(graphData.getY(i));
+                /* ignore NaN value */
+                if (Double.isNaN(xBlock[k]) || Double.isNaN(yBlock[k])) {
+                    continue;
+                }
 
-            int ix = (int) (x + 0.5);
-            int iy = (int) (y + 0.5);
+                double x = xW2D.convert(xBlock[k]);
+                double y = yW2D.convert(yBlock[k]);
 
-            if (hasPre) {
-                if (endx != ix || endy != iy) {
-                    path.lineTo(ix, iy);
+                int ix = (int) (x + 0.5);
+                int iy = (int) (y + 0.5);
+
+                if (hasPre) {
+                    if (endx != ix || endy != iy) {
+                        path.lineTo(ix, iy);
+                    }
+                } else {
+                    path.moveTo(ix, iy);
+                    startx = ix;
+                    starty = iy;
+                    hasPre = true;
                 }
-            } else {
-                path.moveTo(ix, iy);
-                startx = ix;
-                starty = iy;
-                hasPre = true;
-            }
 
-            endx = ix;
-            endy = iy;
+                endx = ix;
+                endy = iy;
+            }
         }
     }
 
@@ -184,37 +207,40 @@ public class XYGraphFiller {
         // the x coordinate of preIdx
         double preDotX = 0;
 
-        for (int i = 0; i < graphData.size(); i++) {
+        for (int start = 0; start < graphData.size(); start += BLOCK_SIZE) {
+            int len = loadBlock(start);
+            for (int k = 0; k < len; k++) {
 
-			/* ignore NaN value */
-            if (Double.isNaN(graphData.getX(i)) || Double.isNaN(graphData.getY(i))) {
-                continue;
-            }
+                /* ignore NaN value */
+                if (Double.isNaN(xBlock[k]) || Double.isNaN(yBlock[k])) {
+                    continue;
+                }
 
-            double x = xW2D.convert(graphData.getX(i));
-            double y = yW2D.convert(graphData.getY(i));
-            int iy = (int) (y + 0.5);
-
-            if (hasPre) {
-                // the middle x
-                int imx = (int) (preDotX + x + 1) / 2;
-                if (endx != imx || endy != iy) {
-                    path.lineTo(imx, endy);
-                    path.lineTo(imx, iy);
-                    endx = imx;
+                double x = xW2D.convert(xBlock[k]);
+                double y = yW2D.convert(yBlock[k]);
+                int iy = (int) (y + 0.5);
+
+                if (hasPre) {
+                    // the middle x
+                    int imx = (int) (preDotX + x + 1) / 2;
+                    if (endx != imx || endy != iy) {
+                        path.lineTo(imx, endy);
+                        path.lineTo(imx, iy);
+                        endx = imx;
+                        endy = iy;
+                    }
+                } else {
+                    int ix = (int) (x + 0.5);
+                    path.moveTo(ix, iy);
+                    startx = ix;
+                    starty = iy;
+                    hasPre = true;
+                    endx = ix;
                     endy = iy;
                 }
-            } else {
-                int ix = (int) (x + 0.5);
-                path.moveTo(ix, iy);
-                startx = ix;
-                starty = iy;
-                hasPre = true;
-                endx = ix;
-                endy = iy;
-            }
 
-            preDotX = x;
+                preDotX = x;
+            }
         }
 
         // the preDotX is the last x point
@@ -227,33 +253,36 @@ public class XYGraphFiller {
 
         boolean hasPre = false;
 
-        for (int i = 0; i < graphData.size(); i++) {
+        for (int start = 0; start < graphData.size(); start += BLOCK_SIZE) {
+            int len = loadBlock(start);
+            for (int k = 0; k < len; k++) {
 
-			/* ignore NaN value */
-            if (Double.isNaN(graphData.getX(i)) || Double.isNaN(graphData.getY(i))) {
-                continue;
-            }
-
-            double x = xW2D.convert(graphData.getX(i));
-            double y = yW2D.convert(graphData.getY(i));
+                /* ignore NaN value */
+                if (Double.isNaN(xBlock[k]) || Double.isNaN(yBlock[k])) {
+                    continue;
+                }
 
-            int ix = (int) (x + 0.5);
-            int iy = (int) (y + 0.5);
+                double x = xW2D.convert(xBlock[k]);
+                double y = yW2D.convert(yBlock[k]);
 
-            if (hasPre) {
-                if (endx != ix || endy != iy) {
-                    path.lineTo(ix, endy);
-                    path.lineTo(ix, iy);
+                int ix = (int) (x + 0.5);
+                int iy = (int) (y + 0.5);
+
+                if (hasPre) {
+                    if (endx != ix || endy != iy) {
+                        path.lineTo(ix, endy);
+                        path.lineTo(ix, iy);
+                    }
+                } else {
+                    path.moveTo(ix, iy);
+                    startx = ix;
+                    starty = iy;
+                    hasPre = true;
                 }
-            } else {
-                path.moveTo(ix, iy);
-                startx = ix;
-                starty = iy;
-                hasPre = true;
-            }
 
-            endx = ix;
-            endy = iy;
+                endx = ix;
+                endy = iy;
+            }
         }
 
     }
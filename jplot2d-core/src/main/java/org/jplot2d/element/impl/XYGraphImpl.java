@@ -26,7 +26,6 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.awt.*;
 import java.awt.geom.AffineTransform;
-import java.awt.geom.Line2D;
 import java.awt.geom.Path2D;
 import java.util.Map;
 
@@ -51,6 +50,7 @@ public class XYGraphImpl extends GraphImpl implements XYGraphEx {
     private boolean symbolVisible = false;
     private boolean lineVisible = true;
     private ChartType chartType = ChartType.LINECHART;
+    private DecimationMode decimationMode = DecimationMode.AUTO;
     private SymbolShape symbolShape = SymbolShape.CIRCLE;
     private float symbolSize = 8.0f;
     private Color symbolColor;
@@ -74,13 +74,42 @@ public class XYGraphImpl extends GraphImpl implements XYGraphEx {
         g.setStroke(GraphicsUtil.scaleStroke(graph.getLineStroke(), scale));
         // draw lines
         Path2D.Float gp = new Path2D.Float();
-        gp.moveTo(xout[0], yout[0]);
-        for (int i = 1; i < lsize; i++) {
-            gp.lineTo(xout[i], yout[i]);
+        if (isPixelSnapped(g)) {
+            gp.moveTo(toPixelCenter(xout[0]), toPixelCenter(yout[0]));
+            for (int i = 1; i < lsize; i++) {
+                gp.lineTo(toPixelCenter(xout[i]), toPixelCenter(yout[i]));
+            }
+        } else {
+            gp.moveTo(xout[0], yout[0]);
+            for (int i = 1; i < lsize; i++) {
+                gp.lineTo(xout[i], yout[i]);
+            }
         }
         g.draw(gp);
     }
 
+    /**
+     * Returns <code>true</code> if line vertexes should be snapped to pixel centers. It's the case when drawing
+     * aliased lines with pure stroke control to a pixel aligned raster image.
+     * <p>
+     * The rasterizer lights different pixels for a sub-pixel vertex, depending on the directions of the segments
+     * joined at it. A snapped vertex lights its own pixel, and the points in a device column are joined by vertical
+     * segments. So a thin line decimated by {@link XYGraphDataChunker} lights exactly the same pixels as the full
+     * line.
+     */
+    private static boolean isPixelSnapped(Graphics2D g) {
+        return GraphicsUtil.isPixelAligned(g)
+                && g.getRenderingHint(RenderingHints.KEY_ANTIALIASING) != RenderingHints.VALUE_ANTIALIAS_ON
+                && g.getRenderingHint(RenderingHints.KEY_STROKE_CONTROL) == RenderingHints.VALUE_STROKE_PURE;
+    }
+
+    /**
+     * Returns the center of the device pixel which contains the given coordinate, with pure stroke control.
+     */
+    private static float toPixelCenter(float v) {
+        return (float) Math.floor(v) + 0.5f;
+    }
+
     /**
      * Draw Histogram lines that data points is on the level center.
      */
@@ -154,9 +183,16 @@ public class XYGraphImpl extends GraphImpl implements XYGraphEx {
 
         // use half of line stroke to draw marks
         double lw = graph.getLineStroke().getLineWidth() * scale / 2;
-        g.setStroke(new BasicStroke((float) lw, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER));
 
         SymbolShape ss = graph.getSymbolShape();
+
+        // blit pre-rendered symbols on raster images, vector graphics keep the shapes
+        if (SymbolStampCache.isApplicable(g)) {
+            SymbolStampCache.drawSymbols(g, ss, graph.getSymbolSize(), scale, (float) lw, xp, yp, colors, npoints);
+            return;
+        }
+
+        g.setStroke(new BasicStroke((float) lw, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER));
         for (int i = 0; i < npoints; i++) {
             /* not draw mark if the point is brought to clip border */
             if (colors[i] == null) {
@@ -251,6 +287,15 @@ public class XYGraphImpl extends GraphImpl implements XYGraphEx {
         redraw(this);
     }
 
+    public DecimationMode getDecimationMode() {
+        return decimationMode;
+    }
+
+    public void setDecimationMode(DecimationMode mode) {
+        this.decimationMode = mode;
+        redraw(this);
+    }
+
     public SymbolShape getSymbolShape() {
         return symbolShape;
     }
@@ -402,6 +447,7 @@ public class XYGraphImpl extends GraphImpl implements XYGraphEx {
         this.symbolVisible = dp.symbolVisible;
         this.lineVisible = dp.lineVisible;
         this.chartType = dp.chartType;
+        this.decimationMode = dp.decimationMode;
         this.symbolShape = dp.symbolShape;
         this.symbolSize = dp.symbolSize;
         this.symbolColor = dp.symbolColor;
@@ -460,6 +506,9 @@ public class XYGraphImpl extends GraphImpl implements XYGraphEx {
 
         XYGraphDataChunker chunker = XYGraphDataChunker.getInstance(this, g.getClipBounds());
 
+        // the error bars of a chunk are drawn in one call
+        Path2D.Float errorBarPath = new Path2D.Float();
+
         for (ChunkData data : chunker) {
             if (Thread.interrupted()) {
                 return;
@@ -483,18 +532,18 @@ public class XYGraphImpl extends GraphImpl implements XYGraphEx {
             }
 
             // draw error bar with line color and new stroke
-            g.setStroke(GraphicsUtil.scaleStroke(getLineStroke(), scale / 2));
-
-            if (data.xErrorSize != 0) {
+            if (data.xErrorSize != 0 || data.yErrorSize != 0) {
+                errorBarPath.reset();
                 for (int i = 0; i < data.xErrorSize; i++) {
-                    drawErrorBarX(g, data.xBuf[i], data.yBuf[i], data.xLowBuf[i], data.xHighBuf[i], (float) scale);
+                    addErrorBarX(errorBarPath, data.xBuf[i], data.yBuf[i], data.xLowBuf[i], data.xHighBuf[i],
+                            (float) scale);
                 }
-            }
-            if (data.yErrorSize != 0) {
                 for (int i = 0; i < data.yErrorSize; i++) {
-                    drawErrorBarY(g, data.xBuf[i], data.yBuf[i], data.yLowBuf[i], data.yHighBuf[i], (float) scale);
-
+                    addErrorBarY(errorBarPath, data.xBuf[i], data.yBuf[i], data.yLowBuf[i], data.yHighBuf[i],
+                            (float) scale);
                 }
+                g.setStroke(GraphicsUtil.scaleStroke(getLineStroke(), scale / 2));
+                g.draw(errorBarPath);
             }
 
             // drawing marks may change color and stroke
@@ -507,20 +556,29 @@ public class XYGraphImpl extends GraphImpl implements XYGraphEx {
     }
 
     /**
-     * Draw a horizontal errorbar for the given point (x,y)
+     * Add a line segment to the given path. Every segment starts a new sub-path, so that dashes restart as drawing
+     * the segment alone.
+     */
+    private static void addLine(Path2D.Float path, float x1, float y1, float x2, float y2) {
+        path.moveTo(x1, y1);
+        path.lineTo(x2, y2);
+    }
+
+    /**
+     * Add a horizontal errorbar for the given point (x,y) to the given path
      *
-     * @param g     the Graphics2D
+     * @param path  the path to add the error bar
      * @param x     the point x
      * @param y     the point y
      * @param low   the low x of the errorbar
      * @param high  the high x of the errorbar
      * @param scale the scale
      */
-    private void drawErrorBarX(Graphics2D g, float x, float y, float low, float high, float scale) {
+    private void addErrorBarX(Path2D.Float path, float x, float y, float low, float high, float scale) {
 
         // errorbar with arrow
         if (!Float.isInfinite(low) && !Float.isInfinite(high)) {
-            g.draw(new Line2D.Float(low, y, high, y));
+            addLine(path, low, y, high, y);
         } else {
             if (low == Float.NEGATIVE_INFINITY) {
                 float head, tail;
@@ -535,10 +593,10 @@ public class XYGraphImpl extends GraphImpl implements XYGraphEx {
                     head = high - ARROW_LENGTH * scale;
                 }
                 // draw left arrow
-                g.draw(new Line2D.Float(tail, y, head, y));
+                addLine(path, tail, y, head, y);
                 float ah = ARROW_HEAD_LENGTH * scale;
-                g.draw(new Line2D.Float(head, y, head + ah, y - ah));
-                g.draw(new Line2D.Float(head, y, head + ah, y + ah));
+                addLine(path, head, y, head + ah, y - ah);
+                addLine(path, head, y, head + ah, y + ah);
             }
             if (high == Float.POSITIVE_INFINITY) {
                 float head, tail;
@@ -553,10 +611,10 @@ public class XYGraphImpl extends GraphImpl implements XYGraphEx {
                     head = low + ARROW_LENGTH * scale;
                 }
                 // draw right arrow
-                g.draw(new Line2D.Float(tail, y, head, y));
+                addLine(path, tail, y, head, y);
                 float ah = ARROW_HEAD_LENGTH * scale;
-                g.draw(new Line2D.Float(head, y, head - ah, y - ah));
-                g.draw(new Line2D.Float(head, y, head - ah, y + ah));
+                addLine(path, head, y, head - ah, y - ah);
+                addLine(path, head, y, head - ah, y + ah);
             }
         }
 
@@ -564,29 +622,29 @@ public class XYGraphImpl extends GraphImpl implements XYGraphEx {
         if (errorbarCapSize > 0) {
             float halfcap = errorbarCapSize * scale / 2;
             if (low != x && !Float.isInfinite(low)) {
-                g.draw(new Line2D.Float(low, y - halfcap, low, y + halfcap));
+                addLine(path, low, y - halfcap, low, y + halfcap);
             }
             if (high != x && !Float.isInfinite(high)) {
-                g.draw(new Line2D.Float(high, y - halfcap, high, y + halfcap));
+                addLine(path, high, y - halfcap, high, y + halfcap);
             }
         }
     }
 
     /**
-     * Draw a vertical error bar for the given point (x,y)
+     * Add a vertical error bar for the given point (x,y) to the given path
      *
-     * @param g     the Graphics2D
+     * @param path  the path to add the error bar
      * @param x     the point x
      * @param y     the point y
      * @param low   the low y of the errorbar
      * @param high  the high y of the errorbar
      * @param scale the scale
      */
-    private void drawErrorBarY(Graphics2D g, float x, float y, float low, float high, float scale) {
+    private void addErrorBarY(Path2D.Float path, float x, float y, float low, float high, float scale) {
 
         // errorbar with arrow
         if (!Float.isInfinite(low) && !Float.isInfinite(high)) {
-            g.draw(new Line2D.Float(x, low, x, high));
+            addLine(path, x, low, x, high);
         } else {
             if (low == Float.POSITIVE_INFINITY) {
                 float head, tail;
@@ -601,10 +659,10 @@ public class XYGraphImpl extends GraphImpl implements XYGraphEx {
                     head = high + ARROW_LENGTH * scale;
                 }
                 // draw down arrow
-                g.draw(new Line2D.Float(x, tail, x, head));
+                addLine(path, x, tail, x, head);
                 float ah = ARROW_HEAD_LENGTH * scale;
-                g.draw(new Line2D.Float(x, head, x - ah, head - ah));
-                g.draw(new Line2D.Float(x, head, x + ah, head - ah));
+                addLine(path, x, head, x - ah, head - ah);
+                addLine(path, x, head, x + ah, head - ah);
             }
             if (high == Float.NEGATIVE_INFINITY) {
                 float head, tail;
@@ -619,10 +677,10 @@ public class XYGraphImpl extends GraphImpl implements XYGraphEx {
                     head = low - ARROW_LENGTH * scale;
                 }
                 // draw up arrow
-                g.draw(new Line2D.Float(x, tail, x, head));
+                addLine(path, x, tail, x, head);
                 float ah = ARROW_HEAD_LENGTH * scale;
-                g.draw(new Line2D.Float(x, head, x - ah, head + ah));
-                g.draw(new Line2D.Float(x, head, x + ah, head + ah));
+                addLine(path, x, head, x - ah, head + ah);
+                addLine(path, x, head, x + ah, head + ah);
             }
         }
 
@@ -630,10 +688,10 @@ public class XYGraphImpl extends GraphImpl implements XYGraphEx {
         if (errorbarCapSize > 0) {
             float halfcap = errorbarCapSize * scale / 2;
             if (low != y && !Float.isInfinite(low)) {
-                g.draw(new Line2D.Float(x - halfcap, low, x + halfcap, low));
+                addLine(path, x - halfcap, low, x + halfcap, low);
             }
             if (high != y && !Float.isInfinite(high)) {
-                g.draw(new Line2D.Float(x - halfcap, high, x + halfcap, high));
+                addLine(path, x - halfcap, high, x + halfcap, high);
             }
         }
     }
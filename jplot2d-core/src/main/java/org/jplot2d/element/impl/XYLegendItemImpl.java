@@ -83,7 +83,7 @@ public class XYLegendItemImpl extends LegendItemImpl implements XYLegendItemEx {
 
     private MathLabel getLabel() {
         if (label == null && getLegend() != null && getLegend().getEffectiveFont().getSize2D() > 0) {
-            label = new MathLabel(textModel, getLegend().getEffectiveFont(), VAlign.MIDDLE, HAlign.LEFT);
+            label = MathLabel.getInstance(textModel, getLegend().getEffectiveFont(), VAlign.MIDDLE, HAlign.LEFT);
         }
         return label;
     }
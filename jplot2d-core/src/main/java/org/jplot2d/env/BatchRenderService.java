@@ -0,0 +1,316 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software:
+ * you can redistribute it and/or modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with jplot2d.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.env;
+
+import org.jplot2d.element.Plot;
+import org.jplot2d.renderer.Renderer;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Renders many plots concurrently, for headless batch jobs such as generating reports. Every job renders a plot to a
+ * renderer, usually an exporter, in its own {@link RenderEnvironment}. The jobs run in a fixed number of daemon
+ * threads. The number of waiting jobs is bounded, so a submitter waits when the service is saturated.
+ * <p>
+ * The jobs share the process-wide caches: the image buffers of image renderers are reused through the shared
+ * {@link org.jplot2d.renderer.ImagePool}, and the layouts of labels are reused through the shared label cache. To
+ * reuse the result images of PNG exporters, enable {@link org.jplot2d.renderer.ImageExporter#setRecycleImage(boolean)
+ * image recycling} on them.
+ * <p>
+ * The time every job waits and renders is reported by its future, and the service reports the overall throughput.
+ *
+ * @author Jingjing Li
+ */
+public class BatchRenderService {
+
+    private final int parallelism;
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * The permits of running and waiting jobs
+     */
+    private final Semaphore permits;
+
+    private final AtomicLong submittedCount = new AtomicLong();
+
+    private final AtomicLong finishedCount = new AtomicLong();
+
+    private final AtomicLong failedCount = new AtomicLong();
+
+    private final AtomicLong totalRenderTime = new AtomicLong();
+
+    private final AtomicLong totalQueueTime = new AtomicLong();
+
+    /**
+     * The time of the 1st submitting and the last finishing, in nanoseconds
+     */
+    private volatile long startTime, endTime;
+
+    /**
+     * Create a service which runs a job per processor, and keeps up to 4 waiting jobs per processor.
+     */
+    public BatchRenderService() {
+        this(Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * Create a service.
+     *
+     * @param parallelism the number of jobs running concurrently
+     * @param capacity    the max number of waiting jobs
+     */
+    public BatchRenderService(int parallelism, int capacity) {
+        if (parallelism < 1 || capacity < 0) {
+            throw new IllegalArgumentException(
+                    "The parallelism must be positive and the capacity must not be negative.");
+        }
+        this.parallelism = parallelism;
+        permits = new Semaphore(parallelism + capacity);
+        executor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(), new BatchThreadFactory());
+    }
+
+    /**
+     * Returns the number of jobs running concurrently.
+     *
+     * @return the parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Submits a job to render the given plot to the given renderer. The plot must be hosted by a dummy environment, it
+     * will be set to a new {@link RenderEnvironment} when the job runs. If the service is saturated, this method waits
+     * until a job finishes.
+     *
+     * @param plot     the plot
+     * @param renderer the renderer
+     * @return the future of the job report
+     * @throws RejectedExecutionException if the service is shut down, or the calling thread is interrupted while
+     *                                    waiting
+     */
+    public Future<JobReport> submit(final Plot plot, final Renderer renderer) {
+        return submit(new Job() {
+            public void render() {
+                RenderEnvironment env = new RenderEnvironment(false);
+                env.setPlot(plot);
+                env.exportPlot(renderer);
+            }
+        });
+    }
+
+    /**
+     * Submits a job to render the plot of the given environment to the given renderer. If the service is saturated,
+     * this method waits until a job finishes.
+     *
+     * @param env      the environment
+     * @param renderer the renderer
+     * @return the future of the job report
+     * @throws RejectedExecutionException if the service is shut down, or the calling thread is interrupted while
+     *                                    waiting
+     */
+    public Future<JobReport> submit(final RenderEnvironment env, final Renderer renderer) {
+        return submit(new Job() {
+            public void render() {
+                env.exportPlot(renderer);
+            }
+        });
+    }
+
+    private Future<JobReport> submit(final Job job) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for the batch render service.");
+        }
+
+        final long submitTime = System.nanoTime();
+        if (submittedCount.getAndIncrement() == 0) {
+            startTime = submitTime;
+        }
+        try {
+            return executor.submit(new Callable<JobReport>() {
+                public JobReport call() throws Exception {
+                    long t0 = System.nanoTime();
+                    try {
+                        job.render();
+                    } catch (RuntimeException | Error e) {
+                        failedCount.incrementAndGet();
+                        throw e;
+                    } finally {
+                        endTime = System.nanoTime();
+                        finishedCount.incrementAndGet();
+                        permits.release();
+                    }
+                    long t1 = endTime;
+                    totalQueueTime.addAndGet(t0 - submitTime);
+                    totalRenderTime.addAndGet(t1 - t0);
+                    return new JobReport(t0 - submitTime, t1 - t0);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            submittedCount.decrementAndGet();
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of submitted jobs.
+     *
+     * @return the number of submitted jobs
+     */
+    public long getSubmittedCount() {
+        return submittedCount.get();
+    }
+
+    /**
+     * Returns the number of finished jobs, including failed jobs.
+     *
+     * @return the number of finished jobs
+     */
+    public long getFinishedCount() {
+        return finishedCount.get();
+    }
+
+    /**
+     * Returns the number of jobs which throw an exception.
+     *
+     * @return the number of failed jobs
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * Returns the mean time of rendering a successful job.
+     *
+     * @param unit the time unit of the returned time
+     * @return the mean render time
+     */
+    public double getMeanRenderTime(TimeUnit unit) {
+        long n = finishedCount.get() - failedCount.get();
+        return (n == 0) ? 0 : (double) unit.convert(totalRenderTime.get(), TimeUnit.NANOSECONDS) / n;
+    }
+
+    /**
+     * Returns the mean time a successful job waits before it runs.
+     *
+     * @param unit the time unit of the returned time
+     * @return the mean queue time
+     */
+    public double getMeanQueueTime(TimeUnit unit) {
+        long n = finishedCount.get() - failedCount.get();
+        return (n == 0) ? 0 : (double) unit.convert(totalQueueTime.get(), TimeUnit.NANOSECONDS) / n;
+    }
+
+    /**
+     * Returns the number of finished jobs per second, from the 1st submitting to the last finishing.
+     *
+     * @return the throughput
+     */
+    public double getThroughput() {
+        long n = finishedCount.get();
+        long time = endTime - startTime;
+        return (n == 0 || time <= 0) ? 0 : n * 1e9 / time;
+    }
+
+    /**
+     * Submitted jobs are still executed, but no new job is accepted.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Blocks until all jobs have finished after a shutdown request, or the timeout occurs.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit    the time unit of the timeout argument
+     * @return <code>true</code> if all jobs have finished
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BatchRenderService[parallelism=%d, finished=%d, failed=%d, throughput=%.1f/s]",
+                parallelism, getFinishedCount(), getFailedCount(), getThroughput());
+    }
+
+    private interface Job {
+        void render();
+    }
+
+    /**
+     * The timings of a finished job.
+     */
+    public static class JobReport {
+
+        private final long queueTime;
+
+        private final long renderTime;
+
+        private JobReport(long queueTime, long renderTime) {
+            this.queueTime = queueTime;
+            this.renderTime = renderTime;
+        }
+
+        /**
+         * Returns the time the job waits before it runs.
+         *
+         * @param unit the time unit of the returned time
+         * @return the queue time
+         */
+        public long getQueueTime(TimeUnit unit) {
+            return unit.convert(queueTime, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Returns the time the job renders.
+         *
+         * @param unit the time unit of the returned time
+         * @return the render time
+         */
+        public long getRenderTime(TimeUnit unit) {
+            return unit.convert(renderTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * The thread factory to create daemon threads
+     */
+    private static class BatchThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        public Thread newThread(@Nonnull Runnable r) {
+            Thread t = new Thread(r, "JPlot2d-batch-" + threadNumber.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+
+}
@@ -26,7 +26,7 @@ import java.awt.*;
  *
  * @author Jingjing Li
  */
-public class FixedLimitsCalculator implements LimitsCalculator {
+public class FixedLimitsCalculator implements IncrementalLimitsCalculator {
 
     private final double min, max;
 
@@ -40,4 +40,9 @@ public class FixedLimitsCalculator implements LimitsCalculator {
         return new double[]{min, max};
     }
 
+    @Nonnull
+    public double[] updateLimits(ImageDataBuffer[] dbufArray, Dimension[] sizeArray, Rectangle[] regions) {
+        return new double[]{min, max};
+    }
+
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software:
+ * you can redistribute it and/or modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with jplot2d.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.image;
+
+import org.jplot2d.data.ImageDataBuffer;
+
+import javax.annotation.Nullable;
+import java.awt.Dimension;
+import java.awt.Rectangle;
+
+/**
+ * A limits calculator which can update the limits when only some regions of the data are changed. The calculator keeps
+ * the state of the last calculation, so an instance should only be used for a fixed set of ImageDataBuffers.
+ *
+ * @author Jingjing Li
+ */
+public interface IncrementalLimitsCalculator extends LimitsCalculator {
+
+    /**
+     * Update the cutting limits when the values in the given regions are changed. The given ImageDataBuffers must be
+     * the ones of the last {@link #calcLimits(ImageDataBuffer[], Dimension[])} or updateLimits call. If they are not,
+     * the limits are recalculated.
+     *
+     * @param dbufArray ImageDataBuffers for calculation
+     * @param sizeArray the dimension of the given ImageDataBuffers
+     * @param regions   the changed region of every ImageDataBuffer, <code>null</code> if a buffer is not changed
+     * @return low limit and high limit in a double array, or <code>null</code> if there is no valid data
+     */
+    @Nullable
+    double[] updateLimits(ImageDataBuffer[] dbufArray, Dimension[] sizeArray, Rectangle[] regions);
+
+}
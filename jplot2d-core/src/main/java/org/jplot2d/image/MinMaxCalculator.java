@@ -21,13 +21,33 @@ import org.jplot2d.data.ImageDataBuffer;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.util.Arrays;
 
 /**
  * The limits calculator to produce the upper and lower limits to the min and max value of given ImageDataBuffer.
+ * <p>
+ * To update limits incrementally, the min and max values of every block of 64 x 64 pixels are kept. A changed region
+ * only recalculates the blocks it intersects. The blocks are built by the 1st update.
  *
  * @author Jingjing Li
  */
-public class MinMaxCalculator implements LimitsCalculator {
+public class MinMaxCalculator implements IncrementalLimitsCalculator {
+
+    private static final int BLOCK_SIZE = 64;
+
+    /**
+     * The buffers which the blocks are built for, or <code>null</code> if the blocks are not built
+     */
+    @Nullable
+    private ImageDataBuffer[] blockBuffers;
+
+    private Dimension[] blockSizes;
+
+    /**
+     * The min and max values of blocks of every buffer. NaN means the block has no valid value.
+     */
+    private double[][] blockMins, blockMaxs;
 
     public MinMaxCalculator() {
 
@@ -35,9 +55,102 @@ public class MinMaxCalculator implements LimitsCalculator {
 
     @Nullable
     public double[] calcLimits(ImageDataBuffer[] dbufs, Dimension[] sizeArray) {
+        blockBuffers = null;
         return calcMinMax(dbufs, sizeArray);
     }
 
+    @Nullable
+    public double[] updateLimits(ImageDataBuffer[] dbufs, Dimension[] sizeArray, Rectangle[] regions) {
+        if (blockBuffers == null || !Arrays.equals(blockBuffers, dbufs) || !Arrays.equals(blockSizes, sizeArray)) {
+            blockBuffers = dbufs.clone();
+            blockSizes = new Dimension[sizeArray.length];
+            blockMins = new double[dbufs.length][];
+            blockMaxs = new double[dbufs.length][];
+            for (int i = 0; i < dbufs.length; i++) {
+                Dimension size = sizeArray[i];
+                blockSizes[i] = new Dimension(size);
+                int cols = (size.width + BLOCK_SIZE - 1) / BLOCK_SIZE;
+                int rows = (size.height + BLOCK_SIZE - 1) / BLOCK_SIZE;
+                blockMins[i] = new double[cols * rows];
+                blockMaxs[i] = new double[cols * rows];
+                calcBlocks(i, new Rectangle(size));
+            }
+        } else {
+            for (int i = 0; i < dbufs.length; i++) {
+                if (regions[i] != null) {
+                    calcBlocks(i, regions[i].intersection(new Rectangle(sizeArray[i])));
+                }
+            }
+        }
+
+        double min = Double.NaN;
+        double max = Double.NaN;
+        for (int i = 0; i < dbufs.length; i++) {
+            for (int b = 0; b < blockMins[i].length; b++) {
+                double bmin = blockMins[i][b];
+                double bmax = blockMaxs[i][b];
+                // the min is NaN before the 1st valid block
+                if (bmin == bmin && !(min <= bmin)) {
+                    min = bmin;
+                }
+                if (bmax == bmax && !(max >= bmax)) {
+                    max = bmax;
+                }
+            }
+        }
+        if (Double.isNaN(min) || Double.isNaN(max)) {
+            return null;
+        } else {
+            return new double[]{min, max};
+        }
+    }
+
+    /**
+     * Calculate the min and max values of the blocks which intersect the given region of the given buffer.
+     */
+    private void calcBlocks(int i, Rectangle region) {
+        if (region.isEmpty()) {
+            return;
+        }
+        ImageDataBuffer dbuf = blockBuffers[i];
+        int w = blockSizes[i].width;
+        int h = blockSizes[i].height;
+        int cols = (w + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        long[] words = null;
+        for (int by = region.y / BLOCK_SIZE; by * BLOCK_SIZE < region.y + region.height; by++) {
+            for (int bx = region.x / BLOCK_SIZE; bx * BLOCK_SIZE < region.x + region.width; bx++) {
+                double min = Double.NaN;
+                double max = Double.NaN;
+                // the block is a run of 64 pixels in every row
+                int x0 = bx * BLOCK_SIZE;
+                int x1 = Math.min(w, (bx + 1) * BLOCK_SIZE);
+                int y1 = Math.min(h, (by + 1) * BLOCK_SIZE);
+                for (int y = by * BLOCK_SIZE; y < y1; y++) {
+                    words = dbuf.getMaskWords(x0, y, x1 - x0, words);
+                    if (words[0] == -1L) {
+                        // skip the fully masked run
+                        continue;
+                    }
+                    for (int x = x0; x < x1; x++) {
+                        if ((words[0] >>> x & 1) == 0) {
+                            double v = dbuf.getDouble(x, y);
+                            if (v == v && v != Double.POSITIVE_INFINITY && v != Double.NEGATIVE_INFINITY) {
+                                if (!(min <= v)) {
+                                    min = v;
+                                }
+                                if (!(max >= v)) {
+                                    max = v;
+                                }
+                            }
+                        }
+                    }
+                }
+                blockMins[i][by * cols + bx] = min;
+                blockMaxs[i][by * cols + bx] = max;
+            }
+        }
+    }
+
     @Nullable
     public static double[] calcMinMax(ImageDataBuffer[] dbufs, Dimension[] sizeArray) {
         double min = Double.NaN;
@@ -28,15 +28,37 @@ public class PercentAlgorithm implements LimitsAlgorithm {
 
     private final double percentage;
 
+    private final double maxError;
+
+    /**
+     * Construct an algorithm to find the exact limits.
+     *
+     * @param percentage the percentage of values to be displayed
+     */
     public PercentAlgorithm(double percentage) {
+        this(percentage, 0);
+    }
+
+    /**
+     * Construct an algorithm to estimate the limits from a histogram. The time to estimate limits does not depend on
+     * the percentage. See {@link PercentCalculator#PercentCalculator(double, double)}.
+     *
+     * @param percentage the percentage of values to be displayed
+     * @param maxError   the max error, relative to the range of data. 0 means to find the exact limits.
+     */
+    public PercentAlgorithm(double percentage, double maxError) {
+        if (maxError != 0 && !(maxError >= 1e-6 && maxError <= 1)) {
+            throw new IllegalArgumentException("The max error must be 0 or between 1e-6 and 1.");
+        }
         this.percentage = percentage;
+        this.maxError = maxError;
     }
 
     public LimitsCalculator getCalculator() {
         if (percentage == 100) {
             return new MinMaxCalculator();
         } else {
-            return new PercentCalculator(percentage);
+            return new PercentCalculator(percentage, maxError);
         }
     }
 
@@ -21,19 +21,78 @@ import org.jplot2d.util.*;
 
 import javax.annotation.Nullable;
 import java.awt.*;
+import java.util.Arrays;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * The limits calculator to produce the upper and lower limits to based on the specified percentage. A histogram of the
  * data is created and the limits are set to display the percentage, about the mean value.
+ * <p>
+ * The exact limits are found by heaps of the cut-off values, the cost is O(n log k). Large data are processed in
+ * parallel, see {@link #setParallelism(int)}. For a bounded latency, the limits can be estimated from a histogram with
+ * a given max error, the cost is O(n).
  *
  * @author Jingjing Li
  */
 public class PercentCalculator implements LimitsCalculator {
 
+    /**
+     * The min number of values to be processed in parallel
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * The pool to calculate limits in parallel
+     */
+    private static final ParallelPool pool = new ParallelPool(ParallelPool.CORES);
+
     private final double percentage;
 
+    private final double maxError;
+
+    /**
+     * Construct a calculator which finds the exact limits.
+     *
+     * @param percentage the percentage of values to be displayed
+     */
     public PercentCalculator(double percentage) {
+        this(percentage, 0);
+    }
+
+    /**
+     * Construct a calculator which estimates the limits from a histogram of the data. The histogram takes 2 passes
+     * over the data, no matter how many values are cut off. The error of the estimated limits is no more than the
+     * given max error times the range of data. 0 means to find the exact limits.
+     *
+     * @param percentage the percentage of values to be displayed
+     * @param maxError   the max error, relative to the range of data, must be 0 or between 1e-6 and 1
+     */
+    public PercentCalculator(double percentage, double maxError) {
+        if (maxError != 0 && !(maxError >= 1e-6 && maxError <= 1)) {
+            throw new IllegalArgumentException("The max error must be 0 or between 1e-6 and 1.");
+        }
         this.percentage = percentage;
+        this.maxError = maxError;
+    }
+
+    /**
+     * Returns the number of threads to calculate limits.
+     *
+     * @return the parallelism
+     */
+    public static int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Sets the number of threads to calculate limits. When it's larger than 1, the data which has more than 64K values
+     * are split into blocks of rows, which are processed on a fork-join pool. The exact limits are same as the limits
+     * found serially. The default is the number of available processors.
+     *
+     * @param parallelism the number of threads, 1 to process in the calling thread
+     */
+    public static void setParallelism(int parallelism) {
+        pool.setParallelism(parallelism);
     }
 
     /**
@@ -62,15 +121,20 @@ public class PercentCalculator implements LimitsCalculator {
             if (!dbuf.hasMasks()) {
                 for (int i = 0; i < h; i++) {
                     for (int j = 0; j < w; j++) {
-                        byte v = ((ByteDataBuffer) dbuf).get(i, j);
+                        byte v = ((ByteDataBuffer) dbuf).get(j, i);
                         valueCounter[v - Byte.MIN_VALUE]++;
                     }
                 }
             } else {
+                long[] words = null;
                 for (int i = 0; i < h; i++) {
+                    words = dbuf.getMaskWords(0, i, w, words);
                     for (int j = 0; j < w; j++) {
-                        if (!dbuf.isMasked(i, j)) {
-                            byte v = ((ByteDataBuffer) dbuf).get(i, j);
+                        if (words[j >> 6] == -1L) {
+                            // skip the fully masked run
+                            j |= 63;
+                        } else if ((words[j >> 6] >>> j & 1) == 0) {
+                            byte v = ((ByteDataBuffer) dbuf).get(j, i);
                             valueCounter[v - Byte.MIN_VALUE]++;
                         }
                     }
@@ -141,7 +205,8 @@ public class PercentCalculator implements LimitsCalculator {
         int m = -1;
         int n = -1;
         int c = 0;
-        for (int a = 0; a < dbufArray.length; a++) {
+        int b = -1;
+        for (int a = 0; a < dbufArray.length && b == -1; a++) {
             ImageDataBuffer dbuf = dbufArray[a];
             int w = sizeArray[a].width;
             int h = sizeArray[a].height;
@@ -149,10 +214,11 @@ public class PercentCalculator implements LimitsCalculator {
             if (!dbuf.hasMasks()) {
                 for (int i = 0; i < h; i++) {
                     for (int j = 0; j < w; j++) {
-                        short v = dbuf.getShort(i, j);
+                        short v = dbuf.getShort(j, i);
                         lowCuts[c] = v;
                         highCuts[c] = v;
                         if (++c == cutoffMore) {
+                            b = a;
                             m = i;
                             n = j;
                             break;
@@ -163,13 +229,19 @@ public class PercentCalculator implements LimitsCalculator {
                     }
                 }
             } else {
+                long[] words = null;
                 for (int i = 0; i < h; i++) {
+                    words = dbuf.getMaskWords(0, i, w, words);
                     for (int j = 0; j < w; j++) {
-                        if (!dbuf.isMasked(i, j)) {
-                            short v = dbuf.getShort(i, j);
+                        if (words[j >> 6] == -1L) {
+                            // skip the fully masked run
+                            j |= 63;
+                        } else if ((words[j >> 6] >>> j & 1) == 0) {
+                            short v = dbuf.getShort(j, i);
                             lowCuts[c] = v;
                             highCuts[c] = v;
                             if (++c == cutoffMore) {
+                                b = a;
                                 m = i;
                                 n = j;
                                 break;
@@ -188,7 +260,7 @@ public class PercentCalculator implements LimitsCalculator {
         ShortTopNFinder tf = new ShortTopNFinder(highCuts);
 
         n++;
-        for (int a = 0; a < dbufArray.length; a++) {
+        for (int a = b; a < dbufArray.length; a++) {
             ImageDataBuffer dbuf = dbufArray[a];
             int w = sizeArray[a].width;
             int h = sizeArray[a].height;
@@ -196,17 +268,22 @@ public class PercentCalculator implements LimitsCalculator {
             if (!dbuf.hasMasks()) {
                 for (int i = m; i < h; i++) {
                     for (int j = n; j < w; j++) {
-                        short v = dbuf.getShort(i, j);
+                        short v = dbuf.getShort(j, i);
                         bf.check(v);
                         tf.check(v);
                     }
                     n = 0;
                 }
             } else {
+                long[] words = null;
                 for (int i = m; i < h; i++) {
+                    words = dbuf.getMaskWords(0, i, w, words);
                     for (int j = n; j < w; j++) {
-                        if (!dbuf.isMasked(i, j)) {
-                            short v = dbuf.getShort(i, j);
+                        if (words[j >> 6] == -1L) {
+                            // skip the fully masked run
+                            j |= 63;
+                        } else if ((words[j >> 6] >>> j & 1) == 0) {
+                            short v = dbuf.getShort(j, i);
                             bf.check(v);
                             tf.check(v);
                         }
@@ -214,6 +291,7 @@ public class PercentCalculator implements LimitsCalculator {
                     n = 0;
                 }
             }
+            m = 0;
         }
 
         double lowCut = bf.getMax() * (1 - offsetrate) + bf.getMax2nd() * offsetrate;
@@ -235,7 +313,8 @@ public class PercentCalculator implements LimitsCalculator {
         int m = -1;
         int n = -1;
         int c = 0;
-        for (int a = 0; a < dbufArray.length; a++) {
+        int b = -1;
+        for (int a = 0; a < dbufArray.length && b == -1; a++) {
             ImageDataBuffer dbuf = dbufArray[a];
             int w = sizeArray[a].width;
             int h = sizeArray[a].height;
@@ -243,10 +322,11 @@ public class PercentCalculator implements LimitsCalculator {
             if (!dbuf.hasMasks()) {
                 for (int i = 0; i < h; i++) {
                     for (int j = 0; j < w; j++) {
-                        int v = dbuf.getInt(i, j);
+                        int v = dbuf.getInt(j, i);
                         lowCuts[c] = v;
                         highCuts[c] = v;
                         if (++c == cutoffMore) {
+                            b = a;
                             m = i;
                             n = j;
                             break;
@@ -257,13 +337,19 @@ public class PercentCalculator implements LimitsCalculator {
                     }
                 }
             } else {
+                long[] words = null;
                 for (int i = 0; i < h; i++) {
+                    words = dbuf.getMaskWords(0, i, w, words);
                     for (int j = 0; j < w; j++) {
-                        if (!dbuf.isMasked(i, j)) {
-                            int v = dbuf.getInt(i, j);
+                        if (words[j >> 6] == -1L) {
+                            // skip the fully masked run
+                            j |= 63;
+                        } else if ((words[j >> 6] >>> j & 1) == 0) {
+                            int v = dbuf.getInt(j, i);
                             lowCuts[c] = v;
                             highCuts[c] = v;
                             if (++c == cutoffMore) {
+                                b = a;
                                 m = i;
                                 n = j;
                                 break;
@@ -282,7 +368,7 @@ public class PercentCalculator implements LimitsCalculator {
         IntTopNFinder tf = new IntTopNFinder(highCuts);
 
         n++;
-        for (int a = 0; a < dbufArray.length; a++) {
+        for (int a = b; a < dbufArray.length; a++) {
             ImageDataBuffer dbuf = dbufArray[a];
             int w = sizeArray[a].width;
             int h = sizeArray[a].height;
@@ -290,17 +376,22 @@ public class PercentCalculator implements LimitsCalculator {
             if (!dbuf.hasMasks()) {
                 for (int i = m; i < h; i++) {
                     for (int j = n; j < w; j++) {
-                        int v = dbuf.getInt(i, j);
+                        int v = dbuf.getInt(j, i);
                         bf.check(v);
                         tf.check(v);
                     }
                     n = 0;
                 }
             } else {
+                long[] words = null;
                 for (int i = m; i < h; i++) {
+                    words = dbuf.getMaskWords(0, i, w, words);
                     for (int j = n; j < w; j++) {
-                        if (!dbuf.isMasked(i, j)) {
-                            int v = dbuf.getInt(i, j);
+                        if (words[j >> 6] == -1L) {
+                            // skip the fully masked run
+                            j |= 63;
+                        } else if ((words[j >> 6] >>> j & 1) == 0) {
+                            int v = dbuf.getInt(j, i);
                             bf.check(v);
                             tf.check(v);
                         }
@@ -308,6 +399,7 @@ public class PercentCalculator implements LimitsCalculator {
                     n = 0;
                 }
             }
+            m = 0;
         }
 
         double lowCut = bf.getMax() * (1 - offsetrate) + bf.getMax2nd() * offsetrate;
@@ -330,7 +422,8 @@ public class PercentCalculator implements LimitsCalculator {
         int m = -1;
         int n = -1;
         int c = 0;
-        for (int a = 0; a < dbufArray.length; a++) {
+        int b = -1;
+        for (int a = 0; a < dbufArray.length && b == -1; a++) {
             ImageDataBuffer dbuf = dbufArray[a];
             int w = sizeArray[a].width;
             int h = sizeArray[a].height;
@@ -338,11 +431,12 @@ public class PercentCalculator implements LimitsCalculator {
             if (!dbuf.hasMasks()) {
                 for (int i = 0; i < h; i++) {
                     for (int j = 0; j < w; j++) {
-                        float v = dbuf.getFloat(i, j);
+                        float v = dbuf.getFloat(j, i);
                         if (v == v && v != Float.POSITIVE_INFINITY && v != Float.NEGATIVE_INFINITY) {
                             lowCuts[c] = v;
                             highCuts[c] = v;
                             if (++c == cutoffMore) {
+                                b = a;
                                 m = i;
                                 n = j;
                                 break;
@@ -354,14 +448,20 @@ public class PercentCalculator implements LimitsCalculator {
                     }
                 }
             } else {
+                long[] words = null;
                 for (int i = 0; i < h; i++) {
+                    words = dbuf.getMaskWords(0, i, w, words);
                     for (int j = 0; j < w; j++) {
-                        if (!dbuf.isMasked(i, j)) {
-                            float v = dbuf.getFloat(i, j);
+                        if (words[j >> 6] == -1L) {
+                            // skip the fully masked run
+                            j |= 63;
+                        } else if ((words[j >> 6] >>> j & 1) == 0) {
+                            float v = dbuf.getFloat(j, i);
                             if (v == v && v != Float.POSITIVE_INFINITY && v != Float.NEGATIVE_INFINITY) {
                                 lowCuts[c] = v;
                                 highCuts[c] = v;
                                 if (++c == cutoffMore) {
+                                    b = a;
                                     m = i;
                                     n = j;
                                     break;
@@ -381,7 +481,7 @@ public class PercentCalculator implements LimitsCalculator {
         FloatTopNFinder tf = new FloatTopNFinder(highCuts);
 
         n++;
-        for (int a = 0; a < dbufArray.length; a++) {
+        for (int a = b; a < dbufArray.length; a++) {
             ImageDataBuffer dbuf = dbufArray[a];
             int w = sizeArray[a].width;
             int h = sizeArray[a].height;
@@ -389,7 +489,7 @@ public class PercentCalculator implements LimitsCalculator {
             if (!dbuf.hasMasks()) {
                 for (int i = m; i < h; i++) {
                     for (int j = n; j < w; j++) {
-                        float v = dbuf.getFloat(i, j);
+                        float v = dbuf.getFloat(j, i);
                         if (v == v && v != Float.POSITIVE_INFINITY && v != Float.NEGATIVE_INFINITY) {
                             bf.check(v);
                             tf.check(v);
@@ -398,10 +498,15 @@ public class PercentCalculator implements LimitsCalculator {
                     n = 0;
                 }
             } else {
+                long[] words = null;
                 for (int i = m; i < h; i++) {
+                    words = dbuf.getMaskWords(0, i, w, words);
                     for (int j = n; j < w; j++) {
-                        if (!dbuf.isMasked(i, j)) {
-                            float v = dbuf.getFloat(i, j);
+                        if (words[j >> 6] == -1L) {
+                            // skip the fully masked run
+                            j |= 63;
+                        } else if ((words[j >> 6] >>> j & 1) == 0) {
+                            float v = dbuf.getFloat(j, i);
                             if (v == v && v != Float.POSITIVE_INFINITY && v != Float.NEGATIVE_INFINITY) {
                                 bf.check(v);
                                 tf.check(v);
@@ -411,6 +516,7 @@ public class PercentCalculator implements LimitsCalculator {
                     n = 0;
                 }
             }
+            m = 0;
         }
 
         double lowCut = bf.getMax() * (1 - offsetrate) + bf.getMax2nd() * offsetrate;
@@ -432,7 +538,8 @@ public class PercentCalculator implements LimitsCalculator {
         int m = -1;
         int n = -1;
         int c = 0;
-        for (int a = 0; a < dbufArray.length; a++) {
+        int b = -1;
+        for (int a = 0; a < dbufArray.length && b == -1; a++) {
             ImageDataBuffer dbuf = dbufArray[a];
             int w = sizeArray[a].width;
             int h = sizeArray[a].height;
@@ -440,11 +547,12 @@ public class PercentCalculator implements LimitsCalculator {
             if (!dbuf.hasMasks()) {
                 for (int i = 0; i < h; i++) {
                     for (int j = 0; j < w; j++) {
-                        double v = dbuf.getDouble(i, j);
+                        double v = dbuf.getDouble(j, i);
                         if (v == v && v != Float.POSITIVE_INFINITY && v != Float.NEGATIVE_INFINITY) {
                             lowCuts[c] = v;
                             highCuts[c] = v;
                             if (++c == cutoffMore) {
+                                b = a;
                                 m = i;
                                 n = j;
                                 break;
@@ -456,14 +564,20 @@ public class PercentCalculator implements LimitsCalculator {
                     }
                 }
             } else {
+                long[] words = null;
                 for (int i = 0; i < h; i++) {
+                    words = dbuf.getMaskWords(0, i, w, words);
                     for (int j = 0; j < w; j++) {
-                        if (!dbuf.isMasked(i, j)) {
-                            double v = dbuf.getDouble(i, j);
+                        if (words[j >> 6] == -1L) {
+                            // skip the fully masked run
+                            j |= 63;
+                        } else if ((words[j >> 6] >>> j & 1) == 0) {
+                            double v = dbuf.getDouble(j, i);
                             if (v == v && v != Float.POSITIVE_INFINITY && v != Float.NEGATIVE_INFINITY) {
                                 lowCuts[c] = v;
                                 highCuts[c] = v;
                                 if (++c == cutoffMore) {
+                                    b = a;
                                     m = i;
                                     n = j;
                                     break;
@@ -483,7 +597,7 @@ public class PercentCalculator implements LimitsCalculator {
         DoubleTopNFinder tf = new DoubleTopNFinder(highCuts);
 
         n++;
-        for (int a = 0; a < dbufArray.length; a++) {
+        for (int a = b; a < dbufArray.length; a++) {
             ImageDataBuffer dbuf = dbufArray[a];
             int w = sizeArray[a].width;
             int h = sizeArray[a].height;
@@ -491,7 +605,7 @@ public class PercentCalculator implements LimitsCalculator {
             if (!dbuf.hasMasks()) {
                 for (int i = m; i < h; i++) {
                     for (int j = n; j < w; j++) {
-                        double v = dbuf.getDouble(i, j);
+                        double v = dbuf.getDouble(j, i);
                         if (v == v && v != Double.POSITIVE_INFINITY && v != Double.NEGATIVE_INFINITY) {
                             bf.check(v);
                             tf.check(v);
@@ -500,10 +614,15 @@ public class PercentCalculator implements LimitsCalculator {
                     n = 0;
                 }
             } else {
+                long[] words = null;
                 for (int i = m; i < h; i++) {
+                    words = dbuf.getMaskWords(0, i, w, words);
                     for (int j = n; j < w; j++) {
-                        if (!dbuf.isMasked(i, j)) {
-                            double v = dbuf.getDouble(i, j);
+                        if (words[j >> 6] == -1L) {
+                            // skip the fully masked run
+                            j |= 63;
+                        } else if ((words[j >> 6] >>> j & 1) == 0) {
+                            double v = dbuf.getDouble(j, i);
                             if (v == v && v != Double.POSITIVE_INFINITY && v != Double.NEGATIVE_INFINITY) {
                                 bf.check(v);
                                 tf.check(v);
@@ -513,6 +632,7 @@ public class PercentCalculator implements LimitsCalculator {
                     n = 0;
                 }
             }
+            m = 0;
         }
 
         double lowCut = bf.getMax() * (1 - offsetrate) + bf.getMax2nd() * offsetrate;
@@ -539,6 +659,12 @@ public class PercentCalculator implements LimitsCalculator {
         }
 
         double cutoff = numberCount * (100 - percentage) / 100.0 / 2.0;
+        int parallelism = pool.getParallelism();
+        int slices = (parallelism > 1 && numberCount >= PARALLEL_THRESHOLD) ? parallelism : 1;
+
+        if (maxError != 0) {
+            return calcApproximateLimits(dbufArray, sizeArray, cutoff, slices);
+        }
 
         int maxDataByes = 0;
         for (ImageDataBuffer dbuf : dbufArray) {
@@ -559,6 +685,11 @@ public class PercentCalculator implements LimitsCalculator {
             }
         }
 
+        // the byte limits are found by a histogram of all values, which is fast enough
+        if (maxDataByes > 1 && slices > 1) {
+            return calcParallelLimits(dbufArray, sizeArray, cutoff, slices);
+        }
+
         switch (maxDataByes) {
             case 1:
                 return calcByteLimits(dbufArray, sizeArray, cutoff);
@@ -575,4 +706,289 @@ public class PercentCalculator implements LimitsCalculator {
         }
     }
 
+
+    /**
+     * Returns the offsets of the 1st pixel of every buffer, when the pixels of all buffers are in a sequence. The last
+     * element is the total number of pixels.
+     */
+    private static long[] getPixelOffsets(Dimension[] sizeArray) {
+        long[] offsets = new long[sizeArray.length + 1];
+        for (int a = 0; a < sizeArray.length; a++) {
+            offsets[a + 1] = offsets[a] + (long) sizeArray[a].width * sizeArray[a].height;
+        }
+        return offsets;
+    }
+
+    /**
+     * Find the exact limits by heaps of top and bottom values. Every slice of rows has its own heaps, which are merged
+     * at last. The values are compared as double, so the limits are same as the limits found by the typed heaps.
+     */
+    private static double[] calcParallelLimits(ImageDataBuffer[] dbufArray, Dimension[] sizeArray, double cutoff,
+                                               int slices) {
+
+        // the cuts value is between cutoffMore-1 and cutoffMore
+        double offsetrate = (int) cutoff + 1 - cutoff;
+        int cutoffMore = (int) cutoff + 2;
+
+        HeapTask task = new HeapTask(dbufArray, sizeArray, getPixelOffsets(sizeArray), 0, slices, slices, cutoffMore);
+        Heaps heaps = pool.invoke(task);
+
+        double lowCut = heaps.bf.getMax() * (1 - offsetrate) + heaps.bf.getMax2nd() * offsetrate;
+        double highCut = heaps.tf.getMin() * (1 - offsetrate) + heaps.tf.getMin2nd() * offsetrate;
+
+        return new double[]{lowCut, highCut};
+    }
+
+    /**
+     * Estimate the limits by a histogram of values between the min and max value. The value of a rank is estimated
+     * within the histogram bin where it falls in, so the error is no more than the bin width.
+     */
+    @Nullable
+    private double[] calcApproximateLimits(ImageDataBuffer[] dbufArray, Dimension[] sizeArray, double cutoff,
+                                           int slices) {
+        double[] minmax = MinMaxCalculator.calcMinMax(dbufArray, sizeArray);
+        if (minmax == null || minmax[0] == minmax[1]) {
+            return minmax;
+        }
+
+        int bins = (int) Math.ceil(1 / maxError);
+        HistogramTask task = new HistogramTask(dbufArray, sizeArray, getPixelOffsets(sizeArray), 0, slices, slices,
+                minmax[0], minmax[1], bins);
+        int[] counts = (slices > 1) ? pool.invoke(task) : task.invoke();
+        long total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+
+        // the ranks are 1-based, in ascending order. The cuts value is between the ranks as the exact limits.
+        double offsetrate = (int) cutoff + 1 - cutoff;
+        long rank = (int) cutoff + 1;
+        double lowCut = estimateValue(counts, rank + 1, minmax) * (1 - offsetrate)
+                + estimateValue(counts, rank, minmax) * offsetrate;
+        double highCut = estimateValue(counts, total - rank, minmax) * (1 - offsetrate)
+                + estimateValue(counts, total - rank + 1, minmax) * offsetrate;
+
+        return new double[]{lowCut, highCut};
+    }
+
+    /**
+     * Returns the estimated value of the given rank, assuming the values in a bin are evenly distributed.
+     *
+     * @param counts the histogram
+     * @param rank   the 1-based rank in ascending order
+     * @param minmax the min and max value
+     * @return the estimated value
+     */
+    private static double estimateValue(int[] counts, long rank, double[] minmax) {
+        double binWidth = (minmax[1] - minmax[0]) / counts.length;
+        long n = 0;
+        for (int b = 0; b < counts.length; b++) {
+            if (rank <= n + counts[b]) {
+                double v = minmax[0] + (b + (rank - n - 0.5) / counts[b]) * binWidth;
+                return Math.max(minmax[0], Math.min(minmax[1], v));
+            }
+            n += counts[b];
+        }
+        return minmax[1];
+    }
+
+    /**
+     * A task to process slices of the rows of all buffers. The pixels of all buffers are split into slices of about the
+     * same number of pixels, and rounded to whole rows. A task of multiple slices is split in halves, and the results
+     * are merged.
+     *
+     * @param <T> the result type
+     */
+    private static abstract class SliceTask<T> extends RecursiveTask<T> {
+
+        private static final long serialVersionUID = 1L;
+
+        protected final ImageDataBuffer[] dbufArray;
+
+        protected final Dimension[] sizeArray;
+
+        /**
+         * The offsets of the 1st pixel of every buffer
+         */
+        protected final long[] offsets;
+
+        protected final int sliceBegin, sliceEnd, slices;
+
+        protected SliceTask(ImageDataBuffer[] dbufArray, Dimension[] sizeArray, long[] offsets, int sliceBegin,
+                            int sliceEnd, int slices) {
+            this.dbufArray = dbufArray;
+            this.sizeArray = sizeArray;
+            this.offsets = offsets;
+            this.sliceBegin = sliceBegin;
+            this.sliceEnd = sliceEnd;
+            this.slices = slices;
+        }
+
+        protected abstract SliceTask<T> createSubtask(int sliceBegin, int sliceEnd);
+
+        protected abstract T createResult();
+
+        /**
+         * Process the given rows of the given buffer.
+         */
+        protected abstract void scan(T result, ImageDataBuffer dbuf, int w, int rowBegin, int rowEnd);
+
+        /**
+         * Merge the 2nd result into the 1st result.
+         */
+        protected abstract void merge(T result, T other);
+
+        @Override
+        protected T compute() {
+            if (sliceEnd - sliceBegin > 1) {
+                int mid = (sliceBegin + sliceEnd) >>> 1;
+                SliceTask<T> right = createSubtask(mid, sliceEnd);
+                right.fork();
+                T result = createSubtask(sliceBegin, mid).compute();
+                merge(result, right.join());
+                return result;
+            }
+
+            T result = createResult();
+            long total = offsets[offsets.length - 1];
+            long begin = total * sliceBegin / slices;
+            long end = total * sliceEnd / slices;
+            for (int a = 0; a < dbufArray.length; a++) {
+                int w = sizeArray[a].width;
+                int h = sizeArray[a].height;
+                if (w == 0) {
+                    continue;
+                }
+                // the rows which start in this slice
+                int rowBegin = (int) Math.min(h, (Math.max(0, begin - offsets[a]) + w - 1) / w);
+                int rowEnd = (int) Math.min(h, (Math.max(0, end - offsets[a]) + w - 1) / w);
+                if (rowBegin < rowEnd) {
+                    scan(result, dbufArray[a], w, rowBegin, rowEnd);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * The heaps of top and bottom values. The heaps are filled by infinity initially, which are pushed out by valid
+     * values.
+     */
+    private static class Heaps {
+
+        private final double[] lowCuts, highCuts;
+
+        private final DoubleBottomNFinder bf;
+
+        private final DoubleTopNFinder tf;
+
+        private Heaps(int n) {
+            lowCuts = new double[n];
+            highCuts = new double[n];
+            Arrays.fill(lowCuts, Double.POSITIVE_INFINITY);
+            Arrays.fill(highCuts, Double.NEGATIVE_INFINITY);
+            bf = new DoubleBottomNFinder(lowCuts);
+            tf = new DoubleTopNFinder(highCuts);
+        }
+    }
+
+    private static class HeapTask extends SliceTask<Heaps> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int n;
+
+        private HeapTask(ImageDataBuffer[] dbufArray, Dimension[] sizeArray, long[] offsets, int sliceBegin,
+                         int sliceEnd, int slices, int n) {
+            super(dbufArray, sizeArray, offsets, sliceBegin, sliceEnd, slices);
+            this.n = n;
+        }
+
+        protected SliceTask<Heaps> createSubtask(int sliceBegin, int sliceEnd) {
+            return new HeapTask(dbufArray, sizeArray, offsets, sliceBegin, sliceEnd, slices, n);
+        }
+
+        protected Heaps createResult() {
+            return new Heaps(n);
+        }
+
+        protected void scan(Heaps heaps, ImageDataBuffer dbuf, int w, int rowBegin, int rowEnd) {
+            long[] words = null;
+            for (int i = rowBegin; i < rowEnd; i++) {
+                words = dbuf.getMaskWords(0, i, w, words);
+                for (int j = 0; j < w; j++) {
+                    if (words[j >> 6] == -1L) {
+                        // skip the fully masked run
+                        j |= 63;
+                    } else if ((words[j >> 6] >>> j & 1) == 0) {
+                        double v = dbuf.getDouble(j, i);
+                        if (v == v && v != Double.POSITIVE_INFINITY && v != Double.NEGATIVE_INFINITY) {
+                            heaps.bf.check(v);
+                            heaps.tf.check(v);
+                        }
+                    }
+                }
+            }
+        }
+
+        protected void merge(Heaps heaps, Heaps other) {
+            for (double v : other.lowCuts) {
+                heaps.bf.check(v);
+            }
+            for (double v : other.highCuts) {
+                heaps.tf.check(v);
+            }
+        }
+    }
+
+    private static class HistogramTask extends SliceTask<int[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double min, max;
+
+        private final int bins;
+
+        private HistogramTask(ImageDataBuffer[] dbufArray, Dimension[] sizeArray, long[] offsets, int sliceBegin,
+                              int sliceEnd, int slices, double min, double max, int bins) {
+            super(dbufArray, sizeArray, offsets, sliceBegin, sliceEnd, slices);
+            this.min = min;
+            this.max = max;
+            this.bins = bins;
+        }
+
+        protected SliceTask<int[]> createSubtask(int sliceBegin, int sliceEnd) {
+            return new HistogramTask(dbufArray, sizeArray, offsets, sliceBegin, sliceEnd, slices, min, max, bins);
+        }
+
+        protected int[] createResult() {
+            return new int[bins];
+        }
+
+        protected void scan(int[] counts, ImageDataBuffer dbuf, int w, int rowBegin, int rowEnd) {
+            double scale = bins / (max - min);
+            long[] words = null;
+            for (int i = rowBegin; i < rowEnd; i++) {
+                words = dbuf.getMaskWords(0, i, w, words);
+                for (int j = 0; j < w; j++) {
+                    if (words[j >> 6] == -1L) {
+                        // skip the fully masked run
+                        j |= 63;
+                    } else if ((words[j >> 6] >>> j & 1) == 0) {
+                        double v = dbuf.getDouble(j, i);
+                        if (v >= min && v <= max) {
+                            counts[Math.min(bins - 1, (int) ((v - min) * scale))]++;
+                        }
+                    }
+                }
+            }
+        }
+
+        protected void merge(int[] counts, int[] other) {
+            for (int b = 0; b < bins; b++) {
+                counts[b] += other[b];
+            }
+        }
+    }
+
 }
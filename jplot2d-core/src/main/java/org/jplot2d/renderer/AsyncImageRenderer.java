@@ -19,17 +19,24 @@ package org.jplot2d.renderer;
 import org.jplot2d.element.impl.ComponentEx;
 import org.jplot2d.env.CacheableBlock;
 
+import javax.annotation.Nonnull;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.FutureTask;
+import java.util.Set;
+import java.util.concurrent.*;
 
 /**
  * This renderer assemble all cacheable component in a individual thread asynchronously.
+ * <p>
+ * The frame rate can be limited by a min frame interval. A frame committed within the interval after the last
+ * started frame is delayed until the interval passes. Later frames committed in the meantime replace the delayed
+ * frame, so all of them are coalesced into one frame of the latest state, and no component rendering is started for
+ * the replaced frames.
  *
  * @author Jingjing Li
  */
@@ -46,8 +53,60 @@ public class AsyncImageRenderer extends ImageRenderer {
     private final Queue<AsyncImageRendererTask> renderTaskQueue = new LinkedList<>();
     private volatile RendererCancelPolicy cancelPolicy = RendererCancelPolicy.CANCEL_BEFORE_EXEC_NEWER;
 
+    /**
+     * The timer to start delayed frames
+     */
+    private static final ScheduledExecutorService FRAME_TIMER = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactory() {
+                public Thread newThread(@Nonnull Runnable r) {
+                    Thread t = new Thread(r, "JPlot2d-frame-timer");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+
+    /**
+     * synchronized area for starting frames
+     */
+    private final Object frameLock = new Object();
+    /**
+     * The min interval between started frames, in nanoseconds. 0 means no limit.
+     */
+    private volatile long minFrameInterval;
+    /**
+     * synchronized by frameLock
+     */
+    private long lastFrameTime;
+    /**
+     * The delayed frame, synchronized by frameLock
+     */
+    private Frame delayedFrame;
+    /**
+     * The uid of cacheable components modified in the replaced frames, synchronized by frameLock
+     */
+    private final Set<ComponentEx> skippedRedraws = new HashSet<>();
+    /**
+     * The number of replaced frames, synchronized by frameLock
+     */
+    private long coalescedCount;
+
+    /**
+     * Create a renderer whose rendering tasks run in the {@link RendererPriority#INTERACTIVE INTERACTIVE} class.
+     *
+     * @param imageFactory the image factory
+     */
     public AsyncImageRenderer(ImageFactory imageFactory) {
-        super(imageFactory);
+        this(imageFactory, RendererPriority.INTERACTIVE);
+    }
+
+    /**
+     * Create a renderer whose rendering tasks run in the given priority class.
+     *
+     * @param imageFactory the image factory
+     * @param priority     the priority class
+     */
+    public AsyncImageRenderer(ImageFactory imageFactory, RendererPriority priority) {
+        super(imageFactory, priority);
     }
 
     @Override
@@ -55,14 +114,61 @@ public class AsyncImageRenderer extends ImageRenderer {
 
         Rectangle bounds = getDeviceBounds(comp);
 
+        synchronized (frameLock) {
+            long interval = minFrameInterval;
+            if (delayedFrame != null) {
+                // replace the delayed frame
+                for (CacheableBlock cb : delayedFrame.cacheBlockList) {
+                    if (cb.getComp().isRedrawNeeded()) {
+                        skippedRedraws.add(cb.getUid());
+                    }
+                }
+                coalescedCount++;
+                delayedFrame = new Frame(fsn++, bounds, new ArrayList<>(cacheBlockList));
+                return;
+            }
+
+            long now = System.nanoTime();
+            long delay = lastFrameTime + interval - now;
+            if (interval > 0 && delay > 0) {
+                // the cache block list is refilled by the environment at the next commit
+                delayedFrame = new Frame(fsn++, bounds, new ArrayList<>(cacheBlockList));
+                FRAME_TIMER.schedule(new Runnable() {
+                    public void run() {
+                        startDelayedFrame();
+                    }
+                }, delay, TimeUnit.NANOSECONDS);
+                return;
+            }
+
+            lastFrameTime = now;
+            startFrame(fsn++, bounds, cacheBlockList);
+        }
+    }
+
+    private void startDelayedFrame() {
+        synchronized (frameLock) {
+            Frame frame = delayedFrame;
+            delayedFrame = null;
+            lastFrameTime = System.nanoTime();
+            startFrame(frame.sn, frame.bounds, frame.cacheBlockList);
+        }
+    }
+
+    /**
+     * Start the rendering of a frame. Synchronized by frameLock.
+     */
+    private void startFrame(long sn, Rectangle bounds, List<CacheableBlock> cacheBlockList) {
         CancelableRendererCallable callable;
         if (cacheBlockList.size() == 1) {
             // If the plot has no cacheable component, run renderer directly
-            callable = new SingleRendererCallable(fsn++, bounds, cacheBlockList.get(0));
+            resetAssembly();
+            callable = new SingleRendererCallable(sn, bounds, cacheBlockList.get(0));
         } else {
             // run cacheable component renderer
-            ImageAssemblyInfo ainfo = runCompRender(executor, cacheBlockList);
-            callable = new RenderAssemblyCallable(fsn++, bounds, ainfo);
+            ImageAssemblyInfo ainfo = runCompRender(executor, cacheBlockList, skippedRedraws);
+            skippedRedraws.clear();
+            callable = new RenderAssemblyCallable(sn, bounds, ainfo);
         }
 
         synchronized (renderLock) {
@@ -89,6 +195,52 @@ public class AsyncImageRenderer extends ImageRenderer {
 
     }
 
+    /**
+     * Returns the min interval between started frames.
+     *
+     * @param unit the time unit of the returned interval
+     * @return the min frame interval, 0 means no limit
+     */
+    public long getMinFrameInterval(TimeUnit unit) {
+        return unit.convert(minFrameInterval, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Sets the min interval between started frames. The frames committed within the interval are coalesced.
+     *
+     * @param interval the min frame interval, 0 means no limit
+     * @param unit     the time unit of the interval
+     */
+    public void setMinFrameInterval(long interval, TimeUnit unit) {
+        if (interval < 0) {
+            throw new IllegalArgumentException("The frame interval must not be negative.");
+        }
+        minFrameInterval = unit.toNanos(interval);
+    }
+
+    /**
+     * Sets the max number of started frames per second. The frames committed faster are coalesced.
+     *
+     * @param fps the target frame rate, 0 means no limit
+     */
+    public void setTargetFrameRate(double fps) {
+        if (fps < 0) {
+            throw new IllegalArgumentException("The frame rate must not be negative.");
+        }
+        minFrameInterval = (fps == 0) ? 0 : (long) (1e9 / fps);
+    }
+
+    /**
+     * Returns the number of frames which are replaced by later frames before they start.
+     *
+     * @return the number of coalesced frames
+     */
+    public long getCoalescedCount() {
+        synchronized (frameLock) {
+            return coalescedCount;
+        }
+    }
+
     public RendererCancelPolicy getRendererCancelPolicy() {
         return cancelPolicy;
     }
@@ -105,6 +257,22 @@ public class AsyncImageRenderer extends ImageRenderer {
         CANCEL_BEFORE_EXEC_NEWER, CANCEL_AFTER_NEWER_DONE, NO_CANCEL
     }
 
+    /**
+     * A frame delayed by the frame interval.
+     */
+    private static class Frame {
+
+        private final long sn;
+        private final Rectangle bounds;
+        private final List<CacheableBlock> cacheBlockList;
+
+        private Frame(long sn, Rectangle bounds, List<CacheableBlock> cacheBlockList) {
+            this.sn = sn;
+            this.bounds = bounds;
+            this.cacheBlockList = cacheBlockList;
+        }
+    }
+
     /**
      * Add ability to cancel component rendering futures.
      */
@@ -123,6 +291,15 @@ public class AsyncImageRenderer extends ImageRenderer {
          */
         public abstract void cancel();
 
+        /**
+         * Returns the region of the result which differs from the previous result. Only valid after called.
+         *
+         * @return the dirty region, or <code>null</code> if the whole result is changed
+         */
+        public Rectangle getDirtyRegion() {
+            return null;
+        }
+
     }
 
     /**
@@ -163,6 +340,11 @@ public class AsyncImageRenderer extends ImageRenderer {
             return assembleResult(sn, bounds, ainfo);
         }
 
+        @Override
+        public Rectangle getDirtyRegion() {
+            return ainfo.getUpdatedRegion();
+        }
+
         public void cancel() {
             for (ComponentEx comp : ainfo.componentSet()) {
                 if (!isFutureCached(comp, ainfo.getFuture(comp))) {
@@ -171,6 +353,7 @@ public class AsyncImageRenderer extends ImageRenderer {
                     // logger.trace("Cancelling cacheable block renderer for R.{} {}", sn, cancelled);
                 }
             }
+            discardAssembly(ainfo);
         }
 
     }
@@ -206,7 +389,7 @@ public class AsyncImageRenderer extends ImageRenderer {
                 logger.warn("Renderer exception, drop R." + getSN(), e);
             }
 
-            fireRenderingFinished(getSN(), result);
+            fireRenderingFinished(getSN(), result, callable.getDirtyRegion());
 
 			/*
              * remove this renderer and all old renderers from the queue, and cancel all old renderers. The cancelling
@@ -23,23 +23,36 @@ import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 
 /**
- * A factory to create buffered images.
+ * A factory to create buffered images. The images are taken from an {@link ImagePool} when possible, and the images
+ * no longer used are returned to the pool.
  *
  * @author Jingjing Li
  */
 public class BufferedImageFactory implements ImageFactory {
 
-    private static final ThreadLocal<BufferedImage> tlImage = new ThreadLocal<>();
+    private final ImagePool pool;
 
     private final int imageType;
 
     private final Color bgColor;
 
     /**
+     * Create a factory which uses the shared image pool.
+     *
      * @param imageType type of the created image
      * @param bgColor   background color
      */
     public BufferedImageFactory(int imageType, Color bgColor) {
+        this(imageType, bgColor, ImagePool.getSharedPool());
+    }
+
+    /**
+     * @param imageType type of the created image
+     * @param bgColor   background color
+     * @param pool      the pool to reuse images
+     */
+    public BufferedImageFactory(int imageType, Color bgColor, ImagePool pool) {
+        this.pool = pool;
         this.imageType = imageType;
         if (bgColor == null) {
             this.bgColor = TRANSPARENT_COLOR;
@@ -49,27 +62,35 @@ public class BufferedImageFactory implements ImageFactory {
     }
 
     public BufferedImage createTransparentImage(int width, int height) {
-        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage image = pool.acquire(width, height, BufferedImage.TYPE_INT_ARGB);
+        if (image == null) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        clear(image, TRANSPARENT_COLOR);
+        return image;
     }
 
     public BufferedImage createImage(int width, int height) {
-        BufferedImage image = tlImage.get();
-        if (image == null || image.getWidth() != width || image.getHeight() != height) {
+        BufferedImage image = pool.acquire(width, height, imageType);
+        if (image == null) {
             image = new BufferedImage(width, height, imageType);
-        } else {
-            tlImage.remove();
         }
+        clear(image, bgColor);
+        return image;
+    }
 
-        Graphics2D g = (Graphics2D) image.getGraphics();
-        g.setBackground(bgColor);
-        g.clearRect(0, 0, width, height);
+    /**
+     * Fill the given image with the given color.
+     */
+    static void clear(BufferedImage image, Color color) {
+        Graphics2D g = image.createGraphics();
+        g.setBackground(color);
+        g.clearRect(0, 0, image.getWidth(), image.getHeight());
         g.dispose();
-
-        return image;
     }
 
     public void cacheImage(BufferedImage image) {
-        tlImage.set(image);
+        pool.release(image);
     }
 
 }
@@ -19,29 +19,46 @@
 package org.jplot2d.renderer;
 
 import java.awt.Color;
-import java.awt.Graphics2D;
 import java.awt.GraphicsConfiguration;
 import java.awt.Transparency;
 import java.awt.image.BufferedImage;
 
 /**
- * A factory to create GraphicsConfiguration compatible images.
+ * A factory to create GraphicsConfiguration compatible images. The images are taken from an {@link ImagePool} when
+ * possible, and the images no longer used are returned to the pool.
  *
  * @author Jingjing Li
  */
 public class GraphicsConfigurationCompatibleImageFactory implements ImageFactory {
 
-    private static final ThreadLocal<BufferedImage> tlImage = new ThreadLocal<>();
+    private final ImagePool pool;
 
     private final GraphicsConfiguration gconf;
 
     private final Color bgColor;
 
     /**
+     * The types of compatible opaque and translucent images, -1 means unknown until the 1st image is created
+     */
+    private volatile int opaqueType = -1, translucentType = -1;
+
+    /**
+     * Create a factory which uses the shared image pool.
+     *
      * @param gconf   a GraphicsConfiguration associated with an AWT Component
      * @param bgColor background color
      */
     public GraphicsConfigurationCompatibleImageFactory(GraphicsConfiguration gconf, Color bgColor) {
+        this(gconf, bgColor, ImagePool.getSharedPool());
+    }
+
+    /**
+     * @param gconf   a GraphicsConfiguration associated with an AWT Component
+     * @param bgColor background color
+     * @param pool    the pool to reuse images
+     */
+    public GraphicsConfigurationCompatibleImageFactory(GraphicsConfiguration gconf, Color bgColor, ImagePool pool) {
+        this.pool = pool;
         this.gconf = gconf;
         if (bgColor == null) {
             this.bgColor = TRANSPARENT_COLOR;
@@ -51,27 +68,38 @@ public class GraphicsConfigurationCompatibleImageFactory implements ImageFactory
     }
 
     public BufferedImage createTransparentImage(int width, int height) {
-        return gconf.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        BufferedImage image = acquire(width, height, translucentType);
+        if (image == null) {
+            image = gconf.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+            translucentType = image.getType();
+            return image;
+        }
+        BufferedImageFactory.clear(image, TRANSPARENT_COLOR);
+        return image;
     }
 
     public BufferedImage createImage(int width, int height) {
-        BufferedImage image = tlImage.get();
-        if (image == null || image.getWidth() != width || image.getHeight() != height) {
+        BufferedImage image = acquire(width, height, opaqueType);
+        if (image == null) {
             image = gconf.createCompatibleImage(width, height);
-        } else {
-            tlImage.remove();
+            opaqueType = image.getType();
         }
-
-        Graphics2D g = (Graphics2D) image.getGraphics();
-        g.setBackground(bgColor);
-        g.clearRect(0, 0, width, height);
-        g.dispose();
-
+        BufferedImageFactory.clear(image, bgColor);
         return image;
     }
 
+    /**
+     * Takes a pooled image, when the compatible image type is known and predefined.
+     */
+    private BufferedImage acquire(int width, int height, int imageType) {
+        if (imageType == -1 || imageType == BufferedImage.TYPE_CUSTOM) {
+            return null;
+        }
+        return pool.acquire(width, height, imageType);
+    }
+
     public void cacheImage(BufferedImage image) {
-        tlImage.set(image);
+        pool.release(image);
     }
 
 }
@@ -26,6 +26,7 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * This class maintains a map to associate components to their bounds and future rendered images.
@@ -47,10 +48,109 @@ public class ImageAssemblyInfo {
 
     private final Map<ComponentEx, InfoItem> map = new LinkedHashMap<>();
 
+    /**
+     * The assembly info of the previous frame, which is released once this assembly info has been assembled
+     */
+    private volatile ImageAssemblyInfo previous;
+
+    /**
+     * The device region which is changed since the previous frame, <code>null</code> means unknown
+     */
+    private Rectangle dirtyRegion;
+
+    /**
+     * The region of the assembled result which differs from the previous result
+     */
+    private volatile Rectangle updatedRegion;
+
+    /**
+     * <code>true</code> once the assembly of this frame is started or discarded
+     */
+    private final AtomicBoolean claimed = new AtomicBoolean();
+
+    /**
+     * <code>true</code> once this frame is discarded, its result will not be delivered
+     */
+    private volatile boolean discarded;
+
     public ImageAssemblyInfo() {
 
     }
 
+    /**
+     * Returns the assembly info of the previous frame.
+     *
+     * @return the previous assembly info, or <code>null</code> if it's unknown or released
+     */
+    ImageAssemblyInfo getPrevious() {
+        return previous;
+    }
+
+    /**
+     * Returns the device region which is changed since the previous frame. An empty region means nothing changed.
+     *
+     * @return the dirty region, or <code>null</code> if the whole frame must be assembled
+     */
+    Rectangle getDirtyRegion() {
+        return dirtyRegion;
+    }
+
+    /**
+     * Sets the previous frame and the device region changed since the previous frame.
+     *
+     * @param previous    the assembly info of the previous frame
+     * @param dirtyRegion the dirty region, or <code>null</code> if the whole frame must be assembled
+     */
+    void setDirtyRegion(ImageAssemblyInfo previous, Rectangle dirtyRegion) {
+        this.previous = previous;
+        this.dirtyRegion = dirtyRegion;
+    }
+
+    /**
+     * Returns the region of the assembled result which differs from the previous result, in result image pixels.
+     *
+     * @return the updated region, or <code>null</code> if the whole result is updated
+     */
+    Rectangle getUpdatedRegion() {
+        return updatedRegion;
+    }
+
+    void setUpdatedRegion(Rectangle updatedRegion) {
+        this.updatedRegion = updatedRegion;
+    }
+
+    /**
+     * Claims the assembly of this frame, before it's started or discarded.
+     *
+     * @return <code>true</code> for the 1st call, <code>false</code> for later calls
+     */
+    boolean claim() {
+        return claimed.compareAndSet(false, true);
+    }
+
+    /**
+     * Marks this frame as discarded, its result will not be delivered.
+     */
+    void discard() {
+        discarded = true;
+    }
+
+    /**
+     * Returns <code>true</code> if this frame has been discarded.
+     *
+     * @return <code>true</code> if this frame has been discarded
+     */
+    boolean isDiscarded() {
+        return discarded;
+    }
+
+    /**
+     * Release the previous frame, after this frame has been assembled.
+     */
+    void releasePrevious() {
+        previous = null;
+    }
+
     /**
      * Test if this AssemblyInfo contains the given component.
      *
@@ -29,6 +29,8 @@ public class ImageExporter extends ImageRenderer {
 
     private BufferedImage image;
 
+    private volatile boolean recycleImage;
+
     public ImageExporter(int imageType, Color bgColor) {
         this(new BufferedImageFactory(imageType, bgColor));
     }
@@ -38,12 +40,48 @@ public class ImageExporter extends ImageRenderer {
     }
 
     @Override
-    protected void fireRenderingFinished(long fsn, BufferedImage img) {
+    protected void fireRenderingFinished(long fsn, BufferedImage img, Rectangle dirtyRegion) {
         this.image = img;
     }
 
+    /**
+     * Returns the exported image.
+     *
+     * @return the image, or <code>null</code> if the image has been recycled
+     * @see #setRecycleImage(boolean)
+     */
     public BufferedImage getImage() {
         return image;
     }
 
+    /**
+     * Returns <code>true</code> if the exported image is returned to the image factory once it has been written out.
+     *
+     * @return <code>true</code> if the exported image is recycled
+     */
+    public boolean isRecycleImage() {
+        return recycleImage;
+    }
+
+    /**
+     * Sets whether the exported image is returned to the image factory once it has been written out, such as by
+     * {@link PngFileExporter} or {@link PngStreamExporter}. The recycled image is reused by later rendering, so
+     * {@link #getImage()} returns <code>null</code> after it's recycled. The default is <code>false</code>.
+     *
+     * @param recycle <code>true</code> to recycle the exported image
+     */
+    public void setRecycleImage(boolean recycle) {
+        this.recycleImage = recycle;
+    }
+
+    /**
+     * Return the exported image to the image factory if image recycling is enabled. It's called by subclasses once the
+     * image has been written out.
+     */
+    protected void recycleImage() {
+        if (recycleImage && recycleResult(image)) {
+            image = null;
+        }
+    }
+
 }
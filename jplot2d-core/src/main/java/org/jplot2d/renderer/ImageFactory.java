@@ -40,7 +40,7 @@ public interface ImageFactory {
     BufferedImage createImage(int width, int height);
 
     /**
-     * Put the given buffered image into local cache for next usage.
+     * Return the given buffered image for next usage. The image must not be referenced by the caller any more.
      *
      * @param image the image to be reused
      */
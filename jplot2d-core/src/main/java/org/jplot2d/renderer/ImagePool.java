@@ -0,0 +1,272 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.renderer;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * A thread-safe pool of buffered images, to reuse the large pixel arrays of renderer buffers. The images are bucketed
+ * by width, height and image type, and the total bytes of pooled images are bounded. When the total bytes exceed the
+ * max bytes, the images of the least recently used buckets are dropped.
+ * <p>
+ * Only images of a predefined type are pooled, because images of {@link BufferedImage#TYPE_CUSTOM} are not
+ * interchangeable. The content of an acquired image is undefined, the caller must clear it.
+ *
+ * @author Jingjing Li
+ */
+public class ImagePool {
+
+    /**
+     * The pool shared by image factories. The default size is 64MB or 1/16 of the max heap.
+     */
+    private static final ImagePool sharedPool = new ImagePool(Math.min(64L << 20,
+            Runtime.getRuntime().maxMemory() / 16));
+
+    /**
+     * The buckets in access order
+     */
+    private final LinkedHashMap<Key, ArrayDeque<BufferedImage>> map = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long maxBytes;
+
+    private long bytes;
+
+    private int count;
+
+    private long hitCount, missCount, evictionCount;
+
+    /**
+     * Create a pool.
+     *
+     * @param maxBytes the max total bytes of pooled images
+     */
+    public ImagePool(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("The max bytes must not be negative.");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the pool shared by image factories.
+     *
+     * @return the shared pool
+     */
+    public static ImagePool getSharedPool() {
+        return sharedPool;
+    }
+
+    /**
+     * Returns the bytes of pixel data of the given image.
+     *
+     * @param image the image
+     * @return the bytes
+     */
+    public static long sizeOf(BufferedImage image) {
+        DataBuffer db = image.getRaster().getDataBuffer();
+        return (long) db.getSize() * db.getNumBanks() * DataBuffer.getDataTypeSize(db.getDataType()) / 8;
+    }
+
+    /**
+     * Takes a pooled image of the given size and type. The content of the returned image is undefined.
+     *
+     * @param width     the image width
+     * @param height    the image height
+     * @param imageType the image type
+     * @return the pooled image, or <code>null</code> if no such image is pooled
+     */
+    public synchronized BufferedImage acquire(int width, int height, int imageType) {
+        Key key = new Key(width, height, imageType);
+        ArrayDeque<BufferedImage> bucket = map.get(key);
+        if (bucket == null) {
+            missCount++;
+            return null;
+        }
+        // the most recently released image
+        BufferedImage image = bucket.pollLast();
+        if (bucket.isEmpty()) {
+            map.remove(key);
+        }
+        bytes -= sizeOf(image);
+        count--;
+        hitCount++;
+        return image;
+    }
+
+    /**
+     * Puts the given image into this pool. The image must not be referenced by the caller any more. An image of
+     * {@link BufferedImage#TYPE_CUSTOM}, or larger than the max bytes, is not pooled.
+     *
+     * @param image the image to be reused
+     */
+    public synchronized void release(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_CUSTOM) {
+            return;
+        }
+        long weight = sizeOf(image);
+        if (weight > maxBytes) {
+            return;
+        }
+
+        Key key = new Key(image.getWidth(), image.getHeight(), image.getType());
+        ArrayDeque<BufferedImage> bucket = map.get(key);
+        if (bucket == null) {
+            bucket = new ArrayDeque<>();
+            map.put(key, bucket);
+        } else if (bucket.contains(image)) {
+            // released twice
+            return;
+        }
+        bucket.offerLast(image);
+        bytes += weight;
+        count++;
+        evict();
+    }
+
+    /**
+     * Drop the images of the least recently used buckets until the total bytes are not larger than the max bytes.
+     */
+    private void evict() {
+        Iterator<ArrayDeque<BufferedImage>> it = map.values().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            ArrayDeque<BufferedImage> bucket = it.next();
+            while (bytes > maxBytes && !bucket.isEmpty()) {
+                bytes -= sizeOf(bucket.pollFirst());
+                count--;
+                evictionCount++;
+            }
+            if (bucket.isEmpty()) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the max total bytes of pooled images.
+     *
+     * @return the max bytes
+     */
+    public synchronized long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Sets the max total bytes of pooled images. Images are dropped if the total bytes exceed the new max bytes.
+     *
+     * @param maxBytes the max bytes
+     */
+    public synchronized void setMaxBytes(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("The max bytes must not be negative.");
+        }
+        this.maxBytes = maxBytes;
+        evict();
+    }
+
+    /**
+     * Returns the total bytes of pooled images.
+     *
+     * @return the total bytes
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the number of pooled images.
+     *
+     * @return the number of pooled images
+     */
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the number of acquisitions which find a pooled image.
+     *
+     * @return the hit count
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of acquisitions which find no pooled image.
+     *
+     * @return the miss count
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of images dropped to keep the total bytes under the max bytes.
+     *
+     * @return the eviction count
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Drop all pooled images.
+     */
+    public synchronized void clear() {
+        map.clear();
+        bytes = 0;
+        count = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder("ImagePool[");
+        sb.append("count=").append(count).append(", bytes=").append(bytes).append(", maxBytes=").append(maxBytes);
+        sb.append(", hit=").append(hitCount).append(", miss=").append(missCount).append(", eviction=")
+                .append(evictionCount).append(']');
+        return sb.toString();
+    }
+
+    private static class Key {
+
+        private final int width, height, imageType;
+
+        private Key(int width, int height, int imageType) {
+            this.width = width;
+            this.height = height;
+            this.imageType = imageType;
+        }
+
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) obj;
+            return key.width == width && key.height == height && key.imageType == imageType;
+        }
+
+        public int hashCode() {
+            return (width * 31 + height) * 31 + imageType;
+        }
+    }
+
+}
@@ -18,15 +18,17 @@ package org.jplot2d.renderer;
 
 import org.jplot2d.element.impl.ComponentEx;
 import org.jplot2d.env.CacheableBlock;
+import org.jplot2d.util.GraphicsUtil;
 
-import javax.annotation.Nonnull;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Since Graphics can draw image, It's possible to render all cacheable component individually, then assemble them together.
@@ -43,22 +45,13 @@ import java.util.concurrent.atomic.AtomicInteger;
  * <li>all cacheable components and their uid in assembly order</li>
  * <li>all uid of unmodified cacheable components</li>
  * </ol>
+ * Unless an executor is given, the component rendering tasks run in the default {@link RendererScheduler}, in the
+ * priority class of the renderer.
  *
  * @author Jingjing Li
  */
 public abstract class ImageRenderer extends Renderer {
 
-    private static final int cores = Runtime.getRuntime().availableProcessors();
-    /**
-     * Component renderer execute service
-     */
-    protected static final Executor COMPONENT_RENDERING_POOL_EXECUTOR = new ThreadPoolExecutor(1, cores, 0L,
-            TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), new RendererThreadFactory());
-
-    static {
-        logger.info("Max Renderer Threads: " + cores);
-    }
-
     /**
      * The Executor to run component rendering tasks.
      */
@@ -72,14 +65,48 @@ public abstract class ImageRenderer extends Renderer {
      * a renderer result later.
      */
     private ImageAssemblyInfo compCachedFutureMap = new ImageAssemblyInfo();
+    /**
+     * <code>true</code> if a result has been rendered without assembly, so the next assembly must be whole.
+     * Only accessed by the rendering thread.
+     */
+    private boolean assemblyReset;
+    /**
+     * synchronized area for the retained result
+     */
+    private final Object assemblyLock = new Object();
+    /**
+     * The latest assembled result. A later frame copies the unchanged region from it. Synchronized by assemblyLock.
+     */
+    private BufferedImage retainedResult;
+    private Rectangle retainedBounds;
+    private ImageAssemblyInfo retainedInfo;
+    /**
+     * The number of references to component rendering futures, by the cached map and by the frames waiting for
+     * assembly. When a future is not referenced any more, its image is returned to the image factory.
+     * Synchronized by itself.
+     */
+    private final Map<Future<BufferedImage>, Integer> futureRefs = new IdentityHashMap<>();
 
     /**
-     * Create a Renderer with the given image factory.
+     * Create a Renderer with the given image factory. The rendering tasks run in the default scheduler, in the
+     * {@link RendererPriority#EXPORT EXPORT} class.
      *
      * @param imageFactory the image factory
      */
     protected ImageRenderer(ImageFactory imageFactory) {
-        this(imageFactory, COMPONENT_RENDERING_POOL_EXECUTOR);
+        this(imageFactory, RendererPriority.EXPORT);
+    }
+
+    /**
+     * Create a Renderer with the given image factory. The rendering tasks run in the default scheduler, in the given
+     * priority class.
+     *
+     * @param imageFactory the image factory
+     * @param priority     the priority class
+     */
+    protected ImageRenderer(ImageFactory imageFactory, RendererPriority priority) {
+        this.imageFactory = imageFactory;
+        this.executor = RendererScheduler.getDefault().getExecutor(priority, this);
     }
 
     public ImageRenderer(ImageFactory imageFactory, Executor executor) {
@@ -92,18 +119,29 @@ public abstract class ImageRenderer extends Renderer {
         Rectangle bounds = getDeviceBounds(comp);
 
         BufferedImage result;
+        Rectangle dirtyRegion = null;
         if (cacheBlockList.size() == 0) {
             result = null;
         } else if (cacheBlockList.size() == 1) {
             // If the plot has no cacheable component, run renderer directly
+            resetAssembly();
             result = renderCacheableBlock(bounds, cacheBlockList.get(0));
         } else {
             ImageAssemblyInfo ainfo;
             ainfo = runCompRender(executor, cacheBlockList);
             result = assembleResult(fsn, bounds, ainfo);
+            dirtyRegion = ainfo.getUpdatedRegion();
         }
 
-        fireRenderingFinished(fsn++, result);
+        fireRenderingFinished(fsn++, result, dirtyRegion);
+    }
+
+    /**
+     * Called when a result is rendered without assembly. The next assembled result will not be compared with the
+     * retained result, and its dirty region will be the whole result. This method must be called from a render.
+     */
+    protected final void resetAssembly() {
+        assemblyReset = true;
     }
 
     /**
@@ -113,6 +151,18 @@ public abstract class ImageRenderer extends Renderer {
      * @param img the generated BufferedImage
      */
     protected void fireRenderingFinished(long sn, BufferedImage img) {
+        fireRenderingFinished(sn, img, null);
+    }
+
+    /**
+     * Called when a BufferedImage has been generated by this renderer.
+     *
+     * @param sn          the result sn
+     * @param img         the generated BufferedImage
+     * @param dirtyRegion the region which differs from the previous result, or <code>null</code> if the whole image
+     *                    is changed
+     */
+    protected void fireRenderingFinished(long sn, BufferedImage img, Rectangle dirtyRegion) {
         if (img == null) {
             return;
         }
@@ -123,7 +173,7 @@ public abstract class ImageRenderer extends Renderer {
         }
         for (RenderingFinishedListener lsnr : ls) {
             try {
-                lsnr.renderingFinished(new RenderingFinishedEvent(sn, img));
+                lsnr.renderingFinished(new RenderingFinishedEvent(sn, img, dirtyRegion));
             } catch (Exception e) {
                 logger.warn("RenderingFinishedListener Error", e);
             }
@@ -131,6 +181,29 @@ public abstract class ImageRenderer extends Renderer {
 
     }
 
+    /**
+     * Return the given result to the image factory, once it has been consumed by this renderer, such as written to a
+     * file. Nothing is done if a RenderingFinishedListener is registered, because the listener may keep the result.
+     *
+     * @param img the result
+     * @return <code>true</code> if the result is returned to the image factory
+     */
+    protected final boolean recycleResult(BufferedImage img) {
+        if (img == null || !renderingFinishedListenerList.isEmpty()) {
+            return false;
+        }
+        synchronized (assemblyLock) {
+            if (retainedResult == img) {
+                // the next frame is assembled as a whole
+                retainedResult = null;
+                retainedBounds = null;
+                retainedInfo = null;
+            }
+        }
+        imageFactory.cacheImage(img);
+        return true;
+    }
+
     public void addRenderingFinishedListener(RenderingFinishedListener listener) {
         renderingFinishedListenerList.add(listener);
     }
@@ -161,6 +234,7 @@ public abstract class ImageRenderer extends Renderer {
         g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
         g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
         g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+        g.setRenderingHint(GraphicsUtil.KEY_RASTER_TARGET, Boolean.TRUE);
 
         for (ComponentEx comp : cb.getSubcomps()) {
             if (Thread.interrupted()) {
@@ -178,13 +252,35 @@ public abstract class ImageRenderer extends Renderer {
 
     /**
      * Execute component renderer on every modified cacheable component. This method must be called from a render.
+     * <p>
+     * The returned assembly info records the device region changed since the previous frame, which is the old and new
+     * bounds of re-rendered, added and removed blocks. If unchanged blocks are in a new z-order, the whole frame is
+     * changed.
      *
      * @param executor       a executor to render cacheable blocks
      * @param cacheBlockList cacheable blocks to be rendered in executor
      * @return assembly info
      */
     protected final ImageAssemblyInfo runCompRender(Executor executor, List<CacheableBlock> cacheBlockList) {
+        return runCompRender(executor, cacheBlockList, Collections.<ComponentEx>emptySet());
+    }
+
+    /**
+     * Execute component renderer on every modified cacheable component, and the cacheable components in the given
+     * set. A renderer which skips frames must give the components modified in the skipped frames, because their
+     * cached futures are out of date. This method must be called from a render.
+     *
+     * @param executor       a executor to render cacheable blocks
+     * @param cacheBlockList cacheable blocks to be rendered in executor
+     * @param redrawNeeded   the uid of cacheable components which must be rendered
+     * @return assembly info
+     */
+    protected final ImageAssemblyInfo runCompRender(Executor executor, List<CacheableBlock> cacheBlockList,
+                                                    Set<ComponentEx> redrawNeeded) {
+        ImageAssemblyInfo previous = compCachedFutureMap;
         ImageAssemblyInfo ainfo = new ImageAssemblyInfo();
+        Rectangle dirty = new Rectangle();
+        List<ComponentEx> reused = new ArrayList<>();
 
         for (CacheableBlock cb : cacheBlockList) {
             ComponentEx comp = cb.getUid();
@@ -193,8 +289,9 @@ public abstract class ImageRenderer extends Renderer {
 			/*
              * the component may be set to cacheable, while stay unmodified
 			 */
-            if (!ccopy.isRedrawNeeded() && compCachedFutureMap.contains(comp)) {
+            if (!ccopy.isRedrawNeeded() && !redrawNeeded.contains(comp) && compCachedFutureMap.contains(comp)) {
                 ainfo.put(comp, compCachedFutureMap.getBounds(comp), compCachedFutureMap.getFuture(comp));
+                reused.add(comp);
             } else {
                 // create a new Component Render task
                 Rectangle bounds = getDeviceBounds(ccopy);
@@ -203,13 +300,126 @@ public abstract class ImageRenderer extends Renderer {
 
                 executor.execute(crtask);
                 ainfo.put(comp, bounds, crtask);
+                dirty = union(dirty, bounds);
+                if (previous.contains(comp)) {
+                    dirty = union(dirty, previous.getBounds(comp));
+                }
+            }
+        }
+
+        List<ComponentEx> previousOrder = new ArrayList<>();
+        for (ComponentEx comp : previous.componentSet()) {
+            if (!ainfo.contains(comp)) {
+                dirty = union(dirty, previous.getBounds(comp));
+            } else if (reused.contains(comp)) {
+                previousOrder.add(comp);
             }
         }
+        if (assemblyReset || !previousOrder.equals(reused)) {
+            dirty = null;
+        }
+        assemblyReset = false;
+
+        // the previous frame is not assembled yet, so this frame is assembled from the same base
+        ImageAssemblyInfo base = previous.getPrevious();
+        if (base != null) {
+            Rectangle pdirty = previous.getDirtyRegion();
+            dirty = (pdirty == null || dirty == null) ? null : union(pdirty, dirty);
+            ainfo.setDirtyRegion(base, dirty);
+        } else {
+            ainfo.setDirtyRegion(previous, dirty);
+        }
+
+        // referenced by the cached map and by the assembly of this frame
+        for (ComponentEx comp : ainfo.componentSet()) {
+            retainFuture(ainfo.getFuture(comp));
+            retainFuture(ainfo.getFuture(comp));
+        }
+        for (ComponentEx comp : previous.componentSet()) {
+            releaseFuture(previous.getFuture(comp));
+        }
 
         compCachedFutureMap = ainfo;
         return ainfo;
     }
 
+    private void retainFuture(Future<BufferedImage> future) {
+        synchronized (futureRefs) {
+            Integer n = futureRefs.get(future);
+            futureRefs.put(future, (n == null) ? 1 : n + 1);
+        }
+    }
+
+    /**
+     * Decrease the references to the given future. If it's not referenced any more, its image is returned to the image
+     * factory.
+     */
+    private void releaseFuture(Future<BufferedImage> future) {
+        synchronized (futureRefs) {
+            int n = futureRefs.get(future) - 1;
+            if (n > 0) {
+                futureRefs.put(future, n);
+                return;
+            }
+            futureRefs.remove(future);
+        }
+
+        // a future still running is dropped
+        if (future.isDone() && !future.isCancelled()) {
+            //noinspection TryWithIdenticalCatches
+            try {
+                BufferedImage image = future.get();
+                if (image != null) {
+                    imageFactory.cacheImage(image);
+                }
+            } catch (InterruptedException e) {
+                // should not happen, the future is done
+            } catch (ExecutionException e) {
+                // no image
+            }
+        }
+    }
+
+    /**
+     * Discard the given frame, because its result will not be delivered. If the frame has not been assembled, the
+     * component images which are not referenced by other frames are returned to the image factory. If the frame has
+     * been assembled, or is being assembled, its result is not retained, so the next result is assembled as a whole.
+     *
+     * @param ainfo the AssemblyInfo
+     */
+    protected final void discardAssembly(ImageAssemblyInfo ainfo) {
+        synchronized (assemblyLock) {
+            ainfo.discard();
+            if (retainedInfo == ainfo) {
+                retainedResult = null;
+                retainedBounds = null;
+                retainedInfo = null;
+            }
+        }
+        if (ainfo.claim()) {
+            releaseAssembly(ainfo);
+        }
+    }
+
+    private void releaseAssembly(ImageAssemblyInfo ainfo) {
+        for (ComponentEx comp : ainfo.componentSet()) {
+            releaseFuture(ainfo.getFuture(comp));
+        }
+    }
+
+    /**
+     * Returns the union of the given rectangles. An empty rectangle contributes nothing.
+     */
+    private static Rectangle union(Rectangle r0, Rectangle r1) {
+        if (r1.isEmpty()) {
+            return r0;
+        } else if (r0.isEmpty()) {
+            return new Rectangle(r1);
+        } else {
+            return r0.union(r1);
+        }
+    }
+
     /**
      * Returns <code>true</code> if the future for given component is cached for using later.
      *
@@ -223,6 +433,15 @@ public abstract class ImageRenderer extends Renderer {
 
     /**
      * Assemble the rendered components given in the AssemblyInfo into a result.
+     * <p>
+     * If the retained result has the same bounds, and the dirty regions of the frames since the retained result are
+     * known, only the dirty region is assembled, and the rest is copied from the retained result. The retained result
+     * is never modified, because it may be still displayed. The region which differs from the retained result is set
+     * to the updated region of the given AssemblyInfo.
+     * <p>
+     * Once assembled, the component images which are not referenced by other frames are returned to the image
+     * factory. If the given AssemblyInfo has been discarded, this method returns <code>null</code>. If it's discarded
+     * after this method returns, the result is no longer retained.
      *
      * @param sn     the result sn
      * @param bounds the result size
@@ -230,52 +449,115 @@ public abstract class ImageRenderer extends Renderer {
      * @return the assembled result
      */
     protected BufferedImage assembleResult(long sn, Rectangle bounds, ImageAssemblyInfo ainfo) {
-        BufferedImage image = imageFactory.createImage(bounds.width, bounds.height);
-        Graphics2D g = (Graphics2D) image.getGraphics();
-        g.translate(-bounds.x, -bounds.y);
+        if (!ainfo.claim()) {
+            return null;
+        }
+        try {
+            return assemble(sn, bounds, ainfo);
+        } finally {
+            releaseAssembly(ainfo);
+        }
+    }
+
+    private BufferedImage assemble(long sn, Rectangle bounds, ImageAssemblyInfo ainfo) {
+        List<BufferedImage> images = new ArrayList<>();
 
         //noinspection TryWithIdenticalCatches
         try {
             for (ComponentEx c : ainfo.componentSet()) {
-                Rectangle cbounds = ainfo.getBounds(c);
-                BufferedImage bi = ainfo.getFuture(c).get();
-                g.drawImage(bi, cbounds.x, cbounds.y, null);
+                images.add(ainfo.getFuture(c).get());
             }
-            g.dispose();
-            return image;
         } catch (CancellationException e) {
             // logger.trace("Renderer cancelled, drop R.{}", sn);
+            return null;
         } catch (InterruptedException e) {
             // logger.log(Level.WARNING, "Renderer interrupted, drop R." + sn, e);
+            return null;
         } catch (ExecutionException e) {
             logger.warn("Renderer exception, drop R." + sn, e);
+            return null;
         }
 
-        imageFactory.cacheImage(image);
-        return null;
+        synchronized (assemblyLock) {
+            if (ainfo.isDiscarded()) {
+                return null;
+            }
+            Rectangle dirty = getDirtyRegion(bounds, ainfo);
+            if (dirty != null && dirty.isEmpty()) {
+                // nothing changed
+                ainfo.setUpdatedRegion(new Rectangle());
+                retainedInfo = ainfo;
+                ainfo.releasePrevious();
+                return retainedResult;
+            }
+
+            BufferedImage image = imageFactory.createImage(bounds.width, bounds.height);
+            Graphics2D g = image.createGraphics();
+            if (dirty != null) {
+                // the updated region in image pixels
+                dirty.translate(-bounds.x, -bounds.y);
+                copyRetainedResult(g, bounds.width, bounds.height, dirty);
+                g.clip(dirty);
+            }
+            g.translate(-bounds.x, -bounds.y);
+
+            int i = 0;
+            for (ComponentEx c : ainfo.componentSet()) {
+                Rectangle cbounds = ainfo.getBounds(c);
+                BufferedImage bi = images.get(i++);
+                if (dirty == null || g.hitClip(cbounds.x, cbounds.y, cbounds.width, cbounds.height)) {
+                    g.drawImage(bi, cbounds.x, cbounds.y, null);
+                }
+            }
+            g.dispose();
+
+            retainedResult = image;
+            retainedBounds = new Rectangle(bounds);
+            retainedInfo = ainfo;
+            ainfo.setUpdatedRegion(dirty);
+            ainfo.releasePrevious();
+            return image;
+        }
     }
 
     /**
-     * The renderer thread factory to create daemon thread
+     * Returns the device region changed since the retained result, by walking back the frames to the retained one.
+     *
+     * @return the dirty region, or <code>null</code> if the whole result must be assembled
      */
-    private static class RendererThreadFactory implements ThreadFactory {
-        final ThreadGroup group;
-        final AtomicInteger threadNumber = new AtomicInteger(1);
-
-        RendererThreadFactory() {
-            SecurityManager s = System.getSecurityManager();
-            group = (s != null) ? s.getThreadGroup() : Thread.currentThread().getThreadGroup();
+    private Rectangle getDirtyRegion(Rectangle bounds, ImageAssemblyInfo ainfo) {
+        if (retainedResult == null || !bounds.equals(retainedBounds)) {
+            return null;
         }
-
-        public Thread newThread(@Nonnull Runnable r) {
-            Thread t = new Thread(group, r, "JPlot2d-renderer-" + threadNumber.getAndIncrement(), 0);
-            if (!t.isDaemon()) {
-                t.setDaemon(true);
-            }
-            if (t.getPriority() != Thread.NORM_PRIORITY) {
-                t.setPriority(Thread.NORM_PRIORITY);
+        Rectangle dirty = new Rectangle();
+        for (ImageAssemblyInfo info = ainfo; info != retainedInfo; info = info.getPrevious()) {
+            if (info == null || info.getDirtyRegion() == null) {
+                return null;
             }
-            return t;
+            dirty = union(dirty, info.getDirtyRegion());
+        }
+        dirty = dirty.intersection(bounds);
+        return dirty.isEmpty() ? new Rectangle() : dirty;
+    }
+
+    /**
+     * Copy the retained result, except the given dirty region, by up to 4 strips around it.
+     */
+    private void copyRetainedResult(Graphics2D g, int width, int height, Rectangle dirty) {
+        Composite composite = g.getComposite();
+        g.setComposite(AlphaComposite.Src);
+        int x1 = dirty.x + dirty.width;
+        int y1 = dirty.y + dirty.height;
+        copyStrip(g, 0, 0, width, dirty.y);
+        copyStrip(g, 0, y1, width, height);
+        copyStrip(g, 0, dirty.y, dirty.x, y1);
+        copyStrip(g, x1, dirty.y, width, y1);
+        g.setComposite(composite);
+    }
+
+    private void copyStrip(Graphics2D g, int x0, int y0, int x1, int y1) {
+        if (x0 < x1 && y0 < y1) {
+            g.drawImage(retainedResult, x0, y0, x1, y1, x0, y0, x1, y1, null);
         }
     }
 
@@ -310,10 +592,12 @@ public abstract class ImageRenderer extends Renderer {
             g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
             g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
             g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+            g.setRenderingHint(GraphicsUtil.KEY_RASTER_TARGET, Boolean.TRUE);
 
             for (ComponentEx comp : cacheableBlock.getSubcomps()) {
                 if (Thread.interrupted()) {
                     g.dispose();
+                    imageFactory.cacheImage(image);
                     return null;
                 }
                 comp.draw(g);
@@ -19,6 +19,7 @@
 package org.jplot2d.renderer;
 
 import java.awt.Color;
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
@@ -51,13 +52,14 @@ public class PngFileExporter extends ImageExporter {
     }
 
     @Override
-    protected void fireRenderingFinished(long sn, BufferedImage img) {
-        super.fireRenderingFinished(sn, img);
+    protected void fireRenderingFinished(long sn, BufferedImage img, Rectangle dirtyRegion) {
+        super.fireRenderingFinished(sn, img, dirtyRegion);
         try {
             ImageIO.write(img, "PNG", file);
         } catch (IOException e) {
             throw new RuntimeException("Png file I/O exception", e);
         }
+        recycleImage();
     }
 
 }
@@ -19,6 +19,7 @@
 package org.jplot2d.renderer;
 
 import java.awt.Color;
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -46,13 +47,15 @@ public class PngStreamExporter extends ImageExporter {
         this.out = out;
     }
 
-    protected void fireRenderingFinished(int sn, BufferedImage img) {
-        super.fireRenderingFinished(sn, img);
+    @Override
+    protected void fireRenderingFinished(long sn, BufferedImage img, Rectangle dirtyRegion) {
+        super.fireRenderingFinished(sn, img, dirtyRegion);
         try {
             ImageIO.write(img, "PNG", out);
         } catch (IOException e) {
             throw new RuntimeException("Png out I/O exception", e);
         }
+        recycleImage();
     }
 
 }
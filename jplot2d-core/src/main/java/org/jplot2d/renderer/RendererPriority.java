@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.renderer;
+
+/**
+ * The priority classes of rendering tasks. A {@link RendererScheduler} always runs the tasks of a higher class first.
+ *
+ * @author Jingjing Li
+ */
+public enum RendererPriority {
+
+    /**
+     * The frames displayed on screen, which a user is waiting for
+     */
+    INTERACTIVE,
+    /**
+     * The frames which are not displayed yet, such as pre-rendering
+     */
+    BACKGROUND,
+    /**
+     * The exports to images or files
+     */
+    EXPORT
+
+}
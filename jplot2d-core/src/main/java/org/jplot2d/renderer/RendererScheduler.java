@@ -0,0 +1,372 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.renderer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Schedules rendering tasks to a fixed number of daemon threads, by priority classes. The tasks of a higher
+ * {@link RendererPriority} always run first. In a priority class, the tasks are queued by owners, usually renderers,
+ * and the owners take turns, so a renderer with many queued tasks does not delay the tasks of other renderers. The
+ * tasks of an owner run in submitting order.
+ * <p>
+ * The number of queued tasks of every priority class is bounded. When the queue of a class is full, the submitting
+ * thread waits until a task of the class is taken, unless the submitting thread is a thread of this scheduler, in which
+ * case the task runs in the submitting thread.
+ * <p>
+ * The latency of a task is the time from submitting to finishing. The latency of the recent tasks of every class are
+ * kept to report percentiles.
+ *
+ * @author Jingjing Li
+ */
+public class RendererScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger("org.jplot2d.renderer");
+
+    /**
+     * The default max number of queued tasks of a priority class
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * The number of recent latency samples of a priority class
+     */
+    private static final int LATENCY_SAMPLES = 1024;
+
+    private static final RendererScheduler defaultScheduler = new RendererScheduler(
+            Runtime.getRuntime().availableProcessors(), DEFAULT_CAPACITY);
+
+    private final Object lock = new Object();
+
+    private final int parallelism;
+
+    private final int capacity;
+
+    /**
+     * The queues of priority classes. Synchronized by lock.
+     */
+    private final ClassQueue[] queues = new ClassQueue[RendererPriority.values().length];
+
+    /**
+     * The number of started threads and idle threads. Synchronized by lock.
+     */
+    private int threadCount, idleCount;
+
+    private int threadNumber = 1;
+
+    /**
+     * Create a scheduler.
+     *
+     * @param parallelism the number of threads
+     * @param capacity    the max number of queued tasks of a priority class
+     */
+    public RendererScheduler(int parallelism, int capacity) {
+        if (parallelism < 1 || capacity < 1) {
+            throw new IllegalArgumentException("The parallelism and capacity must be positive.");
+        }
+        this.parallelism = parallelism;
+        this.capacity = capacity;
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = new ClassQueue();
+        }
+    }
+
+    /**
+     * Returns the scheduler shared by renderers.
+     *
+     * @return the default scheduler
+     */
+    public static RendererScheduler getDefault() {
+        return defaultScheduler;
+    }
+
+    /**
+     * Returns the number of threads.
+     *
+     * @return the parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Returns the max number of queued tasks of a priority class.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns an executor which submits tasks to this scheduler in the given priority class, on behalf of the given
+     * owner.
+     *
+     * @param priority the priority class
+     * @param owner    the owner to share the class fairly with other owners
+     * @return an executor
+     */
+    public Executor getExecutor(final RendererPriority priority, final Object owner) {
+        return new Executor() {
+            public void execute(@Nonnull Runnable command) {
+                RendererScheduler.this.execute(priority, owner, command);
+            }
+        };
+    }
+
+    /**
+     * Submits a task in the given priority class, on behalf of the given owner. If the queue of the priority class is
+     * full, this method waits until a task of the class is taken.
+     *
+     * @param priority the priority class
+     * @param owner    the owner to share the class fairly with other owners
+     * @param task     the task
+     * @throws RejectedExecutionException if the calling thread is interrupted while waiting
+     */
+    public void execute(RendererPriority priority, Object owner, Runnable task) {
+        Entry entry = new Entry(priority, task, System.nanoTime());
+        ClassQueue queue = queues[priority.ordinal()];
+        synchronized (lock) {
+            while (queue.size >= capacity) {
+                if (Thread.currentThread() instanceof Worker && ((Worker) Thread.currentThread()).scheduler == this) {
+                    // waiting in a worker may starve the queue
+                    entry = null;
+                    break;
+                }
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RejectedExecutionException("Interrupted while waiting for the " + priority + " queue.");
+                }
+            }
+            if (entry != null) {
+                queue.offer(owner, entry);
+                if (idleCount > 0) {
+                    lock.notifyAll();
+                } else if (threadCount < parallelism) {
+                    threadCount++;
+                    new Worker(threadNumber++).start();
+                }
+                return;
+            }
+        }
+
+        // the queue is full
+        long start = System.nanoTime();
+        task.run();
+        queue.recordLatency(System.nanoTime() - start);
+    }
+
+    /**
+     * Takes the next task, from the highest non-empty priority class. Wait if no task is queued.
+     */
+    private Entry take() throws InterruptedException {
+        synchronized (lock) {
+            while (true) {
+                for (ClassQueue queue : queues) {
+                    if (queue.size > 0) {
+                        Entry entry = queue.poll();
+                        // wake up the submitters waiting for the queue
+                        lock.notifyAll();
+                        return entry;
+                    }
+                }
+                idleCount++;
+                try {
+                    lock.wait();
+                } finally {
+                    idleCount--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of queued tasks of the given priority class.
+     *
+     * @param priority the priority class
+     * @return the number of queued tasks
+     */
+    public int getQueuedCount(RendererPriority priority) {
+        synchronized (lock) {
+            return queues[priority.ordinal()].size;
+        }
+    }
+
+    /**
+     * Returns the number of finished tasks of the given priority class.
+     *
+     * @param priority the priority class
+     * @return the number of finished tasks
+     */
+    public long getFinishedCount(RendererPriority priority) {
+        return queues[priority.ordinal()].getFinishedCount();
+    }
+
+    /**
+     * Returns the latency percentile of the recent tasks of the given priority class.
+     *
+     * @param priority   the priority class
+     * @param percentile the percentile, in [0, 100]
+     * @return the latency in nanoseconds, or -1 if no task is finished
+     */
+    public long getLatencyPercentile(RendererPriority priority, double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("The percentile must be in [0, 100].");
+        }
+        return queues[priority.ordinal()].getLatencyPercentile(percentile);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("RendererScheduler[parallelism=").append(parallelism);
+        for (RendererPriority priority : RendererPriority.values()) {
+            sb.append(", ").append(priority).append("[queued=").append(getQueuedCount(priority));
+            sb.append(", finished=").append(getFinishedCount(priority));
+            sb.append(", p50=").append(getLatencyPercentile(priority, 50) / 1000000.0).append("ms");
+            sb.append(", p99=").append(getLatencyPercentile(priority, 99) / 1000000.0).append("ms]");
+        }
+        return sb.append(']').toString();
+    }
+
+    private static class Entry {
+
+        private final RendererPriority priority;
+
+        private final Runnable task;
+
+        private final long submitTime;
+
+        private Entry(RendererPriority priority, Runnable task, long submitTime) {
+            this.priority = priority;
+            this.task = task;
+            this.submitTime = submitTime;
+        }
+    }
+
+    /**
+     * The queue of a priority class. The owners take turns.
+     */
+    private static class ClassQueue {
+
+        /**
+         * The queued tasks by owners, in turn order. Synchronized by the lock of scheduler.
+         */
+        private final Map<Object, ArrayDeque<Entry>> owners = new LinkedHashMap<>();
+
+        private int size;
+
+        /**
+         * The ring of recent latencies. Synchronized by itself.
+         */
+        private final long[] latencies = new long[LATENCY_SAMPLES];
+
+        private long finishedCount;
+
+        private void offer(Object owner, Entry entry) {
+            ArrayDeque<Entry> tasks = owners.get(owner);
+            if (tasks == null) {
+                tasks = new ArrayDeque<>();
+                owners.put(owner, tasks);
+            }
+            tasks.offerLast(entry);
+            size++;
+        }
+
+        private Entry poll() {
+            Iterator<Map.Entry<Object, ArrayDeque<Entry>>> it = owners.entrySet().iterator();
+            Map.Entry<Object, ArrayDeque<Entry>> first = it.next();
+            Entry entry = first.getValue().pollFirst();
+            it.remove();
+            if (!first.getValue().isEmpty()) {
+                // the owner's next turn is after all other owners
+                owners.put(first.getKey(), first.getValue());
+            }
+            size--;
+            return entry;
+        }
+
+        private synchronized void recordLatency(long latency) {
+            latencies[(int) (finishedCount % LATENCY_SAMPLES)] = latency;
+            finishedCount++;
+        }
+
+        private synchronized long getFinishedCount() {
+            return finishedCount;
+        }
+
+        private long getLatencyPercentile(double percentile) {
+            long[] samples;
+            synchronized (this) {
+                samples = Arrays.copyOf(latencies, (int) Math.min(finishedCount, LATENCY_SAMPLES));
+            }
+            if (samples.length == 0) {
+                return -1;
+            }
+            Arrays.sort(samples);
+            int index = (int) Math.ceil(percentile / 100 * samples.length) - 1;
+            return samples[Math.max(0, index)];
+        }
+    }
+
+    /**
+     * The daemon thread to run tasks.
+     */
+    private class Worker extends Thread {
+
+        private final RendererScheduler scheduler = RendererScheduler.this;
+
+        private Worker(int number) {
+            super("JPlot2d-renderer-" + number);
+            setDaemon(true);
+            setPriority(Thread.NORM_PRIORITY);
+        }
+
+        public void run() {
+            while (true) {
+                Entry entry;
+                try {
+                    entry = take();
+                } catch (InterruptedException e) {
+                    continue;
+                }
+                try {
+                    entry.task.run();
+                } catch (Throwable e) {
+                    logger.warn("Rendering task error", e);
+                }
+                // clear the interrupted status left by a cancelled task
+                Thread.interrupted();
+                queues[entry.priority.ordinal()].recordLatency(System.nanoTime() - entry.submitTime);
+            }
+        }
+    }
+
+}
@@ -18,6 +18,8 @@
  */
 package org.jplot2d.renderer;
 
+import java.awt.Rectangle;
+
 /**
  * @author Jingjing Li
  */
@@ -27,9 +29,22 @@ public class RenderingFinishedEvent {
 
     private final Object result;
 
+    private final Rectangle dirtyRegion;
+
     public RenderingFinishedEvent(long sn, Object result) {
+        this(sn, result, null);
+    }
+
+    /**
+     * @param sn          the result sn
+     * @param result      the result
+     * @param dirtyRegion the region of the result which differs from the previous result, or <code>null</code> if
+     *                    the whole result is changed
+     */
+    public RenderingFinishedEvent(long sn, Object result, Rectangle dirtyRegion) {
         this.sn = sn;
         this.result = result;
+        this.dirtyRegion = dirtyRegion;
     }
 
     public long getSN() {
@@ -39,4 +54,14 @@ public class RenderingFinishedEvent {
     public Object getResult() {
         return result;
     }
+
+    /**
+     * Returns the region of the result which differs from the previous result, in result image pixels. A host which
+     * displays the previous result only needs to repaint this region. An empty region means nothing changed.
+     *
+     * @return the dirty region, or <code>null</code> if the whole result is changed
+     */
+    public Rectangle getDirtyRegion() {
+        return dirtyRegion;
+    }
 }
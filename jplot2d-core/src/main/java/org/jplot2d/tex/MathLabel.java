@@ -19,20 +19,36 @@ package org.jplot2d.tex;
 import org.jplot2d.element.HAlign;
 import org.jplot2d.element.VAlign;
 
+import org.jplot2d.util.BoundedCache;
+
 import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.geom.Rectangle2D;
+import java.util.concurrent.Callable;
 
 /**
  * This class override all methods of its ancestor. It accept a TeX-like string as its text to render a math.
  * The underlayer component is {@link MathLabelComp}.
  * <p>
  * Only support left to right writing direction, and subscript superscript.
+ * <p>
+ * A MathLabel is immutable once created. The labels created by {@link #getInstance} are shared by all plots, so
+ * the layout of the same text in the same font, such as axis tick labels, is computed only once.
  *
  * @author Jingjing Li
  */
 public class MathLabel {
 
+    /**
+     * The shared labels, bounded by the number of labels
+     */
+    private static final BoundedCache<Key, MathLabel> cache = new BoundedCache<>(4096,
+            new BoundedCache.Weigher<MathLabel>() {
+                public long weigh(MathLabel value) {
+                    return 1;
+                }
+            });
+
     private final MathElement me;
 
     /**
@@ -77,6 +93,33 @@ public class MathLabel {
         bounds = new Rectangle2D.Double(dbnds.getX(), -(dbnds.getY() + dbnds.getHeight()), dbnds.getWidth(), dbnds.getHeight());
     }
 
+    /**
+     * Returns a shared label of the given text model, font and alignment.
+     *
+     * @param me     the text model, can be <code>null</code>
+     * @param font   the font
+     * @param valign the vertical alignment
+     * @param halign the horizontal alignment
+     * @return the label
+     */
+    public static MathLabel getInstance(final MathElement me, final Font font, final VAlign valign,
+                                        final HAlign halign) {
+        return cache.get(new Key(me, font, valign, halign), new Callable<MathLabel>() {
+            public MathLabel call() {
+                return new MathLabel(me, font, valign, halign);
+            }
+        });
+    }
+
+    /**
+     * Returns the cache of shared labels.
+     *
+     * @return the label cache
+     */
+    public static BoundedCache<?, MathLabel> getCache() {
+        return cache;
+    }
+
     public void draw(Graphics2D g) {
         mlc.draw(g);
     }
@@ -107,4 +150,39 @@ public class MathLabel {
         return bounds;
     }
 
+    /**
+     * The key of a shared label.
+     */
+    private static class Key {
+
+        private final MathElement me;
+
+        private final Font font;
+
+        private final VAlign valign;
+
+        private final HAlign halign;
+
+        private Key(MathElement me, Font font, VAlign valign, HAlign halign) {
+            this.me = me;
+            this.font = font;
+            this.valign = valign;
+            this.halign = halign;
+        }
+
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) obj;
+            return (me == null ? key.me == null : me.equals(key.me)) && font.equals(key.font)
+                    && valign == key.valign && halign == key.halign;
+        }
+
+        public int hashCode() {
+            return (((me == null ? 0 : me.hashCode()) * 31 + font.hashCode()) * 31 + valign.hashCode()) * 31
+                    + halign.hashCode();
+        }
+    }
+
 }
@@ -0,0 +1,292 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * A thread-safe cache which computes the value of a key only once, and bounds the total size of its values. The size
+ * of a value is given by a {@link Weigher}, usually the number of bytes. When the total size exceeds the max size, the
+ * least recently used values are evicted.
+ * <p>
+ * A value is computed by the thread which first requests it, without holding the lock of this cache. Other threads
+ * which request the same key wait for the computing, while requests for other keys are not blocked. A value larger
+ * than the max size is returned to the requester but is not kept.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ * @author Jingjing Li
+ */
+public class BoundedCache<K, V> {
+
+    /**
+     * Returns the size of cached values.
+     *
+     * @param <V> the type of values
+     */
+    public interface Weigher<V> {
+
+        /**
+         * Returns the size of the given value.
+         *
+         * @param value the value
+         * @return the size, must not be negative
+         */
+        long weigh(V value);
+    }
+
+    private final Weigher<? super V> weigher;
+
+    /**
+     * The entries in access order
+     */
+    private final LinkedHashMap<K, Entry<V>> map = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long maxSize;
+
+    private long size;
+
+    private long hitCount, missCount, evictionCount;
+
+    /**
+     * Create a cache.
+     *
+     * @param maxSize the max total size of cached values
+     * @param weigher the weigher to size values
+     */
+    public BoundedCache(long maxSize, Weigher<? super V> weigher) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("The max size must not be negative.");
+        }
+        this.maxSize = maxSize;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Returns the value of the given key. If the value is not cached, it's computed by the given loader in the calling
+     * thread. If the loader throws an exception, nothing is cached and the exception is thrown to all threads waiting
+     * for the value, wrapped in an unchecked exception if necessary.
+     *
+     * @param key    the key
+     * @param loader the loader to compute the value
+     * @return the value
+     */
+    public V get(K key, Callable<? extends V> loader) {
+        Entry<V> entry;
+        boolean owner = false;
+        synchronized (this) {
+            entry = map.get(key);
+            if (entry == null) {
+                entry = new Entry<>(loader);
+                map.put(key, entry);
+                owner = true;
+                missCount++;
+            } else {
+                hitCount++;
+            }
+        }
+
+        if (owner) {
+            entry.task.run();
+            V value;
+            try {
+                value = entry.task.get();
+            } catch (ExecutionException | InterruptedException e) {
+                synchronized (this) {
+                    if (map.get(key) == entry) {
+                        map.remove(key);
+                    }
+                }
+                throw launderThrowable(e);
+            }
+            long weight = weigher.weigh(value);
+            synchronized (this) {
+                if (map.get(key) == entry) {
+                    if (weight > maxSize) {
+                        // keeping it would evict all other values, and then itself
+                        map.remove(key);
+                    } else {
+                        entry.weight = weight;
+                        size += weight;
+                        evict();
+                    }
+                }
+            }
+            return value;
+        }
+
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return entry.task.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    throw launderThrowable(e);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static RuntimeException launderThrowable(Exception e) {
+        Throwable cause = (e instanceof ExecutionException) ? e.getCause() : e;
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        } else {
+            return new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Evict the least recently used values until the total size is not larger than the max size. The values being
+     * computed are not evicted.
+     */
+    private void evict() {
+        Iterator<Entry<V>> it = map.values().iterator();
+        while (size > maxSize && it.hasNext()) {
+            Entry<V> entry = it.next();
+            if (entry.task.isDone()) {
+                it.remove();
+                size -= entry.weight;
+                evictionCount++;
+            }
+        }
+    }
+
+    /**
+     * Returns the max total size of cached values.
+     *
+     * @return the max size
+     */
+    public synchronized long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the max total size of cached values. Values are evicted if the total size exceeds the new max size.
+     *
+     * @param maxSize the max size
+     */
+    public synchronized void setMaxSize(long maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("The max size must not be negative.");
+        }
+        this.maxSize = maxSize;
+        evict();
+    }
+
+    /**
+     * Returns the total size of cached values.
+     *
+     * @return the total size
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of cached values, including the values being computed.
+     *
+     * @return the number of cached values
+     */
+    public synchronized int getCount() {
+        return map.size();
+    }
+
+    /**
+     * Returns the number of requests which find the value cached or being computed.
+     *
+     * @return the hit count
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of requests which compute the value.
+     *
+     * @return the miss count
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of values evicted to keep the total size under the max size.
+     *
+     * @return the eviction count
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Remove the value of the given key. If the value is being computed, it's still returned to its requesters, but is
+     * not kept.
+     *
+     * @param key the key
+     */
+    public synchronized void remove(K key) {
+        Entry<V> entry = map.remove(key);
+        if (entry != null) {
+            size -= entry.weight;
+        }
+    }
+
+    /**
+     * Remove all values. The values being computed are still returned to their requesters, but are not kept.
+     */
+    public synchronized void clear() {
+        map.clear();
+        size = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder("BoundedCache[");
+        sb.append("count=").append(map.size()).append(", size=").append(size).append(", maxSize=").append(maxSize);
+        sb.append(", hit=").append(hitCount).append(", miss=").append(missCount).append(", eviction=")
+                .append(evictionCount).append(']');
+        return sb.toString();
+    }
+
+    private static class Entry<V> {
+
+        private final FutureTask<V> task;
+
+        private long weight;
+
+        @SuppressWarnings("unchecked")
+        private Entry(Callable<? extends V> loader) {
+            task = new FutureTask<>((Callable<V>) loader);
+        }
+    }
+
+}
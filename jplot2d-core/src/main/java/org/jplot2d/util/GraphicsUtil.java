@@ -19,12 +19,31 @@
 package org.jplot2d.util;
 
 import java.awt.BasicStroke;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
 
 /**
  * @author Jingjing Li
  */
 public class GraphicsUtil {
 
+    /**
+     * The rendering hint key to tell the graphics draws to a raster image. Its value is {@link Boolean#TRUE} or
+     * {@link Boolean#FALSE}. Rasterized shortcuts, such as cached symbol stamps, are only used for raster targets.
+     */
+    public static final RenderingHints.Key KEY_RASTER_TARGET = new RenderingHints.Key(1) {
+        @Override
+        public boolean isCompatibleValue(Object val) {
+            return val instanceof Boolean;
+        }
+
+        @Override
+        public String toString() {
+            return "Raster target";
+        }
+    };
+
     private GraphicsUtil() {
 
     }
@@ -36,4 +55,34 @@ public class GraphicsUtil {
                 stroke.getLineJoin(), 10f, dashArray, (float) (stroke.getDashPhase() * scale));
     }
 
+    /**
+     * Returns <code>true</code> if the given graphics is marked to draw to a raster image by
+     * {@link #KEY_RASTER_TARGET}. Vector graphics, such as PDF or EPS, are never marked.
+     *
+     * @param g the graphics
+     * @return <code>true</code> if the graphics draws to a raster image
+     */
+    public static boolean isRasterTarget(Graphics2D g) {
+        return Boolean.TRUE.equals(g.getRenderingHint(KEY_RASTER_TARGET));
+    }
+
+    /**
+     * Returns <code>true</code> if the given graphics draws to a raster image, without scaling or sub-pixel
+     * translation. So every device pixel is a pixel of the image.
+     *
+     * @param g the graphics
+     * @return <code>true</code> if device pixels are aligned to image pixels
+     */
+    public static boolean isPixelAligned(Graphics2D g) {
+        if (!isRasterTarget(g)) {
+            return false;
+        }
+        AffineTransform tf = g.getTransform();
+        if ((tf.getType() & ~AffineTransform.TYPE_TRANSLATION) != 0) {
+            return false;
+        }
+        return tf.getTranslateX() == Math.rint(tf.getTranslateX())
+                && tf.getTranslateY() == Math.rint(tf.getTranslateY());
+    }
+
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A fork-join pool whose parallelism can be changed. The pool is created on demand, and recreated when the parallelism
+ * changed. The old pool is shut down after its running tasks are finished, and a task rejected by the old pool is
+ * submitted to the new pool. This class is thread-safe.
+ *
+ * @author Jingjing Li
+ */
+public class ParallelPool {
+
+    /**
+     * The number of available processors, the default parallelism
+     */
+    public static final int CORES = Runtime.getRuntime().availableProcessors();
+
+    private volatile int parallelism;
+
+    private ForkJoinPool pool;
+
+    /**
+     * Construct a parallel pool of the given parallelism.
+     *
+     * @param parallelism the number of threads, 1 means serial
+     */
+    public ParallelPool(int parallelism) {
+        setParallelism(parallelism);
+    }
+
+    /**
+     * Returns the number of threads.
+     *
+     * @return the parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the number of threads. The pool is recreated when it's requested next time.
+     *
+     * @param parallelism the number of threads, 1 means serial
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be positive.");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns the pool of the current parallelism.
+     *
+     * @return the pool
+     */
+    public synchronized ForkJoinPool getPool() {
+        if (pool == null || pool.getParallelism() != parallelism) {
+            if (pool != null) {
+                pool.shutdown();
+            }
+            pool = new ForkJoinPool(parallelism);
+        }
+        return pool;
+    }
+
+    /**
+     * Run the given task in the pool, and wait for its result.
+     *
+     * @param task the task
+     * @return the result of the task
+     */
+    public <T> T invoke(ForkJoinTask<T> task) {
+        for (; ; ) {
+            try {
+                return getPool().invoke(task);
+            } catch (RejectedExecutionException e) {
+                // the pool has been replaced and shut down
+            }
+        }
+    }
+
+    /**
+     * Arrange the given task to be run in the pool asynchronously.
+     *
+     * @param task the task
+     * @return the pool which accepts the task
+     */
+    public ForkJoinPool execute(ForkJoinTask<?> task) {
+        for (; ; ) {
+            ForkJoinPool p = getPool();
+            try {
+                p.execute(task);
+                return p;
+            } catch (RejectedExecutionException e) {
+                // the pool has been replaced and shut down
+            }
+        }
+    }
+
+}
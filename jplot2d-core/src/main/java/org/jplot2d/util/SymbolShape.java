@@ -25,6 +25,7 @@ import org.jplot2d.javacc.TokenMgrError;
 import java.awt.Graphics2D;
 import java.awt.Shape;
 import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -240,6 +241,22 @@ public class SymbolShape {
         }
     }
 
+    /**
+     * Returns the bounds of this shape, in the 1-unit coordinate.
+     *
+     * @return the bounds
+     */
+    public Rectangle2D getBounds2D() {
+        Rectangle2D result = null;
+        for (Shape shape : drawShapeList) {
+            result = (result == null) ? shape.getBounds2D() : result.createUnion(shape.getBounds2D());
+        }
+        for (Shape shape : fillShapeList) {
+            result = (result == null) ? shape.getBounds2D() : result.createUnion(shape.getBounds2D());
+        }
+        return (result == null) ? new Rectangle2D.Double() : result;
+    }
+
     protected void parseData(String data) {
         if (data == null || data.length() == 0) {
             throw new IllegalArgumentException("data cannot be null or empty");
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d;
+
+import org.jplot2d.element.*;
+import org.jplot2d.env.BatchRenderService;
+import org.jplot2d.renderer.ImagePool;
+import org.jplot2d.renderer.PngStreamExporter;
+import org.jplot2d.sizing.FixedSizeMode;
+import org.jplot2d.tex.MathLabel;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the throughput of rendering many plots to PNG streams by the batch render service. Run it as a java
+ * application, the optional arguments are the number of plots, default to 2000, and the number of threads, default to
+ * the number of processors. The plots are created from a few templates with varying data.
+ */
+public class BatchRenderBenchmark {
+
+    private static final int TEMPLATES = 4;
+
+    private static final int POINTS = 500;
+
+    /**
+     * Discard all written bytes.
+     */
+    private static final OutputStream NULL_STREAM = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private static Plot createPlot(int template, Random rand) {
+        ElementFactory factory = ElementFactory.getInstance();
+        Plot plot = factory.createPlot();
+        plot.setSizeMode(new FixedSizeMode(640, 480));
+        plot.addTitle(factory.createTitle("Template " + template));
+        PlotAxis xaxis = factory.createAxis();
+        PlotAxis yaxis = factory.createAxis();
+        xaxis.getTitle().setText("time (s)");
+        yaxis.getTitle().setText("flux");
+        plot.addXAxis(xaxis);
+        plot.addYAxis(yaxis);
+        Layer layer = factory.createLayer();
+        plot.addLayer(layer, xaxis, yaxis);
+
+        for (int g = 0; g <= template; g++) {
+            double[] x = new double[POINTS];
+            double[] y = new double[POINTS];
+            for (int i = 0; i < POINTS; i++) {
+                x[i] = i;
+                y[i] = Math.sin(i * 0.05 + g) + rand.nextGaussian() * 0.1;
+            }
+            layer.addGraph(factory.createXYGraph(x, y, "series " + g));
+        }
+        return plot;
+    }
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        int n = (args.length > 0) ? Integer.parseInt(args[0]) : 2000;
+        int threads = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        BatchRenderService service = new BatchRenderService(threads, threads * 4);
+        Random rand = new Random(1);
+        List<Future<BatchRenderService.JobReport>> futures = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            PngStreamExporter exporter = new PngStreamExporter(NULL_STREAM);
+            exporter.setRecycleImage(true);
+            futures.add(service.submit(createPlot(i % TEMPLATES, rand), exporter));
+        }
+        long maxRenderTime = 0;
+        for (Future<BatchRenderService.JobReport> f : futures) {
+            maxRenderTime = Math.max(maxRenderTime, f.get().getRenderTime(TimeUnit.MICROSECONDS));
+        }
+        service.shutdown();
+
+        double throughput = service.getThroughput();
+        System.out.printf("%d plots, %d threads%n", n, threads);
+        System.out.printf("render time: mean %.2f ms, max %.2f ms%n",
+                service.getMeanRenderTime(TimeUnit.MICROSECONDS) / 1000, maxRenderTime / 1000.0);
+        System.out.printf("queue time: mean %.2f ms%n", service.getMeanQueueTime(TimeUnit.MICROSECONDS) / 1000);
+        System.out.printf("throughput: %.1f plots/s, %.1f plots/s per core%n", throughput, throughput / threads);
+        System.out.println("image pool: " + ImagePool.getSharedPool());
+        System.out.println("label cache: " + MathLabel.getCache());
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d;
+
+import org.jplot2d.element.ElementFactory;
+import org.jplot2d.element.XYGraph;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * Measure the time of rendering error bars. Run it as a java application, the optional argument is the number of
+ * points, default to 1,000,000. Every point has x and y errors, and 1% of the errors are infinite, drawn as arrows.
+ * The printed checksum of the rendered image can be compared between implementations.
+ */
+public class ErrorBarBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int n = (args.length > 0) ? Integer.parseInt(args[0]) : 1000000;
+        Random rand = new Random(1);
+        double[] x = new double[n];
+        double[] y = new double[n];
+        double[] xel = new double[n];
+        double[] xeh = new double[n];
+        double[] yel = new double[n];
+        double[] yeh = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i;
+            y[i] = rand.nextGaussian();
+            xel[i] = rand.nextDouble() * n / 1000;
+            xeh[i] = rand.nextDouble() * n / 1000;
+            yel[i] = rand.nextDouble() * 0.2;
+            yeh[i] = (i % 100 == 0) ? Double.POSITIVE_INFINITY : rand.nextDouble() * 0.2;
+        }
+
+        long time = Long.MAX_VALUE;
+        BufferedImage image = null;
+        for (int r = 0; r < ROUNDS; r++) {
+            XYGraph graph = ElementFactory.getInstance().createXYGraph(x, y, xel, xeh, yel, yeh);
+            graph.setLineVisible(false);
+            long t0 = System.nanoTime();
+            image = LineDecimationTest.render(graph);
+            time = Math.min(time, System.nanoTime() - t0);
+        }
+
+        long checksum = 0;
+        for (int py = 0; py < image.getHeight(); py++) {
+            for (int px = 0; px < image.getWidth(); px++) {
+                checksum = checksum * 31 + image.getRGB(px, py);
+            }
+        }
+        System.out.printf("%d points with x and y errors: %.1f ms, checksum %x%n", n, time / 1e6, checksum);
+    }
+}
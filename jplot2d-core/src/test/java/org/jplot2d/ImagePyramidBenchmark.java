@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d;
+
+import org.jplot2d.data.ShortDataBuffer;
+import org.jplot2d.element.*;
+import org.jplot2d.env.RenderEnvironment;
+import org.jplot2d.image.FixedLimitsAlgorithm;
+import org.jplot2d.renderer.ImageExporter;
+import org.jplot2d.sizing.FixedSizeMode;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * Measure the time of drawing a large image which is zoomed out to fit the plot. Run it as a java application, the
+ * optional argument is the image size, default to 8000. The 1st draw z-scales the whole image. The later draws reuse
+ * the cached tiles, and with a pyramid only the tiles of a screen-sized level are drawn.
+ */
+public class ImagePyramidBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int size = (args.length > 0) ? Integer.parseInt(args[0]) : 8000;
+
+        Random rand = new Random(1);
+        short[][] data = new short[size][size];
+        for (short[] row : data) {
+            for (int i = 0; i < size; i++) {
+                row[i] = (short) rand.nextInt(4096);
+            }
+        }
+        ShortDataBuffer dbuf = new ShortDataBuffer.Array2D(data);
+        System.out.printf("image %d x %d%n", size, size);
+
+        for (ImagePyramidMode mode : ImagePyramidMode.values()) {
+            ElementFactory factory = ElementFactory.getInstance();
+            Plot plot = factory.createPlot();
+            plot.setSizeMode(new FixedSizeMode(800, 600));
+            PlotAxis xaxis = factory.createAxis();
+            PlotAxis yaxis = factory.createAxis();
+            plot.addXAxis(xaxis);
+            plot.addYAxis(yaxis);
+            Layer layer = factory.createLayer();
+            plot.addLayer(layer, xaxis, yaxis);
+            ImageGraph graph = factory.createImageGraph(dbuf, size, size);
+            graph.setPyramidMode(mode);
+            //noinspection ConstantConditions
+            graph.getMapping().setLimitsAlgorithm(new FixedLimitsAlgorithm(0, 4096));
+            layer.addGraph(graph);
+
+            RenderEnvironment env = new RenderEnvironment(false);
+            env.setPlot(plot);
+            for (int r = 0; r < ROUNDS; r++) {
+                ImageExporter exporter = new ImageExporter(BufferedImage.TYPE_INT_ARGB, null);
+                long t0 = System.nanoTime();
+                env.exportPlot(exporter);
+                long t1 = System.nanoTime();
+                System.out.printf("%s, draw %d: %.1f ms%n", mode, r, (t1 - t0) / 1e6);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,368 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d;
+
+import org.jplot2d.data.IntDataBuffer;
+import org.jplot2d.data.FloatDataBuffer;
+import org.jplot2d.data.MutableImageData;
+import org.jplot2d.data.WaterfallImageData;
+import org.jplot2d.element.*;
+import org.jplot2d.element.impl.ImageGraphImpl;
+import org.jplot2d.env.RenderEnvironment;
+import org.jplot2d.image.FixedLimitsAlgorithm;
+import org.jplot2d.image.MinMaxAlgorithm;
+import org.jplot2d.renderer.ImageExporter;
+import org.jplot2d.util.Range;
+import org.junit.After;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test drawing an image graph tile by tile, only for the visible tiles.
+ */
+public class ImageTileTest {
+
+    private static final ElementFactory factory = ElementFactory.getInstance();
+
+    /**
+     * An image buffer which counts the values read by z-scaling.
+     */
+    static class CountingBuffer extends IntDataBuffer.Array2D {
+
+        private long count;
+
+        CountingBuffer(int[][] data) {
+            super(data);
+        }
+
+        @Override
+        public double getDouble(int x, int y) {
+            count++;
+            return super.getDouble(x, y);
+        }
+    }
+
+    static int[][] createRandomImage(int w, int h, long seed) {
+        Random rand = new Random(seed);
+        int[][] data = new int[h][w];
+        for (int j = 0; j < h; j++) {
+            for (int i = 0; i < w; i++) {
+                data[j][i] = rand.nextInt(1000);
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Render the given image with the given x/y range. A null range means auto range.
+     */
+    static BufferedImage render(IntDataBuffer dbuf, int w, int h, Range xrange, Range yrange) {
+        Plot plot = factory.createPlot();
+
+        PlotAxis xaxis = factory.createAxis();
+        PlotAxis yaxis = factory.createAxis();
+        plot.addXAxis(xaxis);
+        plot.addYAxis(yaxis);
+
+        Layer layer0 = factory.createLayer();
+        plot.addLayer(layer0, xaxis, yaxis);
+
+        RenderEnvironment env = new RenderEnvironment(false);
+        env.setPlot(plot);
+        ImageGraph graph = factory.createImageGraph(dbuf, w, h);
+        // draw the zoomed out image from the pyramid levels
+        graph.setPyramidMode(ImagePyramidMode.MEAN);
+        //noinspection ConstantConditions
+        graph.getMapping().setLimitsAlgorithm(new FixedLimitsAlgorithm(0, 1000));
+        layer0.addGraph(graph);
+        if (xrange != null) {
+            xaxis.getTickManager().getAxisTransform().setRange(xrange);
+        }
+        if (yrange != null) {
+            yaxis.getTickManager().getAxisTransform().setRange(yrange);
+        }
+
+        ImageExporter exporter = new ImageExporter(BufferedImage.TYPE_INT_ARGB, null);
+        env.exportComponent(graph, exporter);
+        return exporter.getImage();
+    }
+
+    static int countDiff(BufferedImage a, BufferedImage b) {
+        assertEquals(a.getWidth(), b.getWidth());
+        assertEquals(a.getHeight(), b.getHeight());
+        int diff = 0;
+        for (int y = 0; y < a.getHeight(); y++) {
+            for (int x = 0; x < a.getWidth(); x++) {
+                if (a.getRGB(x, y) != b.getRGB(x, y)) {
+                    diff++;
+                }
+            }
+        }
+        return diff;
+    }
+
+    @After
+    public void restoreTileSize() {
+        ImageGraphImpl.setTileSize(256);
+    }
+
+    private static void checkSameAsWholeImage(Range xrange, Range yrange, int maxDiff) {
+        int w = 1000, h = 900;
+        int[][] data = createRandomImage(w, h, 1);
+
+        ImageGraphImpl.setTileSize(4096);
+        BufferedImage whole = render(new IntDataBuffer.Array2D(data), w, h, xrange, yrange);
+        ImageGraphImpl.setTileSize(64);
+        BufferedImage tiled = render(new IntDataBuffer.Array2D(data), w, h, xrange, yrange);
+        int diff = countDiff(whole, tiled);
+        assertTrue(String.valueOf(diff), diff <= maxDiff);
+    }
+
+    @Test
+    public void testZoomedIn() {
+        // the tile borders are at 64 and 128
+        checkSameAsWholeImage(new Range.Double(40.3, 150.7), new Range.Double(100.2, 190.9), 0);
+    }
+
+    @Test
+    public void testZoomedOut() {
+        checkSameAsWholeImage(null, null, 0);
+    }
+
+    @Test
+    public void testOnlyVisibleTilesComputed() {
+        int w = 2000, h = 2000;
+        CountingBuffer dbuf = new CountingBuffer(createRandomImage(w, h, 2));
+        render(dbuf, w, h, new Range.Double(1000, 1040), new Range.Double(500, 540));
+        // at most 2 x 2 tiles of 258 x 258 pixels, instead of 4M pixels
+        assertTrue(String.valueOf(dbuf.count), 0 < dbuf.count && dbuf.count <= 4 * 258 * 258);
+    }
+
+
+    @Test
+    public void testRegionUpdate() {
+        int w = 2000, h = 1800;
+        int[][] data = createRandomImage(w, h, 3);
+        CountingBuffer dbuf = new CountingBuffer(data);
+        MutableImageData mdata = new MutableImageData(dbuf, w, h);
+
+        Plot plot = factory.createPlot();
+        PlotAxis xaxis = factory.createAxis();
+        PlotAxis yaxis = factory.createAxis();
+        plot.addXAxis(xaxis);
+        plot.addYAxis(yaxis);
+        Layer layer0 = factory.createLayer();
+        plot.addLayer(layer0, xaxis, yaxis);
+        RenderEnvironment env = new RenderEnvironment(false);
+        env.setPlot(plot);
+        ImageGraph graph = factory.createImageGraph(mdata);
+        layer0.addGraph(graph);
+        //noinspection ConstantConditions
+        graph.getMapping().setLimitsAlgorithm(new MinMaxAlgorithm());
+
+        for (ImagePyramidMode mode : new ImagePyramidMode[]{ImagePyramidMode.NONE, ImagePyramidMode.MEAN}) {
+            graph.setPyramidMode(mode);
+            ImageExporter exporter = new ImageExporter(BufferedImage.TYPE_INT_ARGB, null);
+            env.exportComponent(graph, exporter);
+            // the 1st update builds the min max blocks
+            graph.updateData(0, 0, 1, 1);
+
+            // update a small region within the limits
+            for (int j = 700; j < 710; j++) {
+                for (int i = 300; i < 320; i++) {
+                    data[j][i] = (data[j][i] + 500) % 1000;
+                }
+            }
+            //noinspection ConstantConditions
+            Range limits = graph.getMapping().getLimits();
+            dbuf.count = 0;
+            graph.updateData(300, 700, 20, 10);
+            exporter = new ImageExporter(BufferedImage.TYPE_INT_ARGB, null);
+            env.exportComponent(graph, exporter);
+            assertEquals(limits, graph.getMapping().getLimits());
+            // the min max blocks of the region and the tiles covering it, instead of 3.6M pixels
+            assertTrue(String.valueOf(dbuf.count), 0 < dbuf.count && dbuf.count <= 4 * 512 * 512);
+
+            // same as drawing a new image
+            ImageGraph newGraph = factory.createImageGraph(new IntDataBuffer.Array2D(data), w, h);
+            newGraph.setPyramidMode(mode);
+            Plot newPlot = factory.createPlot();
+            PlotAxis newXAxis = factory.createAxis();
+            PlotAxis newYAxis = factory.createAxis();
+            newPlot.addXAxis(newXAxis);
+            newPlot.addYAxis(newYAxis);
+            Layer newLayer = factory.createLayer();
+            newPlot.addLayer(newLayer, newXAxis, newYAxis);
+            RenderEnvironment newEnv = new RenderEnvironment(false);
+            newEnv.setPlot(newPlot);
+            newLayer.addGraph(newGraph);
+            BufferedImage updated = exporter.getImage();
+            exporter = new ImageExporter(BufferedImage.TYPE_INT_ARGB, null);
+            newEnv.exportComponent(newGraph, exporter);
+            assertEquals(0, countDiff(exporter.getImage(), updated));
+
+            // the limits are extended, and shrink back
+            data[1000][1000] += 5000;
+            graph.updateData(1000, 1000, 1, 1);
+            assertEquals(data[1000][1000], graph.getMapping().getLimits().getMax(), 0);
+            data[1000][1000] -= 5000;
+            graph.updateData(1000, 1000, 1, 1);
+            assertEquals(limits, graph.getMapping().getLimits());
+        }
+    }
+
+    /**
+     * Changing the z-scaling of a band keeps the pooled tiles of the other bands.
+     */
+    @Test
+    public void testRGBBandPyramidsShared() {
+        int w = 1500, h = 1200;
+        CountingBuffer red = new CountingBuffer(createRandomImage(w, h, 5));
+        CountingBuffer green = new CountingBuffer(createRandomImage(w, h, 6));
+        CountingBuffer blue = new CountingBuffer(createRandomImage(w, h, 7));
+
+        Plot plot = factory.createPlot();
+        PlotAxis xaxis = factory.createAxis();
+        PlotAxis yaxis = factory.createAxis();
+        plot.addXAxis(xaxis);
+        plot.addYAxis(yaxis);
+        Layer layer0 = factory.createLayer();
+        plot.addLayer(layer0, xaxis, yaxis);
+        RenderEnvironment env = new RenderEnvironment(false);
+        env.setPlot(plot);
+        RGBImageGraph graph = factory.createRGBImageGraph(new IntDataBuffer[]{red, green, blue}, w, h);
+        graph.setPyramidMode(ImagePyramidMode.MEAN);
+        layer0.addGraph(graph);
+        RGBImageMapping mapping = graph.getMapping();
+        for (ImageBandTransform bt : new ImageBandTransform[]{mapping.getRedTransform(),
+                mapping.getGreenTransform(), mapping.getBlueTransform()}) {
+            bt.setLimitsAlgorithm(new FixedLimitsAlgorithm(0, 1000));
+        }
+
+        ImageExporter exporter = new ImageExporter(BufferedImage.TYPE_INT_ARGB, null);
+        env.exportComponent(graph, exporter);
+        assertTrue(green.count > 0 && blue.count > 0);
+
+        red.count = 0;
+        green.count = 0;
+        blue.count = 0;
+        mapping.getRedTransform().setBias(0.3);
+        exporter = new ImageExporter(BufferedImage.TYPE_INT_ARGB, null);
+        env.exportComponent(graph, exporter);
+        assertTrue(red.count > 0);
+        assertEquals(0, green.count);
+        assertEquals(0, blue.count);
+    }
+
+    /**
+     * Render the given image graph with fixed limits and no pyramid.
+     */
+    private static BufferedImage render(RenderEnvironment env, ImageGraph graph) {
+        ImageExporter exporter = new ImageExporter(BufferedImage.TYPE_INT_ARGB, null);
+        env.exportComponent(graph, exporter);
+        return exporter.getImage();
+    }
+
+    private static RenderEnvironment createEnvironment(ImageGraph graph) {
+        Plot plot = factory.createPlot();
+        PlotAxis xaxis = factory.createAxis();
+        PlotAxis yaxis = factory.createAxis();
+        plot.addXAxis(xaxis);
+        plot.addYAxis(yaxis);
+        Layer layer0 = factory.createLayer();
+        plot.addLayer(layer0, xaxis, yaxis);
+        RenderEnvironment env = new RenderEnvironment(false);
+        env.setPlot(plot);
+        layer0.addGraph(graph);
+        graph.setPyramidMode(ImagePyramidMode.NONE);
+        //noinspection ConstantConditions
+        graph.getMapping().setLimitsAlgorithm(new FixedLimitsAlgorithm(0, 1000));
+        return env;
+    }
+
+    @Test
+    public void testWaterfall() {
+        int w = 60, capacity = 40;
+        WaterfallImageData waterfall = new WaterfallImageData(w, capacity);
+        ImageGraph graph = factory.createImageGraph(waterfall);
+        RenderEnvironment env = createEnvironment(graph);
+
+        Random rand = new Random(4);
+        float[][] rows = new float[200][w];
+        for (float[] row : rows) {
+            for (int i = 0; i < w; i++) {
+                row[i] = rand.nextInt(1000);
+            }
+        }
+
+        // append 1 row, a few rows, and more than a ring of rows between draws
+        int count = 0;
+        for (int n : new int[]{capacity, 1, 7, 25, capacity + 3, 1}) {
+            waterfall.appendRows(java.util.Arrays.copyOfRange(rows, count, count + n));
+            count += n;
+            graph.updateData(0, 0, w, capacity);
+            BufferedImage image = render(env, graph);
+
+            // the image of the last rows, the newest row at top
+            float[][] expected = java.util.Arrays.copyOfRange(rows, count - capacity, count);
+            ImageGraph expectedGraph = factory.createImageGraph(new FloatDataBuffer.Array2D(expected), w, capacity);
+            BufferedImage expectedImage = render(createEnvironment(expectedGraph), expectedGraph);
+            assertEquals("after " + count + " rows", 0, countDiff(expectedImage, image));
+        }
+    }
+
+    @Test
+    public void testWaterfallRunningLimits() {
+        int w = 60, capacity = 40;
+        WaterfallImageData waterfall = new WaterfallImageData(w, capacity);
+        ImageGraph graph = factory.createImageGraph(waterfall);
+        RenderEnvironment env = createEnvironment(graph);
+        graph.getMapping().setLimitsAlgorithm(new MinMaxAlgorithm());
+
+        float[] row = new float[w];
+        for (int i = 0; i < w; i++) {
+            row[i] = 100 + i;
+        }
+        waterfall.appendRow(row);
+        graph.updateData(0, 0, w, capacity);
+        render(env, graph);
+        assertEquals(new Range.Double(100, 159), graph.getMapping().getLimits());
+
+        // the limits are kept when the rows do not widen them, even after the extreme rows are dropped
+        java.util.Arrays.fill(row, 120);
+        for (int k = 0; k < capacity + 1; k++) {
+            waterfall.appendRow(row);
+        }
+        graph.updateData(0, 0, w, capacity);
+        render(env, graph);
+        assertEquals(new Range.Double(100, 159), graph.getMapping().getLimits());
+
+        row[3] = 200;
+        waterfall.appendRow(row);
+        graph.updateData(0, 0, w, capacity);
+        render(env, graph);
+        assertEquals(new Range.Double(100, 200), graph.getMapping().getLimits());
+    }
+
+}
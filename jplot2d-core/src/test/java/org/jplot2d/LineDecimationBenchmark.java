@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d;
+
+import org.jplot2d.element.ElementFactory;
+import org.jplot2d.element.XYGraph;
+import org.jplot2d.element.XYGraph.ChartType;
+import org.jplot2d.element.XYGraph.DecimationMode;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Compare the render time and output of decimated and undecimated line charts. Run as a java application:
+ * the optional argument is the number of points, default to 5,000,000.
+ */
+public class LineDecimationBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int n = (args.length > 0) ? Integer.parseInt(args[0]) : 5000000;
+        double[][] xy = LineDecimationTest.createRandomWalk(n, 1);
+
+        for (ChartType chartType : new ChartType[]{ChartType.LINECHART, ChartType.HISTOGRAM_EDGE}) {
+            BufferedImage full = null, decimated = null;
+            long fullTime = Long.MAX_VALUE, decimatedTime = Long.MAX_VALUE, rerenderTime = Long.MAX_VALUE;
+            for (int r = 0; r < ROUNDS; r++) {
+                XYGraph fullGraph = createGraph(xy, chartType, DecimationMode.NONE);
+                XYGraph decimatedGraph = createGraph(xy, chartType, DecimationMode.MINMAX);
+                long t0 = System.nanoTime();
+                full = LineDecimationTest.render(fullGraph);
+                long t1 = System.nanoTime();
+                decimated = LineDecimationTest.render(decimatedGraph);
+                long t2 = System.nanoTime();
+                // the min/max pyramid built by the 1st render is reused by a graph of the same data
+                XYGraph rerenderGraph = createGraph(xy, chartType, DecimationMode.MINMAX);
+                rerenderGraph.setData(decimatedGraph.getData());
+                long t2r = System.nanoTime();
+                LineDecimationTest.render(rerenderGraph);
+                long t3 = System.nanoTime();
+                fullTime = Math.min(fullTime, t1 - t0);
+                decimatedTime = Math.min(decimatedTime, t2 - t1);
+                rerenderTime = Math.min(rerenderTime, t3 - t2r);
+            }
+
+            int diff = LineDecimationTest.countDiff(full, decimated);
+            int painted = LineDecimationTest.countNonBlank(full);
+            System.out.printf("%s, %d points: undecimated %.1f ms, decimated %.1f ms, re-render %.1f ms, "
+                            + "%d of %d pixels differ%n", chartType, n, fullTime / 1e6, decimatedTime / 1e6,
+                    rerenderTime / 1e6, diff, painted);
+        }
+    }
+
+    private static XYGraph createGraph(double[][] xy, ChartType chartType, DecimationMode mode) {
+        XYGraph graph = ElementFactory.getInstance().createXYGraph(xy[0], xy[1]);
+        graph.setChartType(chartType);
+        graph.setDecimationMode(mode);
+        return graph;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d;
+
+import org.jplot2d.element.*;
+import org.jplot2d.element.XYGraph.ChartType;
+import org.jplot2d.element.XYGraph.DecimationMode;
+import org.jplot2d.env.RenderEnvironment;
+import org.jplot2d.renderer.ImageExporter;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test the min/max decimation of XYGraph lines
+ */
+public class LineDecimationTest {
+
+    private static final ElementFactory factory = ElementFactory.getInstance();
+
+    /**
+     * Returns a random walk, which has many points in every device column.
+     */
+    static double[][] createRandomWalk(int n, long seed) {
+        Random rand = new Random(seed);
+        double[] x = new double[n];
+        double[] y = new double[n];
+        double v = 0;
+        for (int i = 0; i < n; i++) {
+            v += rand.nextGaussian();
+            x[i] = i;
+            y[i] = v;
+        }
+        return new double[][]{x, y};
+    }
+
+    /**
+     * Create a plot contains the given graph, and render the graph.
+     */
+    static BufferedImage render(XYGraph graph) {
+        Plot plot = factory.createPlot();
+
+        PlotAxis xaxis = factory.createAxis();
+        PlotAxis yaxis = factory.createAxis();
+        plot.addXAxis(xaxis);
+        plot.addYAxis(yaxis);
+
+        Layer layer0 = factory.createLayer();
+        plot.addLayer(layer0, xaxis, yaxis);
+
+        RenderEnvironment env = new RenderEnvironment(false);
+        env.setPlot(plot);
+        layer0.addGraph(graph);
+
+        ImageExporter exporter = new ImageExporter(BufferedImage.TYPE_INT_ARGB, null);
+        env.exportComponent(graph, exporter);
+        return exporter.getImage();
+    }
+
+    /**
+     * Returns the number of different pixels between the 2 images
+     */
+    static int countDiff(BufferedImage a, BufferedImage b) {
+        assertEquals(a.getWidth(), b.getWidth());
+        assertEquals(a.getHeight(), b.getHeight());
+        int count = 0;
+        for (int y = 0; y < a.getHeight(); y++) {
+            for (int x = 0; x < a.getWidth(); x++) {
+                if (a.getRGB(x, y) != b.getRGB(x, y)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    static int countNonBlank(BufferedImage a) {
+        int count = 0;
+        for (int y = 0; y < a.getHeight(); y++) {
+            for (int x = 0; x < a.getWidth(); x++) {
+                if (a.getRGB(x, y) != 0) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private void checkDecimation(ChartType chartType, int n) {
+        double[][] xy = createRandomWalk(n, 1);
+
+        XYGraph graph = factory.createXYGraph(xy[0], xy[1]);
+        graph.setChartType(chartType);
+        graph.setDecimationMode(DecimationMode.NONE);
+        BufferedImage full = render(graph);
+
+        graph = factory.createXYGraph(xy[0], xy[1]);
+        graph.setChartType(chartType);
+        graph.setDecimationMode(DecimationMode.MINMAX);
+        BufferedImage decimated = render(graph);
+
+        int painted = countNonBlank(full);
+        int diff = countDiff(full, decimated);
+        assertTrue(painted > 1000);
+        assertEquals("different pixels of " + painted, 0, diff);
+    }
+
+    @Test
+    public void testLineChart() {
+        checkDecimation(ChartType.LINECHART, 50000);
+    }
+
+    @Test
+    public void testEdgeHistogram() {
+        checkDecimation(ChartType.HISTOGRAM_EDGE, 50000);
+    }
+
+    /**
+     * Large data are decimated by a min/max pyramid
+     */
+    @Test
+    public void testPyramid() {
+        checkDecimation(ChartType.LINECHART, 1000000);
+    }
+
+    @Test
+    public void testDefaultMode() {
+        XYGraph graph = factory.createXYGraph(new double[0], new double[0]);
+        assertEquals(DecimationMode.AUTO, graph.getDecimationMode());
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d;
+
+import org.jplot2d.element.ElementFactory;
+import org.jplot2d.element.XYGraph;
+import org.jplot2d.element.XYGraph.DecimationMode;
+import org.jplot2d.element.impl.XYGraphDataChunker;
+
+/**
+ * Compare rendering a large graph with serial and parallel transform. Run it as a java application, the optional
+ * arguments are the number of points, default to 20,000,000, and the parallelism, default to the number of available
+ * processors. The x is not ascending, so that the min/max pyramid is not used.
+ */
+public class ParallelTransformBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int n = (args.length > 0) ? Integer.parseInt(args[0]) : 20000000;
+        int parallelism = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        double[][] xy = LineDecimationTest.createRandomWalk(n, 1);
+        xy[0][n - 1] = -1;
+
+        for (DecimationMode mode : new DecimationMode[]{DecimationMode.NONE, DecimationMode.MINMAX}) {
+            long serialTime = Long.MAX_VALUE, parallelTime = Long.MAX_VALUE;
+            for (int r = 0; r < ROUNDS; r++) {
+                XYGraph serialGraph = createGraph(xy, mode);
+                XYGraph parallelGraph = createGraph(xy, mode);
+                XYGraphDataChunker.setParallelism(1);
+                long t0 = System.nanoTime();
+                LineDecimationTest.render(serialGraph);
+                long t1 = System.nanoTime();
+                XYGraphDataChunker.setParallelism(parallelism);
+                LineDecimationTest.render(parallelGraph);
+                long t2 = System.nanoTime();
+                serialTime = Math.min(serialTime, t1 - t0);
+                parallelTime = Math.min(parallelTime, t2 - t1);
+            }
+            System.out.printf("%s decimation, %d points: serial %.1f ms, parallelism %d %.1f ms%n", mode, n,
+                    serialTime / 1e6, parallelism, parallelTime / 1e6);
+        }
+    }
+
+    private static XYGraph createGraph(double[][] xy, DecimationMode mode) {
+        XYGraph graph = ElementFactory.getInstance().createXYGraph(xy[0], xy[1]);
+        graph.setDecimationMode(mode);
+        return graph;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d;
+
+import org.jplot2d.element.ElementFactory;
+import org.jplot2d.element.XYGraph;
+import org.jplot2d.element.XYGraph.ChartType;
+import org.jplot2d.element.XYGraph.DecimationMode;
+import org.jplot2d.element.impl.XYGraphDataChunker;
+import org.junit.After;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test the parallel transform of large XY data gives the same result as serial transform.
+ */
+public class ParallelTransformTest {
+
+    private static final ElementFactory factory = ElementFactory.getInstance();
+
+    @After
+    public void restore() {
+        XYGraphDataChunker.setParallelism(Runtime.getRuntime().availableProcessors());
+    }
+
+    private static BufferedImage render(double[][] xy, ChartType chartType, DecimationMode mode, boolean parallel) {
+        XYGraphDataChunker.setParallelism(parallel ? 4 : 1);
+        XYGraph graph = factory.createXYGraph(xy[0], xy[1]);
+        graph.setChartType(chartType);
+        graph.setDecimationMode(mode);
+        return LineDecimationTest.render(graph);
+    }
+
+    @Test
+    public void testLineChart() {
+        double[][] xy = LineDecimationTest.createRandomWalk(1500000, 3);
+        BufferedImage serial = render(xy, ChartType.LINECHART, DecimationMode.NONE, false);
+        BufferedImage parallel = render(xy, ChartType.LINECHART, DecimationMode.NONE, true);
+        assertTrue(LineDecimationTest.countNonBlank(serial) > 1000);
+        assertEquals(0, LineDecimationTest.countDiff(serial, parallel));
+    }
+
+    /**
+     * The x is not ascending, so the decimation is not done by pyramid
+     */
+    @Test
+    public void testDecimation() {
+        double[][] xy = LineDecimationTest.createRandomWalk(1500000, 4);
+        xy[0][xy[0].length - 1] = -1;
+        for (ChartType chartType : new ChartType[]{ChartType.LINECHART, ChartType.HISTOGRAM_EDGE}) {
+            BufferedImage serial = render(xy, chartType, DecimationMode.MINMAX, false);
+            BufferedImage parallel = render(xy, chartType, DecimationMode.MINMAX, true);
+            int painted = LineDecimationTest.countNonBlank(serial);
+            int diff = LineDecimationTest.countDiff(serial, parallel);
+            assertTrue(painted > 1000);
+            // decimation columns are flushed at the border of segments
+            assertTrue("different pixels: " + diff + " of " + painted, diff * 100 < painted);
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d;
+
+import org.jplot2d.element.*;
+import org.jplot2d.element.XYGraph.ChartType;
+import org.jplot2d.env.RenderEnvironment;
+import org.jplot2d.renderer.ImageExporter;
+import org.jplot2d.util.Range;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test rendering a zoomed-in part of ascending x data, which only iterates over the points in the visible window.
+ */
+public class VisibleWindowTest {
+
+    private static final ElementFactory factory = ElementFactory.getInstance();
+
+    /**
+     * Render the given graph with the given x range.
+     */
+    private static BufferedImage render(XYGraph graph, Range xrange) {
+        Plot plot = factory.createPlot();
+
+        PlotAxis xaxis = factory.createAxis();
+        PlotAxis yaxis = factory.createAxis();
+        plot.addXAxis(xaxis);
+        plot.addYAxis(yaxis);
+
+        Layer layer0 = factory.createLayer();
+        plot.addLayer(layer0, xaxis, yaxis);
+
+        RenderEnvironment env = new RenderEnvironment(false);
+        env.setPlot(plot);
+        layer0.addGraph(graph);
+        xaxis.getTickManager().getAxisTransform().setRange(xrange);
+
+        ImageExporter exporter = new ImageExporter(BufferedImage.TYPE_INT_ARGB, null);
+        env.exportComponent(graph, exporter);
+        return exporter.getImage();
+    }
+
+    /**
+     * Render the data as ascending, and as non-ascending by adding a NaN x at the end, which must give the same
+     * image.
+     */
+    private void checkWindow(ChartType chartType, boolean symbolVisible, Range xrange) {
+        double[][] xy = LineDecimationTest.createRandomWalk(100000, 2);
+        XYGraph graph = factory.createXYGraph(xy[0], xy[1]);
+        graph.setChartType(chartType);
+        graph.setSymbolVisible(symbolVisible);
+        assertTrue(graph.getData().isXAscending());
+        BufferedImage window = render(graph, xrange);
+
+        double[] x = new double[xy[0].length + 1];
+        double[] y = new double[x.length];
+        System.arraycopy(xy[0], 0, x, 0, xy[0].length);
+        System.arraycopy(xy[1], 0, y, 0, xy[1].length);
+        x[x.length - 1] = Double.NaN;
+        graph = factory.createXYGraph(x, y);
+        graph.setChartType(chartType);
+        graph.setSymbolVisible(symbolVisible);
+        BufferedImage full = render(graph, xrange);
+
+        assertTrue(LineDecimationTest.countNonBlank(full) > 100);
+        assertEquals(0, LineDecimationTest.countDiff(full, window));
+    }
+
+    @Test
+    public void testLineChart() {
+        checkWindow(ChartType.LINECHART, false, new Range.Double(5000.5, 5100.5));
+        checkWindow(ChartType.LINECHART, false, new Range.Double(-10, 50.5));
+        checkWindow(ChartType.LINECHART, false, new Range.Double(99950.5, 100100));
+    }
+
+    @Test
+    public void testHistogram() {
+        checkWindow(ChartType.HISTOGRAM, false, new Range.Double(5000.5, 5030.5));
+        checkWindow(ChartType.HISTOGRAM_EDGE, false, new Range.Double(5000.5, 5030.5));
+    }
+
+    @Test
+    public void testSymbol() {
+        checkWindow(ChartType.LINECHART, true, new Range.Double(5000.5, 5300.5));
+    }
+
+    @Test
+    public void testInvertedAxis() {
+        checkWindow(ChartType.LINECHART, false, new Range.Double(5100.5, 5000.5));
+    }
+
+}
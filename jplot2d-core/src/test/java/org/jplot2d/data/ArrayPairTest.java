@@ -46,4 +46,58 @@ public class ArrayPairTest {
 		checkDoubleArray(ap.getQArray(), 0, 1, 3, 4);
 	}
 
+	@Test
+	public void testValueOf() {
+		assertTrue(ArrayPair.valueOf(new double[] { 0 }, new double[] { 0 }) instanceof DoubleArrayPair);
+		assertTrue(ArrayPair.valueOf(new float[] { 0 }, new float[] { 0 }) instanceof FloatArrayPair);
+		assertTrue(ArrayPair.valueOf(new long[] { 0 }, new long[] { 0 }) instanceof LongArrayPair);
+		assertTrue(ArrayPair.valueOf(new int[] { 0 }, new int[] { 0 }) instanceof IntArrayPair);
+		assertEquals(ArrayPair.valueOf(new long[] { 0 }, new double[] { 0 }).getClass(), ArrayPair.class);
+		assertEquals(double.class, ArrayPair.valueOf(new double[] { 0 }, new double[] { 0 }).getPComponentType());
+		assertEquals(long.class, ArrayPair.valueOf(new long[] { 0 }, new short[] { 0 }).getPComponentType());
+		assertEquals(short.class, ArrayPair.valueOf(new long[] { 0 }, new short[] { 0 }).getQComponentType());
+		assertEquals(ArrayPair.valueOf(new int[] { 0, 1 }, new int[] { 0, 1 }, 1).size(), 1);
+		try {
+			ArrayPair.valueOf(new double[] { 0, 1 }, new double[] { 0 });
+			fail("IllegalArgumentException should be thrown");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testBulkGet() {
+		double[] buf = new double[4];
+
+		ArrayPair ap = ArrayPair.valueOf(new float[] { 1, 2, 3 }, new float[] { 4, 5, 6 });
+		ap.getPDouble(1, buf, 1, 2);
+		checkDoubleArray(buf, 0, 2, 3, 0);
+		ap.getQDouble(0, buf, 0, 3);
+		checkDoubleArray(buf, 4, 5, 6, 0);
+
+		ap = new ArrayPair(new long[] { 7, 8, 9 }, new short[] { 1, 2, 3 });
+		ap.getPDouble(0, buf, 0, 3);
+		checkDoubleArray(buf, 7, 8, 9, 0);
+		ap.getQDouble(2, buf, 3, 1);
+		checkDoubleArray(buf, 7, 8, 9, 3);
+		assertEquals(ap.getQDouble(1), 2, 0);
+
+		try {
+			ap.getPDouble(2, buf, 0, 2);
+			fail("IndexOutOfBoundsException should be thrown");
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testAppendKeepType() {
+		ArrayPair ap = ArrayPair.valueOf(new int[] { 0, 1 }, new int[] { 0, 1 });
+		ap = ap.append(ArrayPair.valueOf(new int[] { 2 }, new int[] { 3 }));
+		assertTrue(ap instanceof IntArrayPair);
+		assertEquals(ap.size(), 3);
+		assertEquals(ap.getPDouble(2), 2, 0);
+		assertEquals(ap.getQDouble(2), 3, 0);
+	}
+
 }
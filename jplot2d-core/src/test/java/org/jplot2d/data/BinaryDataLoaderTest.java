@@ -0,0 +1,210 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.data;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @author Jingjing Li
+ */
+public class BinaryDataLoaderTest {
+
+	private static ReadableByteChannel channel(ByteBuffer bb) {
+		return Channels.newChannel(new ByteArrayInputStream(bb.array(), 0, bb.position()));
+	}
+
+	@Test
+	public void testLoadXYRecords() throws IOException {
+		// records of long time stamp, a padding int and a float value
+		int n = 200000;
+		Random rand = new Random(1);
+		double[] x = new double[n];
+		double[] y = new double[n];
+		ByteBuffer bb = ByteBuffer.allocate(n * 16).order(ByteOrder.LITTLE_ENDIAN);
+		for (int i = 0; i < n; i++) {
+			long t = 1000000000000L + i * 10;
+			float v = (rand.nextInt(50) == 0) ? Float.NaN : (float) rand.nextGaussian();
+			bb.putLong(t).putInt(-1).putFloat(v);
+			x[i] = t;
+			y[i] = v;
+		}
+
+		File file = File.createTempFile("jplot2d", ".dat");
+		file.deleteOnExit();
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(bb.array());
+		} finally {
+			out.close();
+		}
+
+		XYGraphData gd = new BinaryDataLoader(ByteOrder.LITTLE_ENDIAN).loadXY(file, long.class, 0, float.class, 12,
+				16);
+		XYGraphData ref = new XYGraphData(ArrayPair.valueOf(x, y));
+		assertEquals(n, gd.size());
+		assertEquals(ref.getXRange(), gd.getXRange());
+		assertEquals(ref.getYRange(), gd.getYRange());
+		assertArrayEquals(ref.getNaNIndexes()[0], gd.getNaNIndexes()[0]);
+		assertArrayEquals(ref.getNaNIndexes()[1], gd.getNaNIndexes()[1]);
+		assertTrue(gd.isXAscending());
+		double[] buf = new double[n];
+		gd.getY(0, buf, 0, n);
+		assertArrayEquals(y, buf, 0);
+	}
+
+	@Test
+	public void testTruncatedRecord() throws IOException {
+		ByteBuffer bb = ByteBuffer.allocate(20).order(ByteOrder.BIG_ENDIAN);
+		bb.putShort((short) 1).putShort((short) 2).putShort((short) 3).putShort((short) 4).put((byte) 5);
+		BinaryDataLoader loader = new BinaryDataLoader(ByteOrder.BIG_ENDIAN);
+		try {
+			loader.loadXY(channel(bb), short.class, 0, short.class, 2, 4);
+			fail("EOFException should be thrown");
+		} catch (EOFException e) {
+			// expected
+		}
+
+		bb.position(8);
+		XYGraphData gd = loader.loadXY(channel(bb), short.class, 0, short.class, 2, 4);
+		assertEquals(2, gd.size());
+		assertEquals(3, gd.getX(1), 0);
+		assertEquals(4, gd.getY(1), 0);
+	}
+
+	@Test
+	public void testLoadImage() throws IOException {
+		int w = 700, h = 900;
+		Random rand = new Random(2);
+		float[][] ref = new float[h][w];
+		ByteBuffer bb = ByteBuffer.allocate(w * h * 4 + 3).order(ByteOrder.BIG_ENDIAN);
+		for (int j = 0; j < h; j++) {
+			for (int i = 0; i < w; i++) {
+				ref[j][i] = (rand.nextInt(100) == 0) ? Float.NaN : (float) rand.nextGaussian();
+				bb.putFloat(ref[j][i]);
+			}
+		}
+		// trailing bytes are not read
+		bb.put((byte) 1).put((byte) 2).put((byte) 3);
+
+		ReadableByteChannel ch = channel(bb);
+		SingleBandImageData image = new BinaryDataLoader(ByteOrder.BIG_ENDIAN).loadImage(ch, float.class, w, h);
+		ImageDataBuffer dbuf = image.getDataBuffer();
+		assertTrue(dbuf instanceof FloatDataBuffer);
+		for (int j = 0; j < h; j++) {
+			for (int i = 0; i < w; i++) {
+				assertEquals(ref[j][i], dbuf.getFloat(i, j), 0);
+			}
+		}
+
+		FloatDataBuffer scan = new FloatDataBuffer.Array2D(ref);
+		assertEquals(scan.countValid(w, h), dbuf.countValid(w, h), 0);
+		assertArrayEquals(scan.calcMinMax(w, h), dbuf.calcMinMax(w, h), 0);
+		assertEquals(3, ch.read(ByteBuffer.allocate(8)));
+
+		try {
+			new BinaryDataLoader(ByteOrder.BIG_ENDIAN).loadImage(channel(bb), short.class, w, h + 1000);
+			fail("EOFException should be thrown");
+		} catch (EOFException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testLoadShortImage() throws IOException {
+		ByteBuffer bb = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+		bb.putShort((short) 5).putShort((short) -3).putShort((short) 7).putShort((short) 0).putShort((short) 1)
+				.putShort((short) 2);
+		SingleBandImageData image = new BinaryDataLoader(ByteOrder.LITTLE_ENDIAN).loadImage(channel(bb), short.class,
+				3, 2);
+		ImageDataBuffer dbuf = image.getDataBuffer();
+		assertTrue(dbuf instanceof ShortDataBuffer);
+		assertEquals(-3, dbuf.getShort(1, 0));
+		assertEquals(2, dbuf.getShort(2, 1));
+		assertEquals(6, dbuf.countValid(3, 2), 0);
+		assertArrayEquals(new double[] { -3, 7 }, dbuf.calcMinMax(3, 2), 0);
+	}
+
+	@Test
+	public void testMapImage() throws IOException {
+		int w = 300, h = 200;
+		ByteBuffer bb = ByteBuffer.allocate(10 + w * h * 2).order(ByteOrder.LITTLE_ENDIAN);
+		// a header before the pixels
+		bb.position(10);
+		for (int j = 0; j < h; j++) {
+			for (int i = 0; i < w; i++) {
+				bb.putShort((short) (j * 100 - i));
+			}
+		}
+		File file = File.createTempFile("jplot2d", ".raw");
+		file.deleteOnExit();
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(bb.array());
+		} finally {
+			out.close();
+		}
+
+		BinaryDataLoader loader = new BinaryDataLoader(ByteOrder.LITTLE_ENDIAN);
+		FileInputStream in = new FileInputStream(file);
+		ImageDataBuffer mapped, blocks;
+		try {
+			FileChannel ch = in.getChannel();
+			SingleBandImageData image = loader.mapImage(ch, short.class, 10, w, h);
+			mapped = image.getDataBuffer();
+			assertTrue(mapped instanceof ShortDataBuffer.NioBuffer);
+			// blocks of 7 rows
+			blocks = loader.mapImageBuffer(ch, short.class, 10, w, h, null, w * 2 * 7 + 5);
+			assertTrue(blocks instanceof ShortDataBuffer.NioBlocks);
+
+			try {
+				loader.mapImage(ch, short.class, 10, w, h + 1);
+				fail("EOFException should be thrown");
+			} catch (EOFException e) {
+				// expected
+			}
+		} finally {
+			in.close();
+		}
+
+		// the mapping is valid after the channel is closed
+		for (int j = 0; j < h; j++) {
+			for (int i = 0; i < w; i++) {
+				assertEquals((short) (j * 100 - i), mapped.getShort(i, j));
+				assertEquals((short) (j * 100 - i), blocks.getShort(i, j));
+			}
+		}
+		assertArrayEquals(new double[] { -299, 19900 }, mapped.calcMinMax(w, h), 0);
+	}
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.data;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Jingjing Li
+ */
+public class BitMaskBufferTest {
+
+    /**
+     * Returns a mask which is masked in long runs, and randomly in some runs.
+     */
+    static boolean[][] createMask(int w, int h, long seed) {
+        Random rand = new Random(seed);
+        boolean[][] mask = new boolean[h][w];
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int run = (x + y * 7) / 50 % 4;
+                mask[y][x] = (run != 0) && (run != 1 || rand.nextBoolean());
+            }
+        }
+        return mask;
+    }
+
+    @Test
+    public void testMaskWords() {
+        int w = 150, h = 20;
+        boolean[][] mask = createMask(w, h, 1);
+        BitMaskBuffer.Array bits = BitMaskBuffer.Array.valueOf(mask);
+        ImageDataBuffer dbuf = new FloatDataBuffer.Array2D(new float[h][w], bits);
+        ImageDataBuffer booleanDbuf = new FloatDataBuffer.Array2D(new float[h][w], new BooleanMaskBuffer.Array2D(mask));
+
+        long[] words = null;
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                assertEquals(mask[y][x], bits.isMasked(x, y));
+            }
+            for (int x : new int[]{0, 5, 64, 100}) {
+                // the reused array may be longer than the words of the row
+                int n = (w - x + 63) / 64;
+                words = dbuf.getMaskWords(x, y, w - x, words);
+                assertArrayEquals(Arrays.copyOf(words, n), booleanDbuf.getMaskWords(x, y, w - x, null));
+                for (int k = 0; k < n * 64; k++) {
+                    boolean expected = (x + k >= w) || mask[y][x + k];
+                    assertEquals(expected, (words[k >> 6] >>> k & 1) != 0);
+                }
+            }
+        }
+
+        bits.setMasked(3, 2, true);
+        bits.setMasked(4, 2, false);
+        assertEquals(true, bits.isMasked(3, 2));
+        assertEquals(false, bits.isMasked(4, 2));
+
+        // no mask
+        words = new FloatDataBuffer.Array2D(new float[h][w]).getMaskWords(0, 0, w, null);
+        assertArrayEquals(new long[]{0, 0, -1L << 22}, words);
+    }
+
+    @Test
+    public void testStatistics() {
+        int w = 201, h = 33;
+        boolean[][] mask = createMask(w, h, 2);
+        Random rand = new Random(3);
+        byte[][] b = new byte[h][w];
+        short[][] s = new short[h][w];
+        int[][] i = new int[h][w];
+        float[][] f = new float[h][w];
+        double[][] d = new double[h][w];
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int v = rand.nextInt(200) - 100;
+                b[y][x] = (byte) v;
+                s[y][x] = (short) v;
+                i[y][x] = v;
+                f[y][x] = (v == 0) ? Float.NaN : v;
+                d[y][x] = (v == 0) ? Double.NaN : v;
+            }
+        }
+
+        for (ImageMaskBuffer m : new ImageMaskBuffer[]{new BooleanMaskBuffer.Array2D(mask),
+                BitMaskBuffer.Array.valueOf(mask)}) {
+            ImageDataBuffer[] dbufs = {new ByteDataBuffer.Array2D(b, m), new ShortDataBuffer.Array2D(s, m),
+                    new IntDataBuffer.Array2D(i, m), new FloatDataBuffer.Array2D(f, m),
+                    new DoubleDataBuffer.Array2D(d, m)};
+            for (ImageDataBuffer dbuf : dbufs) {
+                int count = 0;
+                double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+                for (int y = 0; y < h; y++) {
+                    for (int x = 0; x < w; x++) {
+                        double v = dbuf.getDouble(x, y);
+                        if (!mask[y][x] && !Double.isNaN(v)) {
+                            count++;
+                            min = Math.min(min, v);
+                            max = Math.max(max, v);
+                        }
+                    }
+                }
+                assertEquals(count, dbuf.countValid(w, h), 0);
+                assertArrayEquals(new double[]{min, max}, dbuf.calcMinMax(w, h), 0);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.data;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Measure the parse throughput of the loaders. Run it as a java application, the optional argument is the size of the
+ * text file in MB, default to 1024. The binary file holds the same points as (double, double) records. The text loader
+ * is compared with reading lines by BufferedReader and parsing them by Double.parseDouble into arrays, then building
+ * XYGraphData from the arrays. The values have at most 4 decimal digits, like a typical data logger output.
+ * <p>
+ * The test files are written to the temporary directory and deleted on exit.
+ */
+public class DataLoaderBenchmark {
+
+    private static final int ROUNDS = 2;
+
+    public static void main(String[] args) throws IOException {
+        long mb = (args.length > 0) ? Long.parseLong(args[0]) : 1024;
+
+        File textFile = File.createTempFile("jplot2d-bench", ".csv");
+        textFile.deleteOnExit();
+        File binFile = File.createTempFile("jplot2d-bench", ".dat");
+        binFile.deleteOnExit();
+        int n = writeFiles(textFile, binFile, mb << 20);
+        System.out.printf("%d points, text %.1f MB, binary %.1f MB%n", n, textFile.length() / 1048576.0,
+                binFile.length() / 1048576.0);
+
+        // the 1st round warms up the JIT and the file cache
+        for (int r = 0; r < ROUNDS; r++) {
+            long t0 = System.nanoTime();
+            XYGraphData gd = new DelimitedTextLoader(',').loadXY(textFile, 0, 1);
+            long t1 = System.nanoTime();
+            report(r, "DelimitedTextLoader", textFile, gd, t1 - t0);
+
+            t0 = System.nanoTime();
+            gd = loadByReader(textFile, n);
+            t1 = System.nanoTime();
+            report(r, "BufferedReader + parseDouble", textFile, gd, t1 - t0);
+
+            t0 = System.nanoTime();
+            gd = new BinaryDataLoader(ByteOrder.BIG_ENDIAN).loadXY(binFile, double.class, 0, double.class, 8, 16);
+            t1 = System.nanoTime();
+            report(r, "BinaryDataLoader", binFile, gd, t1 - t0);
+        }
+    }
+
+    private static void report(int round, String name, File file, XYGraphData gd, long nanos) {
+        System.out.printf("round %d, %s: %.0f ms, %.1f MB/s, %d points, y range %s%n", round, name, nanos / 1e6,
+                file.length() / 1048576.0 / (nanos / 1e9), gd.size(), gd.getYRange());
+    }
+
+    private static int writeFiles(File textFile, File binFile, long textBytes) throws IOException {
+        Random rand = new Random(1);
+        OutputStream text = new BufferedOutputStream(new FileOutputStream(textFile), 1 << 16);
+        DataOutputStream bin = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(binFile), 1 << 16));
+        int n = 0;
+        long bytes = 0;
+        long yUnits = 0;
+        try {
+            while (bytes < textBytes && n < Integer.MAX_VALUE - 8) {
+                double x = n / 1000.0;
+                yUnits += Math.round(rand.nextGaussian() * 1e4);
+                double y = yUnits / 1e4;
+                byte[] line = (x + "," + y + "\n").getBytes(StandardCharsets.US_ASCII);
+                text.write(line);
+                bin.writeDouble(x);
+                bin.writeDouble(y);
+                bytes += line.length;
+                n++;
+            }
+        } finally {
+            text.close();
+            bin.close();
+        }
+        return n;
+    }
+
+    private static XYGraphData loadByReader(File file, int n) throws IOException {
+        double[] x = new double[n];
+        double[] y = new double[n];
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+        try {
+            String line;
+            int i = 0;
+            while ((line = reader.readLine()) != null) {
+                int comma = line.indexOf(',');
+                x[i] = Double.parseDouble(line.substring(0, comma));
+                y[i] = Double.parseDouble(line.substring(comma + 1));
+                i++;
+            }
+        } finally {
+            reader.close();
+        }
+        return new XYGraphData(ArrayPair.valueOf(x, y));
+    }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.data;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @author Jingjing Li
+ */
+public class DelimitedTextLoaderTest {
+
+	private static ReadableByteChannel channel(String text) {
+		return Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)));
+	}
+
+	private static double parse(String text) {
+		byte[] a = text.getBytes(StandardCharsets.US_ASCII);
+		return DelimitedTextLoader.parseDouble(a, 0, a.length);
+	}
+
+	/**
+	 * Check the data feature of the given data against the feature of a full scan.
+	 */
+	private static void checkFeature(double[] x, double[] y, XYGraphData gd) {
+		XYGraphData ref = new XYGraphData(ArrayPair.valueOf(x, y));
+		assertEquals(ref.size(), gd.size());
+		assertEquals(ref.getXRange(), gd.getXRange());
+		assertEquals(ref.getYRange(), gd.getYRange());
+		assertEquals(ref.isInfiniteX(), gd.isInfiniteX());
+		assertEquals(ref.isInfiniteY(), gd.isInfiniteY());
+		assertEquals(ref.isXAscending(), gd.isXAscending());
+		assertArrayEquals(ref.getNaNIndexes()[0], gd.getNaNIndexes()[0]);
+		assertArrayEquals(ref.getNaNIndexes()[1], gd.getNaNIndexes()[1]);
+
+		double[] buf = new double[x.length];
+		gd.getX(0, buf, 0, x.length);
+		assertArrayEquals(x, buf, 0);
+		gd.getY(0, buf, 0, y.length);
+		assertArrayEquals(y, buf, 0);
+	}
+
+	@Test
+	public void testParseDouble() {
+		assertEquals(0, parse("0"), 0);
+		assertEquals(-1.5, parse(" -1.5 "), 0);
+		assertEquals(1500, parse("+1.5e3"), 0);
+		assertEquals(0.015, parse("1.5E-2"), 0);
+		assertEquals(0.5, parse(".5"), 0);
+		assertEquals(5, parse("5."), 0);
+		assertEquals(Double.POSITIVE_INFINITY, parse("Infinity"), 0);
+		assertEquals(Double.NEGATIVE_INFINITY, parse("-inf"), 0);
+		assertTrue(Double.isNaN(parse("NaN")));
+		assertTrue(Double.isNaN(parse("")));
+		assertTrue(Double.isNaN(parse("abc")));
+		assertTrue(Double.isNaN(parse("1e")));
+		assertTrue(Double.isNaN(parse("1.2.3")));
+		assertEquals(1e300, parse("1e300"), 0);
+		assertEquals(Double.MIN_VALUE, parse("4.9e-324"), 0);
+		assertEquals(0.1 + 0.2, parse("0.30000000000000004"), 0);
+	}
+
+	@Test
+	public void testParseDoubleSameAsJdk() {
+		Random rand = new Random(1);
+		for (int i = 0; i < 100000; i++) {
+			double v;
+			switch (i % 4) {
+			case 0:
+				v = rand.nextGaussian();
+				break;
+			case 1:
+				v = rand.nextGaussian() * Math.pow(10, rand.nextInt(40) - 20);
+				break;
+			case 2:
+				v = Math.round(rand.nextGaussian() * 1e6) / 1e3;
+				break;
+			default:
+				v = Double.longBitsToDouble(rand.nextLong());
+				break;
+			}
+			String[] texts = { Double.toString(v), String.format("%.6f", v), String.format("%.3e", v),
+					String.format("%.17g", v) };
+			for (String text : texts) {
+				assertEquals(text, Double.doubleToLongBits(Double.parseDouble(text)),
+						Double.doubleToLongBits(parse(text)));
+			}
+		}
+	}
+
+	@Test
+	public void testLoadXY() throws IOException {
+		String text = "# comment\nt,a,b\n1,2,3\r\n\n2,,4\n3,x,5\n  # comment\n4,5\n0,-1,-inf";
+		DelimitedTextLoader loader = new DelimitedTextLoader(',');
+		loader.setHeaderLines(2);
+		XYGraphData gd = loader.loadXY(channel(text), 0, 2);
+		checkFeature(new double[] { 1, 2, 3, 4, 0 }, new double[] { 3, 4, 5, Double.NaN, Double.NEGATIVE_INFINITY },
+				gd);
+
+		gd = loader.loadXY(channel(text), 1, 0);
+		checkFeature(new double[] { 2, Double.NaN, Double.NaN, 5, -1 }, new double[] { 1, 2, 3, 4, 0 }, gd);
+	}
+
+	@Test
+	public void testWhitespaceDelimiter() throws IOException {
+		DelimitedTextLoader loader = new DelimitedTextLoader(' ');
+		XYGraphData gd = loader.loadXY(channel("  1 \t 2\n3    4   \n"), 0, 1);
+		checkFeature(new double[] { 1, 3 }, new double[] { 2, 4 }, gd);
+	}
+
+	@Test
+	public void testLoadLargeFile() throws IOException {
+		int n = 300000;
+		Random rand = new Random(2);
+		double[] x = new double[n];
+		double[] y = new double[n];
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < n; i++) {
+			x[i] = i * 0.001;
+			y[i] = (rand.nextInt(100) == 0) ? Double.NaN : Math.round(rand.nextGaussian() * 1e4) / 1e4;
+			sb.append(x[i]).append('\t').append(y[i]).append('\n');
+		}
+
+		File file = File.createTempFile("jplot2d", ".tsv");
+		file.deleteOnExit();
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(sb.toString().getBytes(StandardCharsets.US_ASCII));
+		} finally {
+			out.close();
+		}
+
+		XYGraphData gd = new DelimitedTextLoader('\t').loadXY(file, 0, 1);
+		checkFeature(x, y, gd);
+		assertTrue(gd.isXAscending());
+	}
+
+	@Test
+	public void testLoadImage() throws IOException {
+		DelimitedTextLoader loader = new DelimitedTextLoader(',');
+		SingleBandImageData image = loader.loadImage(channel("1,2,3\n4,NaN,6,7\n-8\n"));
+		assertEquals(3, image.getWidth());
+		assertEquals(3, image.getHeight());
+		ImageDataBuffer dbuf = image.getDataBuffer();
+		assertEquals(2, dbuf.getDouble(1, 0), 0);
+		assertEquals(6, dbuf.getDouble(2, 1), 0);
+		assertTrue(Double.isNaN(dbuf.getDouble(1, 2)));
+		assertEquals(6, dbuf.countValid(3, 3), 0);
+		assertArrayEquals(new double[] { -8, 6 }, dbuf.calcMinMax(3, 3), 0);
+		// a sub-rectangle is scanned
+		assertArrayEquals(new double[] { 1, 2 }, dbuf.calcMinMax(2, 1), 0);
+	}
+
+}
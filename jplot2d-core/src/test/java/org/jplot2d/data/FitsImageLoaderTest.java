@@ -0,0 +1,166 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.data;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Jingjing Li
+ */
+public class FitsImageLoaderTest {
+
+    /**
+     * Write a FITS file of the given header cards and data.
+     */
+    private static File writeFits(String[] cards, ByteBuffer data) throws IOException {
+        StringBuilder header = new StringBuilder();
+        for (String card : cards) {
+            header.append(String.format("%-80s", card));
+        }
+        header.append(String.format("%-80s", "END"));
+        while (header.length() % 2880 != 0) {
+            header.append(' ');
+        }
+        int dataBlocks = (data.position() + 2879) / 2880;
+
+        File file = File.createTempFile("jplot2d", ".fits");
+        file.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(header.toString().getBytes(StandardCharsets.US_ASCII));
+            out.write(data.array(), 0, data.position());
+            out.write(new byte[dataBlocks * 2880 - data.position()]);
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    @Test
+    public void testUnsignedShort() throws IOException {
+        int w = 50, h = 60;
+        // FITS data is big-endian
+        ByteBuffer bb = ByteBuffer.allocate(w * h * 2);
+        for (int j = 0; j < h; j++) {
+            for (int i = 0; i < w; i++) {
+                // the raw value -32768 is BLANK
+                int v = j * 1000 + i + 1;
+                bb.putShort((i == 3 && j == 4) ? Short.MIN_VALUE : (short) (v - 32768));
+            }
+        }
+        File file = writeFits(new String[]{"SIMPLE  =                    T / conforms to FITS",
+                "BITPIX  =                   16", "NAXIS   =                    3", "NAXIS1  =                   50",
+                "NAXIS2  =                   60", "NAXIS3  =                    1", "BZERO   =               3.2768D4",
+                "BSCALE  =                  1.0", "BLANK   =               -32768", "OBJECT  = 'M31 / core'"}, bb);
+
+        SingleBandImageData image = FitsImageLoader.map(file);
+        assertEquals(w, image.getWidth());
+        assertEquals(h, image.getHeight());
+        ImageDataBuffer dbuf = image.getDataBuffer();
+        assertEquals(59050, dbuf.getDouble(49, 59), 0);
+        assertEquals(1003, dbuf.getDouble(2, 1), 0);
+        assertTrue(dbuf.isMasked(3, 4));
+        assertFalse(dbuf.isMasked(4, 3));
+        assertEquals(w * h - 1, dbuf.countValid(w, h), 0);
+        assertArrayEquals(new double[]{1, 59050}, dbuf.calcMinMax(w, h), 0);
+    }
+
+    @Test
+    public void testFloat() throws IOException {
+        int w = 7, h = 5;
+        ByteBuffer bb = ByteBuffer.allocate(w * h * 4);
+        for (int j = 0; j < h; j++) {
+            for (int i = 0; i < w; i++) {
+                bb.putFloat(j + i / 10f);
+            }
+        }
+        File file = writeFits(new String[]{"SIMPLE  =                    T", "BITPIX  =                  -32",
+                "NAXIS   =                    2", "NAXIS1  =                    7",
+                "NAXIS2  =                    5"}, bb);
+
+        ImageDataBuffer dbuf = FitsImageLoader.map(file).getDataBuffer();
+        assertTrue(dbuf instanceof FloatDataBuffer.NioBuffer);
+        assertEquals(4.6f, dbuf.getFloat(6, 4), 0);
+        assertEquals(1.2f, dbuf.getFloat(2, 1), 0);
+    }
+
+    @Test
+    public void testBlankNotScaled() throws IOException {
+        int w = 3, h = 4;
+        ByteBuffer bb = ByteBuffer.allocate(w * h * 4);
+        for (int j = 0; j < h; j++) {
+            for (int i = 0; i < w; i++) {
+                bb.putInt((i == 1 && j == 2) ? -1 : j * 10 + i);
+            }
+        }
+        File file = writeFits(new String[]{"SIMPLE  =                    T", "BITPIX  =                   32",
+                "NAXIS   =                    2", "NAXIS1  =                    3", "NAXIS2  =                    4",
+                "BLANK   =                   -1"}, bb);
+
+        // the mapped raw buffer carries the mask
+        ImageDataBuffer dbuf = FitsImageLoader.map(file).getDataBuffer();
+        assertTrue(dbuf instanceof IntDataBuffer.NioBuffer);
+        assertEquals(32, dbuf.getInt(2, 3));
+        assertEquals(10, dbuf.getInt(0, 1));
+        assertTrue(dbuf.isMasked(1, 2));
+        assertFalse(dbuf.isMasked(2, 1));
+        assertEquals(w * h - 1, dbuf.countValid(w, h), 0);
+        assertArrayEquals(new double[]{0, 32}, dbuf.calcMinMax(w, h), 0);
+    }
+
+    @Test
+    public void testUnsignedByte() throws IOException {
+        ByteBuffer bb = ByteBuffer.allocate(4);
+        bb.put((byte) 0).put((byte) 200).put((byte) 255).put((byte) 7);
+        File file = writeFits(new String[]{"SIMPLE  =                    T", "BITPIX  =                    8",
+                "NAXIS   =                    2", "NAXIS1  =                    2", "NAXIS2  =                    2",
+                "BSCALE  =                  0.5", "BLANK   =                  255"}, bb);
+
+        ImageDataBuffer dbuf = FitsImageLoader.map(file).getDataBuffer();
+        assertEquals(100, dbuf.getDouble(1, 0), 0);
+        assertTrue(dbuf.isMasked(0, 1));
+        assertArrayEquals(new double[]{0, 100}, dbuf.calcMinMax(2, 2), 0);
+    }
+
+    @Test
+    public void testNotImage() throws IOException {
+        File file = writeFits(new String[]{"SIMPLE  =                    T", "BITPIX  =                   64",
+                "NAXIS   =                    2", "NAXIS1  =                    2", "NAXIS2  =                    2"},
+                ByteBuffer.allocate(32));
+        try {
+            FitsImageLoader.map(file);
+            fail("IOException should be thrown");
+        } catch (IOException e) {
+            assertEquals("Unsupported BITPIX: 64", e.getMessage());
+        }
+    }
+
+}
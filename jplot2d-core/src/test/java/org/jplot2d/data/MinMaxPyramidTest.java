@@ -0,0 +1,218 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.data;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @author Jingjing Li
+ */
+public class MinMaxPyramidTest {
+
+	private static XYGraphData createData(int n, long seed) {
+		Random rand = new Random(seed);
+		double[] x = new double[n];
+		double[] y = new double[n];
+		for (int i = 0; i < n; i++) {
+			x[i] = i;
+			y[i] = rand.nextDouble();
+		}
+		return new XYGraphData(ArrayPair.valueOf(x, y));
+	}
+
+	@Test
+	public void testLevels() {
+		MinMaxPyramid pyramid = createData(1000, 1).getMinMaxPyramid();
+		assertTrue(pyramid.isXAscending());
+		// strides 64, 128, 256, 512
+		assertEquals(4, pyramid.getLevelCount());
+		assertEquals(64, pyramid.getStride(0));
+		assertEquals(-1, pyramid.findLevel(63));
+		assertEquals(0, pyramid.findLevel(64));
+		assertEquals(1, pyramid.findLevel(200));
+		assertEquals(3, pyramid.findLevel(100000));
+
+		assertEquals(0, createData(64, 1).getMinMaxPyramid().getLevelCount());
+	}
+
+	@Test
+	public void testRepresentativeIndexes() {
+		XYGraphData data = createData(1000, 2);
+		MinMaxPyramid pyramid = data.getMinMaxPyramid();
+		for (int level = 0; level < pyramid.getLevelCount(); level++) {
+			int stride = pyramid.getStride(level);
+			int[] idxes = pyramid.getRepresentativeIndexes(level, 0, data.size());
+			for (int k = 1; k < idxes.length; k++) {
+				assertTrue(idxes[k - 1] < idxes[k]);
+			}
+			assertEquals(0, idxes[0]);
+			assertEquals(data.size() - 1, idxes[idxes.length - 1]);
+
+			// every bucket keeps its first, last, min and max point
+			for (int bs = 0; bs < data.size(); bs += stride) {
+				int be = Math.min(bs + stride, data.size());
+				int min = bs, max = bs;
+				for (int i = bs; i < be; i++) {
+					if (data.getY(i) < data.getY(min)) {
+						min = i;
+					}
+					if (data.getY(i) > data.getY(max)) {
+						max = i;
+					}
+				}
+				for (int i : new int[] { bs, be - 1, min, max }) {
+					assertTrue(java.util.Arrays.binarySearch(idxes, i) >= 0);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testPartialRangeAndNaN() {
+		double[] x = new double[200];
+		double[] y = new double[200];
+		for (int i = 0; i < x.length; i++) {
+			x[i] = i;
+			y[i] = i % 7;
+		}
+		y[70] = Double.NaN;
+		MinMaxPyramid pyramid = new XYGraphData(ArrayPair.valueOf(x, y)).getMinMaxPyramid();
+
+		// bucket 64..127 contains NaN, all its points are kept
+		int[] idxes = pyramid.getRepresentativeIndexes(0, 0, 200);
+		for (int i = 64; i < 128; i++) {
+			assertTrue(java.util.Arrays.binarySearch(idxes, i) >= 0);
+		}
+
+		// the partial buckets at both ends are kept
+		idxes = pyramid.getRepresentativeIndexes(0, 10, 150);
+		assertEquals(10, idxes[0]);
+		assertEquals(149, idxes[idxes.length - 1]);
+		for (int i = 10; i < 128; i++) {
+			assertTrue(java.util.Arrays.binarySearch(idxes, i) >= 0);
+		}
+	}
+
+	@Test
+	public void testRangeBorders() {
+		XYGraphData data = createData(5000, 3);
+		MinMaxPyramid pyramid = data.getMinMaxPyramid();
+		int level = pyramid.getLevelCount() - 1;
+		int[] borders = new int[] { 0, 300, 1000, 1001, 4097, 5000 };
+		int[] idxes = pyramid.getRepresentativeIndexes(level, borders);
+		for (int k = 1; k < idxes.length; k++) {
+			assertTrue(idxes[k - 1] < idxes[k]);
+		}
+
+		// every range keeps its first, last, min and max point, even the ranges not aligned to buckets
+		for (int r = 1; r < borders.length; r++) {
+			int min = borders[r - 1], max = borders[r - 1];
+			for (int i = borders[r - 1]; i < borders[r]; i++) {
+				if (data.getY(i) < data.getY(min)) {
+					min = i;
+				}
+				if (data.getY(i) > data.getY(max)) {
+					max = i;
+				}
+			}
+			for (int i : new int[] { borders[r - 1], borders[r] - 1, min, max }) {
+				assertTrue(java.util.Arrays.binarySearch(idxes, i) >= 0);
+			}
+		}
+	}
+
+	/**
+	 * Returns the pyramid built from the points of the given data, whose 1st point has the given absolute index.
+	 */
+	private static MinMaxPyramid buildPyramid(XYGraphData data, long first) {
+		MinMaxPyramid.Builder builder = new MinMaxPyramid.Builder(first);
+		for (int i = 0; i < data.size(); i++) {
+			builder.add(data.getX(i), data.getY(i));
+		}
+		return builder.getPyramid(first, data.size());
+	}
+
+	private static void assertSamePyramid(MinMaxPyramid expected, MinMaxPyramid pyramid, int size) {
+		assertEquals(expected.getLevelCount(), pyramid.getLevelCount());
+		assertEquals(expected.isXAscending(), pyramid.isXAscending());
+		for (int level = 0; level < pyramid.getLevelCount(); level++) {
+			assertArrayEquals(expected.getRepresentativeIndexes(level, 0, size),
+					pyramid.getRepresentativeIndexes(level, 0, size));
+			assertArrayEquals(expected.getRepresentativeIndexes(level, size / 3, size - 5),
+					pyramid.getRepresentativeIndexes(level, size / 3, size - 5));
+		}
+	}
+
+	/**
+	 * The incrementally built pyramids of growable series snapshots are same as the pyramids built from scratch.
+	 */
+	@Test
+	public void testGrowableSeries() {
+		Random rand = new Random(3);
+		XYDataSeries series = new XYDataSeries();
+		int n = 0;
+		for (int len : new int[] { 100, 1, 63, 900, 5000, 3, 20000 }) {
+			for (int i = 0; i < len; i++) {
+				series.append(n++, (i == 77) ? Double.NaN : rand.nextDouble());
+			}
+			XYGraphData data = series.getGraphData();
+			assertSamePyramid(buildPyramid(data, 0), data.getMinMaxPyramid(), data.size());
+		}
+	}
+
+	/**
+	 * The buckets of a fixed-capacity series are aligned to the absolute index of points.
+	 */
+	@Test
+	public void testFixedCapacitySeries() {
+		Random rand = new Random(4);
+		int capacity = 3000;
+		XYDataSeries series = new XYDataSeries(capacity, true);
+		int n = 0;
+		for (int len : new int[] { 1000, 2500, 1, 777, 10000, 64, 5 }) {
+			for (int i = 0; i < len; i++) {
+				series.append(n++, rand.nextDouble());
+			}
+			XYGraphData data = series.getGraphData();
+			assertSamePyramid(buildPyramid(data, n - data.size()), data.getMinMaxPyramid(), data.size());
+		}
+	}
+
+	@Test
+	public void testSharedByBoundedData() {
+		XYGraphData data = createData(1000, 5);
+		XYGraphData bounded = data.applyBoundary(new org.jplot2d.util.Range.Double(100, 900), null);
+		assertSame(data.getMinMaxPyramid(), bounded.getMinMaxPyramid());
+	}
+
+	@Test
+	public void testNotAscending() {
+		double[] x = new double[100];
+		double[] y = new double[100];
+		for (int i = 0; i < x.length; i++) {
+			x[i] = Math.sin(i);
+		}
+		assertFalse(new XYGraphData(ArrayPair.valueOf(x, y)).getMinMaxPyramid().isXAscending());
+	}
+
+}
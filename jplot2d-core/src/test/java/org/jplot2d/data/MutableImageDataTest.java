@@ -0,0 +1,85 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.data;
+
+import org.junit.Test;
+
+import java.awt.Rectangle;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author Jingjing Li
+ */
+public class MutableImageDataTest {
+
+    @Test
+    public void testChangedRegion() {
+        MutableImageData data = new MutableImageData(mock(ImageDataBuffer.class), 300, 200);
+        assertEquals(0, data.getVersion());
+        assertNull(data.getChangedRegion(0));
+
+        data.update(10, 20, 5, 5);
+        data.update(290, 190, 20, 20);
+        assertEquals(2, data.getVersion());
+        assertEquals(new Rectangle(10, 20, 290, 180), data.getChangedRegion(0));
+        // clipped by the image bounds
+        assertEquals(new Rectangle(290, 190, 10, 10), data.getChangedRegion(1));
+        assertNull(data.getChangedRegion(2));
+
+        // the copy shares the versions
+        MutableImageData copy = data.applyCoordinateReference(new ImageCoordinateReference());
+        copy.update(0, 0, 1, 1);
+        assertEquals(3, data.getVersion());
+        assertEquals(new Rectangle(0, 0, 1, 1), data.getChangedRegion(2));
+
+        // a too old version changes the whole image
+        for (int i = 0; i < 100; i++) {
+            data.update(0, 0, 1, 1);
+        }
+        assertEquals(new Rectangle(0, 0, 1, 1), data.getChangedRegion(data.getVersion() - 10));
+        assertEquals(new Rectangle(300, 200), data.getChangedRegion(3));
+    }
+
+    @Test
+    public void testStatisticsInvalidated() {
+        double[][] values = {{1, 2, 3}, {4, Double.NaN, 6}};
+        ImageStatistics stats = new ImageStatistics();
+        stats.setSize(3, 2);
+        for (double[] row : values) {
+            for (double v : row) {
+                stats.add(v);
+            }
+        }
+        ImageDataBuffer dbuf = new ImageStatistics.DoubleBuffer2D(values, stats);
+        MutableImageData data = new MutableImageData(dbuf, 3, 2);
+        assertEquals(5, dbuf.countValid(3, 2), 0);
+        assertArrayEquals(new double[]{1, 6}, dbuf.calcMinMax(3, 2), 0);
+
+        values[1][1] = 9;
+        values[0][0] = Double.NaN;
+        data.update(0, 0, 2, 2);
+        assertEquals(5, dbuf.countValid(3, 2), 0);
+        assertArrayEquals(new double[]{2, 9}, dbuf.calcMinMax(3, 2), 0);
+    }
+
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.data;
+
+import static org.jplot2d.util.TestUtils.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @author Jingjing Li
+ */
+public class NioBufferPairTest {
+
+	private static double[] createValues(int n, long seed) {
+		Random rand = new Random(seed);
+		double[] a = new double[n];
+		for (int i = 0; i < n; i++) {
+			a[i] = (rand.nextInt(50) == 0) ? Double.NaN : rand.nextGaussian();
+		}
+		return a;
+	}
+
+	private static DoubleBuffer directDoubles(double[] a) {
+		DoubleBuffer buf = ByteBuffer.allocateDirect(a.length * 8).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+		buf.put(a);
+		return buf;
+	}
+
+	/**
+	 * Check the data feature of the given data against the feature of the same data in heap arrays.
+	 */
+	private static void checkFeature(double[] x, double[] y, XYGraphData gd) {
+		XYGraphData ref = new XYGraphData(ArrayPair.valueOf(x, y));
+		assertEquals(ref.size(), gd.size());
+		assertEquals(ref.getXRange(), gd.getXRange());
+		assertEquals(ref.getYRange(), gd.getYRange());
+		assertEquals(ref.getNaNIndexesCount(), gd.getNaNIndexesCount());
+		assertEquals(ref.isXAscending(), gd.isXAscending());
+		int[][] refNaN = ref.getNaNIndexes();
+		int[][] nan = gd.getNaNIndexes();
+		assertArrayEquals(refNaN[0], nan[0]);
+		assertArrayEquals(refNaN[1], nan[1]);
+
+		double[] buf = new double[x.length];
+		gd.getX(0, buf, 0, x.length);
+		assertArrayEquals(x, buf, 0);
+		gd.getY(0, buf, 0, y.length);
+		assertArrayEquals(y, buf, 0);
+	}
+
+	@Test
+	public void testValueOf() {
+		DoubleBuffer p = DoubleBuffer.wrap(new double[] { 1, 2, 3 });
+		FloatBuffer q = FloatBuffer.wrap(new float[] { 4, 5, 6 });
+		ArrayPair ap = ArrayPair.valueOf(p, q);
+		assertTrue(ap instanceof NioBufferPair);
+		assertEquals(double.class, ap.getPComponentType());
+		assertEquals(float.class, ap.getQComponentType());
+		assertSame(p, ap.getPArray());
+		assertEquals(3, ap.size());
+		assertEquals(2, ArrayPair.valueOf(p, q, 1, 2).size());
+		assertEquals(6, ArrayPair.valueOf(p, q, 1, 2).getQDouble(1), 0);
+		try {
+			ArrayPair.valueOf(p, FloatBuffer.allocate(2));
+			fail("IllegalArgumentException should be thrown");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testBulkGet() {
+		double[] buf = new double[4];
+		LongBuffer p = LongBuffer.wrap(new long[] { 0, 7, 8, 9 });
+		DoubleBuffer q = directDoubles(new double[] { 0, 1, 2, 3 });
+		q.position(3);
+		ArrayPair ap = new NioBufferPair(p, q, 1, 3);
+		ap.getPDouble(0, buf, 0, 3);
+		checkDoubleArray(buf, 7, 8, 9, 0);
+		ap.getQDouble(1, buf, 2, 2);
+		checkDoubleArray(buf, 7, 8, 2, 3);
+		assertEquals(3, q.position());
+
+		try {
+			ap.getPDouble(2, buf, 0, 2);
+			fail("IndexOutOfBoundsException should be thrown");
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testBlocks() {
+		double[] buf = new double[5];
+		Buffer[] p = { DoubleBuffer.wrap(new double[] { 0, 1 }), DoubleBuffer.wrap(new double[] { 2, 3 }),
+				DoubleBuffer.wrap(new double[] { 4 }) };
+		Buffer[] q = { FloatBuffer.wrap(new float[] { 5, 6, 9 }), FloatBuffer.wrap(new float[] { 7, 8, 9 }),
+				FloatBuffer.wrap(new float[] { 9, 9 }) };
+		ArrayPair ap = new NioBufferPair(p, q, 2, 5);
+		assertEquals(5, ap.size());
+		assertEquals(double.class, ap.getPComponentType());
+		assertEquals(float.class, ap.getQComponentType());
+		assertSame(p, ap.getPArray());
+		assertEquals(3, ap.getPDouble(3), 0);
+		assertEquals(9, ap.getQDouble(4), 0);
+		ap.getPDouble(0, buf, 0, 5);
+		checkDoubleArray(buf, 0, 1, 2, 3, 4);
+		ap.getQDouble(1, buf, 0, 3);
+		checkDoubleArray(buf, 6, 7, 8, 3, 4);
+
+		try {
+			new NioBufferPair(p, q, 2, 6);
+			fail("IllegalArgumentException should be thrown");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			new NioBufferPair(p, new Buffer[] { FloatBuffer.allocate(2), DoubleBuffer.allocate(3) }, 2, 5);
+			fail("IllegalArgumentException should be thrown");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testAppend() {
+		ArrayPair ap = new NioBufferPair(FloatBuffer.wrap(new float[] { 0, 1 }), FloatBuffer.wrap(new float[] { 2, 3 }));
+		ArrayPair result = ap.append(ArrayPair.valueOf(new int[] { 4 }, new int[] { 5 }));
+		assertTrue(result instanceof DoubleArrayPair);
+		checkDoubleArray(result.getPArray(), 0, 1, 4);
+		checkDoubleArray(result.getQArray(), 2, 3, 5);
+
+		result = ArrayPair.valueOf(new double[] { 4 }, new double[] { 5 }).append(ap);
+		checkDoubleArray(result.getPArray(), 4, 0, 1);
+		checkDoubleArray(result.getQArray(), 5, 2, 3);
+	}
+
+	@Test
+	public void testDirectBuffers() {
+		int n = 5000;
+		double[] x = createValues(n, 1);
+		double[] y = createValues(n, 2);
+		checkFeature(x, y, new XYGraphData(new NioBufferPair(directDoubles(x), directDoubles(y))));
+
+		float[] fx = new float[n];
+		long[] ly = new long[n];
+		double[] dfx = new double[n];
+		double[] dly = new double[n];
+		for (int i = 0; i < n; i++) {
+			fx[i] = (float) x[i];
+			dfx[i] = fx[i];
+			ly[i] = i * 3;
+			dly[i] = ly[i];
+		}
+		checkFeature(dfx, dly, new XYGraphData(new NioBufferPair(FloatBuffer.wrap(fx), LongBuffer.wrap(ly))));
+	}
+
+	@Test
+	public void testMap() throws IOException {
+		int n = 3000;
+		double[] x = new double[n];
+		double[] y = createValues(n, 3);
+		for (int i = 0; i < n; i++) {
+			x[i] = i;
+		}
+
+		File file = File.createTempFile("jplot2d", ".dat");
+		file.deleteOnExit();
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			FileChannel channel = raf.getChannel();
+			ByteBuffer bb = ByteBuffer.allocate(16 + n * 16).order(ByteOrder.BIG_ENDIAN);
+			bb.position(16);
+			bb.asDoubleBuffer().put(x).put(y);
+			bb.position(0);
+			while (bb.hasRemaining()) {
+				channel.write(bb);
+			}
+
+			XYGraphData gd = new XYGraphData(NioBufferPair.map(channel, double.class, ByteOrder.BIG_ENDIAN, 16,
+					16 + n * 8, n));
+			checkFeature(x, y, gd);
+			assertTrue(gd.isXAscending());
+			assertEquals(1234, gd.searchX(1234, false));
+
+			// map in pieces, as a block larger than 2GB
+			NioBufferPair ap = NioBufferPair.map(channel, double.class, ByteOrder.BIG_ENDIAN, 16, 16 + n * 8, n, 1024);
+			assertEquals(3, ((Buffer[]) ap.getPArray()).length);
+			checkFeature(x, y, new XYGraphData(ap));
+		} finally {
+			raf.close();
+		}
+	}
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.data;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Jingjing Li
+ */
+public class WaterfallImageDataTest {
+
+    @Test
+    public void testAppendRows() {
+        WaterfallImageData data = new WaterfallImageData(3, 4);
+        ImageDataBuffer dbuf = data.getDataBuffer();
+        assertTrue(Float.isNaN(dbuf.getFloat(0, 3)));
+
+        data.appendRow(new float[]{1, 2, 3});
+        data.appendRows(new float[][]{{4, 5, 6}, {7, 8, 9}});
+        assertEquals(3, data.getRowCount());
+        // the newest row is the top row
+        assertEquals(7, dbuf.getFloat(0, 3), 0);
+        assertEquals(3, dbuf.getFloat(2, 1), 0);
+        assertTrue(Float.isNaN(dbuf.getFloat(0, 0)));
+        assertEquals(9, dbuf.countValid(3, 4), 0);
+
+        data.appendRows(new float[][]{{10, 11, 12}, {13, 14, 15}});
+        assertEquals(5, data.getRowCount());
+        assertEquals(4, dbuf.getFloat(0, 0), 0);
+        assertEquals(13, dbuf.getFloat(0, 3), 0);
+        // the absolute row 4 is in the ring row 0
+        assertEquals(13, data.getRingBuffer().getFloat(0, 0), 0);
+        assertEquals(4, data.getRingBuffer().getFloat(0, 1), 0);
+
+        // the copy shares the rows
+        WaterfallImageData copy = data.applyCoordinateReference(new ImageCoordinateReference());
+        copy.appendRow(new float[]{16, 17, 18});
+        assertEquals(16, dbuf.getFloat(0, 3), 0);
+        assertEquals(6, data.getRowCount());
+        assertEquals(4, data.getVersion());
+    }
+
+    @Test
+    public void testRunningLimits() {
+        WaterfallImageData data = new WaterfallImageData(3, 2);
+        ImageDataBuffer dbuf = data.getDataBuffer();
+        assertNull(dbuf.calcMinMax(3, 2));
+
+        data.appendRow(new float[]{5, Float.NaN, 6});
+        assertArrayEquals(new double[]{5, 6}, dbuf.calcMinMax(3, 2), 0);
+        data.appendRows(new float[][]{{2, Float.POSITIVE_INFINITY, 3}, {4, 4, 4}});
+        assertArrayEquals(new double[]{2, 6}, dbuf.calcMinMax(3, 2), 0);
+
+        // the limits do not shrink when the rows of extreme values are dropped
+        data.appendRow(new float[]{4, 5, 4});
+        assertArrayEquals(new double[]{2, 6}, dbuf.calcMinMax(3, 2), 0);
+        // a part of the image is scanned, the bottom row is the oldest row
+        assertArrayEquals(new double[]{4, 4}, dbuf.calcMinMax(3, 1), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRowLength() {
+        new WaterfallImageData(3, 4).appendRow(new float[2]);
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.data;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @author Jingjing Li
+ */
+public class XYDataSeriesTest {
+
+	private static double nextValue(Random rand) {
+		int r = rand.nextInt(20);
+		switch (r) {
+		case 0:
+		case 1:
+			return Double.NaN;
+		case 2:
+			return Double.POSITIVE_INFINITY;
+		case 3:
+			return Double.NEGATIVE_INFINITY;
+		default:
+			return rand.nextGaussian();
+		}
+	}
+
+	/**
+	 * Check the data feature of the given snapshot against the feature of a full scan.
+	 */
+	private static void checkFeature(XYGraphData gd) {
+		int n = gd.size();
+		double[] x = new double[n];
+		double[] y = new double[n];
+		gd.getX(0, x, 0, n);
+		gd.getY(0, y, 0, n);
+		XYGraphData ref = new XYGraphData(ArrayPair.valueOf(x, y));
+
+		assertEquals(ref.getXRange(), gd.getXRange());
+		assertEquals(ref.getYRange(), gd.getYRange());
+		assertEquals(ref.isInfiniteX(), gd.isInfiniteX());
+		assertEquals(ref.isInfiniteY(), gd.isInfiniteY());
+		assertEquals(ref.getNaNIndexesCount(), gd.getNaNIndexesCount());
+		assertEquals(ref.isXAscending(), gd.isXAscending());
+		int[][] refNaN = ref.getNaNIndexes();
+		int[][] nan = gd.getNaNIndexes();
+		assertArrayEquals(refNaN[0], nan[0]);
+		assertArrayEquals(refNaN[1], nan[1]);
+	}
+
+	@Test
+	public void testGrowable() {
+		Random rand = new Random(1);
+		XYDataSeries series = new XYDataSeries(4, false);
+		for (int i = 0; i < 1000; i++) {
+			series.append(i, nextValue(rand));
+			assertEquals(i + 1, series.size());
+			if (i % 37 == 0) {
+				checkFeature(series.getGraphData());
+			}
+		}
+		checkFeature(series.getGraphData());
+	}
+
+	@Test
+	public void testFixedCapacity() {
+		Random rand = new Random(2);
+		XYDataSeries series = new XYDataSeries(50, true);
+		for (int i = 0; i < 1000; i++) {
+			series.append(nextValue(rand), nextValue(rand));
+			assertEquals(Math.min(i + 1, 50), series.size());
+			checkFeature(series.getGraphData());
+		}
+	}
+
+	@Test
+	public void testXAscending() {
+		XYDataSeries series = new XYDataSeries(3, true);
+		series.append(new double[] { 0, 1, 2 }, new double[] { 5, 6, 7 }, 0, 3);
+		assertTrue(series.getGraphData().isXAscending());
+		series.append(Double.NaN, 0);
+		checkFeature(series.getGraphData());
+		series.append(1, 0);
+		series.append(0, 0);
+		checkFeature(series.getGraphData());
+		series.append(3, 0);
+		series.append(4, 0);
+		checkFeature(series.getGraphData());
+		assertTrue(series.getGraphData().isXAscending());
+	}
+
+	@Test
+	public void testSnapshotImmutable() {
+		XYDataSeries series = new XYDataSeries(3, true);
+		series.append(new double[] { 0, 1, 2 }, new double[] { 5, 6, 7 }, 0, 3);
+		XYGraphData gd = series.getGraphData();
+		assertSame(gd, series.getGraphData());
+
+		for (int i = 3; i < 20; i++) {
+			series.append(i, i + 5);
+		}
+		assertEquals(3, gd.size());
+		assertEquals(0, gd.getX(0), 0);
+		assertEquals(7, gd.getY(2), 0);
+		assertEquals(5, gd.getYRange().getMin(), 0);
+
+		XYGraphData gd2 = series.getGraphData();
+		assertEquals(17, gd2.getX(0), 0);
+		assertEquals(19, gd2.getX(2), 0);
+		assertEquals(22, gd2.getYRange().getMin(), 0);
+		assertEquals(24, gd2.getYRange().getMax(), 0);
+	}
+
+	@Test
+	public void testAppendArrayPair() {
+		XYDataSeries series = new XYDataSeries(2, true);
+		series.append(ArrayPair.valueOf(new int[] { 1, 2, 3 }, new int[] { 4, 5, 6 }));
+		XYGraphData gd = series.getGraphData();
+		assertEquals(2, gd.size());
+		assertEquals(2, gd.getX(0), 0);
+		assertEquals(6, gd.getY(1), 0);
+
+		series.clear();
+		assertEquals(0, series.size());
+		assertTrue(Double.isNaN(series.getGraphData().getXRange().getMin()));
+	}
+
+}
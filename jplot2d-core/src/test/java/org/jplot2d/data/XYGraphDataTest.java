@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.data;
+
+import static org.junit.Assert.*;
+
+import org.jplot2d.util.Range;
+import org.junit.Test;
+
+/**
+ * @author Jingjing Li
+ */
+public class XYGraphDataTest {
+
+	private static XYGraphData create(double[] x) {
+		return new XYGraphData(ArrayPair.valueOf(x, new double[x.length]));
+	}
+
+	@Test
+	public void testXAscending() {
+		assertTrue(create(new double[0]).isXAscending());
+		assertTrue(create(new double[] { Double.NEGATIVE_INFINITY, 1, 1, 2, Double.POSITIVE_INFINITY }).isXAscending());
+		assertFalse(create(new double[] { 1, 2, 1 }).isXAscending());
+		assertFalse(create(new double[] { 1, Double.NaN, 3 }).isXAscending());
+
+		// NaN y does not matter
+		XYGraphData data = new XYGraphData(ArrayPair.valueOf(new double[] { 1, 2, 3 }, new double[] { 0,
+				Double.NaN, 0 }));
+		assertTrue(data.isXAscending());
+		assertTrue(data.applyBoundary(new Range.Double(0, 10), null).isXAscending());
+		assertTrue(data.applyBoundary(new Range.Double(2, 10), null).isXAscending());
+	}
+
+	@Test
+	public void testSearchX() {
+		XYGraphData data = create(new double[] { 1, 2, 2, 2, 3 });
+		assertEquals(0, data.searchX(0, false));
+		assertEquals(0, data.searchX(1, false));
+		assertEquals(1, data.searchX(1, true));
+		assertEquals(1, data.searchX(2, false));
+		assertEquals(4, data.searchX(2, true));
+		assertEquals(4, data.searchX(2.5, false));
+		assertEquals(5, data.searchX(3, true));
+		assertEquals(5, data.searchX(4, false));
+	}
+
+}
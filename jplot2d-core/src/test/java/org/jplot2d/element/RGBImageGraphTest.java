@@ -35,10 +35,11 @@ public class RGBImageGraphTest {
 
     @Test
     public void testInterfaceInfo() {
-        InterfaceInfo iinfo = InterfaceInfo.loadInterfaceInfo(ImageGraph.class);
-        checkCollecionOrder(iinfo.getPropertyInfoGroupMap().keySet(), "Component");
+        InterfaceInfo iinfo = InterfaceInfo.loadInterfaceInfo(RGBImageGraph.class);
+        checkCollecionOrder(iinfo.getPropertyInfoGroupMap().keySet(), "Component", "Image");
         checkPropertyInfoNames(iinfo.getPropertyInfoGroupMap().get("Component"), "visible", "cacheable", "selectable",
                 "ZOrder", "color", "fontName", "fontStyle", "fontSize", "fontScale", "location", "size", "bounds");
+        checkPropertyInfoNames(iinfo.getPropertyInfoGroupMap().get("Image"), "pyramidMode");
 
         checkCollecionOrder(iinfo.getProfilePropertyInfoGroupMap().keySet(), "Component");
         checkPropertyInfoNames(iinfo.getProfilePropertyInfoGroupMap().get("Component"), "visible", "cacheable",
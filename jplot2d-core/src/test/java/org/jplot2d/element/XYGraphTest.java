@@ -40,8 +40,8 @@ public class XYGraphTest {
 		checkPropertyInfoNames(iinfo.getPropertyInfoGroupMap().get("Component"), "visible", "cacheable", "selectable",
 				"ZOrder", "color", "fontName", "fontStyle", "fontSize", "fontScale", "location", "size", "bounds");
 		checkPropertyInfoNames(iinfo.getPropertyInfoGroupMap().get("XY Graph"), "name", "symbolVisible", "symbolShape",
-				"symbolSize", "symbolColor", "lineVisible", "lineStroke", "chartType", "fillEnabled", "fillPaint",
-				"fillClosureType", "errorbarCapSize");
+				"symbolSize", "symbolColor", "lineVisible", "lineStroke", "chartType", "decimationMode", "fillEnabled",
+				"fillPaint", "fillClosureType", "errorbarCapSize");
 
 		checkCollecionOrder(iinfo.getProfilePropertyInfoGroupMap().keySet(), "Component", "XY Graph");
 		checkPropertyInfoNames(iinfo.getProfilePropertyInfoGroupMap().get("Component"), "visible", "cacheable",
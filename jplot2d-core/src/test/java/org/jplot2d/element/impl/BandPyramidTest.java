@@ -0,0 +1,214 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software:
+ * you can redistribute it and/or modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with jplot2d.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.element.impl;
+
+import org.jplot2d.data.IntDataBuffer;
+import org.jplot2d.element.ImagePyramidMode;
+import org.jplot2d.util.Range;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @author Jingjing Li
+ */
+public class BandPyramidTest {
+
+    /**
+     * An image buffer which counts the values read by z-scaling.
+     */
+    static class CountingBuffer extends IntDataBuffer.Array2D {
+
+        private long count;
+
+        CountingBuffer(int[][] data) {
+            super(data);
+        }
+
+        @Override
+        public double getDouble(int x, int y) {
+            count++;
+            return super.getDouble(x, y);
+        }
+    }
+
+    private static int[][] createRandomImage(int w, int h, int max, long seed) {
+        Random rand = new Random(seed);
+        int[][] data = new int[h][w];
+        for (int j = 0; j < h; j++) {
+            for (int i = 0; i < w; i++) {
+                data[j][i] = rand.nextInt(max);
+            }
+        }
+        return data;
+    }
+
+    private static BandPyramid createPyramid(IntDataBuffer dbuf, int w, int h, int outputBits, int tileSize,
+                                             ImagePyramidMode mode) {
+        ImageZscaleCache.Key key = ImageZscaleCache.createKey(dbuf, w, h, new Range.Double(0, 1 << outputBits), null,
+                0.5, 0.5, outputBits);
+        return new BandPyramid(ImageZscaleCache.createZscaler(key), w, h, outputBits, tileSize, mode, null);
+    }
+
+    /**
+     * Pool the given level by brute force.
+     */
+    private static int[][] pool(int[][] src, boolean max) {
+        int sh = src.length, sw = src[0].length;
+        int[][] result = new int[(sh + 1) / 2][(sw + 1) / 2];
+        for (int j = 0; j < result.length; j++) {
+            for (int i = 0; i < result[0].length; i++) {
+                int sum = 0, n = 0, m = 0;
+                for (int y = 2 * j; y < Math.min(sh, 2 * j + 2); y++) {
+                    for (int x = 2 * i; x < Math.min(sw, 2 * i + 2); x++) {
+                        sum += src[y][x];
+                        n++;
+                        m = Math.max(m, src[y][x]);
+                    }
+                }
+                result[j][i] = max ? m : (int) Math.round((double) sum / n);
+            }
+        }
+        return result;
+    }
+
+    private static int[] flatten(int[][] data, int x, int y, int w, int h) {
+        int[] result = new int[w * h];
+        for (int j = 0; j < h; j++) {
+            System.arraycopy(data[y + j], x, result, j * w, w);
+        }
+        return result;
+    }
+
+    private static int[] toInts(Object bandData) {
+        if (bandData instanceof byte[]) {
+            byte[] a = (byte[]) bandData;
+            int[] result = new int[a.length];
+            for (int i = 0; i < a.length; i++) {
+                result[i] = a[i] & 0xff;
+            }
+            return result;
+        } else {
+            short[] a = (short[]) bandData;
+            int[] result = new int[a.length];
+            for (int i = 0; i < a.length; i++) {
+                result[i] = a[i] & 0xffff;
+            }
+            return result;
+        }
+    }
+
+    private static void checkLevels(int outputBits, ImagePyramidMode mode) {
+        int w = 301, h = 203;
+        int[][] data = createRandomImage(w, h, 1 << outputBits, 1);
+
+        for (int tileSize : new int[]{7, 64, 512}) {
+            BandPyramid pyramid = createPyramid(new IntDataBuffer.Array2D(data), w, h, outputBits, tileSize, mode);
+            int[][] level = data;
+            for (int k = 1; k <= 3; k++) {
+                level = pool(level, mode == ImagePyramidMode.MAX);
+                int lw = ImageTiles.levelSize(w, k);
+                int lh = ImageTiles.levelSize(h, k);
+                assertEquals(lw, level[0].length);
+                assertEquals(lh, level.length);
+                assertArrayEquals(flatten(level, 0, 0, lw, lh), toInts(pyramid.getRegion(k, 0, 0, lw, lh)));
+                // a region which crosses tile borders
+                assertArrayEquals(flatten(level, 3, 5, lw - 5, lh - 8),
+                        toInts(pyramid.getRegion(k, 3, 5, lw - 5, lh - 8)));
+                if (mode == ImagePyramidMode.MEAN) {
+                    // the brute force mean is rounded from the exact mean, only check the exact levels
+                    break;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMeanPooling() {
+        checkLevels(8, ImagePyramidMode.MEAN);
+        checkLevels(16, ImagePyramidMode.MEAN);
+    }
+
+    @Test
+    public void testMaxPooling() {
+        checkLevels(8, ImagePyramidMode.MAX);
+        checkLevels(16, ImagePyramidMode.MAX);
+    }
+
+    @Test
+    public void testBrightPixelKeptByMaxPooling() {
+        int w = 1000, h = 1000;
+        int[][] data = new int[h][w];
+        data[567][123] = 255;
+        BandPyramid pyramid = createPyramid(new IntDataBuffer.Array2D(data), w, h, 8, 64, ImagePyramidMode.MAX);
+        int[] top = toInts(pyramid.getRegion(5, 0, 0, 32, 32));
+        assertEquals(255, top[(567 >> 5) * 32 + (123 >> 5)]);
+        int sum = 0;
+        for (int v : top) {
+            sum += v;
+        }
+        assertEquals(255, sum);
+    }
+
+    @Test
+    public void testFullResolutionReadOnce() {
+        int w = 1000, h = 700;
+        CountingBuffer dbuf = new CountingBuffer(createRandomImage(w, h, 256, 2));
+        BandPyramid pyramid = createPyramid(dbuf, w, h, 8, 64, ImagePyramidMode.MEAN);
+        pyramid.getRegion(4, 0, 0, ImageTiles.levelSize(w, 4), ImageTiles.levelSize(h, 4));
+        assertEquals(w * h, dbuf.count);
+        // the pooled tiles are reused
+        pyramid.getRegion(4, 10, 10, 20, 20);
+        pyramid.getRegion(3, 10, 10, 60, 40);
+        assertEquals(w * h, dbuf.count);
+    }
+
+    private static ImageZscaleCache.Key createKey(IntDataBuffer dbuf, int w, int h) {
+        return ImageZscaleCache.createKey(dbuf, w, h, new Range.Double(0, 256), null, 0.5, 0.5, 8);
+    }
+
+    /**
+     * Get the shared pyramids of a new buffer, and returns a weak reference to the buffer.
+     */
+    private static WeakReference<IntDataBuffer> useSharedPyramids() {
+        int w = 200, h = 100;
+        IntDataBuffer dbuf = new IntDataBuffer.Array2D(createRandomImage(w, h, 256, 3));
+        BandPyramid pyramid = RGBImageGraphImpl.getBandPyramid(createKey(dbuf, w, h), 64, ImagePyramidMode.MEAN);
+        assertSame(pyramid, RGBImageGraphImpl.getBandPyramid(createKey(dbuf, w, h), 64, ImagePyramidMode.MEAN));
+        assertNotSame(pyramid, RGBImageGraphImpl.getBandPyramid(createKey(dbuf, w, h), 64, ImagePyramidMode.MAX));
+        pyramid.getRegion(1, 0, 0, 100, 50);
+        return new WeakReference<>(dbuf);
+    }
+
+    @Test
+    public void testSharedPyramidsReleaseBuffer() throws InterruptedException {
+        WeakReference<IntDataBuffer> ref = useSharedPyramids();
+        for (int i = 0; i < 100 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull("the dropped buffer is kept by the shared pyramids", ref.get());
+    }
+
+}
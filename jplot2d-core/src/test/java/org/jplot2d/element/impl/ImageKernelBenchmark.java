@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software:
+ * you can redistribute it and/or modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with jplot2d.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.element.impl;
+
+import org.jplot2d.data.ImageDataBuffer;
+import org.jplot2d.image.ColorMap;
+import org.jplot2d.util.Range;
+
+import java.awt.image.ByteLookupTable;
+import java.awt.image.DirectColorModel;
+
+/**
+ * Compare the serial and parallel z-scale and color map kernels. Run it as a java application, the optional arguments
+ * are the image size, default to 4000, and the parallelism, default to the number of available processors.
+ *
+ * @author Jingjing Li
+ */
+public class ImageKernelBenchmark {
+
+    private static final String[] TYPES = {"byte", "short", "int", "float", "double"};
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int size = (args.length > 0) ? Integer.parseInt(args[0]) : 4000;
+        int parallelism = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        System.out.printf("image %d x %d, parallelism %d%n", size, size, parallelism);
+
+        ImageDataBuffer[] dbufs = ImageKernelTest.createBuffers(size, size, 1);
+        Object bandData = null;
+        for (int i = 0; i < dbufs.length; i++) {
+            ImageZscaleCache.Key key = ImageZscaleCache.createKey(dbufs[i], size, size, new Range.Double(0, 128),
+                    null, 0.5, 0.5, 8);
+            ImageZscaleCache.Zscaler zscaler = ImageZscaleCache.createZscaler(key);
+            for (int p : new int[]{1, parallelism}) {
+                ImageZscaleCache.setParallelism(p);
+                long best = Long.MAX_VALUE;
+                for (int r = 0; r < ROUNDS; r++) {
+                    long t0 = System.nanoTime();
+                    bandData = zscaler.zscale(0, 0, size, size);
+                    best = Math.min(best, System.nanoTime() - t0);
+                }
+                System.out.printf("zscale %s, parallelism %d: %.1f ms%n", TYPES[i], p, best / 1e6);
+            }
+        }
+
+        byte[][] table = new byte[3][256];
+        for (int i = 0; i < 256; i++) {
+            table[0][i] = (byte) i;
+            table[1][i] = (byte) (255 - i);
+            table[2][i] = (byte) (i * 7);
+        }
+        ColorMap colorMap = new ImageKernelTest.LookupColorMap(8, new ByteLookupTable(0, table),
+                new DirectColorModel(24, 0x00ff0000, 0x0000ff00, 0x000000ff, 0x0));
+        for (int p : new int[]{1, parallelism}) {
+            ImageZscaleCache.setParallelism(p);
+            long best = Long.MAX_VALUE;
+            for (int r = 0; r < ROUNDS; r++) {
+                long t0 = System.nanoTime();
+                ImageGraphImpl.createImage(bandData, 8, size, size, colorMap);
+                best = Math.min(best, System.nanoTime() - t0);
+            }
+            System.out.printf("color map, parallelism %d: %.1f ms%n", p, best / 1e6);
+        }
+    }
+
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software:
+ * you can redistribute it and/or modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with jplot2d.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.element.impl;
+
+import org.jplot2d.data.*;
+import org.jplot2d.image.ColorMap;
+import org.jplot2d.image.IntensityTransform;
+import org.jplot2d.util.Range;
+import org.junit.After;
+import org.junit.Test;
+
+import java.awt.image.*;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test the parallel z-scale and color map kernels against the serial ones.
+ *
+ * @author Jingjing Li
+ */
+public class ImageKernelTest {
+
+    private static final IntensityTransform SQRT = new IntensityTransform() {
+        public double transform(double v) {
+            return Math.sqrt(v);
+        }
+    };
+
+    /**
+     * A color map which looks up all color components.
+     */
+    static class LookupColorMap implements ColorMap {
+
+        private final int inputBits;
+
+        private final LookupTable lut;
+
+        private final ColorModel colorModel;
+
+        LookupColorMap(int inputBits, LookupTable lut, ColorModel colorModel) {
+            this.inputBits = inputBits;
+            this.lut = lut;
+            this.colorModel = colorModel;
+        }
+
+        public int getInputBits() {
+            return inputBits;
+        }
+
+        public LookupTable getLookupTable() {
+            return lut;
+        }
+
+        public ColorModel getColorModel() {
+            return colorModel;
+        }
+    }
+
+    /**
+     * Returns the image buffers of all types, which have the same values.
+     */
+    static ImageDataBuffer[] createBuffers(int w, int h, long seed) {
+        Random rand = new Random(seed);
+        byte[][] b = new byte[h][w];
+        short[][] s = new short[h][w];
+        int[][] i = new int[h][w];
+        float[][] f = new float[h][w];
+        double[][] d = new double[h][w];
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int v = rand.nextInt(128);
+                b[y][x] = (byte) v;
+                s[y][x] = (short) v;
+                i[y][x] = v;
+                f[y][x] = v;
+                d[y][x] = v;
+            }
+        }
+        return new ImageDataBuffer[]{new ByteDataBuffer.Array2D(b), new ShortDataBuffer.Array2D(s),
+                new IntDataBuffer.Array2D(i), new FloatDataBuffer.Array2D(f), new DoubleDataBuffer.Array2D(d)};
+    }
+
+    @After
+    public void restoreParallelism() {
+        ImageZscaleCache.setParallelism(Runtime.getRuntime().availableProcessors());
+    }
+
+    private static Object zscale(ImageDataBuffer dbuf, int w, int h, IntensityTransform it, int outputBits,
+                                 int parallelism) {
+        ImageZscaleCache.setParallelism(parallelism);
+        ImageZscaleCache.Key key = ImageZscaleCache.createKey(dbuf, w, h, new Range.Double(-3, 130), it, 0.4, 0.6,
+                outputBits);
+        return ImageZscaleCache.createZscaler(key).zscale(3, 5, w - 7, h - 11);
+    }
+
+    @Test
+    public void testParallelZscale() {
+        int w = 501, h = 333;
+        for (ImageDataBuffer dbuf : createBuffers(w, h, 1)) {
+            for (IntensityTransform it : new IntensityTransform[]{null, SQRT}) {
+                byte[] serial = (byte[]) zscale(dbuf, w, h, it, 8, 1);
+                byte[] parallel = (byte[]) zscale(dbuf, w, h, it, 8, 4);
+                assertArrayEquals(serial, parallel);
+
+                short[] serialShorts = (short[]) zscale(dbuf, w, h, it, 12, 1);
+                short[] parallelShorts = (short[]) zscale(dbuf, w, h, it, 12, 4);
+                assertArrayEquals(serialShorts, parallelShorts);
+            }
+        }
+    }
+
+    @Test
+    public void testFusedRGB() {
+        int w = 301, h = 257;
+        ImageDataBuffer[] r = createBuffers(w, h, 4);
+        ImageDataBuffer[] g = createBuffers(w, h, 5);
+        ImageDataBuffer[] b = createBuffers(w, h, 6);
+        for (int t = 0; t < r.length; t++) {
+            ImageZscaleCache.Zscaler[] zscalers = {
+                    ImageZscaleCache.createZscaler(ImageZscaleCache.createKey(r[t], w, h, new Range.Double(-3, 130),
+                            null, 0.5, 0.5, 8)),
+                    ImageZscaleCache.createZscaler(ImageZscaleCache.createKey(g[t], w, h, new Range.Double(-10, 140),
+                            SQRT, 0.3, 0.7, 8)),
+                    // no valid data
+                    ImageZscaleCache.createZscaler(ImageZscaleCache.createKey(b[t], w, h, null, null, 0.5, 0.5, 8))};
+            for (int parallelism : new int[]{1, 4}) {
+                ImageZscaleCache.setParallelism(parallelism);
+                int[] pixels = ImageZscaleCache.zscaleRGB(zscalers[0], zscalers[1], zscalers[2], 3, 5, w - 7, h - 11);
+                int[] expected = new int[(w - 7) * (h - 11)];
+                for (int band = 0; band < 3; band++) {
+                    byte[] values = (byte[]) zscalers[band].zscale(3, 5, w - 7, h - 11);
+                    for (int i = 0; i < expected.length; i++) {
+                        expected[i] |= (values[i] & 0xff) << (16 - band * 8);
+                    }
+                }
+                assertArrayEquals(expected, pixels);
+            }
+        }
+    }
+
+    /**
+     * The color mapped image must have the same colors as the image looked up by LookupOp.
+     */
+    private static void checkColorMap(Object bandData, int bandBits, int w, int h, ColorMap colorMap) {
+        ImageZscaleCache.setParallelism(4);
+        BufferedImage image = ImageGraphImpl.createImage(bandData, bandBits, w, h, colorMap);
+        assertEquals(DataBuffer.TYPE_INT, image.getRaster().getDataBuffer().getDataType());
+
+        int numComps = colorMap.getColorModel().getNumComponents();
+        int dataType = (bandBits <= 8) ? DataBuffer.TYPE_BYTE : DataBuffer.TYPE_USHORT;
+        WritableRaster src = Raster.createBandedRaster(dataType, w, h, numComps, null);
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int v = (bandData instanceof byte[]) ? ((byte[]) bandData)[y * w + x] & 0xff
+                        : ((short[]) bandData)[y * w + x] & 0xffff;
+                for (int b = 0; b < numComps; b++) {
+                    src.setSample(x, y, b, v);
+                }
+            }
+        }
+        WritableRaster dest = colorMap.getColorModel().createCompatibleWritableRaster(w, h);
+        new LookupOp(colorMap.getLookupTable(), null).filter(src, dest);
+        BufferedImage ref = new BufferedImage(colorMap.getColorModel(), dest, false, null);
+
+        assertArrayEquals(ref.getRGB(0, 0, w, h, null, 0, w), image.getRGB(0, 0, w, h, null, 0, w));
+    }
+
+    @Test
+    public void testByteColorMap() {
+        int w = 400, h = 300;
+        Random rand = new Random(2);
+        byte[] bandData = new byte[w * h];
+        rand.nextBytes(bandData);
+
+        byte[][] table = new byte[3][256];
+        for (int i = 0; i < 256; i++) {
+            table[0][i] = (byte) i;
+            table[1][i] = (byte) (255 - i);
+            table[2][i] = (byte) (i * 7);
+        }
+        ColorMap colorMap = new LookupColorMap(8, new ByteLookupTable(0, table),
+                new DirectColorModel(24, 0x00ff0000, 0x0000ff00, 0x000000ff, 0x0));
+        checkColorMap(bandData, 8, w, h, colorMap);
+    }
+
+    @Test
+    public void testShortColorMap() {
+        int w = 300, h = 250;
+        Random rand = new Random(3);
+        short[] bandData = new short[w * h];
+        for (int i = 0; i < bandData.length; i++) {
+            bandData[i] = (short) rand.nextInt(1 << 10);
+        }
+
+        short[][] table = new short[4][1 << 10];
+        for (int i = 0; i < 1 << 10; i++) {
+            table[0][i] = (short) (i >> 2);
+            table[1][i] = (short) (255 - (i >> 2));
+            table[2][i] = (short) ((i * 3) & 0xff);
+            table[3][i] = (short) (i & 0xff);
+        }
+        ColorMap colorMap = new LookupColorMap(10, new ShortLookupTable(0, table),
+                new DirectColorModel(32, 0x00ff0000, 0x0000ff00, 0x000000ff, 0xff000000));
+        checkColorMap(bandData, 10, w, h, colorMap);
+    }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software:
+ * you can redistribute it and/or modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with jplot2d.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.element.impl;
+
+import org.jplot2d.util.SymbolShape;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Compare drawing symbols by cached stamps against drawing the vector shape per point. Run it as a java application,
+ * the optional argument is the number of points, default to 500,000.
+ *
+ * @author Jingjing Li
+ */
+public class SymbolStampBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int n = (args.length > 0) ? Integer.parseInt(args[0]) : 500000;
+        int w = 1000, h = 800;
+        float[] xp = new float[n];
+        float[] yp = new float[n];
+        Color[] colors = new Color[n];
+        SymbolStampCacheTest.createPoints(xp, yp, colors, w, h, 1, false);
+
+        XYGraphImpl graph = new XYGraphImpl();
+        for (SymbolShape ss : new SymbolShape[]{SymbolShape.CIRCLE, SymbolShape.FCIRCLE, SymbolShape.STAR}) {
+            graph.setSymbolShape(ss);
+            long vectorTime = Long.MAX_VALUE, stampTime = Long.MAX_VALUE;
+            for (int r = 0; r < ROUNDS; r++) {
+                BufferedImage image = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+                Graphics2D g = SymbolStampCacheTest.createGraphics(image, false);
+                long t0 = System.nanoTime();
+                XYGraphImpl.drawMarks(g, xp, yp, n, graph, colors, 1);
+                long t1 = System.nanoTime();
+                g.dispose();
+
+                g = SymbolStampCacheTest.createGraphics(image, true);
+                long t2 = System.nanoTime();
+                XYGraphImpl.drawMarks(g, xp, yp, n, graph, colors, 1);
+                long t3 = System.nanoTime();
+                g.dispose();
+
+                vectorTime = Math.min(vectorTime, t1 - t0);
+                stampTime = Math.min(stampTime, t3 - t2);
+            }
+            System.out.printf("%s, %d symbols: vector %.1f ms, stamp %.1f ms%n", ss, n, vectorTime / 1e6,
+                    stampTime / 1e6);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software:
+ * you can redistribute it and/or modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with jplot2d.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.element.impl;
+
+import org.jplot2d.util.GraphicsUtil;
+import org.jplot2d.util.SymbolShape;
+import org.junit.Test;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Jingjing Li
+ */
+public class SymbolStampCacheTest {
+
+    static Graphics2D createGraphics(BufferedImage image, boolean raster) {
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+        if (raster) {
+            g.setRenderingHint(GraphicsUtil.KEY_RASTER_TARGET, Boolean.TRUE);
+        }
+        return g;
+    }
+
+    /**
+     * Create random points. If quantized, the points are on 1/8 pixel grid.
+     */
+    static void createPoints(float[] xp, float[] yp, Color[] colors, int w, int h, long seed, boolean quantized) {
+        Random rand = new Random(seed);
+        for (int i = 0; i < xp.length; i++) {
+            xp[i] = rand.nextFloat() * w;
+            yp[i] = rand.nextFloat() * h;
+            if (quantized) {
+                xp[i] = Math.round(xp[i] * 8) / 8f;
+                yp[i] = Math.round(yp[i] * 8) / 8f;
+            }
+            colors[i] = (i % 3 == 0) ? Color.RED : Color.BLUE;
+        }
+    }
+
+    @Test
+    public void testApplicable() {
+        BufferedImage image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+        assertFalse(SymbolStampCache.isApplicable(createGraphics(image, false)));
+
+        Graphics2D g = createGraphics(image, true);
+        assertTrue(SymbolStampCache.isApplicable(g));
+        g.translate(-3, 5);
+        assertTrue(SymbolStampCache.isApplicable(g));
+        g.translate(0.5, 0);
+        assertFalse(SymbolStampCache.isApplicable(g));
+
+        g = createGraphics(image, true);
+        g.scale(2, 2);
+        assertFalse(SymbolStampCache.isApplicable(g));
+
+        g = createGraphics(image, true);
+        g.setComposite(AlphaComposite.Src);
+        assertFalse(SymbolStampCache.isApplicable(g));
+    }
+
+    /**
+     * Symbols on the sub-pixel phases of stamps are the same as the ones drawn by vector shapes.
+     */
+    @Test
+    public void testDrawSymbolsAtPhases() {
+        checkDrawSymbols(true, 100);
+    }
+
+    /**
+     * Symbols drawn by stamps are almost the same as the ones drawn by vector shapes.
+     */
+    @Test
+    public void testDrawSymbols() {
+        // the sub-pixel position is rounded to 1/8 pixel, and thin strokes are not anti-aliased
+        checkDrawSymbols(false, 5);
+    }
+
+    /**
+     * Check the different pixels between stamps and vector shapes is less than 1/ratio of painted pixels.
+     */
+    private void checkDrawSymbols(boolean quantized, int ratio) {
+        int w = 400, h = 300, n = 300;
+        float[] xp = new float[n];
+        float[] yp = new float[n];
+        Color[] colors = new Color[n];
+        createPoints(xp, yp, colors, w, h, 1, quantized);
+        colors[5] = null;
+
+        for (SymbolShape ss : new SymbolShape[]{SymbolShape.CIRCLE, SymbolShape.FSQUARE, SymbolShape.STAR,
+                SymbolShape.VDCROSS}) {
+            BufferedImage vector = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = createGraphics(vector, false);
+            g.setStroke(new BasicStroke(0.5f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER));
+            for (int i = 0; i < n; i++) {
+                if (colors[i] != null) {
+                    g.setColor(colors[i]);
+                    AffineTransform maf = AffineTransform.getTranslateInstance(xp[i], yp[i]);
+                    maf.scale(8, -8);
+                    ss.draw(g, maf);
+                }
+            }
+            g.dispose();
+
+            BufferedImage stamped = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            g = createGraphics(stamped, true);
+            SymbolStampCache.drawSymbols(g, ss, 8, 1, 0.5f, xp, yp, colors, n);
+            g.dispose();
+
+            int painted = 0, diff = 0;
+            for (int y = 0; y < h; y++) {
+                for (int x = 0; x < w; x++) {
+                    if (vector.getRGB(x, y) != 0) {
+                        painted++;
+                    }
+                    if (vector.getRGB(x, y) != stamped.getRGB(x, y)) {
+                        diff++;
+                    }
+                }
+            }
+            assertTrue(painted > n * 5);
+            assertTrue(ss + " different pixels: " + diff + " of " + painted, diff * ratio < painted);
+        }
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.env;
+
+import org.jplot2d.element.*;
+import org.jplot2d.element.impl.ComponentEx;
+import org.jplot2d.renderer.ImageExporter;
+import org.jplot2d.renderer.Renderer;
+import org.jplot2d.sizing.FixedSizeMode;
+import org.jplot2d.tex.MathLabel;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test the concurrent rendering of the batch render service.
+ *
+ * @author Jingjing Li
+ */
+public class BatchRenderServiceTest {
+
+    private static Plot createPlot(int n) {
+        ElementFactory factory = ElementFactory.getInstance();
+        Plot plot = factory.createPlot();
+        plot.setSizeMode(new FixedSizeMode(320, 240));
+        plot.addTitle(factory.createTitle("Plot"));
+        PlotAxis xaxis = factory.createAxis();
+        PlotAxis yaxis = factory.createAxis();
+        xaxis.getTitle().setText("x");
+        yaxis.getTitle().setText("y");
+        plot.addXAxis(xaxis);
+        plot.addYAxis(yaxis);
+        Layer layer = factory.createLayer();
+        plot.addLayer(layer, xaxis, yaxis);
+
+        double[] x = new double[50];
+        double[] y = new double[50];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = i;
+            y[i] = Math.sin(i * 0.2 + n) * (n + 1);
+        }
+        layer.addGraph(factory.createXYGraph(x, y));
+        return plot;
+    }
+
+    private static int[] getPixels(BufferedImage image) {
+        int w = image.getWidth();
+        int h = image.getHeight();
+        return image.getRGB(0, 0, w, h, null, 0, w);
+    }
+
+    /**
+     * The concurrently rendered images must be same as the images rendered one by one.
+     */
+    @Test
+    public void testConcurrentRendering() throws Exception {
+        int n = 16;
+        BatchRenderService service = new BatchRenderService(4, 2);
+        List<ImageExporter> exporters = new ArrayList<>();
+        List<Future<BatchRenderService.JobReport>> futures = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            ImageExporter exporter = new ImageExporter(BufferedImage.TYPE_INT_ARGB, null);
+            exporters.add(exporter);
+            futures.add(service.submit(createPlot(i), exporter));
+        }
+        for (Future<BatchRenderService.JobReport> f : futures) {
+            BatchRenderService.JobReport report = f.get();
+            assertTrue(report.getQueueTime(TimeUnit.NANOSECONDS) >= 0);
+            assertTrue(report.getRenderTime(TimeUnit.NANOSECONDS) > 0);
+        }
+
+        for (int i = 0; i < n; i++) {
+            RenderEnvironment env = new RenderEnvironment(false);
+            env.setPlot(createPlot(i));
+            ImageExporter exporter = new ImageExporter(BufferedImage.TYPE_INT_ARGB, null);
+            env.exportPlot(exporter);
+            assertArrayEquals(getPixels(exporter.getImage()), getPixels(exporters.get(i).getImage()));
+        }
+
+        assertEquals(n, service.getSubmittedCount());
+        assertEquals(n, service.getFinishedCount());
+        assertEquals(0, service.getFailedCount());
+        assertTrue(service.getThroughput() > 0);
+        assertTrue(service.getMeanRenderTime(TimeUnit.NANOSECONDS) > 0);
+        // the labels of all plots are shared
+        assertTrue(MathLabel.getCache().getHitCount() > 0);
+
+        service.shutdown();
+        assertTrue(service.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFailedJob() throws Exception {
+        BatchRenderService service = new BatchRenderService(1, 0);
+        Future<BatchRenderService.JobReport> f = service.submit(createPlot(0), new Renderer() {
+            public void render(ComponentEx comp, List<CacheableBlock> cacheBlockList) {
+                throw new IllegalStateException("failed");
+            }
+        });
+        try {
+            f.get();
+            fail("ExecutionException should be thrown");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        // the failed job must release its permit
+        service.submit(createPlot(1), new ImageExporter(BufferedImage.TYPE_INT_ARGB, null)).get();
+        assertEquals(2, service.getFinishedCount());
+        assertEquals(1, service.getFailedCount());
+        service.shutdown();
+    }
+
+}
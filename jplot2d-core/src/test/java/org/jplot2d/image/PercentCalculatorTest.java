@@ -21,9 +21,18 @@ package org.jplot2d.image;
 import static org.junit.Assert.*;
 
 import java.awt.Dimension;
+import java.util.Random;
 
+import org.jplot2d.data.BitMaskBuffer;
+import org.jplot2d.data.BooleanMaskBuffer;
 import org.jplot2d.data.ByteDataBuffer;
+import org.jplot2d.data.DoubleDataBuffer;
+import org.jplot2d.data.FloatDataBuffer;
 import org.jplot2d.data.ImageDataBuffer;
+import org.jplot2d.data.ImageMaskBuffer;
+import org.jplot2d.data.IntDataBuffer;
+import org.jplot2d.data.ShortDataBuffer;
+import org.junit.After;
 import org.junit.Test;
 
 public class PercentCalculatorTest {
@@ -112,4 +121,130 @@ public class PercentCalculatorTest {
 		assertTrue(cuts50[0] == 1);
 		assertTrue(cuts50[1] == 2);
 	}
+
+	@After
+	public void restoreParallelism() {
+		PercentCalculator.setParallelism(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Returns 2 buffers of the given type, of different sizes.
+	 */
+	private static ImageDataBuffer[] createBuffers(int type, Random rand) {
+		return createBuffers(type, rand, new ImageMaskBuffer[2]);
+	}
+
+	/**
+	 * Returns 2 buffers of the given type, of different sizes, with the given masks.
+	 */
+	private static ImageDataBuffer[] createBuffers(int type, Random rand, ImageMaskBuffer[] masks) {
+		int[] widths = { 500, 123 };
+		int[] heights = { 300, 456 };
+		ImageDataBuffer[] dbufs = new ImageDataBuffer[2];
+		for (int a = 0; a < 2; a++) {
+			int w = widths[a];
+			int h = heights[a];
+			short[][] s = new short[h][w];
+			int[][] i = new int[h][w];
+			float[][] f = new float[h][w];
+			double[][] d = new double[h][w];
+			for (int y = 0; y < h; y++) {
+				for (int x = 0; x < w; x++) {
+					int v = rand.nextInt(10000);
+					s[y][x] = (short) v;
+					i[y][x] = v * 1000;
+					f[y][x] = v / 7f;
+					d[y][x] = rand.nextGaussian();
+				}
+			}
+			switch (type) {
+			case 0:
+				dbufs[a] = new ShortDataBuffer.Array2D(s, masks[a]);
+				break;
+			case 1:
+				dbufs[a] = new IntDataBuffer.Array2D(i, masks[a]);
+				break;
+			case 2:
+				dbufs[a] = new FloatDataBuffer.Array2D(f, masks[a]);
+				break;
+			default:
+				dbufs[a] = new DoubleDataBuffer.Array2D(d, masks[a]);
+			}
+		}
+		return dbufs;
+	}
+
+	private static final Dimension[] SIZES = { new Dimension(500, 300), new Dimension(123, 456) };
+
+	@Test
+	public void testParallelExact() {
+		Random rand = new Random(1);
+		for (int type = 0; type < 4; type++) {
+			ImageDataBuffer[] dbufs = createBuffers(type, rand);
+			for (double percentage : new double[] { 99.9, 95, 50.3 }) {
+				PercentCalculator.setParallelism(1);
+				double[] serial = new PercentCalculator(percentage).calcLimits(dbufs, SIZES);
+				PercentCalculator.setParallelism(3);
+				double[] parallel = new PercentCalculator(percentage).calcLimits(dbufs, SIZES);
+				assertArrayEquals(serial, parallel, 0);
+			}
+		}
+	}
+
+	@Test
+	public void testApproximate() {
+		Random rand = new Random(2);
+		for (int type = 0; type < 4; type++) {
+			ImageDataBuffer[] dbufs = createBuffers(type, rand);
+			double[] minmax = MinMaxCalculator.calcMinMax(dbufs, SIZES);
+			double range = minmax[1] - minmax[0];
+			for (double percentage : new double[] { 99.9, 95, 50.3 }) {
+				double[] exact = new PercentCalculator(percentage).calcLimits(dbufs, SIZES);
+				for (int parallelism : new int[] { 1, 3 }) {
+					PercentCalculator.setParallelism(parallelism);
+					double[] approx = new PercentCalculator(percentage, 1e-3).calcLimits(dbufs, SIZES);
+					assertEquals(exact[0], approx[0], range * 1e-3);
+					assertEquals(exact[1], approx[1], range * 1e-3);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testBitMasks() {
+		// mostly masked, in runs of different lengths
+		boolean[][][] masks = new boolean[2][][];
+		Random maskRand = new Random(4);
+		for (int a = 0; a < 2; a++) {
+			masks[a] = new boolean[SIZES[a].height][SIZES[a].width];
+			for (int y = 0; y < SIZES[a].height; y++) {
+				for (int x = 0; x < SIZES[a].width; x++) {
+					masks[a][y][x] = (x / 40 + y) % 5 != 0 || maskRand.nextInt(8) == 0;
+				}
+			}
+		}
+		ImageMaskBuffer[] booleanMasks = { new BooleanMaskBuffer.Array2D(masks[0]),
+				new BooleanMaskBuffer.Array2D(masks[1]) };
+		ImageMaskBuffer[] bitMasks = { BitMaskBuffer.Array.valueOf(masks[0]), BitMaskBuffer.Array.valueOf(masks[1]) };
+
+		for (int type = 0; type < 4; type++) {
+			ImageDataBuffer[] booleanDbufs = createBuffers(type, new Random(5), booleanMasks);
+			ImageDataBuffer[] bitDbufs = createBuffers(type, new Random(5), bitMasks);
+			for (double percentage : new double[] { 99.9, 50.3 }) {
+				for (int parallelism : new int[] { 1, 3 }) {
+					PercentCalculator.setParallelism(parallelism);
+					assertArrayEquals(new PercentCalculator(percentage).calcLimits(booleanDbufs, SIZES),
+							new PercentCalculator(percentage).calcLimits(bitDbufs, SIZES), 0);
+					assertArrayEquals(new PercentCalculator(percentage, 1e-3).calcLimits(booleanDbufs, SIZES),
+							new PercentCalculator(percentage, 1e-3).calcLimits(bitDbufs, SIZES), 0);
+				}
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidMaxError() {
+		new PercentCalculator(99, 2);
+	}
+
 }
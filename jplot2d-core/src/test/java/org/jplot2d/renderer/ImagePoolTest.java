@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.renderer;
+
+import org.junit.Test;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DirectColorModel;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Jingjing Li
+ */
+public class ImagePoolTest {
+
+    @Test
+    public void testAcquire() {
+        ImagePool pool = new ImagePool(1 << 20);
+        assertNull(pool.acquire(10, 20, BufferedImage.TYPE_INT_ARGB));
+        assertEquals(1, pool.getMissCount());
+
+        BufferedImage image = new BufferedImage(10, 20, BufferedImage.TYPE_INT_ARGB);
+        pool.release(image);
+        // released twice
+        pool.release(image);
+        assertEquals(1, pool.getCount());
+        assertEquals(800, pool.getBytes());
+
+        // bucketed by size and type
+        assertNull(pool.acquire(20, 10, BufferedImage.TYPE_INT_ARGB));
+        assertNull(pool.acquire(10, 20, BufferedImage.TYPE_INT_RGB));
+        assertSame(image, pool.acquire(10, 20, BufferedImage.TYPE_INT_ARGB));
+        assertEquals(1, pool.getHitCount());
+        assertEquals(3, pool.getMissCount());
+        assertEquals(0, pool.getCount());
+        assertEquals(0, pool.getBytes());
+
+        // custom images are not pooled
+        ColorModel cm = new DirectColorModel(32, 0xff000000, 0xff0000, 0xff00, 0xff);
+        pool.release(new BufferedImage(cm, cm.createCompatibleWritableRaster(10, 20), false, null));
+        assertEquals(0, pool.getCount());
+    }
+
+    @Test
+    public void testEviction() {
+        ImagePool pool = new ImagePool(2000);
+        BufferedImage image0 = new BufferedImage(10, 20, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage image1 = new BufferedImage(10, 20, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage image2 = new BufferedImage(20, 10, BufferedImage.TYPE_INT_ARGB);
+        pool.release(image0);
+        pool.release(image1);
+        pool.release(image2);
+        // the oldest image of the least recently used bucket is dropped
+        assertEquals(2, pool.getCount());
+        assertEquals(1600, pool.getBytes());
+        assertEquals(1, pool.getEvictionCount());
+        assertSame(image1, pool.acquire(10, 20, BufferedImage.TYPE_INT_ARGB));
+        assertNull(pool.acquire(10, 20, BufferedImage.TYPE_INT_ARGB));
+
+        // too large to be pooled
+        pool.release(new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB));
+        assertEquals(1, pool.getCount());
+
+        pool.setMaxBytes(0);
+        assertEquals(0, pool.getCount());
+        assertEquals(0, pool.getBytes());
+    }
+
+    @Test
+    public void testFactory() {
+        ImagePool pool = new ImagePool(1 << 20);
+        ImageFactory factory = new BufferedImageFactory(BufferedImage.TYPE_INT_RGB, Color.WHITE, pool);
+        BufferedImage image = factory.createTransparentImage(10, 20);
+        image.setRGB(3, 4, 0xff123456);
+        factory.cacheImage(image);
+
+        // a pooled image is cleared
+        BufferedImage reused = factory.createTransparentImage(10, 20);
+        assertSame(image, reused);
+        assertEquals(0, reused.getRGB(3, 4));
+
+        reused.setRGB(3, 4, 0xff123456);
+        factory.cacheImage(reused);
+        assertNotSame(reused, factory.createImage(10, 20));
+        assertEquals(1, pool.getCount());
+    }
+
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.renderer;
+
+import org.jplot2d.element.*;
+import org.jplot2d.element.impl.ComponentEx;
+import org.jplot2d.env.CacheableBlock;
+import org.jplot2d.env.RenderEnvironment;
+import org.jplot2d.sizing.FixedSizeMode;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test the incremental assembly of dirty regions.
+ *
+ * @author Jingjing Li
+ */
+public class ImageRendererTest {
+
+    private static class EventCollector implements RenderingFinishedListener {
+
+        private final List<RenderingFinishedEvent> events = new ArrayList<>();
+
+        public synchronized void renderingFinished(RenderingFinishedEvent event) {
+            events.add(event);
+        }
+
+        private RenderingFinishedEvent last() {
+            return events.get(events.size() - 1);
+        }
+    }
+
+    private static ImageRenderer createRenderer(EventCollector collector) {
+        return createRenderer(collector, new ImagePool(0));
+    }
+
+    private static ImageRenderer createRenderer(EventCollector collector, ImagePool pool) {
+        ImageRenderer r = new CallerRunImageRenderer(new BufferedImageFactory(BufferedImage.TYPE_INT_RGB, Color.WHITE,
+                pool));
+        r.addRenderingFinishedListener(collector);
+        return r;
+    }
+
+    /**
+     * The incrementally assembled result must be same as the result assembled as a whole.
+     */
+    private static void checkResult(RenderEnvironment env, BufferedImage image) {
+        EventCollector full = new EventCollector();
+        env.exportPlot(createRenderer(full));
+        assertNull(full.last().getDirtyRegion());
+        BufferedImage expected = (BufferedImage) full.last().getResult();
+        int w = expected.getWidth();
+        int h = expected.getHeight();
+        assertArrayEquals(expected.getRGB(0, 0, w, h, null, 0, w), image.getRGB(0, 0, w, h, null, 0, w));
+    }
+
+    /**
+     * Create a plot which has a cacheable layer.
+     */
+    private static Plot createPlot(XYGraph graph1) {
+        ElementFactory factory = ElementFactory.getInstance();
+        Plot plot = factory.createPlot();
+        plot.setSizeMode(new FixedSizeMode(300, 200));
+        PlotAxis xaxis = factory.createAxis();
+        PlotAxis yaxis = factory.createAxis();
+        plot.addXAxis(xaxis);
+        plot.addYAxis(yaxis);
+        Layer layer0 = factory.createLayer();
+        plot.addLayer(layer0, xaxis, yaxis);
+        layer0.addGraph(factory.createXYGraph(new double[]{0, 1, 2}, new double[]{2, 0, 1}));
+        Layer layer1 = factory.createLayer();
+        layer1.setCacheable(true);
+        plot.addLayer(layer1, xaxis, yaxis);
+        layer1.addGraph(graph1);
+        return plot;
+    }
+
+    private static XYGraph createGraph() {
+        return ElementFactory.getInstance().createXYGraph(new double[]{0, 1, 2}, new double[]{0, 2, 1});
+    }
+
+    @Test
+    public void testDirtyRegion() {
+        XYGraph graph1 = createGraph();
+        Plot plot = createPlot(graph1);
+
+        EventCollector collector = new EventCollector();
+        RenderEnvironment env = new RenderEnvironment(false);
+        env.addRenderer(createRenderer(collector));
+        env.setPlot(plot);
+
+        // the 1st result is assembled as a whole
+        assertNull(collector.last().getDirtyRegion());
+        BufferedImage image0 = (BufferedImage) collector.last().getResult();
+
+        graph1.setColor(Color.RED);
+        RenderingFinishedEvent event = collector.last();
+        Rectangle dirty = event.getDirtyRegion();
+        assertNotNull(dirty);
+        assertFalse(dirty.isEmpty());
+        BufferedImage image1 = (BufferedImage) event.getResult();
+        assertTrue(new Rectangle(image1.getWidth(), image1.getHeight()).contains(dirty));
+        assertTrue(dirty.width < image1.getWidth() && dirty.height < image1.getHeight());
+        assertNotSame(image0, image1);
+        checkResult(env, image1);
+
+        graph1.setVisible(false);
+        event = collector.last();
+        assertNotNull(event.getDirtyRegion());
+        checkResult(env, (BufferedImage) event.getResult());
+    }
+
+    /**
+     * The image of a re-rendered block is returned to the pool, and is reused by the next block rendering.
+     */
+    @Test
+    public void testImagePool() {
+        XYGraph graph1 = createGraph();
+        Plot plot = createPlot(graph1);
+
+        ImagePool pool = new ImagePool(64 << 20);
+        EventCollector collector = new EventCollector();
+        RenderEnvironment env = new RenderEnvironment(false);
+        env.addRenderer(createRenderer(collector, pool));
+        env.setPlot(plot);
+        assertEquals(0, pool.getCount());
+
+        graph1.setColor(Color.RED);
+        assertEquals(1, pool.getCount());
+        long hitCount = pool.getHitCount();
+
+        graph1.setColor(Color.BLUE);
+        assertEquals(hitCount + 1, pool.getHitCount());
+        assertEquals(1, pool.getCount());
+        checkResult(env, (BufferedImage) collector.last().getResult());
+    }
+
+    /**
+     * A renderer which discards the next frame after it has been assembled, as a frame which is cancelled by a newer
+     * frame while it's being assembled.
+     */
+    private static class DiscardingRenderer extends CallerRunImageRenderer {
+
+        private boolean discardNext;
+
+        private DiscardingRenderer() {
+            super(new BufferedImageFactory(BufferedImage.TYPE_INT_RGB, Color.WHITE, new ImagePool(0)));
+        }
+
+        @Override
+        public void render(ComponentEx comp, List<CacheableBlock> cacheBlockList) {
+            if (!discardNext) {
+                super.render(comp, cacheBlockList);
+                return;
+            }
+            discardNext = false;
+            ImageAssemblyInfo ainfo = runCompRender(executor, cacheBlockList);
+            assertNotNull(assembleResult(fsn, getDeviceBounds(comp), ainfo));
+            discardAssembly(ainfo);
+            fsn++;
+        }
+    }
+
+    /**
+     * The result of a frame discarded during assembly is never delivered, so the next frame must be repainted fully.
+     */
+    @Test
+    public void testDiscardDuringAssembly() {
+        XYGraph graph1 = createGraph();
+        Plot plot = createPlot(graph1);
+
+        EventCollector collector = new EventCollector();
+        DiscardingRenderer r = new DiscardingRenderer();
+        r.addRenderingFinishedListener(collector);
+        RenderEnvironment env = new RenderEnvironment(false);
+        env.addRenderer(r);
+        env.setPlot(plot);
+        assertEquals(1, collector.events.size());
+
+        r.discardNext = true;
+        graph1.setColor(Color.RED);
+        assertEquals(1, collector.events.size());
+
+        graph1.setColor(Color.BLUE);
+        assertEquals(2, collector.events.size());
+        assertNull(collector.last().getDirtyRegion());
+        checkResult(env, (BufferedImage) collector.last().getResult());
+
+        // the delivered frame is retained again
+        graph1.setColor(Color.GREEN);
+        assertNotNull(collector.last().getDirtyRegion());
+        checkResult(env, (BufferedImage) collector.last().getResult());
+    }
+
+    /**
+     * The frames committed within the min frame interval are coalesced into a frame of the latest state.
+     */
+    @Test
+    public void testFrameCoalescing() throws InterruptedException {
+        XYGraph graph1 = createGraph();
+        Plot plot = createPlot(graph1);
+
+        EventCollector collector = new EventCollector();
+        AsyncImageRenderer r = new AsyncImageRenderer(new BufferedImageFactory(BufferedImage.TYPE_INT_RGB, Color.WHITE,
+                new ImagePool(0)));
+        r.setMinFrameInterval(1, TimeUnit.SECONDS);
+        r.addRenderingFinishedListener(collector);
+        RenderEnvironment env = new RenderEnvironment(false);
+        env.addRenderer(r);
+        env.setPlot(plot);
+
+        for (int i = 0; i < 10; i++) {
+            graph1.setColor(new Color(i * 20 + 10, 0, 0));
+        }
+        assertTrue(r.getCoalescedCount() > 0);
+
+        // wait for the delayed frame
+        long deadline = System.currentTimeMillis() + 10000;
+        while (System.currentTimeMillis() < deadline) {
+            synchronized (collector) {
+                if (collector.events.size() > 0 && collector.last().getSN() == 10) {
+                    break;
+                }
+            }
+            Thread.sleep(50);
+        }
+        synchronized (collector) {
+            assertEquals(10, collector.last().getSN());
+            assertTrue(collector.events.size() <= 11 - r.getCoalescedCount());
+            checkResult(env, (BufferedImage) collector.last().getResult());
+        }
+    }
+
+}
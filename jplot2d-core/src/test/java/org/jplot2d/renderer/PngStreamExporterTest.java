@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.renderer;
+
+import org.jplot2d.element.ElementFactory;
+import org.jplot2d.element.Plot;
+import org.jplot2d.env.RenderEnvironment;
+import org.jplot2d.sizing.FixedSizeMode;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test exporting a plot to a png stream, with and without image recycling.
+ *
+ * @author Jingjing Li
+ */
+public class PngStreamExporterTest {
+
+    private static void export(ImageExporter exporter) {
+        Plot plot = ElementFactory.getInstance().createPlot();
+        plot.setSizeMode(new FixedSizeMode(120, 80));
+        RenderEnvironment env = new RenderEnvironment(false);
+        env.setPlot(plot);
+        env.exportPlot(exporter);
+    }
+
+    @Test
+    public void testExport() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PngStreamExporter exporter = new PngStreamExporter(out);
+        assertFalse(exporter.isRecycleImage());
+        export(exporter);
+
+        BufferedImage written = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+        BufferedImage image = exporter.getImage();
+        assertNotNull(image);
+        assertEquals(image.getWidth(), written.getWidth());
+        assertEquals(image.getHeight(), written.getHeight());
+    }
+
+    @Test
+    public void testRecycleImage() throws IOException {
+        ImagePool pool = new ImagePool(64 << 20);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PngStreamExporter exporter = new PngStreamExporter(new BufferedImageFactory(BufferedImage.TYPE_INT_RGB,
+                Color.WHITE, pool), out);
+        exporter.setRecycleImage(true);
+        export(exporter);
+
+        assertNotNull(ImageIO.read(new ByteArrayInputStream(out.toByteArray())));
+        assertNull(exporter.getImage());
+        assertEquals(1, pool.getCount());
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.renderer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Jingjing Li
+ */
+public class RendererSchedulerTest {
+
+    /**
+     * Occupy the single thread of the given scheduler until the returned latch is count down.
+     */
+    private static CountDownLatch block(RendererScheduler scheduler) throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        scheduler.execute(RendererPriority.EXPORT, "blocker", new Runnable() {
+            public void run() {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    // finish
+                }
+            }
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        return release;
+    }
+
+    private static Runnable record(final List<String> order, final String name, final CountDownLatch done) {
+        return new Runnable() {
+            public void run() {
+                order.add(name);
+                done.countDown();
+            }
+        };
+    }
+
+    @Test
+    public void testPriority() throws InterruptedException {
+        RendererScheduler scheduler = new RendererScheduler(1, 16);
+        CountDownLatch release = block(scheduler);
+
+        List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        CountDownLatch done = new CountDownLatch(3);
+        scheduler.execute(RendererPriority.EXPORT, "a", record(order, "export", done));
+        scheduler.execute(RendererPriority.BACKGROUND, "a", record(order, "background", done));
+        scheduler.execute(RendererPriority.INTERACTIVE, "b", record(order, "interactive", done));
+        assertEquals(1, scheduler.getQueuedCount(RendererPriority.EXPORT));
+
+        release.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("interactive", "background", "export"), order);
+        assertEquals(1, scheduler.getFinishedCount(RendererPriority.INTERACTIVE));
+        assertTrue(scheduler.getLatencyPercentile(RendererPriority.INTERACTIVE, 50) >= 0);
+        assertEquals(-1, new RendererScheduler(1, 16).getLatencyPercentile(RendererPriority.EXPORT, 99));
+    }
+
+    @Test
+    public void testFairness() throws InterruptedException {
+        RendererScheduler scheduler = new RendererScheduler(1, 16);
+        CountDownLatch release = block(scheduler);
+
+        List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        CountDownLatch done = new CountDownLatch(5);
+        scheduler.execute(RendererPriority.EXPORT, "a", record(order, "a0", done));
+        scheduler.execute(RendererPriority.EXPORT, "a", record(order, "a1", done));
+        scheduler.execute(RendererPriority.EXPORT, "a", record(order, "a2", done));
+        scheduler.execute(RendererPriority.EXPORT, "b", record(order, "b0", done));
+        scheduler.execute(RendererPriority.EXPORT, "b", record(order, "b1", done));
+
+        release.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("a0", "b0", "a1", "b1", "a2"), order);
+    }
+
+    @Test
+    public void testBackPressure() throws InterruptedException {
+        final RendererScheduler scheduler = new RendererScheduler(1, 1);
+        CountDownLatch release = block(scheduler);
+
+        final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        final CountDownLatch done = new CountDownLatch(2);
+        scheduler.execute(RendererPriority.EXPORT, "a", record(order, "a0", done));
+        // the other classes are not blocked
+        assertEquals(0, scheduler.getQueuedCount(RendererPriority.INTERACTIVE));
+
+        Thread submitter = new Thread() {
+            public void run() {
+                scheduler.execute(RendererPriority.EXPORT, "a", record(order, "a1", done));
+            }
+        };
+        submitter.start();
+        submitter.join(200);
+        assertTrue(submitter.isAlive());
+        assertEquals(1, scheduler.getQueuedCount(RendererPriority.EXPORT));
+
+        release.countDown();
+        submitter.join(10000);
+        assertFalse(submitter.isAlive());
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("a0", "a1"), order);
+    }
+
+}
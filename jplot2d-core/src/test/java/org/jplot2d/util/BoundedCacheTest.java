@@ -0,0 +1,160 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.util;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * @author Jingjing Li
+ */
+public class BoundedCacheTest {
+
+	private static final BoundedCache.Weigher<byte[]> LENGTH = new BoundedCache.Weigher<byte[]>() {
+		public long weigh(byte[] value) {
+			return value.length;
+		}
+	};
+
+	private static Callable<byte[]> loader(final int size, final AtomicInteger counter) {
+		return new Callable<byte[]>() {
+			public byte[] call() {
+				counter.incrementAndGet();
+				return new byte[size];
+			}
+		};
+	}
+
+	@Test
+	public void testEvictLeastRecentlyUsed() {
+		BoundedCache<String, byte[]> cache = new BoundedCache<String, byte[]>(10, LENGTH);
+		AtomicInteger counter = new AtomicInteger();
+		byte[] a = cache.get("a", loader(4, counter));
+		cache.get("b", loader(4, counter));
+		// a is used after b
+		assertSame(a, cache.get("a", loader(4, counter)));
+		assertEquals(8, cache.getSize());
+
+		cache.get("c", loader(4, counter));
+		assertEquals(8, cache.getSize());
+		assertEquals(2, cache.getCount());
+		assertEquals(1, cache.getEvictionCount());
+		assertSame(a, cache.get("a", loader(4, counter)));
+		assertEquals(3, counter.get());
+		// b has been evicted
+		cache.get("b", loader(4, counter));
+		assertEquals(4, counter.get());
+		assertEquals(2, cache.getHitCount());
+		assertEquals(4, cache.getMissCount());
+
+		// a value larger than the max size is not kept, and does not evict other values
+		byte[] big = cache.get("d", loader(20, counter));
+		assertEquals(20, big.length);
+		assertEquals(8, cache.getSize());
+		assertEquals(2, cache.getCount());
+		assertEquals(2, cache.getEvictionCount());
+		assertSame(a, cache.get("a", loader(4, counter)));
+		assertEquals(5, counter.get());
+
+		cache.get("a", loader(4, counter));
+		cache.get("b", loader(4, counter));
+		cache.setMaxSize(5);
+		assertEquals(4, cache.getSize());
+		cache.clear();
+		assertEquals(0, cache.getSize());
+		assertEquals(0, cache.getCount());
+	}
+
+	@Test
+	public void testLoaderException() {
+		BoundedCache<String, byte[]> cache = new BoundedCache<String, byte[]>(10, LENGTH);
+		try {
+			cache.get("a", new Callable<byte[]>() {
+				public byte[] call() {
+					throw new IllegalArgumentException("bad");
+				}
+			});
+			fail("IllegalArgumentException should be thrown");
+		} catch (IllegalArgumentException e) {
+			assertEquals("bad", e.getMessage());
+		}
+		assertEquals(0, cache.getCount());
+
+		AtomicInteger counter = new AtomicInteger();
+		cache.get("a", loader(4, counter));
+		assertEquals(1, counter.get());
+	}
+
+	@Test
+	public void testComputeOnce() throws Exception {
+		final BoundedCache<String, byte[]> cache = new BoundedCache<String, byte[]>(100, LENGTH);
+		final AtomicInteger counter = new AtomicInteger();
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final Callable<byte[]> slowLoader = new Callable<byte[]>() {
+			public byte[] call() throws Exception {
+				counter.incrementAndGet();
+				started.countDown();
+				release.await();
+				return new byte[4];
+			}
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Future<byte[]> first = executor.submit(new Callable<byte[]>() {
+				public byte[] call() {
+					return cache.get("a", slowLoader);
+				}
+			});
+			assertTrue(started.await(10, TimeUnit.SECONDS));
+			Future<byte[]> second = executor.submit(new Callable<byte[]>() {
+				public byte[] call() {
+					return cache.get("a", slowLoader);
+				}
+			});
+
+			// another key is not blocked by the computing of "a"
+			Future<byte[]> other = executor.submit(new Callable<byte[]>() {
+				public byte[] call() {
+					return cache.get("b", loader(2, new AtomicInteger()));
+				}
+			});
+			assertEquals(2, other.get(10, TimeUnit.SECONDS).length);
+			assertFalse(first.isDone());
+
+			release.countDown();
+			assertSame(first.get(10, TimeUnit.SECONDS), second.get(10, TimeUnit.SECONDS));
+			assertEquals(1, counter.get());
+			assertEquals(6, cache.getSize());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+}
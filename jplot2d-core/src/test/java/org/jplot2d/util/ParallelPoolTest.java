@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 Jingjing Li.
+ *
+ * This file is part of jplot2d.
+ *
+ * jplot2d is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * jplot2d is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with jplot2d. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jplot2d.util;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import org.junit.Test;
+
+/**
+ * @author Jingjing Li
+ */
+public class ParallelPoolTest {
+
+	private static class SumTask extends RecursiveTask<Long> {
+
+		private final int from, to;
+
+		private SumTask(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Long compute() {
+			if (to - from <= 100) {
+				long sum = 0;
+				for (int i = from; i < to; i++) {
+					sum += i;
+				}
+				return sum;
+			}
+			int mid = (from + to) >>> 1;
+			SumTask left = new SumTask(from, mid);
+			left.fork();
+			return new SumTask(mid, to).compute() + left.join();
+		}
+	}
+
+	@Test
+	public void testInvoke() {
+		ParallelPool pool = new ParallelPool(2);
+		assertEquals(2, pool.getParallelism());
+		assertEquals(Long.valueOf(499500), pool.invoke(new SumTask(0, 1000)));
+	}
+
+	@Test
+	public void testChangeParallelism() {
+		ParallelPool pool = new ParallelPool(2);
+		ForkJoinPool old = pool.getPool();
+		assertSame(old, pool.getPool());
+
+		pool.setParallelism(3);
+		assertEquals(3, pool.getParallelism());
+		ForkJoinPool p = pool.getPool();
+		assertNotSame(old, p);
+		assertEquals(3, p.getParallelism());
+		assertTrue(old.isShutdown());
+
+		ForkJoinTask<Long> task = new SumTask(0, 1000);
+		assertSame(p, pool.execute(task));
+		assertEquals(Long.valueOf(499500), task.join());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidParallelism() {
+		new ParallelPool(0);
+	}
+
+}
@@ -19,8 +19,7 @@
 package org.jplot2d.swing.demo;
 
 import org.jplot2d.element.*;
-import org.jplot2d.data.ArrayPair;
-import org.jplot2d.data.XYGraphData;
+import org.jplot2d.data.XYDataSeries;
 import org.jplot2d.renderer.AsyncImageRenderer;
 import org.jplot2d.renderer.AsyncImageRenderer.RendererCancelPolicy;
 import org.jplot2d.sizing.FillContainerSizeMode;
@@ -65,10 +64,12 @@ public class FastUpdate {
 		yaxis.getTickManager().setRange(new Range.Double(0, n));
 		plot.addYAxis(yaxis);
 
-		ArrayPair ap0 = new ArrayPair(new double[] { 0 }, new double[] { 0 });
-		ArrayPair ap1 = new ArrayPair(new double[] { 0 }, new double[] { n });
-		XYGraph graph0 = ElementFactory.getInstance().createXYGraph(ap0, "lineA");
-		XYGraph graph1 = ElementFactory.getInstance().createXYGraph(ap1, "lineB");
+		XYDataSeries series0 = new XYDataSeries();
+		XYDataSeries series1 = new XYDataSeries();
+		series0.append(0, 0);
+		series1.append(0, n);
+		XYGraph graph0 = ElementFactory.getInstance().createXYGraph(series0.getGraphData(), "lineA");
+		XYGraph graph1 = ElementFactory.getInstance().createXYGraph(series1.getGraphData(), "lineB");
 		graph0.setLineVisible(false);
 		graph0.setSymbolVisible(true);
 		graph0.setSymbolShape(SymbolShape.SQUARE);
@@ -85,18 +86,10 @@ public class FastUpdate {
 		plot.addLayer(layer0, xaxis.getTickManager().getAxisTransform(), yaxis.getTickManager().getAxisTransform());
 
 		for (int i = 0; i < n; i++) {
-			double[] xa = new double[1];
-			double[] ya = new double[1];
-
-			xa[0] = i;
-			ya[0] = i;
-			ap0 = ap0.append(xa, ya, 1);
-			graph0.setData(new XYGraphData(ap0));
-			xa[0] = i;
-			ya[0] = n - i - 1;
-			ap1 = ap1.append(xa, ya, 1);
-			graph1.setData(new XYGraphData(ap1));
-
+			series0.append(i, i);
+			graph0.setData(series0.getGraphData());
+			series1.append(i, n - i - 1);
+			graph1.setData(series1.getGraphData());
 		}
 	}
 }
@@ -38,6 +38,7 @@ import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.event.HierarchyEvent;
 import java.awt.event.HierarchyListener;
 import java.awt.image.BufferedImage;
@@ -294,8 +295,19 @@ public class JPlot2DComponent extends JComponent implements HierarchyListener, R
             return;
         }
 
+        BufferedImage oldImage = image;
         image = (BufferedImage) event.getResult();
-        repaint();
+
+        // only repaint the dirty region, if the new image replaces an image of the same size
+        Rectangle dirty = event.getDirtyRegion();
+        if (dirty != null && oldImage != null && oldImage.getWidth() == image.getWidth()
+                && oldImage.getHeight() == image.getHeight()) {
+            if (!dirty.isEmpty()) {
+                repaint(xoff + dirty.x, yoff + dirty.y, dirty.width, dirty.height);
+            }
+        } else {
+            repaint();
+        }
     }
 
     /**
@@ -48,6 +48,7 @@ import org.jplot2d.swt.interaction.MenuHandler;
 
 import java.awt.Color;
 import java.awt.Dimension;
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.awt.image.DirectColorModel;
 import java.awt.image.IndexColorModel;
@@ -161,9 +162,25 @@ public class JPlot2DComposite extends Composite implements ControlListener, Disp
             return;
         }
 
-        bi = (BufferedImage) event.getResult();
-
-        getDisplay().asyncExec(redrawRunner);
+        final BufferedImage result = (BufferedImage) event.getResult();
+        final Rectangle dirty = event.getDirtyRegion();
+        bi = result;
+
+        if (dirty == null) {
+            getDisplay().asyncExec(redrawRunner);
+        } else if (!dirty.isEmpty()) {
+            // only redraw the dirty region, if the new image replaces an image of the same size
+            getDisplay().asyncExec(new Runnable() {
+                public void run() {
+                    if (image != null && image.getBounds().width == result.getWidth()
+                            && image.getBounds().height == result.getHeight()) {
+                        redraw(xoff + dirty.x, yoff + dirty.y, dirty.width, dirty.height, false);
+                    } else {
+                        redraw();
+                    }
+                }
+            });
+        }
     }
 
     /**